@@ -0,0 +1,57 @@
+package com.aquainsight.application.config;
+
+import com.aquainsight.application.manager.EventExecutor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.task.TaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.scheduling.annotation.AsyncAnnotationBeanPostProcessor;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * 异步事件处理配置
+ * 每种事件的处理器通过 {@code @Async("线程池名称")} 指定各自的有界线程池
+ */
+@Configuration
+@EnableAsync
+public class AsyncEventConfig {
+
+    public static final String ALERT_CREATED_EXECUTOR = "alertCreatedEventExecutor";
+    public static final String ALERT_RECOVERED_EXECUTOR = "alertRecoveredEventExecutor";
+
+    @Bean(name = ALERT_CREATED_EXECUTOR, destroyMethod = "shutdown")
+    public EventExecutor alertCreatedEventExecutor(
+            @Value("${aquainsight.event.alert-created.threads:4}") int threads,
+            @Value("${aquainsight.event.alert-created.queue-capacity:1000}") int queueCapacity,
+            @Value("${aquainsight.event.alert-created.rejection-policy:CALLER_RUNS}") EventExecutor.RejectionPolicy policy,
+            @Value("${aquainsight.event.alert-created.block-timeout-millis:1000}") long blockTimeoutMillis,
+            @Value("${aquainsight.event.shutdown-timeout-millis:30000}") long shutdownTimeoutMillis) {
+        return new EventExecutor("event-alert-created", threads, queueCapacity, policy,
+                blockTimeoutMillis, shutdownTimeoutMillis);
+    }
+
+    @Bean(name = ALERT_RECOVERED_EXECUTOR, destroyMethod = "shutdown")
+    public EventExecutor alertRecoveredEventExecutor(
+            @Value("${aquainsight.event.alert-recovered.threads:2}") int threads,
+            @Value("${aquainsight.event.alert-recovered.queue-capacity:1000}") int queueCapacity,
+            @Value("${aquainsight.event.alert-recovered.rejection-policy:CALLER_RUNS}") EventExecutor.RejectionPolicy policy,
+            @Value("${aquainsight.event.alert-recovered.block-timeout-millis:1000}") long blockTimeoutMillis,
+            @Value("${aquainsight.event.shutdown-timeout-millis:30000}") long shutdownTimeoutMillis) {
+        return new EventExecutor("event-alert-recovered", threads, queueCapacity, policy,
+                blockTimeoutMillis, shutdownTimeoutMillis);
+    }
+
+    /**
+     * 定义了Executor类型的Bean后Spring Boot不再自动配置默认线程池，
+     * 这里按默认配置补回，供未指定线程池的异步调用和Web异步请求使用
+     */
+    @Lazy
+    @Bean(name = {TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME,
+            AsyncAnnotationBeanPostProcessor.DEFAULT_TASK_EXECUTOR_BEAN_NAME})
+    public ThreadPoolTaskExecutor applicationTaskExecutor(TaskExecutorBuilder builder) {
+        return builder.build();
+    }
+}
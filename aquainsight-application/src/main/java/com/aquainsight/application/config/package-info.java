@@ -0,0 +1,5 @@
+/**
+ * 应用配置包
+ * 存放应用层的线程池等配置
+ */
+package com.aquainsight.application.config;
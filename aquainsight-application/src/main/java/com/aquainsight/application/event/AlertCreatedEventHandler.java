@@ -1,18 +1,22 @@
 package com.aquainsight.application.event;
 
+import com.aquainsight.application.config.AsyncEventConfig;
 import com.aquainsight.domain.alert.entity.AlertNotifyLog;
 import com.aquainsight.domain.alert.entity.AlertRecord;
 import com.aquainsight.domain.alert.event.AlertCreatedEvent;
-import com.aquainsight.domain.alert.service.AlertNotifyLogDomainService;
 import com.aquainsight.domain.alert.service.AlertRecordDomainService;
+import com.aquainsight.domain.alert.service.NotificationDispatcher;
+import com.aquainsight.domain.alert.types.AlertNotifyPlan;
 import com.aquainsight.domain.alert.types.NotifyType;
 import com.aquainsight.domain.user.entity.User;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -24,18 +28,16 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AlertCreatedEventHandler {
 
-    private final AlertNotifyLogDomainService alertNotifyLogDomainService;
     private final AlertRecordDomainService alertRecordDomainService;
-
-    // TODO: 注入通知服务（短信、邮件、钉钉等）
-    // private final AlertNotificationService notificationService;
+    private final NotificationDispatcher notificationDispatcher;
 
     /**
      * 处理告警生成事件
-     * 异步发送告警通知并记录通知日志
+     * 发布事件的事务提交后，在该事件的专用线程池中发送告警通知并记录通知日志；
+     * 不在事务中发布时立即提交到线程池
      */
-    @Async
-    @EventListener
+    @Async(AsyncEventConfig.ALERT_CREATED_EXECUTOR)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
     public void handleAlertCreated(AlertCreatedEvent event) {
         AlertRecord alertRecord = event.getAlertRecord();
 
@@ -45,8 +47,9 @@ public class AlertCreatedEventHandler {
                 alertRecord.getTargetName());
 
         try {
-            // 1. 获取告警接收人
-            List<User> recipients = alertRecordDomainService.getAlertRecipients(alertRecord);
+            // 1. 获取告警接收人、通知方式和通知内容，规则只加载一次
+            AlertNotifyPlan notifyPlan = alertRecordDomainService.getNotifyPlan(alertRecord);
+            List<User> recipients = notifyPlan.getRecipients();
 
             if (recipients == null || recipients.isEmpty()) {
                 log.warn("告警ID: {} 没有配置接收人，跳过通知发送", alertRecord.getId());
@@ -54,7 +57,7 @@ public class AlertCreatedEventHandler {
             }
 
             // 2. 获取通知方式
-            List<NotifyType> notifyTypes = alertRecordDomainService.getNotifyTypes(alertRecord);
+            List<NotifyType> notifyTypes = notifyPlan.getNotifyTypes();
 
             if (notifyTypes == null || notifyTypes.isEmpty()) {
                 log.warn("告警ID: {} 没有配置通知方式，跳过通知发送", alertRecord.getId());
@@ -62,9 +65,10 @@ public class AlertCreatedEventHandler {
             }
 
             // 3. 获取格式化后的告警消息
-            String alertMessage = alertRecordDomainService.getFormattedAlertMessage(alertRecord);
+            String alertMessage = notifyPlan.getMessage();
 
-            // 4. 为每个通知方式和每个接收人创建通知日志并发送
+            // 4. 为每个通知方式和每个接收人生成通知日志
+            List<AlertNotifyLog> notifyLogs = new ArrayList<>(notifyTypes.size() * recipients.size());
             for (NotifyType notifyType : notifyTypes) {
                 for (User user : recipients) {
                     // 根据通知类型获取通知目标（手机号/邮箱/用户ID等）
@@ -76,36 +80,21 @@ public class AlertCreatedEventHandler {
                         continue;
                     }
 
-                    // 创建通知日志
-                    AlertNotifyLog notifyLog = alertNotifyLogDomainService.createNotifyLog(
-                            alertRecord.getId(),
-                            notifyType,
-                            notifyTarget,
-                            user.getId(),
-                            user.getName(),
-                            alertMessage
-                    );
-
-                    // 发送通知
-                    boolean sent = sendNotification(notifyLog, alertRecord);
-
-                    // 更新通知日志状态
-                    if (sent) {
-                        alertNotifyLogDomainService.markSuccess(notifyLog.getId());
-                        log.info("告警通知发送成功，告警ID: {}, 通知方式: {}, 接收人: {}",
-                                alertRecord.getId(), notifyType.getDescription(), user.getName());
-                    } else {
-                        alertNotifyLogDomainService.markFailed(notifyLog.getId(), "发送失败");
-                        log.warn("告警通知发送失败，告警ID: {}, 通知方式: {}, 接收人: {}",
-                                alertRecord.getId(), notifyType.getDescription(), user.getName());
-                    }
+                    notifyLogs.add(AlertNotifyLog.create(alertRecord.getId(), notifyType, notifyTarget,
+                            user.getId(), user.getName(), alertMessage));
                 }
             }
 
-            // 5. 更新告警记录的通知状态
-            if (alertNotifyLogDomainService.isAllNotifySuccess(alertRecord.getId())) {
+            // 5. 按渠道批量发送，通知日志一次批量写入
+            List<AlertNotifyLog> dispatchedLogs = notificationDispatcher.dispatch(notifyLogs);
+            long successCount = dispatchedLogs.stream().filter(AlertNotifyLog::isSuccess).count();
+            log.info("告警通知发送完成，告警ID: {}, 成功: {}, 失败: {}",
+                    alertRecord.getId(), successCount, dispatchedLogs.size() - successCount);
+
+            // 6. 更新告警记录的通知状态
+            if (!dispatchedLogs.isEmpty() && successCount == dispatchedLogs.size()) {
                 alertRecordDomainService.markNotifySuccess(alertRecord.getId());
-            } else if (alertNotifyLogDomainService.hasNotifyFailed(alertRecord.getId())) {
+            } else if (successCount < dispatchedLogs.size()) {
                 alertRecordDomainService.markNotifyFailed(alertRecord.getId());
             }
 
@@ -114,34 +103,4 @@ public class AlertCreatedEventHandler {
             alertRecordDomainService.markNotifyFailed(alertRecord.getId());
         }
     }
-
-    /**
-     * 发送通知
-     * TODO: 集成实际的通知服务
-     */
-    private boolean sendNotification(AlertNotifyLog notifyLog, AlertRecord alertRecord) {
-        try {
-            // TODO: 根据通知类型调用不同的通知服务
-            // if (notifyLog.isSms()) {
-            //     return smsNotificationService.send(notifyLog.getNotifyTarget(), notifyLog.getNotifyContent());
-            // } else if (notifyLog.isEmail()) {
-            //     return emailNotificationService.send(notifyLog.getNotifyTarget(), notifyLog.getNotifyContent());
-            // } else if (notifyLog.isPush()) {
-            //     return pushNotificationService.send(notifyLog.getNotifyTarget(), notifyLog.getNotifyContent());
-            // } else if (notifyLog.isWechat()) {
-            //     return wechatNotificationService.send(notifyLog.getNotifyTarget(), notifyLog.getNotifyContent());
-            // }
-
-            // 模拟发送成功
-            log.info("【模拟】发送{}通知到: {}, 内容: {}",
-                    notifyLog.getNotifyType().getDescription(),
-                    notifyLog.getNotifyTarget(),
-                    notifyLog.getNotifyContent());
-            return true;
-
-        } catch (Exception e) {
-            log.error("发送通知失败", e);
-            return false;
-        }
-    }
 }
@@ -1,16 +1,19 @@
 package com.aquainsight.application.event;
 
+import com.aquainsight.application.config.AsyncEventConfig;
 import com.aquainsight.domain.alert.entity.AlertNotifyLog;
 import com.aquainsight.domain.alert.entity.AlertRecord;
 import com.aquainsight.domain.alert.event.AlertRecoveredEvent;
 import com.aquainsight.domain.alert.service.AlertNotifyLogDomainService;
-import com.aquainsight.domain.alert.types.NotifyType;
+import com.aquainsight.domain.alert.service.NotificationDispatcher;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -23,16 +26,15 @@ import java.util.List;
 public class AlertRecoveredEventHandler {
 
     private final AlertNotifyLogDomainService alertNotifyLogDomainService;
-
-    // TODO: 注入通知服务（短信、邮件、钉钉等）
-    // private final AlertNotificationService notificationService;
+    private final NotificationDispatcher notificationDispatcher;
 
     /**
      * 处理告警恢复事件
-     * 异步发送恢复通知并记录通知日志
+     * 发布事件的事务提交后，在该事件的专用线程池中发送恢复通知并记录通知日志；
+     * 不在事务中发布时立即提交到线程池
      */
-    @Async
-    @EventListener
+    @Async(AsyncEventConfig.ALERT_RECOVERED_EXECUTOR)
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
     public void handleAlertRecovered(AlertRecoveredEvent event) {
         AlertRecord alertRecord = event.getAlertRecord();
 
@@ -50,70 +52,24 @@ public class AlertRecoveredEventHandler {
                 return;
             }
 
-            // 2. 为每个原始接收人发送恢复通知
+            // 2. 为每个成功接收过告警的人生成恢复通知，按渠道批量发送并一次批量写入通知日志
+            String recoveryMessage = buildRecoveryMessage(alertRecord);
+            List<AlertNotifyLog> recoveryLogs = new ArrayList<>();
             for (AlertNotifyLog originalLog : originalNotifyLogs) {
-                // 只向成功接收过告警的人发送恢复通知
-                if (!originalLog.isSuccess()) {
-                    continue;
-                }
-
-                // 创建恢复通知日志
-                AlertNotifyLog recoveryLog = alertNotifyLogDomainService.createNotifyLog(
-                        alertRecord.getId(),
-                        originalLog.getNotifyType(),
-                        originalLog.getNotifyTarget(),
-                        originalLog.getNotifyUserId(),
-                        originalLog.getNotifyUserName(),
-                        buildRecoveryMessage(alertRecord)
-                );
-
-                // 发送恢复通知
-                boolean sent = sendRecoveryNotification(recoveryLog, alertRecord);
-
-                // 更新通知日志状态
-                if (sent) {
-                    alertNotifyLogDomainService.markSuccess(recoveryLog.getId());
-                    log.info("告警恢复通知发送成功，告警ID: {}, 接收人: {}",
-                            alertRecord.getId(), recoveryLog.getNotifyTarget());
-                } else {
-                    alertNotifyLogDomainService.markFailed(recoveryLog.getId(), "发送失败");
-                    log.warn("告警恢复通知发送失败，告警ID: {}, 接收人: {}",
-                            alertRecord.getId(), recoveryLog.getNotifyTarget());
+                if (originalLog.isSuccess()) {
+                    recoveryLogs.add(AlertNotifyLog.create(alertRecord.getId(), originalLog.getNotifyType(),
+                            originalLog.getNotifyTarget(), originalLog.getNotifyUserId(),
+                            originalLog.getNotifyUserName(), recoveryMessage));
                 }
             }
 
-        } catch (Exception e) {
-            log.error("处理告警恢复事件失败，告警ID: {}", alertRecord.getId(), e);
-        }
-    }
-
-    /**
-     * 发送恢复通知
-     * TODO: 集成实际的通知服务
-     */
-    private boolean sendRecoveryNotification(AlertNotifyLog notifyLog, AlertRecord alertRecord) {
-        try {
-            // TODO: 根据通知类型调用不同的通知服务
-            // if (notifyLog.isSms()) {
-            //     return smsNotificationService.send(notifyLog.getNotifyTarget(), notifyLog.getNotifyContent());
-            // } else if (notifyLog.isEmail()) {
-            //     return emailNotificationService.send(notifyLog.getNotifyTarget(), notifyLog.getNotifyContent());
-            // } else if (notifyLog.isPush()) {
-            //     return pushNotificationService.send(notifyLog.getNotifyTarget(), notifyLog.getNotifyContent());
-            // } else if (notifyLog.isWechat()) {
-            //     return wechatNotificationService.send(notifyLog.getNotifyTarget(), notifyLog.getNotifyContent());
-            // }
-
-            // 模拟发送成功
-            log.info("【模拟】发送{}恢复通知到: {}, 内容: {}",
-                    notifyLog.getNotifyType().getDescription(),
-                    notifyLog.getNotifyTarget(),
-                    notifyLog.getNotifyContent());
-            return true;
+            List<AlertNotifyLog> dispatchedLogs = notificationDispatcher.dispatch(recoveryLogs);
+            long successCount = dispatchedLogs.stream().filter(AlertNotifyLog::isSuccess).count();
+            log.info("告警恢复通知发送完成，告警ID: {}, 成功: {}, 失败: {}",
+                    alertRecord.getId(), successCount, dispatchedLogs.size() - successCount);
 
         } catch (Exception e) {
-            log.error("发送恢复通知失败", e);
-            return false;
+            log.error("处理告警恢复事件失败，告警ID: {}", alertRecord.getId(), e);
         }
     }
 
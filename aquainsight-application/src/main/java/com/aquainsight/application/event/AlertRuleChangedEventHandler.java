@@ -0,0 +1,30 @@
+package com.aquainsight.application.event;
+
+import com.aquainsight.domain.alert.event.AlertRuleChangedEvent;
+import com.aquainsight.domain.alert.service.CompiledRuleCache;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 告警规则变更事件处理器
+ * 在事务提交后失效编译规则缓存，避免并发加载缓存提交前的规则
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AlertRuleChangedEventHandler {
+
+    private final CompiledRuleCache compiledRuleCache;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleAlertRuleChanged(AlertRuleChangedEvent event) {
+        try {
+            compiledRuleCache.invalidate();
+        } catch (Exception e) {
+            log.error("处理告警规则变更事件失败，规则ID: {}", event.getRuleId(), e);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.aquainsight.application.event;
+
+import com.aquainsight.domain.organization.event.DepartmentChangedEvent;
+import com.aquainsight.domain.organization.service.OrganizationIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 部门变更事件处理器
+ * 在事务提交后增量更新组织索引中的部门树
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DepartmentChangedEventHandler {
+
+    private final OrganizationIndex organizationIndex;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleDepartmentChanged(DepartmentChangedEvent event) {
+        try {
+            organizationIndex.onDepartmentChanged(event.getDepartmentId(), event.getParentId(), event.isDeleted());
+        } catch (Exception e) {
+            log.error("处理部门变更事件失败，部门ID: {}", event.getDepartmentId(), e);
+        }
+    }
+}
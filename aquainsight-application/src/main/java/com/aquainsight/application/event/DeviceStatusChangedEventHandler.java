@@ -0,0 +1,41 @@
+package com.aquainsight.application.event;
+
+import com.aquainsight.application.manager.AlertStreamingManager;
+import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.service.impl.DeviceMetricCollector;
+import com.aquainsight.domain.monitoring.event.DeviceStatusChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 设备状态变更事件处理器
+ * 更新设备状态类指标的最新值并转交告警流式评估，使设备离线告警不必等待定时扫描
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DeviceStatusChangedEventHandler {
+
+    private final DeviceMetricCollector deviceMetricCollector;
+    private final AlertStreamingManager alertStreamingManager;
+
+    @EventListener
+    public void handleDeviceStatusChanged(DeviceStatusChangedEvent event) {
+        try {
+            List<Metric> metrics = new ArrayList<>(event.getStatusByDeviceId().size() * 3);
+            for (Map.Entry<Integer, Integer> entry : event.getStatusByDeviceId().entrySet()) {
+                metrics.addAll(deviceMetricCollector.recordStatus(entry.getKey(), entry.getValue(),
+                        event.getChangeTime()));
+            }
+            alertStreamingManager.publishAll(metrics);
+        } catch (Exception e) {
+            log.error("处理设备状态变更事件失败，设备数: {}", event.getStatusByDeviceId().size(), e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.aquainsight.application.event;
+
+import com.aquainsight.domain.organization.service.OrganizationIndex;
+import com.aquainsight.domain.user.event.UserDepartmentChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * 用户-部门关系变更事件处理器
+ * 在事务提交后增量更新组织索引中受影响部门和用户的成员关系
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserDepartmentChangedEventHandler {
+
+    private final OrganizationIndex organizationIndex;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void handleUserDepartmentChanged(UserDepartmentChangedEvent event) {
+        try {
+            organizationIndex.onMembersChanged(event.getDepartmentIds(), event.getUserIds());
+        } catch (Exception e) {
+            log.error("处理用户-部门关系变更事件失败，部门: {}, 用户: {}",
+                    event.getDepartmentIds(), event.getUserIds(), e);
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package com.aquainsight.application.manager;
+
+import com.aquainsight.application.manager.dto.RuleEvaluationStatsDTO;
+import com.aquainsight.domain.alert.types.CompiledRule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * 告警规则评估编排
+ * 将规则分发到有界线程池并行评估，单条规则超时后取消，不再拖慢整个评估周期
+ */
+@Slf4j
+@Component
+public class AlertRuleEvaluationManager {
+
+    private final int parallelism;
+    private final long ruleTimeoutMillis;
+    private final int queueCapacity;
+
+    private final AtomicLong totalTimedOutRules = new AtomicLong();
+
+    private ThreadPoolExecutor executor;
+    private ScheduledExecutorService watchdog;
+
+    private volatile RuleEvaluationStatsDTO lastCycleStats;
+
+    public AlertRuleEvaluationManager(
+            @Value("${aquainsight.alert.evaluation.parallelism:4}") int parallelism,
+            @Value("${aquainsight.alert.evaluation.rule-timeout-seconds:60}") long ruleTimeoutSeconds,
+            @Value("${aquainsight.alert.evaluation.queue-capacity:1000}") int queueCapacity) {
+        this.parallelism = Math.max(1, parallelism);
+        this.ruleTimeoutMillis = TimeUnit.SECONDS.toMillis(ruleTimeoutSeconds);
+        this.queueCapacity = Math.max(1, queueCapacity);
+    }
+
+    @PostConstruct
+    public void init() {
+        // 队列满时由调用线程执行，形成背压而不是丢弃规则
+        executor = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), namedThreadFactory("alert-eval-"),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        watchdog = Executors.newSingleThreadScheduledExecutor(namedThreadFactory("alert-eval-watchdog-"));
+    }
+
+    @PreDestroy
+    public void destroy() {
+        executor.shutdownNow();
+        watchdog.shutdownNow();
+    }
+
+    /**
+     * 并行评估所有规则并汇总结果
+     * 单条规则失败或超时不影响其他规则
+     *
+     * @param rules 待评估的规则
+     * @param ruleEvaluator 单条规则的评估逻辑
+     * @return 所有成功评估的规则产生的结果
+     */
+    public <T> List<T> evaluateAll(List<CompiledRule> rules, Function<CompiledRule, List<T>> ruleEvaluator) {
+        LocalDateTime startTime = LocalDateTime.now();
+        long cycleStart = System.currentTimeMillis();
+
+        List<RuleTask<T>> tasks = new ArrayList<>(rules.size());
+        for (CompiledRule rule : rules) {
+            RuleTask<T> task = new RuleTask<>(rule, ruleEvaluator);
+            tasks.add(task);
+            executor.execute(task);
+        }
+
+        List<T> results = new ArrayList<>();
+        Map<Integer, Long> ruleLatencyMillis = new LinkedHashMap<>();
+        int succeeded = 0;
+        int failed = 0;
+        int timedOut = 0;
+        for (RuleTask<T> task : tasks) {
+            CompiledRule rule = task.rule;
+            try {
+                results.addAll(task.get());
+                succeeded++;
+            } catch (CancellationException e) {
+                timedOut++;
+                log.warn("评估规则超时，已取消。规则ID: {}, 规则名称: {}, 超时时间: {} ms",
+                        rule.getRuleId(), rule.getRule().getRuleName(), ruleTimeoutMillis);
+            } catch (ExecutionException e) {
+                failed++;
+                log.error("评估规则失败，规则ID: {}, 规则名称: {}",
+                        rule.getRuleId(), rule.getRule().getRuleName(), e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                log.warn("规则评估周期被中断，剩余规则结果将被忽略");
+                break;
+            }
+            ruleLatencyMillis.put(rule.getRuleId(), task.getLatencyMillis());
+        }
+        totalTimedOutRules.addAndGet(timedOut);
+
+        Map.Entry<Integer, Long> slowest = ruleLatencyMillis.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElse(null);
+        lastCycleStats = RuleEvaluationStatsDTO.builder()
+                .startTime(startTime)
+                .elapsedMillis(System.currentTimeMillis() - cycleStart)
+                .parallelism(parallelism)
+                .ruleTimeoutMillis(ruleTimeoutMillis)
+                .totalRules(rules.size())
+                .succeededRules(succeeded)
+                .failedRules(failed)
+                .timedOutRules(timedOut)
+                .totalTimedOutRules(totalTimedOutRules.get())
+                .slowestRuleId(slowest != null ? slowest.getKey() : null)
+                .slowestRuleLatencyMillis(slowest != null ? slowest.getValue() : null)
+                .ruleLatencyMillis(ruleLatencyMillis)
+                .build();
+
+        log.info("规则并行评估完成，规则数: {}, 成功: {}, 失败: {}, 超时: {}, 耗时: {} ms",
+                rules.size(), succeeded, failed, timedOut, lastCycleStats.getElapsedMillis());
+        return results;
+    }
+
+    /**
+     * 获取最近一个评估周期的统计
+     */
+    public RuleEvaluationStatsDTO getLastCycleStats() {
+        return lastCycleStats;
+    }
+
+    private static ThreadFactory namedThreadFactory(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * 单条规则的评估任务
+     * 开始执行时登记超时取消，超时时间从规则真正开始执行时计算，排队时间不计入
+     */
+    private final class RuleTask<T> extends FutureTask<List<T>> {
+
+        private final CompiledRule rule;
+        private volatile long startMillis;
+        private volatile long endMillis;
+
+        private RuleTask(CompiledRule rule, Function<CompiledRule, List<T>> ruleEvaluator) {
+            super(() -> ruleEvaluator.apply(rule));
+            this.rule = rule;
+        }
+
+        @Override
+        public void run() {
+            startMillis = System.currentTimeMillis();
+            ScheduledFuture<?> timeout = watchdog.schedule(() -> cancel(true),
+                    ruleTimeoutMillis, TimeUnit.MILLISECONDS);
+            try {
+                super.run();
+            } finally {
+                timeout.cancel(false);
+                endMillis = System.currentTimeMillis();
+            }
+        }
+
+        private long getLatencyMillis() {
+            if (startMillis == 0) {
+                return 0;
+            }
+            long end = endMillis != 0 ? endMillis : System.currentTimeMillis();
+            return end - startMillis;
+        }
+    }
+}
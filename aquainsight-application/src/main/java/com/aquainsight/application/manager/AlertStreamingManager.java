@@ -0,0 +1,228 @@
+package com.aquainsight.application.manager;
+
+import com.aquainsight.application.manager.dto.StreamingEvaluationStatsDTO;
+import com.aquainsight.application.service.AlertApplicationService;
+import com.aquainsight.domain.alert.entity.AlertRecord;
+import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.service.AlertRuleDomainService;
+import com.aquainsight.domain.alert.service.StreamingRuleEvaluator;
+import com.aquainsight.domain.alert.types.CompiledRule;
+import com.aquainsight.domain.alert.types.RuleEvaluationResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 告警流式评估编排
+ * 指标观测值推送到有界队列，按目标ID分区由工作线程批量评估，同一目标的观测值串行处理；
+ * 队列已满时丢弃观测值，由定时扫描兜底
+ */
+@Slf4j
+@Component
+public class AlertStreamingManager {
+
+    private final StreamingRuleEvaluator streamingRuleEvaluator;
+    private final AlertRuleDomainService alertRuleDomainService;
+    private final AlertApplicationService alertApplicationService;
+    private final boolean enabled;
+    private final int workerCount;
+    private final int queueCapacity;
+    private final int batchSize;
+
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong processedCount = new AtomicLong();
+    private final AtomicLong alertCount = new AtomicLong();
+    private final AtomicLong maxLatencyMillis = new AtomicLong();
+    private volatile long lastBatchMaxLatencyMillis;
+
+    private List<BlockingQueue<Observation>> partitions;
+    private List<Thread> workers;
+    private volatile boolean running;
+
+    public AlertStreamingManager(StreamingRuleEvaluator streamingRuleEvaluator,
+                                 AlertRuleDomainService alertRuleDomainService,
+                                 AlertApplicationService alertApplicationService,
+                                 @Value("${aquainsight.alert.streaming.enabled:true}") boolean enabled,
+                                 @Value("${aquainsight.alert.streaming.workers:2}") int workerCount,
+                                 @Value("${aquainsight.alert.streaming.queue-capacity:10000}") int queueCapacity,
+                                 @Value("${aquainsight.alert.streaming.batch-size:256}") int batchSize) {
+        this.streamingRuleEvaluator = streamingRuleEvaluator;
+        this.alertRuleDomainService = alertRuleDomainService;
+        this.alertApplicationService = alertApplicationService;
+        this.enabled = enabled;
+        this.workerCount = Math.max(1, workerCount);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("告警流式评估未启用，仅使用定时扫描");
+            return;
+        }
+        running = true;
+        partitions = new ArrayList<>(workerCount);
+        workers = new ArrayList<>(workerCount);
+        for (int i = 0; i < workerCount; i++) {
+            BlockingQueue<Observation> partition = new ArrayBlockingQueue<>(queueCapacity / workerCount + 1);
+            Thread worker = new Thread(() -> drain(partition), "alert-stream-" + (i + 1));
+            worker.setDaemon(true);
+            partitions.add(partition);
+            workers.add(worker);
+            worker.start();
+        }
+        log.info("告警流式评估已启动，工作线程数: {}, 队列容量: {}", workerCount, queueCapacity);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (workers != null) {
+            workers.forEach(Thread::interrupt);
+        }
+    }
+
+    /**
+     * 推送一条指标观测值
+     *
+     * @return 是否已接收，未启用或队列已满时返回false
+     */
+    public boolean publish(Metric metric) {
+        if (!running || metric.getTargetId() == null) {
+            return false;
+        }
+        publishedCount.incrementAndGet();
+        BlockingQueue<Observation> partition = partitions.get(
+                Math.floorMod(metric.getTargetId(), partitions.size()));
+        if (!partition.offer(new Observation(metric, System.nanoTime()))) {
+            droppedCount.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * 批量推送指标观测值
+     *
+     * @return 已接收的数量
+     */
+    public int publishAll(Collection<Metric> metrics) {
+        int accepted = 0;
+        for (Metric metric : metrics) {
+            if (publish(metric)) {
+                accepted++;
+            }
+        }
+        return accepted;
+    }
+
+    /**
+     * 获取流式评估统计
+     */
+    public StreamingEvaluationStatsDTO getStats() {
+        int queued = 0;
+        if (partitions != null) {
+            for (BlockingQueue<Observation> partition : partitions) {
+                queued += partition.size();
+            }
+        }
+        return StreamingEvaluationStatsDTO.builder()
+                .enabled(enabled)
+                .publishedCount(publishedCount.get())
+                .droppedCount(droppedCount.get())
+                .processedCount(processedCount.get())
+                .evaluationCount(streamingRuleEvaluator.getEvaluationCount())
+                .firingCount(streamingRuleEvaluator.getFiringCount())
+                .latestMetricCount(streamingRuleEvaluator.getLatestMetricCount())
+                .rejectedTargetCount(streamingRuleEvaluator.getRejectedTargetCount())
+                .alertCount(alertCount.get())
+                .queuedCount(queued)
+                .lastBatchMaxLatencyMillis(lastBatchMaxLatencyMillis)
+                .maxLatencyMillis(maxLatencyMillis.get())
+                .build();
+    }
+
+    private void drain(BlockingQueue<Observation> partition) {
+        List<Observation> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                Observation first = partition.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                partition.drainTo(batch, batchSize - 1);
+                processBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("流式评估批次处理失败，批次大小: {}", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void processBatch(List<Observation> batch) {
+        // 先评估整批观测值，再按规则分组写入，每条规则一个短事务
+        Map<Integer, List<RuleEvaluationResult>> resultsByRule = new LinkedHashMap<>();
+        for (Observation observation : batch) {
+            for (RuleEvaluationResult result : streamingRuleEvaluator.onMetric(observation.metric)) {
+                resultsByRule.computeIfAbsent(result.getRuleId(), ruleId -> new ArrayList<>()).add(result);
+            }
+        }
+
+        for (Map.Entry<Integer, List<RuleEvaluationResult>> entry : resultsByRule.entrySet()) {
+            Optional<CompiledRule> rule = alertRuleDomainService.findCompiledRule(entry.getKey());
+            if (!rule.isPresent()) {
+                streamingRuleEvaluator.clearFiring(entry.getValue());
+                continue;
+            }
+            try {
+                List<AlertRecord> alerts = alertApplicationService.createAlertsForTriggeredResults(
+                        rule.get(), entry.getValue());
+                alertCount.addAndGet(alerts.size());
+            } catch (Exception e) {
+                // 告警未写入，清除触发状态使下一次观测值重新触发
+                streamingRuleEvaluator.clearFiring(entry.getValue());
+                log.error("流式评估创建告警失败，规则ID: {}", entry.getKey(), e);
+            }
+        }
+
+        long now = System.nanoTime();
+        long batchMaxLatency = TimeUnit.NANOSECONDS.toMillis(now - batch.get(0).enqueuedNanos);
+        lastBatchMaxLatencyMillis = batchMaxLatency;
+        maxLatencyMillis.accumulateAndGet(batchMaxLatency, Math::max);
+        processedCount.addAndGet(batch.size());
+    }
+
+    /**
+     * 排队中的观测值
+     */
+    private static final class Observation {
+
+        private final Metric metric;
+        private final long enqueuedNanos;
+
+        private Observation(Metric metric, long enqueuedNanos) {
+            this.metric = metric;
+            this.enqueuedNanos = enqueuedNanos;
+        }
+    }
+}
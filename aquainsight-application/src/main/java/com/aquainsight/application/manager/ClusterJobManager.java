@@ -0,0 +1,215 @@
+package com.aquainsight.application.manager;
+
+import com.aquainsight.domain.cluster.repository.ClusterFenceRepository;
+import com.aquainsight.domain.cluster.service.ClusterCoordinator;
+import com.aquainsight.domain.cluster.types.Lease;
+import com.aquainsight.domain.cluster.types.ShardAssignment;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 集群定时任务编排
+ * 多实例部署时，定时任务只在持有租约的实例上执行；告警规则评估可按存活实例分片执行
+ */
+@Slf4j
+@Component
+public class ClusterJobManager {
+
+    /**
+     * 告警规则评估模式：leader-仅租约持有者评估全部规则，shard-按存活实例分片评估
+     */
+    public static final String MODE_SHARD = "shard";
+
+    private final ClusterCoordinator clusterCoordinator;
+    private final ClusterFenceRepository clusterFenceRepository;
+    private final String instanceId;
+    private final long leaseTtlMillis;
+    private final long memberTtlMillis;
+    private final String alertEvaluationMode;
+
+    /**
+     * 本实例持有的租约，停机时主动释放
+     */
+    private final Map<String, Lease> heldLeases = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService renewer;
+
+    public ClusterJobManager(ClusterCoordinator clusterCoordinator,
+                             ClusterFenceRepository clusterFenceRepository,
+                             @Value("${aquainsight.cluster.instance-id:}") String instanceId,
+                             @Value("${aquainsight.cluster.lease-ttl-seconds:120}") long leaseTtlSeconds,
+                             @Value("${aquainsight.cluster.member-ttl-seconds:30}") long memberTtlSeconds,
+                             @Value("${aquainsight.cluster.alert-evaluation-mode:leader}") String alertEvaluationMode) {
+        this.clusterCoordinator = clusterCoordinator;
+        this.clusterFenceRepository = clusterFenceRepository;
+        this.instanceId = instanceId.isEmpty() ? defaultInstanceId() : instanceId;
+        this.leaseTtlMillis = TimeUnit.SECONDS.toMillis(leaseTtlSeconds);
+        this.memberTtlMillis = TimeUnit.SECONDS.toMillis(memberTtlSeconds);
+        this.alertEvaluationMode = alertEvaluationMode;
+    }
+
+    @PostConstruct
+    public void init() {
+        renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "cluster-lease-renewer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        heartbeat();
+        log.info("集群实例已登记，实例ID: {}, 告警评估模式: {}", instanceId, alertEvaluationMode);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        renewer.shutdownNow();
+        heldLeases.values().forEach(this::release);
+    }
+
+    /**
+     * 在持有租约的前提下执行任务
+     * 执行期间定期续约；执行结束后不立即释放租约，而是保持到有效期结束，
+     * 避免时钟略有偏差的其他实例在同一调度周期内再次执行
+     *
+     * @param leaseName 租约名称，一个定时任务一个租约
+     * @param job 任务逻辑，写事务内使用租约调用 {@link #checkFence(Lease)}
+     * @return 本实例是否执行了任务
+     */
+    public boolean runExclusively(String leaseName, Consumer<Lease> job) {
+        return callExclusively(leaseName, false, lease -> {
+            job.accept(lease);
+            return Boolean.TRUE;
+        }).isPresent();
+    }
+
+    /**
+     * 在持有分片键租约的前提下执行任务，执行结束后立即释放租约
+     * 分片模式下实例增减期间，新旧负责实例可能同时认为自己负责同一个键，
+     * 按键获取租约使同一时刻只有一个实例执行，写入同样按写入纪元防护
+     *
+     * @param shardLeaseName 分片键的租约名称
+     * @param job 任务逻辑，写事务内使用租约调用 {@link #checkFence(Lease)}
+     * @return 任务结果，租约由其他实例持有时返回空
+     */
+    public <T> Optional<T> callShardExclusively(String shardLeaseName, Function<Lease, T> job) {
+        return callExclusively(shardLeaseName, true, job);
+    }
+
+    private <T> Optional<T> callExclusively(String leaseName, boolean releaseAfterRun, Function<Lease, T> job) {
+        Optional<Lease> acquired = clusterCoordinator.tryAcquire(leaseName, instanceId, leaseTtlMillis);
+        if (!acquired.isPresent()) {
+            log.info("租约 {} 由其他实例持有，本实例跳过执行", leaseName);
+            return Optional.empty();
+        }
+        // 每次执行前递增数据库中的写入纪元，此前的持有者（包括本实例上一次执行）的写事务此后都会校验失败
+        Long epoch = clusterFenceRepository.advance(leaseName, instanceId);
+        if (epoch == null) {
+            log.warn("租约 {} 的写入纪元已被其他实例递增，本实例跳过执行", leaseName);
+            return Optional.empty();
+        }
+        Lease lease = acquired.get().withEpoch(epoch);
+        heldLeases.put(leaseName, lease);
+
+        long renewIntervalMillis = Math.max(1000L, leaseTtlMillis / 3);
+        ScheduledFuture<?> renewal = renewer.scheduleAtFixedRate(() -> renew(lease),
+                renewIntervalMillis, renewIntervalMillis, TimeUnit.MILLISECONDS);
+        try {
+            return Optional.ofNullable(job.apply(lease));
+        } finally {
+            renewal.cancel(false);
+            if (releaseAfterRun) {
+                heldLeases.remove(leaseName, lease);
+                release(lease);
+            } else {
+                renew(lease);
+            }
+        }
+    }
+
+    /**
+     * 校验写入纪元，租约已被其他实例接管时抛出异常，使当前写入事务回滚
+     * 需在写事务内、写入之前调用：防护行的共享锁持有到事务提交，
+     * 新持有者递增纪元时会等待本事务结束，因此校验通过的写入不会与新持有者的写入交错。
+     * 不在事务内调用时只能做一次性校验
+     *
+     * @param lease 本次执行持有的租约，为空时不校验
+     */
+    public void checkFence(Lease lease) {
+        if (lease == null) {
+            return;
+        }
+        if (!clusterCoordinator.isValid(lease)) {
+            throw new IllegalStateException("租约已失效，停止写入: " + lease);
+        }
+        if (!clusterFenceRepository.isCurrent(lease.getLeaseName(), lease.getEpoch())) {
+            throw new IllegalStateException("写入纪元已过期，停止写入: " + lease);
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            log.debug("防护令牌校验不在事务内，只做一次性校验: {}", lease);
+        }
+    }
+
+    /**
+     * 登记本实例存活
+     */
+    public void heartbeat() {
+        clusterCoordinator.heartbeat(instanceId, memberTtlMillis);
+    }
+
+    /**
+     * 告警规则评估是否按实例分片
+     */
+    public boolean isAlertEvaluationSharded() {
+        return MODE_SHARD.equalsIgnoreCase(alertEvaluationMode);
+    }
+
+    /**
+     * 基于当前存活实例计算分片分配
+     */
+    public ShardAssignment currentShard() {
+        return new ShardAssignment(instanceId, clusterCoordinator.getLiveMembers());
+    }
+
+    public String getInstanceId() {
+        return instanceId;
+    }
+
+    private void release(Lease lease) {
+        try {
+            clusterCoordinator.release(lease);
+        } catch (Exception e) {
+            log.warn("释放租约失败: {}", lease, e);
+        }
+    }
+
+    private void renew(Lease lease) {
+        try {
+            if (!clusterCoordinator.renew(lease, leaseTtlMillis)) {
+                heldLeases.remove(lease.getLeaseName(), lease);
+                log.warn("租约续约失败，可能已被其他实例接管: {}", lease);
+            }
+        } catch (Exception e) {
+            log.warn("租约续约异常: {}", lease, e);
+        }
+    }
+
+    private static String defaultInstanceId() {
+        // RuntimeMXBean名称形如 pid@hostname，附加随机后缀区分同机多实例重启
+        return ManagementFactory.getRuntimeMXBean().getName() + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
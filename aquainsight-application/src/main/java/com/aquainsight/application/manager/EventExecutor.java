@@ -0,0 +1,214 @@
+package com.aquainsight.application.manager;
+
+import com.aquainsight.application.manager.dto.EventExecutorStatsDTO;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 事件处理线程池
+ * 每种事件使用独立命名的有界线程池，某类事件的处理变慢不会占满其他事件的线程；
+ * 队列满时按配置的拒绝策略处理，并统计队列深度、活跃线程和处理耗时
+ */
+@Slf4j
+public class EventExecutor implements Executor {
+
+    /**
+     * 队列满时的处理策略
+     */
+    public enum RejectionPolicy {
+        /**
+         * 由发布事件的线程直接处理，形成背压
+         */
+        CALLER_RUNS,
+        /**
+         * 等待队列空位，超时后由发布事件的线程直接处理
+         */
+        BLOCK,
+        /**
+         * 丢弃新事件
+         */
+        DISCARD,
+        /**
+         * 丢弃队列中最早的事件，再入队新事件
+         */
+        DISCARD_OLDEST
+    }
+
+    private final String name;
+    private final int threads;
+    private final int queueCapacity;
+    private final RejectionPolicy rejectionPolicy;
+    private final long blockTimeoutMillis;
+    private final long shutdownTimeoutMillis;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder submittedCount = new LongAdder();
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder callerRunsCount = new LongAdder();
+    private final LongAdder discardedCount = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAdder totalQueueWaitNanos = new LongAdder();
+    private final AtomicLong maxLatencyNanos = new AtomicLong();
+
+    public EventExecutor(String name, int threads, int queueCapacity, RejectionPolicy rejectionPolicy,
+                         long blockTimeoutMillis, long shutdownTimeoutMillis) {
+        this.name = name;
+        this.threads = Math.max(1, threads);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.rejectionPolicy = rejectionPolicy;
+        this.blockTimeoutMillis = Math.max(0, blockTimeoutMillis);
+        this.shutdownTimeoutMillis = Math.max(0, shutdownTimeoutMillis);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(this.threads, this.threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, this::reject);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        submittedCount.increment();
+        executor.execute(new TimedTask(task, System.nanoTime()));
+    }
+
+    /**
+     * 停止接收新事件，等待已入队的事件处理完成
+     */
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(shutdownTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                log.warn("事件线程池 {} 关闭超时，未处理的事件数: {}", name, executor.getQueue().size());
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            executor.shutdownNow();
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 获取线程池统计
+     */
+    public EventExecutorStatsDTO getStats() {
+        long completed = completedCount.sum();
+        long failed = failedCount.sum();
+        long finished = completed + failed;
+        return EventExecutorStatsDTO.builder()
+                .name(name)
+                .threads(threads)
+                .activeThreads(executor.getActiveCount())
+                .queueDepth(executor.getQueue().size())
+                .queueCapacity(queueCapacity)
+                .rejectionPolicy(rejectionPolicy.name())
+                .submittedCount(submittedCount.sum())
+                .completedCount(completed)
+                .failedCount(failed)
+                .callerRunsCount(callerRunsCount.sum())
+                .discardedCount(discardedCount.sum())
+                .avgLatencyMillis(finished > 0 ? totalLatencyNanos.sum() / finished / 1_000_000.0 : 0)
+                .maxLatencyMillis(maxLatencyNanos.get() / 1_000_000.0)
+                .avgQueueWaitMillis(finished > 0 ? totalQueueWaitNanos.sum() / finished / 1_000_000.0 : 0)
+                .build();
+    }
+
+    private void reject(Runnable task, ThreadPoolExecutor pool) {
+        if (pool.isShutdown()) {
+            // 关闭期间不再处理新事件，也不向发布线程抛出异常
+            discard(task);
+            return;
+        }
+        switch (rejectionPolicy) {
+            case BLOCK:
+                try {
+                    if (pool.getQueue().offer(task, blockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                runOnCaller(task);
+                return;
+            case DISCARD:
+                discard(task);
+                return;
+            case DISCARD_OLDEST:
+                // 直接入队而不是重新提交到线程池，队列持续满时不会在拒绝处理中递归
+                while (!pool.getQueue().offer(task)) {
+                    Runnable oldest = pool.getQueue().poll();
+                    if (oldest != null) {
+                        discard(oldest);
+                    }
+                }
+                return;
+            case CALLER_RUNS:
+            default:
+                runOnCaller(task);
+        }
+    }
+
+    private void runOnCaller(Runnable task) {
+        long count = callerRunsCount.sum();
+        callerRunsCount.increment();
+        if (count % 1000 == 0) {
+            log.warn("事件线程池 {} 队列已满，由发布线程直接处理，累计: {}", name, count + 1);
+        }
+        task.run();
+    }
+
+    private void discard(Runnable task) {
+        long count = discardedCount.sum();
+        discardedCount.increment();
+        if (count % 1000 == 0) {
+            log.warn("事件线程池 {} 丢弃事件，累计: {}", name, count + 1);
+        }
+    }
+
+    /**
+     * 统计排队时间和处理耗时的任务包装
+     */
+    private final class TimedTask implements Runnable {
+
+        private final Runnable task;
+        private final long submitNanos;
+
+        private TimedTask(Runnable task, long submitNanos) {
+            this.task = task;
+            this.submitNanos = submitNanos;
+        }
+
+        @Override
+        public void run() {
+            long startNanos = System.nanoTime();
+            totalQueueWaitNanos.add(startNanos - submitNanos);
+            boolean failed = true;
+            try {
+                task.run();
+                failed = false;
+            } finally {
+                long latencyNanos = System.nanoTime() - startNanos;
+                totalLatencyNanos.add(latencyNanos);
+                maxLatencyNanos.accumulateAndGet(latencyNanos, Math::max);
+                if (failed) {
+                    failedCount.increment();
+                } else {
+                    completedCount.increment();
+                }
+            }
+        }
+    }
+}
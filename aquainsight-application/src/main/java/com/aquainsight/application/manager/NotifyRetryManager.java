@@ -0,0 +1,59 @@
+package com.aquainsight.application.manager;
+
+import com.aquainsight.domain.alert.entity.AlertNotifyLog;
+import com.aquainsight.domain.alert.service.AlertNotifyLogDomainService;
+import com.aquainsight.domain.cluster.types.Lease;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 失败通知重试
+ * 通知日志表即持久化的延迟队列：失败的通知带有下次重试时间，到期后按时间先后分批取出重发，
+ * 实例重启后未完成的重试仍从表中继续
+ */
+@Slf4j
+@Component
+public class NotifyRetryManager {
+
+    private final AlertNotifyLogDomainService alertNotifyLogDomainService;
+    private final ClusterJobManager clusterJobManager;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+
+    public NotifyRetryManager(AlertNotifyLogDomainService alertNotifyLogDomainService,
+                              ClusterJobManager clusterJobManager,
+                              @Value("${aquainsight.notify.retry.batch-size:200}") int batchSize,
+                              @Value("${aquainsight.notify.retry.max-batches-per-run:10}") int maxBatchesPerRun) {
+        this.alertNotifyLogDomainService = alertNotifyLogDomainService;
+        this.clusterJobManager = clusterJobManager;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxBatchesPerRun = Math.max(1, maxBatchesPerRun);
+    }
+
+    /**
+     * 分批重试已到期的失败通知，直到没有到期的通知或达到单次执行的批数上限
+     *
+     * @param lease 本次执行持有的租约，每批发送前校验防护令牌，可为空
+     * @return 本次重试的通知数
+     */
+    public int retryDue(Lease lease) {
+        int retried = 0;
+        int succeeded = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            clusterJobManager.checkFence(lease);
+            List<AlertNotifyLog> retriedLogs = alertNotifyLogDomainService.batchRetryFailed(batchSize);
+            retried += retriedLogs.size();
+            succeeded += (int) retriedLogs.stream().filter(AlertNotifyLog::isSuccess).count();
+            if (retriedLogs.size() < batchSize) {
+                break;
+            }
+        }
+        if (retried > 0) {
+            log.info("失败通知重试完成，重试: {}, 成功: {}", retried, succeeded);
+        }
+        return retried;
+    }
+}
@@ -0,0 +1,480 @@
+package com.aquainsight.application.manager;
+
+import com.aquainsight.application.manager.dto.IngestReadingDTO;
+import com.aquainsight.application.manager.dto.IngestResultDTO;
+import com.aquainsight.application.manager.dto.IngestStatsDTO;
+import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.service.LatestMetricTable;
+import com.aquainsight.domain.alert.types.AlertTargetType;
+import com.aquainsight.domain.monitoring.entity.FactorReading;
+import com.aquainsight.domain.monitoring.repository.FactorReadingJournal;
+import com.aquainsight.domain.monitoring.repository.FactorReadingRepository;
+import com.aquainsight.domain.monitoring.service.DataCompletenessDomainService;
+import com.aquainsight.domain.monitoring.service.DeviceHeartbeatTracker;
+import com.aquainsight.domain.monitoring.service.FactorRollupDomainService;
+import com.aquainsight.domain.monitoring.service.TelemetryDomainService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 监测数据接入管道
+ * 读数在调用线程上按缓存的因子定义校验并占用队列容量，整批追加到预写日志并等待落盘后进入队列，
+ * 落盘后才向调用方返回接收结果，同时记为对应设备的心跳；写入线程攒批写入存储，随后登记待重算的聚合桶和数据完整率时段、
+ * 更新指标最新值表并转交告警流式评估。写入存储失败时按指数退避重试同一批，重试期间读数继续占用队列容量；
+ * 队列已满时短暂等待，仍无空间则拒绝剩余读数，由调用方稍后重试。
+ * 启动时重放检查点之后的日志记录；存储持久化水位越过某时刻后，该时刻之前已写入存储的日志记录即可删除
+ */
+@Slf4j
+@Component
+public class TelemetryIngestManager {
+
+    /**
+     * 单次接入结果中返回的拒绝明细上限
+     */
+    private static final int MAX_REJECTION_DETAILS = 100;
+
+    private final TelemetryDomainService telemetryDomainService;
+    private final FactorReadingRepository factorReadingRepository;
+    private final FactorReadingJournal factorReadingJournal;
+    private final AlertStreamingManager alertStreamingManager;
+    private final LatestMetricTable latestMetricTable;
+    private final FactorRollupDomainService factorRollupDomainService;
+    private final DeviceHeartbeatTracker deviceHeartbeatTracker;
+    private final DataCompletenessDomainService dataCompletenessDomainService;
+    private final int writerCount;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final long offerTimeoutMillis;
+    private final long retryInitialDelayMillis;
+    private final long retryMaxDelayMillis;
+
+    /**
+     * 已落盘等待写入存储的日志记录，容量由permits按读数条数限制
+     */
+    private final BlockingQueue<JournaledBatch> queue = new LinkedBlockingQueue<>();
+    private final Semaphore permits;
+
+    /**
+     * 已追加到日志但尚未写入存储的记录序号，与lastJournaledSequence一起由sequenceLock保护
+     */
+    private final TreeSet<Long> unappliedSequences = new TreeSet<>();
+    private final Object sequenceLock = new Object();
+    private long lastJournaledSequence;
+
+    /**
+     * 检查点候选: [记录时间, 当时已全部写入存储的最大序号]，按时间先后排列
+     */
+    private final Deque<long[]> checkpointCandidates = new ArrayDeque<>();
+
+    private final AtomicLong receivedCount = new AtomicLong();
+    private final AtomicLong invalidCount = new AtomicLong();
+    private final AtomicLong throttledCount = new AtomicLong();
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong writeFailedCount = new AtomicLong();
+    private final AtomicLong writeRetryCount = new AtomicLong();
+    private final AtomicLong journalFailedCount = new AtomicLong();
+    private final AtomicLong replayedCount = new AtomicLong();
+    private volatile long lastBatchWriteMillis;
+    private volatile int lastBatchSize;
+
+    private List<Thread> writers;
+    private volatile boolean running;
+
+    public TelemetryIngestManager(TelemetryDomainService telemetryDomainService,
+                                  FactorReadingRepository factorReadingRepository,
+                                  FactorReadingJournal factorReadingJournal,
+                                  AlertStreamingManager alertStreamingManager,
+                                  LatestMetricTable latestMetricTable,
+                                  FactorRollupDomainService factorRollupDomainService,
+                                  DeviceHeartbeatTracker deviceHeartbeatTracker,
+                                  DataCompletenessDomainService dataCompletenessDomainService,
+                                  @Value("${aquainsight.ingest.writers:2}") int writerCount,
+                                  @Value("${aquainsight.ingest.queue-capacity:200000}") int queueCapacity,
+                                  @Value("${aquainsight.ingest.batch-size:5000}") int batchSize,
+                                  @Value("${aquainsight.ingest.offer-timeout-millis:200}") long offerTimeoutMillis,
+                                  @Value("${aquainsight.ingest.retry.initial-delay-millis:500}") long retryInitialDelayMillis,
+                                  @Value("${aquainsight.ingest.retry.max-delay-millis:30000}") long retryMaxDelayMillis) {
+        this.telemetryDomainService = telemetryDomainService;
+        this.factorReadingRepository = factorReadingRepository;
+        this.factorReadingJournal = factorReadingJournal;
+        this.alertStreamingManager = alertStreamingManager;
+        this.latestMetricTable = latestMetricTable;
+        this.factorRollupDomainService = factorRollupDomainService;
+        this.deviceHeartbeatTracker = deviceHeartbeatTracker;
+        this.dataCompletenessDomainService = dataCompletenessDomainService;
+        this.writerCount = Math.max(1, writerCount);
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.batchSize = Math.max(1, batchSize);
+        this.offerTimeoutMillis = Math.max(0, offerTimeoutMillis);
+        this.retryInitialDelayMillis = Math.max(1, retryInitialDelayMillis);
+        this.retryMaxDelayMillis = Math.max(this.retryInitialDelayMillis, retryMaxDelayMillis);
+        this.permits = new Semaphore(this.queueCapacity);
+    }
+
+    @PostConstruct
+    public void start() {
+        replayJournal();
+        running = true;
+        writers = new ArrayList<>(writerCount);
+        for (int i = 0; i < writerCount; i++) {
+            Thread writer = new Thread(this::drain, "ingest-writer-" + (i + 1));
+            writer.setDaemon(true);
+            writers.add(writer);
+            writer.start();
+        }
+        log.info("监测数据接入管道已启动，写入线程数: {}, 队列容量: {}, 批大小: {}", writerCount, queueCapacity, batchSize);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (writers != null) {
+            writers.forEach(Thread::interrupt);
+        }
+        // 停止前尽量写完已接收的读数，未写完的读数在下次启动时从日志重放
+        List<JournaledBatch> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            List<FactorReading> readings = new ArrayList<>();
+            remaining.forEach(entry -> readings.addAll(entry.readings));
+            log.info("接入管道停止，写入剩余读数: {}", readings.size());
+            if (writeBatch(readings)) {
+                markApplied(remaining);
+            }
+        }
+        checkpoint();
+    }
+
+    /**
+     * 批量接入监测读数
+     * 校验失败的读数直接拒绝；队列已满时拒绝其余读数并标记限流；
+     * 接收的读数在预写日志落盘后才返回，日志写入失败时全部按拒绝返回并标记限流
+     */
+    public IngestResultDTO ingest(List<IngestReadingDTO> readings) {
+        if (!running) {
+            throw new IllegalStateException("监测数据接入管道未启动");
+        }
+        receivedCount.addAndGet(readings.size());
+        List<IngestResultDTO.Rejection> rejections = new ArrayList<>();
+        List<FactorReading> accepted = new ArrayList<>(readings.size());
+        List<Integer> acceptedIndexes = new ArrayList<>(readings.size());
+        int rejected = 0;
+        boolean throttled = false;
+
+        for (int i = 0; i < readings.size(); i++) {
+            IngestReadingDTO dto = readings.get(i);
+            String reason;
+            if (throttled) {
+                reason = "接入队列已满，请稍后重试";
+            } else {
+                FactorReading reading;
+                try {
+                    reading = telemetryDomainService.resolve(dto.getSiteCode(), dto.getDeviceCode(),
+                            dto.getFactorCode(), dto.getNationalCode(), dto.getReadingTime(), dto.getValue());
+                } catch (IllegalArgumentException e) {
+                    invalidCount.incrementAndGet();
+                    rejected++;
+                    addRejection(rejections, i, e.getMessage());
+                    continue;
+                }
+                if (acquirePermit()) {
+                    accepted.add(reading);
+                    acceptedIndexes.add(i);
+                    continue;
+                }
+                throttled = true;
+                reason = "接入队列已满，请稍后重试";
+            }
+            throttledCount.incrementAndGet();
+            rejected++;
+            addRejection(rejections, i, reason);
+        }
+
+        if (throttled) {
+            log.warn("接入队列已满，拒绝读数: {}, 队列容量: {}", rejected, queueCapacity);
+        }
+        if (!accepted.isEmpty() && !journal(accepted)) {
+            journalFailedCount.addAndGet(accepted.size());
+            rejected += accepted.size();
+            for (Integer index : acceptedIndexes) {
+                addRejection(rejections, index, "写入预写日志失败，请稍后重试");
+            }
+            accepted.clear();
+            throttled = true;
+        }
+        if (!accepted.isEmpty()) {
+            deviceHeartbeatTracker.heartbeat(accepted);
+        }
+        return IngestResultDTO.builder()
+                .acceptedCount(accepted.size())
+                .rejectedCount(rejected)
+                .throttled(throttled)
+                .rejections(rejections)
+                .build();
+    }
+
+    /**
+     * 推进预写日志检查点，由存储维护定时任务在存储封存后调用
+     * 记录当前已全部写入存储的最大序号作为候选，存储持久化水位越过候选的记录时间后删除该序号之前的日志
+     */
+    public synchronized void checkpoint() {
+        long now = System.currentTimeMillis();
+        checkpointCandidates.addLast(new long[]{now, appliedSequence()});
+        long persistedBeforeMillis = factorReadingRepository.getPersistedBeforeMillis();
+        long sequence = -1;
+        while (!checkpointCandidates.isEmpty() && checkpointCandidates.peekFirst()[0] < persistedBeforeMillis) {
+            sequence = checkpointCandidates.pollFirst()[1];
+        }
+        if (sequence > factorReadingJournal.getCheckpointSequence()) {
+            factorReadingJournal.checkpoint(sequence);
+        }
+    }
+
+    /**
+     * 获取接入统计
+     */
+    public IngestStatsDTO getStats() {
+        return IngestStatsDTO.builder()
+                .receivedCount(receivedCount.get())
+                .invalidCount(invalidCount.get())
+                .throttledCount(throttledCount.get())
+                .writtenCount(writtenCount.get())
+                .writeFailedCount(writeFailedCount.get())
+                .writeRetryCount(writeRetryCount.get())
+                .journalFailedCount(journalFailedCount.get())
+                .replayedCount(replayedCount.get())
+                .queuedCount(queueCapacity - permits.availablePermits())
+                .queueCapacity(queueCapacity)
+                .lastBatchWriteMillis(lastBatchWriteMillis)
+                .lastBatchSize(lastBatchSize)
+                .journalLastSequence(factorReadingJournal.getLastSequence())
+                .journalCheckpointSequence(factorReadingJournal.getCheckpointSequence())
+                .journalSegmentCount(factorReadingJournal.getSegmentCount())
+                .journalSyncCount(factorReadingJournal.getSyncCount())
+                .journalSyncedRecordCount(factorReadingJournal.getSyncedRecordCount())
+                .deviceTrackedCount(deviceHeartbeatTracker.getTrackedCount())
+                .deviceHeartbeatCount(deviceHeartbeatTracker.getHeartbeatCount())
+                .deviceOnlineCount(deviceHeartbeatTracker.getOnlineCount())
+                .deviceOfflineCount(deviceHeartbeatTracker.getOfflineCount())
+                .deviceStatusPendingCount(deviceHeartbeatTracker.getPendingCount())
+                .build();
+    }
+
+    private boolean acquirePermit() {
+        if (permits.tryAcquire()) {
+            return true;
+        }
+        try {
+            return permits.tryAcquire(offerTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 追加到预写日志并等待落盘，成功后放入写入队列；失败时释放占用的队列容量
+     */
+    private boolean journal(List<FactorReading> readings) {
+        long sequence;
+        try {
+            synchronized (sequenceLock) {
+                sequence = factorReadingJournal.append(readings);
+                unappliedSequences.add(sequence);
+                lastJournaledSequence = sequence;
+            }
+        } catch (RuntimeException e) {
+            log.error("监测读数写入预写日志失败，读数: {}", readings.size(), e);
+            permits.release(readings.size());
+            return false;
+        }
+        try {
+            factorReadingJournal.sync(sequence);
+        } catch (RuntimeException e) {
+            log.error("监测读数预写日志落盘失败，序号: {}", sequence, e);
+            synchronized (sequenceLock) {
+                unappliedSequences.remove(sequence);
+            }
+            permits.release(readings.size());
+            return false;
+        }
+        queue.add(new JournaledBatch(sequence, readings));
+        return true;
+    }
+
+    /**
+     * 已全部写入存储的最大序号，即最小的未写入序号之前的序号
+     */
+    private long appliedSequence() {
+        synchronized (sequenceLock) {
+            return unappliedSequences.isEmpty() ? lastJournaledSequence : unappliedSequences.first() - 1;
+        }
+    }
+
+    private void markApplied(List<JournaledBatch> entries) {
+        synchronized (sequenceLock) {
+            for (JournaledBatch entry : entries) {
+                unappliedSequences.remove(entry.sequence);
+            }
+        }
+    }
+
+    /**
+     * 重放检查点之后的日志记录，只写入存储并登记聚合重算，不触发告警评估
+     */
+    private void replayJournal() {
+        long start = System.currentTimeMillis();
+        long records = factorReadingJournal.replay((sequence, readings) -> {
+            factorReadingRepository.batchSave(readings);
+            factorRollupDomainService.markDirty(readings);
+            dataCompletenessDomainService.record(readings);
+            replayedCount.addAndGet(readings.size());
+        });
+        synchronized (sequenceLock) {
+            lastJournaledSequence = factorReadingJournal.getLastSequence();
+        }
+        if (records > 0) {
+            log.info("预写日志重放完成，记录: {}, 读数: {}, 耗时: {}ms",
+                    records, replayedCount.get(), System.currentTimeMillis() - start);
+        }
+    }
+
+    private static void addRejection(List<IngestResultDTO.Rejection> rejections, int index, String reason) {
+        if (rejections.size() < MAX_REJECTION_DETAILS) {
+            rejections.add(IngestResultDTO.Rejection.builder().index(index).reason(reason).build());
+        }
+    }
+
+    /**
+     * 写入线程，按日志记录攒批，一批读数数量达到批大小后写入；
+     * 写入失败时退避重试直到成功，期间不取新记录，停止时仍未写入的记录不登记为已写入，保留在日志中等待重启时重放
+     */
+    private void drain() {
+        List<JournaledBatch> entries = new ArrayList<>();
+        List<FactorReading> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                JournaledBatch entry = queue.poll(1, TimeUnit.SECONDS);
+                while (entry != null) {
+                    entries.add(entry);
+                    batch.addAll(entry.readings);
+                    entry = batch.size() < batchSize ? queue.poll() : null;
+                }
+                if (batch.isEmpty()) {
+                    continue;
+                }
+                boolean written;
+                try {
+                    written = writeWithRetry(batch);
+                } finally {
+                    permits.release(batch.size());
+                }
+                if (written) {
+                    markApplied(entries);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                entries.clear();
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * 写入一批读数，失败时按指数退避重试，管道停止时放弃
+     *
+     * @return 是否已写入
+     */
+    private boolean writeWithRetry(List<FactorReading> batch) throws InterruptedException {
+        long delayMillis = retryInitialDelayMillis;
+        for (int attempt = 1; ; attempt++) {
+            if (writeBatch(batch)) {
+                return true;
+            }
+            if (!running) {
+                return false;
+            }
+            writeRetryCount.incrementAndGet();
+            log.warn("监测读数批量写入第{}次失败，{}ms后重试，批次大小: {}", attempt, delayMillis, batch.size());
+            TimeUnit.MILLISECONDS.sleep(delayMillis);
+            delayMillis = Math.min(delayMillis * 2, retryMaxDelayMillis);
+        }
+    }
+
+    /**
+     * 写入存储后更新聚合、完整率、最新值并转交流式评估；存储之后的步骤失败不影响已写入的读数
+     *
+     * @return 是否已写入存储
+     */
+    private boolean writeBatch(List<FactorReading> batch) {
+        long start = System.currentTimeMillis();
+        try {
+            factorReadingRepository.batchSave(batch);
+        } catch (Exception e) {
+            writeFailedCount.addAndGet(batch.size());
+            log.error("监测读数批量写入失败，批次大小: {}", batch.size(), e);
+            return false;
+        }
+        lastBatchWriteMillis = System.currentTimeMillis() - start;
+        lastBatchSize = batch.size();
+        writtenCount.addAndGet(batch.size());
+        try {
+            afterWrite(batch);
+        } catch (Exception e) {
+            log.error("监测读数写入后处理失败，批次大小: {}", batch.size(), e);
+        }
+        return true;
+    }
+
+    private void afterWrite(List<FactorReading> batch) {
+        factorRollupDomainService.markDirty(batch);
+        dataCompletenessDomainService.record(batch);
+
+        List<Metric> metrics = new ArrayList<>(batch.size());
+        for (FactorReading reading : batch) {
+            String metricName = telemetryDomainService.metricNameOf(reading);
+            if (metricName == null) {
+                continue;
+            }
+            Metric metric = new Metric();
+            metric.setName(metricName);
+            metric.setTargetType(AlertTargetType.SITE.getCode());
+            metric.setTargetId(reading.getSiteId());
+            metric.setValue(reading.getValue());
+            metric.setCollectTime(reading.getReadingTime());
+            metrics.add(metric);
+        }
+        latestMetricTable.updateAll(metrics);
+        alertStreamingManager.publishAll(metrics);
+    }
+
+    /**
+     * 已落盘的一条日志记录及其读数
+     */
+    private static final class JournaledBatch {
+
+        private final long sequence;
+        private final List<FactorReading> readings;
+
+        private JournaledBatch(long sequence, List<FactorReading> readings) {
+            this.sequence = sequence;
+            this.readings = readings;
+        }
+    }
+}
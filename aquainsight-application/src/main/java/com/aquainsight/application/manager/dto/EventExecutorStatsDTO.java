@@ -0,0 +1,86 @@
+package com.aquainsight.application.manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 事件处理线程池统计
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventExecutorStatsDTO {
+
+    /**
+     * 线程池名称
+     */
+    private String name;
+
+    /**
+     * 线程数
+     */
+    private Integer threads;
+
+    /**
+     * 正在处理事件的线程数
+     */
+    private Integer activeThreads;
+
+    /**
+     * 排队中的事件数
+     */
+    private Integer queueDepth;
+
+    /**
+     * 队列容量
+     */
+    private Integer queueCapacity;
+
+    /**
+     * 队列满时的处理策略
+     */
+    private String rejectionPolicy;
+
+    /**
+     * 已提交的事件数
+     */
+    private Long submittedCount;
+
+    /**
+     * 处理完成的事件数
+     */
+    private Long completedCount;
+
+    /**
+     * 处理失败的事件数
+     */
+    private Long failedCount;
+
+    /**
+     * 队列满时由发布线程直接处理的事件数
+     */
+    private Long callerRunsCount;
+
+    /**
+     * 队列满或线程池关闭时丢弃的事件数
+     */
+    private Long discardedCount;
+
+    /**
+     * 平均处理耗时(毫秒)
+     */
+    private Double avgLatencyMillis;
+
+    /**
+     * 最大处理耗时(毫秒)
+     */
+    private Double maxLatencyMillis;
+
+    /**
+     * 平均排队时间(毫秒)
+     */
+    private Double avgQueueWaitMillis;
+}
@@ -0,0 +1,49 @@
+package com.aquainsight.application.manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 待接入的监测读数
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestReadingDTO {
+
+    /**
+     * 站点编码，与设备编码至少提供一个
+     */
+    private String siteCode;
+
+    /**
+     * 设备编码
+     */
+    private String deviceCode;
+
+    /**
+     * 因子代码，与国标污染物编码至少提供一个
+     */
+    private String factorCode;
+
+    /**
+     * 国标污染物编码(HJ 212上报使用)
+     */
+    private String nationalCode;
+
+    /**
+     * 监测时间
+     */
+    private LocalDateTime readingTime;
+
+    /**
+     * 监测值
+     */
+    private BigDecimal value;
+}
@@ -0,0 +1,58 @@
+package com.aquainsight.application.manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 监测读数批量接入结果
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestResultDTO {
+
+    /**
+     * 已接收的读数数量
+     */
+    private Integer acceptedCount;
+
+    /**
+     * 被拒绝的读数数量（含校验失败和队列已满）
+     */
+    private Integer rejectedCount;
+
+    /**
+     * 是否因接入队列已满或预写日志写入失败拒绝了读数，调用方应稍后重试被拒绝的读数
+     */
+    private Boolean throttled;
+
+    /**
+     * 被拒绝的读数明细，最多返回前若干条
+     */
+    private List<Rejection> rejections;
+
+    /**
+     * 被拒绝的读数
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Rejection {
+
+        /**
+         * 读数在请求批次中的序号(从0开始)
+         */
+        private Integer index;
+
+        /**
+         * 拒绝原因
+         */
+        private String reason;
+    }
+}
@@ -0,0 +1,126 @@
+package com.aquainsight.application.manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 监测数据接入统计
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class IngestStatsDTO {
+
+    /**
+     * 收到的读数数量
+     */
+    private Long receivedCount;
+
+    /**
+     * 校验失败被拒绝的读数数量
+     */
+    private Long invalidCount;
+
+    /**
+     * 接入队列已满被拒绝的读数数量
+     */
+    private Long throttledCount;
+
+    /**
+     * 已写入存储的读数数量
+     */
+    private Long writtenCount;
+
+    /**
+     * 写入存储失败的读数数量
+     */
+    private Long writeFailedCount;
+
+    /**
+     * 批量写入失败后的重试次数
+     */
+    private Long writeRetryCount;
+
+    /**
+     * 预写日志写入或落盘失败被拒绝的读数数量
+     */
+    private Long journalFailedCount;
+
+    /**
+     * 启动时从预写日志重放的读数数量
+     */
+    private Long replayedCount;
+
+    /**
+     * 当前排队等待写入的读数数量
+     */
+    private Integer queuedCount;
+
+    /**
+     * 接入队列容量
+     */
+    private Integer queueCapacity;
+
+    /**
+     * 最近一批读数的写入耗时(毫秒)
+     */
+    private Long lastBatchWriteMillis;
+
+    /**
+     * 最近一批读数的数量
+     */
+    private Integer lastBatchSize;
+
+    /**
+     * 预写日志最新记录序号
+     */
+    private Long journalLastSequence;
+
+    /**
+     * 预写日志检查点序号
+     */
+    private Long journalCheckpointSequence;
+
+    /**
+     * 预写日志段数量
+     */
+    private Integer journalSegmentCount;
+
+    /**
+     * 预写日志落盘次数
+     */
+    private Long journalSyncCount;
+
+    /**
+     * 通过落盘持久化的日志记录数量，与落盘次数之比为组提交的平均合并记录数
+     */
+    private Long journalSyncedRecordCount;
+
+    /**
+     * 心跳跟踪的设备数量
+     */
+    private Integer deviceTrackedCount;
+
+    /**
+     * 心跳记录次数
+     */
+    private Long deviceHeartbeatCount;
+
+    /**
+     * 因上报置为在线的设备次数
+     */
+    private Long deviceOnlineCount;
+
+    /**
+     * 因超时置为离线的设备次数
+     */
+    private Long deviceOfflineCount;
+
+    /**
+     * 待写入设备表的状态变更数量
+     */
+    private Integer deviceStatusPendingCount;
+}
@@ -0,0 +1,79 @@
+package com.aquainsight.application.manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 告警规则评估周期统计
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RuleEvaluationStatsDTO {
+
+    /**
+     * 周期开始时间
+     */
+    private LocalDateTime startTime;
+
+    /**
+     * 周期总耗时(毫秒)
+     */
+    private Long elapsedMillis;
+
+    /**
+     * 并行度
+     */
+    private Integer parallelism;
+
+    /**
+     * 单条规则超时时间(毫秒)
+     */
+    private Long ruleTimeoutMillis;
+
+    /**
+     * 参与评估的规则数
+     */
+    private Integer totalRules;
+
+    /**
+     * 评估成功的规则数
+     */
+    private Integer succeededRules;
+
+    /**
+     * 评估失败的规则数
+     */
+    private Integer failedRules;
+
+    /**
+     * 本周期超时的规则数
+     */
+    private Integer timedOutRules;
+
+    /**
+     * 进程启动以来累计超时的规则数
+     */
+    private Long totalTimedOutRules;
+
+    /**
+     * 最慢规则ID
+     */
+    private Integer slowestRuleId;
+
+    /**
+     * 最慢规则耗时(毫秒)
+     */
+    private Long slowestRuleLatencyMillis;
+
+    /**
+     * 规则ID -> 评估耗时(毫秒)
+     */
+    private Map<Integer, Long> ruleLatencyMillis;
+}
@@ -0,0 +1,46 @@
+package com.aquainsight.application.manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 持续条件采样序列内存统计
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeriesBufferStatsDTO {
+
+    /**
+     * 当前序列数
+     */
+    private Integer seriesCount;
+
+    /**
+     * 序列数上限
+     */
+    private Integer maxSeries;
+
+    /**
+     * 每个序列保存的采样数
+     */
+    private Integer capacityPerSeries;
+
+    /**
+     * 每个序列占用的估算内存(字节)
+     */
+    private Long bytesPerSeries;
+
+    /**
+     * 所有序列占用的估算内存(字节)
+     */
+    private Long estimatedBytes;
+
+    /**
+     * 因达到上限而未记录的新序列次数
+     */
+    private Long rejectedSeriesCount;
+}
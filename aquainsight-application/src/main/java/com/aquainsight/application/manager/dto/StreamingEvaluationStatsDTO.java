@@ -0,0 +1,76 @@
+package com.aquainsight.application.manager.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 流式规则评估统计
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StreamingEvaluationStatsDTO {
+
+    /**
+     * 是否启用流式评估
+     */
+    private Boolean enabled;
+
+    /**
+     * 已接收的观测值数量
+     */
+    private Long publishedCount;
+
+    /**
+     * 队列已满被丢弃的观测值数量（由定时扫描兜底）
+     */
+    private Long droppedCount;
+
+    /**
+     * 已评估的观测值数量
+     */
+    private Long processedCount;
+
+    /**
+     * 已执行的(规则, 目标)评估次数
+     */
+    private Long evaluationCount;
+
+    /**
+     * 当前处于触发状态的(规则, 目标)数量
+     */
+    private Integer firingCount;
+
+    /**
+     * 当前保存的(指标, 目标)最近值数量
+     */
+    private Integer latestMetricCount;
+
+    /**
+     * 最近值达到上限后未被记录的观测值数量
+     */
+    private Long rejectedTargetCount;
+
+    /**
+     * 流式评估生成的告警记录数量
+     */
+    private Long alertCount;
+
+    /**
+     * 当前排队中的观测值数量
+     */
+    private Integer queuedCount;
+
+    /**
+     * 最近一批观测值从提交到处理完成的最大延迟(毫秒)
+     */
+    private Long lastBatchMaxLatencyMillis;
+
+    /**
+     * 启动以来观测值从提交到处理完成的最大延迟(毫秒)
+     */
+    private Long maxLatencyMillis;
+}
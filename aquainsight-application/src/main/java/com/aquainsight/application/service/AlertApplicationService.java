@@ -1,28 +1,58 @@
 package com.aquainsight.application.service;
 
+import com.aquainsight.application.manager.AlertRuleEvaluationManager;
+import com.aquainsight.application.manager.ClusterJobManager;
+import com.aquainsight.application.manager.EventExecutor;
+import com.aquainsight.application.manager.dto.EventExecutorStatsDTO;
+import com.aquainsight.application.manager.dto.RuleEvaluationStatsDTO;
+import com.aquainsight.application.manager.dto.SeriesBufferStatsDTO;
 import com.aquainsight.domain.alert.entity.AlertRecord;
 import com.aquainsight.domain.alert.entity.AlertRule;
 import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.event.AlertCreatedEvent;
+import com.aquainsight.domain.alert.event.AlertRecoveredEvent;
 import com.aquainsight.domain.alert.repository.AlertRecordRepository;
 import com.aquainsight.domain.alert.repository.AlertRuleRepository;
+import com.aquainsight.domain.alert.service.AlertQuietPeriodIndex;
+import com.aquainsight.domain.alert.service.AlertRuleBacktestService;
 import com.aquainsight.domain.alert.service.AlertRuleDomainService;
+import com.aquainsight.domain.alert.service.AnomalyDetector;
+import com.aquainsight.domain.alert.service.SeriesBufferStore;
 import com.aquainsight.domain.alert.types.AlertLevel;
 import com.aquainsight.domain.alert.types.AlertStatus;
 import com.aquainsight.domain.alert.types.AlertTargetType;
+import com.aquainsight.domain.alert.types.BacktestResult;
+import com.aquainsight.domain.alert.types.CompiledRule;
+import com.aquainsight.domain.alert.types.MetricSnapshot;
 import com.aquainsight.domain.alert.types.NotifyStatus;
 import com.aquainsight.domain.alert.types.RuleEvaluationResult;
+import com.aquainsight.domain.alert.types.SeriesRingBuffer;
+import com.aquainsight.domain.cluster.types.Lease;
+import com.aquainsight.domain.cluster.types.ShardAssignment;
 import com.aquainsight.domain.maintenance.repository.TaskRepository;
 import com.aquainsight.domain.monitoring.repository.DeviceRepository;
 import com.aquainsight.domain.monitoring.repository.SiteRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.BiFunction;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 /**
  * 告警应用服务
@@ -32,38 +62,94 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class AlertApplicationService {
 
+    /**
+     * 分片评估时每条规则的租约名称前缀
+     */
+    private static final String SHARD_LEASE_PREFIX = "alert-rule-evaluation:rule-";
+
     private final AlertRuleDomainService alertRuleDomainService;
     private final AlertRuleRepository alertRuleRepository;
     private final AlertRecordRepository alertRecordRepository;
     private final SiteRepository siteRepository;
     private final DeviceRepository deviceRepository;
     private final TaskRepository taskRepository;
+    private final AlertQuietPeriodIndex alertQuietPeriodIndex;
+    private final AlertRuleEvaluationManager alertRuleEvaluationManager;
+    private final ClusterJobManager clusterJobManager;
+    private final SeriesBufferStore seriesBufferStore;
+    private final AnomalyDetector anomalyDetector;
+    private final AlertRuleBacktestService alertRuleBacktestService;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final List<EventExecutor> eventExecutors;
+
+    /**
+     * 静默期去重索引是否已从历史告警预热
+     */
+    private volatile boolean quietPeriodIndexWarmedUp = false;
 
     /**
      * 扫描并评估所有启用的告警规则
-     * 对符合条件的目标对象执行规则评估，并生成告警记录
+     * 规则分发到有界线程池并行评估，每条规则的告警记录在各自的短事务中写入，
+     * 单条规则超时或失败不会回滚其他规则已生成的告警
      *
      * @return 生成的告警记录列表
      */
-    @Transactional(rollbackFor = Exception.class)
     public List<AlertRecord> scanAndEvaluateAllRules() {
+        return scanAndEvaluateRules(rule -> true, null);
+    }
+
+    /**
+     * 扫描并评估启用的告警规则中满足过滤条件的部分
+     * 持有租约时每条规则的写事务内校验写入纪元
+     *
+     * @param ruleFilter 规则过滤条件
+     * @param lease 本次评估持有的租约，为空时不做防护校验
+     * @return 生成的告警记录列表
+     */
+    public List<AlertRecord> scanAndEvaluateRules(Predicate<CompiledRule> ruleFilter, Lease lease) {
+        return scanAndEvaluate(ruleFilter,
+                (compiledRule, snapshot) -> evaluateRuleForAllTargets(compiledRule, snapshot, lease));
+    }
+
+    /**
+     * 按实例分片评估告警规则，只评估分配给本实例的规则
+     * 每条规则在自己的分片租约下评估，实例增减期间新旧负责实例不会同时写入同一规则的告警
+     *
+     * @param shard 基于当前存活实例的分片分配
+     * @return 生成的告警记录列表
+     */
+    public List<AlertRecord> scanAndEvaluateShard(ShardAssignment shard) {
+        return scanAndEvaluate(rule -> shard.owns(rule.getRuleId()),
+                (compiledRule, snapshot) -> clusterJobManager.callShardExclusively(
+                        SHARD_LEASE_PREFIX + compiledRule.getRuleId(),
+                        ruleLease -> evaluateRuleForAllTargets(compiledRule, snapshot, ruleLease))
+                        .orElse(Collections.emptyList()));
+    }
+
+    private List<AlertRecord> scanAndEvaluate(Predicate<CompiledRule> ruleFilter,
+                                              BiFunction<CompiledRule, MetricSnapshot, List<AlertRecord>> evaluator) {
         log.info("开始扫描并评估所有启用的告警规则");
-        List<AlertRecord> generatedAlerts = new ArrayList<>();
 
         try {
-            // 获取所有启用的告警规则
-            List<AlertRule> enabledRules = alertRuleRepository.findAllEnabled();
+            // 获取所有启用的告警规则（已编译并缓存）
+            List<CompiledRule> enabledRules = alertRuleDomainService.getEnabledCompiledRules().stream()
+                    .filter(ruleFilter)
+                    .collect(Collectors.toList());
             log.info("找到 {} 条启用的告警规则", enabledRules.size());
 
-            // 遍历每个规则，找到对应的目标对象并进行评估
-            for (AlertRule rule : enabledRules) {
-                try {
-                    List<AlertRecord> ruleAlerts = evaluateRuleForAllTargets(rule);
-                    generatedAlerts.addAll(ruleAlerts);
-                } catch (Exception e) {
-                    log.error("评估规则失败，规则ID: {}, 规则名称: {}", rule.getId(), rule.getRuleName(), e);
-                }
-            }
+            // 本轮评估周期内每个指标只采集一次，所有规则共享同一份快照
+            MetricSnapshot snapshot = alertRuleDomainService.collectMetricSnapshot(enabledRules.stream()
+                    .map(CompiledRule::getRule)
+                    .collect(Collectors.toList()));
+            logSnapshotStatistics(snapshot);
+
+            // 记录本周期采样，供持续时长/采样窗口条件和异常检测条件判断
+            alertRuleDomainService.recordSeries(snapshot);
+
+            // 并行评估每个规则，找到对应的目标对象并生成告警
+            List<AlertRecord> generatedAlerts = alertRuleEvaluationManager.evaluateAll(enabledRules,
+                    compiledRule -> evaluator.apply(compiledRule, snapshot));
 
             log.info("告警规则扫描完成，共生成 {} 条告警记录", generatedAlerts.size());
             return generatedAlerts;
@@ -74,44 +160,146 @@ public class AlertApplicationService {
         }
     }
 
+    /**
+     * 获取最近一个评估周期的统计（各规则耗时、超时数等）
+     */
+    public RuleEvaluationStatsDTO getLastEvaluationStats() {
+        return alertRuleEvaluationManager.getLastCycleStats();
+    }
+
+    /**
+     * 获取持续条件采样序列的内存统计
+     */
+    public SeriesBufferStatsDTO getSeriesBufferStats() {
+        return SeriesBufferStatsDTO.builder()
+                .seriesCount(seriesBufferStore.getSeriesCount())
+                .maxSeries(seriesBufferStore.getMaxSeries())
+                .capacityPerSeries(seriesBufferStore.getCapacity())
+                .bytesPerSeries(SeriesRingBuffer.estimateBytes(seriesBufferStore.getCapacity()))
+                .estimatedBytes(seriesBufferStore.getEstimatedBytes())
+                .rejectedSeriesCount(seriesBufferStore.getRejectedSeriesCount())
+                .build();
+    }
+
+    /**
+     * 获取各事件处理线程池的队列深度、活跃线程和处理耗时统计
+     */
+    public List<EventExecutorStatsDTO> getEventExecutorStats() {
+        return eventExecutors.stream()
+                .map(EventExecutor::getStats)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 回测告警规则在历史时间范围内本应产生的告警，不写入告警记录
+     *
+     * @param siteIds 回测的站点，为空时回测全部站点
+     */
+    public BacktestResult backtestRule(Integer ruleId, LocalDateTime startTime, LocalDateTime endTime,
+                                       List<Integer> siteIds) {
+        return alertRuleBacktestService.backtest(ruleId, startTime, endTime, siteIds);
+    }
+
+    /**
+     * 写入异常检测基线检查点
+     */
+    public void checkpointAnomalyBaselines() {
+        anomalyDetector.checkpoint();
+    }
+
+    /**
+     * 记录指标快照的采集统计
+     */
+    private void logSnapshotStatistics(MetricSnapshot snapshot) {
+        log.info("指标快照采集完成，规则引用指标 {} 次，实际采集 {} 次，节省 {} 次采集调用，总耗时 {} ms",
+                snapshot.getRequestedCount(), snapshot.getCollectorCalls(),
+                snapshot.getSavedCollectorCalls(), snapshot.getTotalCollectCostMillis());
+        snapshot.getCollectCostMillis().forEach((metricName, cost) ->
+                log.debug("指标 [{}] 采集耗时 {} ms", metricName, cost));
+        snapshot.getFailedMetrics().forEach((metricName, reason) ->
+                log.warn("指标 [{}] 采集失败: {}", metricName, reason));
+    }
+
     /**
      * 对指定规则的所有目标对象进行批量评估
+     * 评估在事务外进行，只有告警记录的写入放在该规则自己的事务中
      *
-     * @param rule 告警规则
+     * @param compiledRule 编译后的告警规则
+     * @param snapshot 本轮评估周期的指标快照
+     * @param lease 本次评估持有的租约，可为空
      * @return 生成的告警记录列表
      */
-    private List<AlertRecord> evaluateRuleForAllTargets(AlertRule rule) {
-        List<AlertRecord> alerts = new ArrayList<>();
+    private List<AlertRecord> evaluateRuleForAllTargets(CompiledRule compiledRule, MetricSnapshot snapshot,
+                                                        Lease lease) {
+        AlertRule rule = compiledRule.getRule();
 
-        try {
-            // 使用批量评估方法，一次性采集并评估所有目标
-            List<RuleEvaluationResult> results = alertRuleDomainService.evaluateRuleBatch(rule.getId());
+        // 基于共享快照批量评估所有目标
+        List<RuleEvaluationResult> results = alertRuleDomainService.evaluateRuleBatch(compiledRule, snapshot);
 
-            log.debug("规则 {} 批量评估完成，触发告警的目标数: {}",
-                    rule.getRuleName(), results.size());
+        log.debug("规则 {} 批量评估完成，触发告警的目标数: {}",
+                rule.getRuleName(), results.size());
 
-            // 获取规则的目标类型
-            String targetType = determineTargetType(rule);
-            if (targetType == null) {
-                log.warn("无法确定规则的目标类型，规则ID: {}, 规则名称: {}", rule.getId(), rule.getRuleName());
-                return alerts;
-            }
+        return createAlertRecords(compiledRule, results, lease);
+    }
+
+    /**
+     * 为流式评估新触发的结果创建告警记录
+     *
+     * @param compiledRule 编译后的告警规则
+     * @param results 新触发的评估结果
+     * @return 生成的告警记录列表
+     */
+    public List<AlertRecord> createAlertsForTriggeredResults(CompiledRule compiledRule,
+                                                             List<RuleEvaluationResult> results) {
+        return createAlertRecords(compiledRule, results, null);
+    }
+
+    /**
+     * 在规则自己的短事务中为触发告警的目标创建告警记录
+     *
+     * @param compiledRule 编译后的告警规则
+     * @param results 评估结果
+     * @param lease 本次评估持有的租约，可为空
+     * @return 生成的告警记录列表
+     */
+    private List<AlertRecord> createAlertRecords(CompiledRule compiledRule, List<RuleEvaluationResult> results,
+                                                 Lease lease) {
+        AlertRule rule = compiledRule.getRule();
+
+        // 获取规则的目标类型
+        String targetType = determineTargetType(rule);
+        if (targetType == null) {
+            log.warn("无法确定规则的目标类型，规则ID: {}, 规则名称: {}", rule.getId(), rule.getRuleName());
+            return Collections.emptyList();
+        }
 
-            // 为每个触发告警的目标创建告警记录
-            for (RuleEvaluationResult result : results) {
-                if (result.isTriggered()) {
+        List<RuleEvaluationResult> triggeredResults = results.stream()
+                .filter(RuleEvaluationResult::isTriggered)
+                .collect(Collectors.toList());
+        if (triggeredResults.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        // 为每个触发告警的目标创建告警记录
+        List<AlertRecord> alerts = new ArrayList<>();
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                clusterJobManager.checkFence(lease);
+                for (RuleEvaluationResult result : triggeredResults) {
                     Integer targetId = result.getTriggeredMetrics().get(0).getTargetId();
                     AlertRecord alert = createAlertRecordIfNotDuplicate(rule, targetType, targetId, result);
                     if (alert != null) {
                         alerts.add(alert);
                     }
                 }
+            });
+        } catch (RuntimeException e) {
+            // 事务回滚后撤销本规则已登记的静默期，避免下次评估被误判为重复
+            if (rule.hasQuietPeriod()) {
+                alerts.forEach(alert -> alertQuietPeriodIndex.release(rule.getId(), targetType, alert.getTargetId()));
             }
-
-        } catch (Exception e) {
-            log.error("批量评估规则失败，规则ID: {}, 规则名称: {}", rule.getId(), rule.getRuleName(), e);
+            throw e;
         }
-
         return alerts;
     }
 
@@ -151,24 +339,10 @@ public class AlertApplicationService {
     private AlertRecord createAlertRecordIfNotDuplicate(AlertRule rule, String targetType,
                                                         Integer targetId, RuleEvaluationResult result) {
         // 检查静默期
-        if (rule.hasQuietPeriod()) {
-            LocalDateTime quietPeriodStart = LocalDateTime.now().minusMinutes(rule.getQuietPeriod());
-
-            // 查找静默期内是否有相同规则和目标的告警
-            List<AlertRecord> recentAlerts = alertRecordRepository.findByTarget(
-                    AlertTargetType.fromCode(targetType), targetId);
-
-            boolean hasDuplicateInQuietPeriod = recentAlerts.stream()
-                    .filter(alert -> alert.getRuleId().equals(rule.getId()))
-                    .filter(alert -> alert.getCreateTime().isAfter(quietPeriodStart))
-                    .findAny()
-                    .isPresent();
-
-            if (hasDuplicateInQuietPeriod) {
-                log.debug("静默期内已存在相同告警，跳过创建。规则: {}, 目标: {}:{}",
-                        rule.getRuleName(), targetType, targetId);
-                return null;
-            }
+        if (rule.hasQuietPeriod() && isDuplicateInQuietPeriod(rule, targetType, targetId)) {
+            log.debug("静默期内已存在相同告警，跳过创建。规则: {}, 目标: {}:{}",
+                    rule.getRuleName(), targetType, targetId);
+            return null;
         }
 
         // 创建告警记录
@@ -189,14 +363,85 @@ public class AlertApplicationService {
                 .updateTime(LocalDateTime.now())
                 .build();
 
-        // 保存告警记录
-        AlertRecord savedAlert = alertRecordRepository.save(alert);
+        // 保存告警记录，失败时撤销静默期登记
+        AlertRecord savedAlert;
+        try {
+            savedAlert = alertRecordRepository.save(alert);
+        } catch (RuntimeException e) {
+            if (rule.hasQuietPeriod()) {
+                alertQuietPeriodIndex.release(rule.getId(), targetType, targetId);
+            }
+            throw e;
+        }
         log.info("创建告警记录成功。告警ID: {}, 规则: {}, 目标: {}:{}, 级别: {}",
                 savedAlert.getId(), rule.getRuleName(), targetType, targetId, rule.getAlertLevel());
 
+        // 通知在事务提交后由告警生成事件处理器异步发送
+        eventPublisher.publishEvent(new AlertCreatedEvent(this, savedAlert));
+
         return savedAlert;
     }
 
+    /**
+     * 静默期内是否已有相同规则和目标的告警
+     * 优先使用去重索引，索引不可用时回退到查询告警记录
+     */
+    private boolean isDuplicateInQuietPeriod(AlertRule rule, String targetType, Integer targetId) {
+        try {
+            warmUpQuietPeriodIndex();
+            return !alertQuietPeriodIndex.tryAcquire(rule.getId(), targetType, targetId,
+                    System.currentTimeMillis(), rule.getQuietPeriod());
+        } catch (Exception e) {
+            log.warn("静默期去重索引不可用，回退到查询告警记录。规则: {}, 目标: {}:{}",
+                    rule.getRuleName(), targetType, targetId, e);
+        }
+
+        LocalDateTime quietPeriodStart = LocalDateTime.now().minusMinutes(rule.getQuietPeriod());
+        return alertRecordRepository.findByTarget(AlertTargetType.fromCode(targetType), targetId).stream()
+                .filter(alert -> alert.getRuleId().equals(rule.getId()))
+                .anyMatch(alert -> alert.getCreateTime().isAfter(quietPeriodStart));
+    }
+
+    /**
+     * 使用最大静默期窗口内的历史告警预热去重索引，进程内只执行一次
+     */
+    private void warmUpQuietPeriodIndex() {
+        if (quietPeriodIndexWarmedUp) {
+            return;
+        }
+        synchronized (this) {
+            if (quietPeriodIndexWarmedUp) {
+                return;
+            }
+            Map<Integer, Integer> quietPeriods = new HashMap<>();
+            for (AlertRule rule : alertRuleRepository.findAllEnabled()) {
+                if (rule.hasQuietPeriod()) {
+                    quietPeriods.put(rule.getId(), rule.getQuietPeriod());
+                }
+            }
+            int maxQuietPeriod = quietPeriods.values().stream().mapToInt(Integer::intValue).max().orElse(0);
+            if (maxQuietPeriod > 0) {
+                LocalDateTime now = LocalDateTime.now();
+                List<AlertRecord> recentAlerts = alertRecordRepository.findByTimeRange(
+                        now.minusMinutes(maxQuietPeriod), now);
+                for (AlertRecord alert : recentAlerts) {
+                    Integer quietPeriod = quietPeriods.get(alert.getRuleId());
+                    if (quietPeriod == null || alert.getTargetType() == null || alert.getCreateTime() == null) {
+                        continue;
+                    }
+                    alertQuietPeriodIndex.record(alert.getRuleId(), alert.getTargetType().getCode(),
+                            alert.getTargetId(), toEpochMillis(alert.getCreateTime()), quietPeriod);
+                }
+                log.info("静默期去重索引预热完成，加载最近 {} 分钟内的 {} 条告警", maxQuietPeriod, recentAlerts.size());
+            }
+            quietPeriodIndexWarmedUp = true;
+        }
+    }
+
+    private long toEpochMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
     /**
      * 获取目标对象名称
      */
@@ -259,47 +504,67 @@ public class AlertApplicationService {
     /**
      * 清理已恢复的告警记录
      * 检查待处理和处理中的告警，如果条件不再满足，标记为已恢复
+     * 活跃告警按规则分组，每条规则基于共享快照只评估一次，状态变更批量写回
+     *
+     * @param lease 本次检查持有的租约，写回前校验防护令牌，可为空
      */
     @Transactional(rollbackFor = Exception.class)
-    public void checkAndRecoverAlerts() {
+    public void checkAndRecoverAlerts(Lease lease) {
         log.info("开始检查并恢复已恢复的告警");
 
         try {
-            // 获取待处理和处理中的告警
-            List<AlertRecord> activeAlerts = new ArrayList<>();
-            activeAlerts.addAll(alertRecordRepository.findByStatus(AlertStatus.PENDING));
-            activeAlerts.addAll(alertRecordRepository.findByStatus(AlertStatus.IN_PROGRESS));
+            // 获取待处理和处理中的告警，并按规则分组
+            Map<Integer, List<AlertRecord>> alertsByRule = groupActiveAlertsByRule();
+            Map<Integer, CompiledRule> rules = loadRules(alertsByRule.keySet());
+            MetricSnapshot snapshot = collectRecoverySnapshot(rules.values());
 
-            int recoveredCount = 0;
+            List<AlertRecord> changedAlerts = new ArrayList<>();
+            List<AlertRecord> recoveredAlerts = new ArrayList<>();
             int updatedCount = 0;
-            for (AlertRecord alert : activeAlerts) {
-                try {
-                    // 重新评估规则
-                    RuleEvaluationResult result = alertRuleDomainService.evaluateRule(
-                            alert.getRuleId(),
-                            alert.getTargetType().getCode(),
-                            alert.getTargetId());
+            for (Map.Entry<Integer, List<AlertRecord>> entry : alertsByRule.entrySet()) {
+                CompiledRule rule = rules.get(entry.getKey());
+
+                Map<String, Set<Integer>> triggeredTargets;
+                if (rule == null) {
+                    // 规则已删除，其下告警不会再触发，全部恢复
+                    log.warn("告警规则不存在，恢复其下全部告警，规则ID: {}", entry.getKey());
+                    triggeredTargets = Collections.emptyMap();
+                } else {
+                    try {
+                        // 每条规则只评估一次
+                        triggeredTargets = evaluateTriggeredTargets(rule, snapshot);
+                    } catch (Exception e) {
+                        log.error("检查告警恢复状态失败，规则ID: {}", rule.getRuleId(), e);
+                        continue;
+                    }
+                }
 
+                for (AlertRecord alert : entry.getValue()) {
                     // 如果规则不再触发，标记为已恢复
-                    if (!result.isTriggered()) {
+                    if (!isTriggered(triggeredTargets, alert)) {
                         alert.recover();
-                        alertRecordRepository.update(alert);
-                        recoveredCount++;
+                        recoveredAlerts.add(alert);
                         log.info("告警已恢复。告警ID: {}, 规则: {}, 目标: {}:{}",
                                 alert.getId(), alert.getRuleName(),
                                 alert.getTargetType().getCode(), alert.getTargetId());
                     } else {
                         // 即使未恢复，也更新持续时长
                         alert.updateDuration();
-                        alertRecordRepository.update(alert);
                         updatedCount++;
                     }
-                } catch (Exception e) {
-                    log.error("检查告警恢复状态失败，告警ID: {}", alert.getId(), e);
+                    changedAlerts.add(alert);
                 }
             }
 
-            log.info("告警恢复检查完成，共恢复 {} 条告警，更新 {} 条活跃告警的持续时长", recoveredCount, updatedCount);
+            clusterJobManager.checkFence(lease);
+            alertRecordRepository.batchUpdate(changedAlerts);
+            // 恢复通知在事务提交后由告警恢复事件处理器异步发送
+            for (AlertRecord alert : recoveredAlerts) {
+                eventPublisher.publishEvent(new AlertRecoveredEvent(this, alert));
+            }
+
+            log.info("告警恢复检查完成，共恢复 {} 条告警，更新 {} 条活跃告警的持续时长",
+                    recoveredAlerts.size(), updatedCount);
 
         } catch (Exception e) {
             log.error("检查告警恢复状态失败", e);
@@ -313,70 +578,76 @@ public class AlertApplicationService {
      * 1. 检测到的指标值不再符合告警规则（已恢复正常）
      * 2. 目标对象已被删除
      * 3. 关联的规则已被禁用或删除
+     *
+     * @param lease 本次检查持有的租约，写回前校验防护令牌，可为空
      */
     @Transactional(rollbackFor = Exception.class)
-    public void autoCancelAlerts() {
+    public void autoCancelAlerts(Lease lease) {
         log.info("开始执行告警自动取消检查");
 
         try {
-            // 获取待处理和处理中的告警
-            List<AlertRecord> activeAlerts = new ArrayList<>();
-            activeAlerts.addAll(alertRecordRepository.findByStatus(AlertStatus.PENDING));
-            activeAlerts.addAll(alertRecordRepository.findByStatus(AlertStatus.IN_PROGRESS));
-
-            int canceledCount = 0;
-            for (AlertRecord alert : activeAlerts) {
-                try {
-                    boolean shouldCancel = false;
-                    String cancelReason = "";
-
-                    // 情况3: 检查关联的规则是否仍然有效
-                    AlertRule rule = alertRuleRepository.findById(alert.getRuleId()).orElse(null);
-                    if (rule == null) {
-                        shouldCancel = true;
-                        cancelReason = "关联的告警规则已被删除";
-                    } else if (rule.isDisabled()) {
-                        shouldCancel = true;
-                        cancelReason = "关联的告警规则已被禁用";
-                    } else {
-                        // 情况2: 检查目标对象是否存在
-                        boolean targetExists = checkTargetExists(alert.getTargetType().getCode(), alert.getTargetId());
-                        if (!targetExists) {
-                            shouldCancel = true;
-                            cancelReason = "目标对象已被删除";
-                        } else {
-                            // 情况1: 重新评估规则，检查指标值是否不再符合告警条件
-                            try {
-                                RuleEvaluationResult result = alertRuleDomainService.evaluateRule(
-                                        alert.getRuleId(),
-                                        alert.getTargetType().getCode(),
-                                        alert.getTargetId());
-
-                                if (!result.isTriggered()) {
-                                    shouldCancel = true;
-                                    cancelReason = "指标值已恢复正常，不再符合告警条件";
-                                }
-                            } catch (Exception e) {
-                                log.warn("重新评估规则失败，告警ID: {}, 跳过此告警", alert.getId(), e);
+            // 获取待处理和处理中的告警，并按规则分组
+            Map<Integer, List<AlertRecord>> alertsByRule = groupActiveAlertsByRule();
+            Map<Integer, CompiledRule> rules = loadRules(alertsByRule.keySet());
+            MetricSnapshot snapshot = collectRecoverySnapshot(rules.values());
+            Map<String, Boolean> targetExistsCache = new HashMap<>();
+
+            List<AlertRecord> canceledAlerts = new ArrayList<>();
+            for (Map.Entry<Integer, List<AlertRecord>> entry : alertsByRule.entrySet()) {
+                CompiledRule rule = rules.get(entry.getKey());
+
+                // 情况3: 检查关联的规则是否仍然有效
+                String ruleCancelReason = null;
+                if (rule == null) {
+                    ruleCancelReason = "关联的告警规则已被删除";
+                } else if (rule.getRule().isDisabled()) {
+                    ruleCancelReason = "关联的告警规则已被禁用";
+                }
+
+                // 情况1: 每条规则只重新评估一次，评估失败时跳过该规则下的指标判断
+                Map<String, Set<Integer>> triggeredTargets = null;
+                if (ruleCancelReason == null) {
+                    try {
+                        triggeredTargets = evaluateTriggeredTargets(rule, snapshot);
+                    } catch (Exception e) {
+                        log.warn("重新评估规则失败，规则ID: {}, 跳过该规则下的指标判断", rule.getRuleId(), e);
+                    }
+                }
+
+                for (AlertRecord alert : entry.getValue()) {
+                    try {
+                        String cancelReason = ruleCancelReason;
+                        if (cancelReason == null) {
+                            // 情况2: 检查目标对象是否存在
+                            String targetType = alert.getTargetType().getCode();
+                            boolean targetExists = targetExistsCache.computeIfAbsent(
+                                    targetType + ":" + alert.getTargetId(),
+                                    key -> checkTargetExists(targetType, alert.getTargetId()));
+                            if (!targetExists) {
+                                cancelReason = "目标对象已被删除";
+                            } else if (triggeredTargets != null && !isTriggered(triggeredTargets, alert)) {
+                                cancelReason = "指标值已恢复正常，不再符合告警条件";
                             }
                         }
-                    }
 
-                    // 执行取消操作
-                    if (shouldCancel) {
-                        alert.ignore(cancelReason);
-                        alertRecordRepository.update(alert);
-                        canceledCount++;
-                        log.info("自动取消告警。告警ID: {}, 规则: {}, 目标: {}:{}, 原因: {}",
-                                alert.getId(), alert.getRuleName(),
-                                alert.getTargetType().getCode(), alert.getTargetId(), cancelReason);
+                        // 执行取消操作
+                        if (cancelReason != null) {
+                            alert.ignore(cancelReason);
+                            canceledAlerts.add(alert);
+                            log.info("自动取消告警。告警ID: {}, 规则: {}, 目标: {}:{}, 原因: {}",
+                                    alert.getId(), alert.getRuleName(),
+                                    alert.getTargetType().getCode(), alert.getTargetId(), cancelReason);
+                        }
+                    } catch (Exception e) {
+                        log.error("检查告警取消条件失败，告警ID: {}", alert.getId(), e);
                     }
-                } catch (Exception e) {
-                    log.error("检查告警取消条件失败，告警ID: {}", alert.getId(), e);
                 }
             }
 
-            log.info("告警自动取消检查完成，共取消 {} 条告警", canceledCount);
+            clusterJobManager.checkFence(lease);
+            alertRecordRepository.batchUpdate(canceledAlerts);
+
+            log.info("告警自动取消检查完成，共取消 {} 条告警", canceledAlerts.size());
 
         } catch (Exception e) {
             log.error("自动取消告警失败", e);
@@ -384,6 +655,63 @@ public class AlertApplicationService {
         }
     }
 
+    /**
+     * 获取待处理和处理中的告警，按规则ID分组
+     */
+    private Map<Integer, List<AlertRecord>> groupActiveAlertsByRule() {
+        List<AlertRecord> activeAlerts = new ArrayList<>();
+        activeAlerts.addAll(alertRecordRepository.findByStatus(AlertStatus.PENDING));
+        activeAlerts.addAll(alertRecordRepository.findByStatus(AlertStatus.IN_PROGRESS));
+
+        Map<Integer, List<AlertRecord>> alertsByRule = new LinkedHashMap<>();
+        for (AlertRecord alert : activeAlerts) {
+            alertsByRule.computeIfAbsent(alert.getRuleId(), ruleId -> new ArrayList<>()).add(alert);
+        }
+        return alertsByRule;
+    }
+
+    /**
+     * 从编译规则缓存中获取告警涉及的规则
+     */
+    private Map<Integer, CompiledRule> loadRules(Collection<Integer> ruleIds) {
+        Map<Integer, CompiledRule> rules = new HashMap<>();
+        for (Integer ruleId : ruleIds) {
+            alertRuleDomainService.findCompiledRule(ruleId).ifPresent(rule -> rules.put(ruleId, rule));
+        }
+        return rules;
+    }
+
+    /**
+     * 为启用的规则采集恢复检查使用的指标快照
+     */
+    private MetricSnapshot collectRecoverySnapshot(Collection<CompiledRule> rules) {
+        List<AlertRule> enabledRules = rules.stream()
+                .map(CompiledRule::getRule)
+                .filter(AlertRule::isEnabled)
+                .collect(Collectors.toList());
+        MetricSnapshot snapshot = alertRuleDomainService.collectMetricSnapshot(enabledRules);
+        logSnapshotStatistics(snapshot);
+        return snapshot;
+    }
+
+    /**
+     * 评估规则当前触发告警的目标，禁用或无条件的规则视为不再触发
+     */
+    private Map<String, Set<Integer>> evaluateTriggeredTargets(CompiledRule rule, MetricSnapshot snapshot) {
+        if (!rule.isEvaluable()) {
+            return Collections.emptyMap();
+        }
+        return alertRuleDomainService.evaluateTriggeredTargets(rule, snapshot);
+    }
+
+    /**
+     * 告警对应的目标是否仍然触发规则
+     */
+    private boolean isTriggered(Map<String, Set<Integer>> triggeredTargets, AlertRecord alert) {
+        Set<Integer> targetIds = triggeredTargets.get(alert.getTargetType().getCode());
+        return targetIds != null && targetIds.contains(alert.getTargetId());
+    }
+
     /**
      * 检查目标对象是否存在
      */
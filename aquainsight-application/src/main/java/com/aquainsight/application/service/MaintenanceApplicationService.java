@@ -1,5 +1,7 @@
 package com.aquainsight.application.service;
 
+import com.aquainsight.application.manager.ClusterJobManager;
+import com.aquainsight.domain.cluster.types.Lease;
 import com.aquainsight.domain.maintenance.entity.StepTemplate;
 import com.aquainsight.domain.maintenance.entity.TaskTemplate;
 import com.aquainsight.domain.maintenance.entity.TaskTemplateItem;
@@ -20,6 +22,7 @@ import com.baomidou.mybatisplus.core.metadata.IPage;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -41,6 +44,8 @@ public class MaintenanceApplicationService {
     private final SiteRepository siteRepository;
     private final DepartmentDomainService departmentDomainService;
     private final com.aquainsight.domain.maintenance.service.StepDomainService stepDomainService;
+    private final ClusterJobManager clusterJobManager;
+    private final TransactionTemplate transactionTemplate;
 
     /**
      * 创建步骤模版
@@ -282,13 +287,14 @@ public class MaintenanceApplicationService {
 
     /**
      * 生成所有启用中的任务调度的下一周期实例
-     * 供定时任务调用
+     * 供定时任务调用，每个计划在独立事务中生成，写入前校验防护令牌；
+     * 租约失效时抛出异常，停止生成剩余计划的任务
      *
      * @param creator 创建人（通常是"SYSTEM"）
+     * @param lease 本次执行持有的租约，为空时不做防护校验
      * @return 成功生成的任务列表
      */
-    @Transactional(rollbackFor = Exception.class)
-    public List<Task> generateNextInstancesForAllActivePlans(String creator) {
+    public List<Task> generateNextInstancesForAllActivePlans(String creator, Lease lease) {
         // 查询所有启用中的任务调度
         List<TaskScheduler> activeTaskSchedulers = taskSchedulerRepository.findActiveTaskSchedulersWithDetails();
 
@@ -297,7 +303,10 @@ public class MaintenanceApplicationService {
         for (TaskScheduler taskScheduler : activeTaskSchedulers) {
             try {
                 // 为每个计划生成下一周期的任务
-                Task instance = taskDomainService.generateNextInstanceForPlan(taskScheduler, creator);
+                Task instance = transactionTemplate.execute(status -> {
+                    clusterJobManager.checkFence(lease);
+                    return taskDomainService.generateNextInstanceForPlan(taskScheduler, creator);
+                });
                 generatedInstances.add(instance);
             } catch (IllegalArgumentException e) {
                 // 任务已存在或其他业务异常，跳过
@@ -311,9 +320,12 @@ public class MaintenanceApplicationService {
     /**
      * 检查并标记所有逾期的任务
      * 供定时任务调用
+     *
+     * @param lease 本次执行持有的租约，写入前校验防护令牌，为空时不校验
      */
     @Transactional(rollbackFor = Exception.class)
-    public void checkAndMarkAllOverdueInstances() {
+    public void checkAndMarkAllOverdueInstances(Lease lease) {
+        clusterJobManager.checkFence(lease);
         taskDomainService.checkAndMarkOverdueInstances();
     }
 
@@ -322,9 +334,11 @@ public class MaintenanceApplicationService {
      * 供定时任务调用
      *
      * @param expiringThresholdHours 即将过期的阈值（小时数）
+     * @param lease 本次执行持有的租约，写入前校验防护令牌，为空时不校验
      */
     @Transactional(rollbackFor = Exception.class)
-    public void checkAndUpdateExpirationStatus(int expiringThresholdHours) {
+    public void checkAndUpdateExpirationStatus(int expiringThresholdHours, Lease lease) {
+        clusterJobManager.checkFence(lease);
         taskDomainService.checkAndUpdateExpirationStatus(expiringThresholdHours);
     }
 
@@ -1,5 +1,6 @@
 package com.aquainsight.application.service;
 
+import com.aquainsight.domain.alert.service.impl.DeviceMetricCollector;
 import com.aquainsight.domain.monitoring.entity.Device;
 import com.aquainsight.domain.monitoring.entity.DeviceModel;
 import com.aquainsight.domain.monitoring.entity.Enterprise;
@@ -8,6 +9,7 @@ import com.aquainsight.domain.monitoring.entity.Site;
 import com.aquainsight.domain.monitoring.repository.EnterpriseRepository;
 import com.aquainsight.domain.monitoring.repository.SiteRepository;
 import com.aquainsight.domain.monitoring.service.DeviceDomainService;
+import com.aquainsight.domain.monitoring.service.DeviceHeartbeatTracker;
 import com.aquainsight.domain.monitoring.service.DeviceModelDomainService;
 import com.aquainsight.domain.monitoring.service.FactorDomainService;
 import com.aquainsight.domain.monitoring.service.SiteDomainService;
@@ -34,23 +36,25 @@ public class MonitoringApplicationService {
     private final FactorDomainService factorDomainService;
     private final EnterpriseRepository enterpriseRepository;
     private final SiteRepository siteRepository;
+    private final DeviceMetricCollector deviceMetricCollector;
+    private final DeviceHeartbeatTracker deviceHeartbeatTracker;
 
     // ==================== Site Methods ====================
 
     @Transactional(rollbackFor = Exception.class)
     public Site createSite(String siteCode, String siteName, String siteType, String siteTag,
                           BigDecimal longitude, BigDecimal latitude, String address,
-                          Integer enterpriseId, Integer isAutoUpload) {
+                          Integer enterpriseId, Integer isAutoUpload, Integer sampleIntervalMinutes) {
         return siteDomainService.createSite(siteCode, siteName, siteType, siteTag,
-                longitude, latitude, address, enterpriseId, isAutoUpload);
+                longitude, latitude, address, enterpriseId, isAutoUpload, sampleIntervalMinutes);
     }
 
     @Transactional(rollbackFor = Exception.class)
     public Site updateSiteInfo(Integer siteId, String siteName, String siteType, String siteTag,
                               BigDecimal longitude, BigDecimal latitude, String address,
-                              Integer enterpriseId, Integer isAutoUpload) {
+                              Integer enterpriseId, Integer isAutoUpload, Integer sampleIntervalMinutes) {
         return siteDomainService.updateSiteInfo(siteId, siteName, siteType, siteTag,
-                longitude, latitude, address, enterpriseId, isAutoUpload);
+                longitude, latitude, address, enterpriseId, isAutoUpload, sampleIntervalMinutes);
     }
 
     public Optional<Site> getSiteById(Integer siteId) {
@@ -111,17 +115,17 @@ public class MonitoringApplicationService {
     @Transactional(rollbackFor = Exception.class)
     public DeviceModel createDeviceModel(String modelCode, String modelName, String deviceType,
                                         String manufacturer, String description, String specifications,
-                                        Integer factorId) {
+                                        Integer factorId, Integer heartbeatTimeoutSeconds) {
         return deviceModelDomainService.createDeviceModel(modelCode, modelName, deviceType,
-                manufacturer, description, specifications, factorId);
+                manufacturer, description, specifications, factorId, heartbeatTimeoutSeconds);
     }
 
     @Transactional(rollbackFor = Exception.class)
     public DeviceModel updateDeviceModelInfo(Integer deviceModelId, String modelName, String deviceType,
                                             String manufacturer, String description, String specifications,
-                                            Integer factorId) {
+                                            Integer factorId, Integer heartbeatTimeoutSeconds) {
         return deviceModelDomainService.updateDeviceModelInfo(deviceModelId, modelName, deviceType,
-                manufacturer, description, specifications, factorId);
+                manufacturer, description, specifications, factorId, heartbeatTimeoutSeconds);
     }
 
     public Optional<DeviceModel> getDeviceModelById(Integer deviceModelId) {
@@ -151,8 +155,11 @@ public class MonitoringApplicationService {
     public Device createDevice(String deviceCode, String deviceName, Integer siteId, Integer deviceModelId,
                               String serialNumber, String installLocation, Integer status,
                               LocalDate installDate, LocalDate maintenanceDate) {
-        return deviceDomainService.createDevice(deviceCode, deviceName, siteId, deviceModelId,
+        Device device = deviceDomainService.createDevice(deviceCode, deviceName, siteId, deviceModelId,
                 serialNumber, installLocation, status, installDate, maintenanceDate);
+        deviceMetricCollector.recordStatus(device);
+        deviceHeartbeatTracker.syncStatus(device);
+        return device;
     }
 
     @Transactional(rollbackFor = Exception.class)
@@ -164,17 +171,26 @@ public class MonitoringApplicationService {
 
     @Transactional(rollbackFor = Exception.class)
     public Device setDeviceOnline(Integer deviceId) {
-        return deviceDomainService.setDeviceOnline(deviceId);
+        Device device = deviceDomainService.setDeviceOnline(deviceId);
+        deviceMetricCollector.recordStatus(device);
+        deviceHeartbeatTracker.syncStatus(device);
+        return device;
     }
 
     @Transactional(rollbackFor = Exception.class)
     public Device setDeviceOffline(Integer deviceId) {
-        return deviceDomainService.setDeviceOffline(deviceId);
+        Device device = deviceDomainService.setDeviceOffline(deviceId);
+        deviceMetricCollector.recordStatus(device);
+        deviceHeartbeatTracker.syncStatus(device);
+        return device;
     }
 
     @Transactional(rollbackFor = Exception.class)
     public Device setDeviceFault(Integer deviceId) {
-        return deviceDomainService.setDeviceFault(deviceId);
+        Device device = deviceDomainService.setDeviceFault(deviceId);
+        deviceMetricCollector.recordStatus(device);
+        deviceHeartbeatTracker.syncStatus(device);
+        return device;
     }
 
     @Transactional(rollbackFor = Exception.class)
@@ -200,13 +216,24 @@ public class MonitoringApplicationService {
 
     @Transactional(rollbackFor = Exception.class)
     public boolean deleteDevice(Integer deviceId) {
-        return deviceDomainService.deleteDevice(deviceId);
+        boolean deleted = deviceDomainService.deleteDevice(deviceId);
+        if (deleted) {
+            deviceHeartbeatTracker.remove(deviceId);
+        }
+        return deleted;
     }
 
     public IPage<Device> getDevicePage(Integer pageNum, Integer pageSize, Integer siteId, Integer deviceModelId) {
         return deviceDomainService.getDevicePage(pageNum, pageSize, siteId, deviceModelId);
     }
 
+    /**
+     * 将心跳跟踪登记的设备状态变更批量写入设备表
+     */
+    public int flushDeviceStatus() {
+        return deviceHeartbeatTracker.flushStatus();
+    }
+
     // ==================== Factor Methods ====================
 
     @Transactional(rollbackFor = Exception.class)
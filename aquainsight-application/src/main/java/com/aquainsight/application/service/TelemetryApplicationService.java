@@ -0,0 +1,158 @@
+package com.aquainsight.application.service;
+
+import com.aquainsight.domain.monitoring.entity.DataCompleteness;
+import com.aquainsight.domain.monitoring.entity.FactorReading;
+import com.aquainsight.domain.monitoring.entity.FactorRollup;
+import com.aquainsight.domain.monitoring.repository.FactorReadingRepository;
+import com.aquainsight.domain.monitoring.repository.FactorRollupRepository;
+import com.aquainsight.domain.monitoring.service.DataCompletenessDomainService;
+import com.aquainsight.domain.monitoring.service.FactorRollupDomainService;
+import com.aquainsight.domain.monitoring.types.RollupResolution;
+import com.aquainsight.domain.monitoring.types.SeriesPointConsumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 监测数据应用服务
+ */
+@Slf4j
+@Service
+public class TelemetryApplicationService {
+
+    /**
+     * 历史查询的最大点数预算
+     */
+    private static final int MAX_POINT_BUDGET = 10000;
+
+    /**
+     * 流式查询单次最多查询的因子数量
+     */
+    private static final int MAX_STREAM_FACTORS = 50;
+
+    private final FactorReadingRepository factorReadingRepository;
+    private final FactorRollupRepository factorRollupRepository;
+    private final FactorRollupDomainService factorRollupDomainService;
+    private final DataCompletenessDomainService dataCompletenessDomainService;
+    private final int retentionDays;
+
+    public TelemetryApplicationService(FactorReadingRepository factorReadingRepository,
+                                       FactorRollupRepository factorRollupRepository,
+                                       FactorRollupDomainService factorRollupDomainService,
+                                       DataCompletenessDomainService dataCompletenessDomainService,
+                                       @Value("${aquainsight.telemetry.retention-days:365}") int retentionDays) {
+        this.factorReadingRepository = factorReadingRepository;
+        this.factorRollupRepository = factorRollupRepository;
+        this.factorRollupDomainService = factorRollupDomainService;
+        this.dataCompletenessDomainService = dataCompletenessDomainService;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * 查询站点某个因子在时间范围内的读数
+     */
+    public List<FactorReading> getReadings(Integer siteId, Integer factorId,
+                                           LocalDateTime startTime, LocalDateTime endTime) {
+        checkSeriesQuery(siteId, factorId, startTime, endTime);
+        return factorReadingRepository.findBySeries(siteId, factorId, startTime, endTime);
+    }
+
+    /**
+     * 查询站点某个因子的历史数据，按点数预算自动选择聚合粒度
+     */
+    public List<FactorRollup> getHistory(Integer siteId, Integer factorId, LocalDateTime startTime,
+                                         LocalDateTime endTime, int maxPoints) {
+        checkSeriesQuery(siteId, factorId, startTime, endTime);
+        if (maxPoints <= 0 || maxPoints > MAX_POINT_BUDGET) {
+            throw new IllegalArgumentException("点数预算需在1到" + MAX_POINT_BUDGET + "之间");
+        }
+        return factorRollupDomainService.findHistory(siteId, factorId, startTime, endTime, maxPoints);
+    }
+
+    /**
+     * 校验流式历史查询参数，并选择每个因子共用的源数据粒度
+     * 点数预算为0时不降采样，按原始读数输出
+     */
+    public RollupResolution prepareHistoryStream(Integer siteId, List<Integer> factorIds, LocalDateTime startTime,
+                                                 LocalDateTime endTime, int maxPoints) {
+        if (factorIds == null || factorIds.isEmpty() || factorIds.size() > MAX_STREAM_FACTORS) {
+            throw new IllegalArgumentException("因子数量需在1到" + MAX_STREAM_FACTORS + "之间");
+        }
+        for (Integer factorId : factorIds) {
+            checkSeriesQuery(siteId, factorId, startTime, endTime);
+        }
+        if (maxPoints < 0 || maxPoints > MAX_POINT_BUDGET) {
+            throw new IllegalArgumentException("点数预算需在0到" + MAX_POINT_BUDGET + "之间");
+        }
+        return factorRollupDomainService.selectDownsampleSource(startTime, endTime, maxPoints);
+    }
+
+    /**
+     * 流式输出站点某个因子的历史数据，按LTTB降采样到点数预算以内
+     *
+     * @return 输出的点数
+     */
+    public long streamHistory(Integer siteId, Integer factorId, RollupResolution source, LocalDateTime startTime,
+                              LocalDateTime endTime, int maxPoints, SeriesPointConsumer consumer) {
+        return factorRollupDomainService.scanDownsampled(siteId, factorId, source, startTime, endTime,
+                maxPoints, consumer);
+    }
+
+    /**
+     * 查询站点在日期范围内每个因子每天的数据完整率时段位图
+     */
+    public List<DataCompleteness> getCompleteness(Integer siteId, LocalDate startDate, LocalDate endDate) {
+        return dataCompletenessDomainService.findBySite(siteId, startDate, endDate);
+    }
+
+    /**
+     * 将有变化的数据完整率时段位图写回数据库
+     */
+    public void flushCompleteness() {
+        int flushed = dataCompletenessDomainService.flush();
+        if (flushed > 0) {
+            log.debug("数据完整率位图已写回: {}", flushed);
+        }
+    }
+
+    /**
+     * 重算新写入和迟到读数影响的聚合桶
+     */
+    public void rollup() {
+        int minutes = factorRollupDomainService.rollup();
+        if (minutes > 0) {
+            log.debug("监测数据聚合完成，重算1分钟桶: {}", minutes);
+        }
+    }
+
+    /**
+     * 存储维护：持久化缓冲中的读数和聚合，删除超出保留期的数据
+     */
+    public void maintainStore() {
+        factorReadingRepository.flush();
+        factorRollupRepository.flush();
+        if (retentionDays > 0) {
+            long deleted = factorReadingRepository.deleteBefore(LocalDateTime.now().minusDays(retentionDays));
+            if (deleted > 0) {
+                log.info("删除超出保留期的监测读数: {}, 保留天数: {}", deleted, retentionDays);
+            }
+        }
+        long deletedRollups = factorRollupDomainService.applyRetention();
+        if (deletedRollups > 0) {
+            log.info("删除超出保留期的监测数据聚合: {}", deletedRollups);
+        }
+    }
+
+    private static void checkSeriesQuery(Integer siteId, Integer factorId, LocalDateTime startTime, LocalDateTime endTime) {
+        if (siteId == null || factorId == null) {
+            throw new IllegalArgumentException("站点ID和因子ID不能为空");
+        }
+        if (startTime == null || endTime == null || startTime.isAfter(endTime)) {
+            throw new IllegalArgumentException("查询时间范围不正确");
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.aquainsight.application.manager;
+
+import com.aquainsight.application.manager.dto.RuleEvaluationStatsDTO;
+import com.aquainsight.domain.alert.entity.AlertRule;
+import com.aquainsight.domain.alert.types.CompiledRule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AlertRuleEvaluationManagerTest {
+
+    private final AlertRuleEvaluationManager manager = new AlertRuleEvaluationManager(2, 1, 10);
+
+    @BeforeEach
+    void setUp() {
+        manager.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.destroy();
+    }
+
+    @Test
+    void evaluatesRulesInParallel() {
+        // 两条规则互相等待，只有并行执行时才能都在超时前完成
+        CountDownLatch latch = new CountDownLatch(2);
+
+        List<Integer> results = manager.evaluateAll(Arrays.asList(rule(1), rule(2)), rule -> {
+            latch.countDown();
+            try {
+                return latch.await(5, TimeUnit.SECONDS)
+                        ? Collections.singletonList(rule.getRuleId()) : Collections.emptyList();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return Collections.emptyList();
+            }
+        });
+
+        assertEquals(2, results.size());
+        assertTrue(results.containsAll(Arrays.asList(1, 2)));
+    }
+
+    @Test
+    void isolatesFailedAndTimedOutRules() {
+        List<Integer> results = manager.evaluateAll(Arrays.asList(rule(1), rule(2), rule(3)), rule -> {
+            if (rule.getRuleId() == 2) {
+                throw new IllegalStateException("评估异常");
+            }
+            if (rule.getRuleId() == 3) {
+                try {
+                    Thread.sleep(TimeUnit.MINUTES.toMillis(1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return Collections.singletonList(rule.getRuleId());
+        });
+
+        assertEquals(Collections.singletonList(1), results);
+        RuleEvaluationStatsDTO stats = manager.getLastCycleStats();
+        assertEquals(3, stats.getTotalRules());
+        assertEquals(1, stats.getSucceededRules());
+        assertEquals(1, stats.getFailedRules());
+        assertEquals(1, stats.getTimedOutRules());
+        assertEquals(1L, stats.getTotalTimedOutRules());
+        assertEquals(3, stats.getSlowestRuleId());
+        assertTrue(stats.getSlowestRuleLatencyMillis() >= 1000);
+    }
+
+    @Test
+    void timeoutStartsWhenRuleBeginsExecuting() {
+        // 单线程、规则依次执行：排队时间不计入超时，三条各耗时0.6秒的规则都不应超时
+        AlertRuleEvaluationManager serial = new AlertRuleEvaluationManager(1, 1, 10);
+        serial.init();
+        try {
+            List<Integer> results = serial.evaluateAll(Arrays.asList(rule(1), rule(2), rule(3)), rule -> {
+                try {
+                    Thread.sleep(600);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return Collections.singletonList(rule.getRuleId());
+            });
+
+            assertEquals(Arrays.asList(1, 2, 3), results);
+            assertEquals(0, serial.getLastCycleStats().getTimedOutRules());
+        } finally {
+            serial.destroy();
+        }
+    }
+
+    private static CompiledRule rule(int id) {
+        return CompiledRule.compile(AlertRule.builder().id(id).ruleName("规则" + id).enabled(1).build());
+    }
+}
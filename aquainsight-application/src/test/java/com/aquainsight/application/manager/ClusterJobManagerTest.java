@@ -0,0 +1,147 @@
+package com.aquainsight.application.manager;
+
+import com.aquainsight.domain.cluster.repository.ClusterFenceRepository;
+import com.aquainsight.domain.cluster.service.ClusterCoordinator;
+import com.aquainsight.domain.cluster.service.impl.LocalClusterCoordinator;
+import com.aquainsight.domain.cluster.types.Lease;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ClusterJobManagerTest {
+
+    private static final String LEASE = "alert-recovery";
+
+    private final InMemoryFenceRepository fenceRepository = new InMemoryFenceRepository();
+    private final List<ClusterJobManager> managers = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        managers.forEach(ClusterJobManager::destroy);
+    }
+
+    @Test
+    void eachRunAdvancesEpochAndPassesFence() {
+        ClusterJobManager manager = manager(new LocalClusterCoordinator(), "node-a");
+        List<Long> epochs = new ArrayList<>();
+
+        assertTrue(manager.runExclusively(LEASE, lease -> {
+            manager.checkFence(lease);
+            epochs.add(lease.getEpoch());
+        }));
+        assertTrue(manager.runExclusively(LEASE, lease -> {
+            manager.checkFence(lease);
+            epochs.add(lease.getEpoch());
+        }));
+
+        assertEquals(2, epochs.size());
+        assertTrue(epochs.get(1) > epochs.get(0));
+    }
+
+    @Test
+    void staleLeaderIsFencedEvenWhenCoordinatorStillReportsValid() {
+        // 模拟"校验租约之后、提交之前"的停顿窗口：协调服务仍认为旧租约有效
+        ClusterCoordinator coordinator = mock(ClusterCoordinator.class);
+        when(coordinator.tryAcquire(anyString(), anyString(), anyLong()))
+                .thenAnswer(invocation -> Optional.of(new Lease(invocation.getArgument(0),
+                        invocation.getArgument(1), 1L)));
+        when(coordinator.isValid(any())).thenReturn(true);
+        when(coordinator.renew(any(), anyLong())).thenReturn(true);
+        ClusterJobManager stale = manager(coordinator, "node-a");
+        ClusterJobManager successor = manager(coordinator, "node-b");
+
+        AtomicReference<Lease> staleLease = new AtomicReference<>();
+        stale.runExclusively(LEASE, staleLease::set);
+        successor.runExclusively(LEASE, successor::checkFence);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> stale.checkFence(staleLease.get()));
+        assertTrue(e.getMessage().contains("写入纪元已过期"));
+    }
+
+    @Test
+    void invalidCoordinatorLeaseIsRejected() {
+        LocalClusterCoordinator coordinator = new LocalClusterCoordinator();
+        ClusterJobManager manager = manager(coordinator, "node-a");
+        AtomicReference<Lease> held = new AtomicReference<>();
+        manager.runExclusively(LEASE, held::set);
+
+        coordinator.release(held.get());
+
+        assertThrows(IllegalStateException.class, () -> manager.checkFence(held.get()));
+    }
+
+    @Test
+    void shardLeaseIsReleasedAfterRun() {
+        LocalClusterCoordinator coordinator = new LocalClusterCoordinator();
+        ClusterJobManager first = manager(coordinator, "node-a");
+        ClusterJobManager second = manager(coordinator, "node-b");
+
+        assertEquals(Optional.of("a"), first.callShardExclusively("rule-1", lease -> "a"));
+        assertEquals(Optional.of("b"), second.callShardExclusively("rule-1", lease -> "b"));
+    }
+
+    @Test
+    void shardLeaseHeldByOtherInstanceIsSkipped() {
+        LocalClusterCoordinator coordinator = new LocalClusterCoordinator();
+        ClusterJobManager first = manager(coordinator, "node-a");
+        ClusterJobManager second = manager(coordinator, "node-b");
+
+        Optional<Boolean> nested = first.callShardExclusively("rule-1",
+                lease -> second.callShardExclusively("rule-1", other -> "b").isPresent());
+
+        assertEquals(Optional.of(false), nested);
+    }
+
+    @Test
+    void nullLeaseSkipsFence() {
+        ClusterJobManager manager = manager(new LocalClusterCoordinator(), "node-a");
+        manager.checkFence(null);
+        assertFalse(fenceRepository.epochs.containsKey(LEASE));
+    }
+
+    private ClusterJobManager manager(ClusterCoordinator coordinator, String instanceId) {
+        ClusterJobManager manager = new ClusterJobManager(coordinator, fenceRepository, instanceId, 60L, 30L, "leader");
+        manager.init();
+        managers.add(manager);
+        return manager;
+    }
+
+    /**
+     * 内存中的防护行，语义与数据库实现一致（不含行锁）
+     */
+    private static final class InMemoryFenceRepository implements ClusterFenceRepository {
+
+        private final Map<String, Long> epochs = new HashMap<>();
+        private final Map<String, String> holders = new HashMap<>();
+
+        @Override
+        public synchronized Long advance(String leaseName, String holderId) {
+            long epoch = epochs.merge(leaseName, 1L, Long::sum);
+            holders.put(leaseName, holderId);
+            return epoch;
+        }
+
+        @Override
+        public synchronized boolean isCurrent(String leaseName, long epoch) {
+            Long current = epochs.get(leaseName);
+            return current != null && current == epoch;
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package com.aquainsight.application.manager;
+
+import com.aquainsight.application.manager.dto.EventExecutorStatsDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventExecutorTest {
+
+    /**
+     * 已执行的事件及其执行线程
+     */
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch blockerStarted = new CountDownLatch(1);
+
+    private EventExecutor executor;
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void callerRunsWhenQueueFull() throws InterruptedException {
+        executor = fillQueue(EventExecutor.RejectionPolicy.CALLER_RUNS, 0);
+
+        executor.execute(event("b"));
+
+        assertEquals(1, executor.getStats().getCallerRunsCount());
+        assertTrue(executed.contains("b@" + Thread.currentThread().getName()));
+        release.countDown();
+        executor.shutdown();
+        assertEquals(3, executor.getStats().getCompletedCount());
+    }
+
+    @Test
+    void blockWaitsForSpaceBeforeFallingBackToCaller() throws InterruptedException {
+        executor = fillQueue(EventExecutor.RejectionPolicy.BLOCK, 200);
+
+        long start = System.nanoTime();
+        executor.execute(event("b"));
+
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 200);
+        assertEquals(1, executor.getStats().getCallerRunsCount());
+        assertTrue(executed.contains("b@" + Thread.currentThread().getName()));
+
+        // 超时前队列腾出空位时入队，不由发布线程处理
+        new Thread(() -> {
+            sleep(50);
+            release.countDown();
+        }).start();
+        executor.execute(event("c"));
+        executor.shutdown();
+
+        assertEquals(1, executor.getStats().getCallerRunsCount());
+        assertEquals(4, executor.getStats().getCompletedCount());
+        assertTrue(executed.stream().anyMatch(event -> event.startsWith("c@test-")));
+    }
+
+    @Test
+    void discardDropsNewEvent() throws InterruptedException {
+        executor = fillQueue(EventExecutor.RejectionPolicy.DISCARD, 0);
+
+        executor.execute(event("b"));
+        release.countDown();
+        executor.shutdown();
+
+        EventExecutorStatsDTO stats = executor.getStats();
+        assertEquals(1, stats.getDiscardedCount());
+        assertEquals(2, stats.getCompletedCount());
+        assertEquals(3, stats.getSubmittedCount());
+        assertTrue(executed.stream().noneMatch(event -> event.startsWith("b@")));
+    }
+
+    @Test
+    void discardOldestReplacesQueuedEvent() throws InterruptedException {
+        executor = fillQueue(EventExecutor.RejectionPolicy.DISCARD_OLDEST, 0);
+
+        executor.execute(event("b"));
+        executor.execute(event("c"));
+        assertEquals(1, executor.getStats().getQueueDepth());
+        release.countDown();
+        executor.shutdown();
+
+        EventExecutorStatsDTO stats = executor.getStats();
+        assertEquals(2, stats.getDiscardedCount());
+        assertEquals(0, stats.getCallerRunsCount());
+        assertEquals(2, stats.getCompletedCount());
+        assertTrue(executed.stream().anyMatch(event -> event.startsWith("c@test-")));
+        assertTrue(executed.stream().noneMatch(event -> event.startsWith("a@") || event.startsWith("b@")));
+    }
+
+    @Test
+    void drainsQueuedEventsOnShutdownAndDiscardsLaterOnes() throws InterruptedException {
+        executor = new EventExecutor("test", 1, 4, EventExecutor.RejectionPolicy.CALLER_RUNS, 0, 5000);
+        executor.execute(blocker());
+        blockerStarted.await();
+        executor.execute(event("a"));
+        executor.execute(event("b"));
+
+        new Thread(() -> {
+            sleep(50);
+            release.countDown();
+        }).start();
+        executor.shutdown();
+        executor.execute(event("c"));
+
+        assertEquals(3, executor.getStats().getCompletedCount());
+        assertEquals(1, executor.getStats().getDiscardedCount());
+        assertEquals(0, executor.getStats().getCallerRunsCount());
+    }
+
+    /**
+     * 单线程、队列容量1的线程池，线程被阻塞且队列中已有事件a
+     */
+    private EventExecutor fillQueue(EventExecutor.RejectionPolicy policy, long blockTimeoutMillis)
+            throws InterruptedException {
+        EventExecutor eventExecutor = new EventExecutor("test", 1, 1, policy, blockTimeoutMillis, 5000);
+        eventExecutor.execute(blocker());
+        blockerStarted.await();
+        eventExecutor.execute(event("a"));
+        assertEquals(1, eventExecutor.getStats().getQueueDepth());
+        return eventExecutor;
+    }
+
+    private Runnable blocker() {
+        return () -> {
+            blockerStarted.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+    }
+
+    private Runnable event(String name) {
+        return () -> executed.add(name + "@" + Thread.currentThread().getName());
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
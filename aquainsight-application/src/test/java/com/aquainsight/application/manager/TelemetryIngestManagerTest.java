@@ -0,0 +1,113 @@
+package com.aquainsight.application.manager;
+
+import com.aquainsight.application.manager.dto.IngestReadingDTO;
+import com.aquainsight.application.manager.dto.IngestResultDTO;
+import com.aquainsight.domain.alert.service.LatestMetricTable;
+import com.aquainsight.domain.monitoring.entity.FactorReading;
+import com.aquainsight.domain.monitoring.repository.FactorReadingJournal;
+import com.aquainsight.domain.monitoring.repository.FactorReadingRepository;
+import com.aquainsight.domain.monitoring.service.DataCompletenessDomainService;
+import com.aquainsight.domain.monitoring.service.DeviceHeartbeatTracker;
+import com.aquainsight.domain.monitoring.service.FactorRollupDomainService;
+import com.aquainsight.domain.monitoring.service.TelemetryDomainService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TelemetryIngestManagerTest {
+
+    private final TelemetryDomainService telemetryDomainService = mock(TelemetryDomainService.class);
+    private final FactorReadingRepository factorReadingRepository = mock(FactorReadingRepository.class);
+    private final FactorReadingJournal factorReadingJournal = mock(FactorReadingJournal.class);
+    private final AtomicLong journalSequence = new AtomicLong();
+    private TelemetryIngestManager manager;
+
+    @BeforeEach
+    void setUp() {
+        when(telemetryDomainService.resolve(any(), any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> FactorReading.builder()
+                        .siteId(1)
+                        .factorId(2)
+                        .readingTime(invocation.getArgument(4))
+                        .value(invocation.getArgument(5))
+                        .build());
+        when(factorReadingJournal.append(anyList())).thenAnswer(invocation -> journalSequence.incrementAndGet());
+        when(factorReadingJournal.getLastSequence()).thenAnswer(invocation -> journalSequence.get());
+        when(factorReadingRepository.getPersistedBeforeMillis()).thenReturn(Long.MAX_VALUE);
+
+        manager = new TelemetryIngestManager(telemetryDomainService, factorReadingRepository, factorReadingJournal,
+                mock(AlertStreamingManager.class), mock(LatestMetricTable.class),
+                mock(FactorRollupDomainService.class), mock(DeviceHeartbeatTracker.class),
+                mock(DataCompletenessDomainService.class), 1, 100, 10, 0, 10, 20);
+        manager.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        manager.stop();
+    }
+
+    @Test
+    void failedBatchIsRetriedAndCheckpointAdvances() {
+        doThrow(new IllegalStateException("数据库不可用"))
+                .doThrow(new IllegalStateException("数据库不可用"))
+                .doNothing()
+                .when(factorReadingRepository).batchSave(anyList());
+
+        IngestResultDTO result = manager.ingest(Collections.singletonList(reading()));
+        assertEquals(1, result.getAcceptedCount());
+
+        verify(factorReadingRepository, timeout(5000).times(3)).batchSave(anyList());
+        assertEquals(2L, manager.getStats().getWriteRetryCount().longValue());
+
+        manager.checkpoint();
+        verify(factorReadingJournal).checkpoint(1L);
+    }
+
+    @Test
+    void checkpointWaitsForUnwrittenBatch() throws InterruptedException {
+        doThrow(new IllegalStateException("数据库不可用")).when(factorReadingRepository).batchSave(anyList());
+
+        manager.ingest(Collections.singletonList(reading()));
+        verify(factorReadingRepository, timeout(5000).atLeast(2)).batchSave(anyList());
+
+        // 读数未写入存储前检查点不能越过该记录
+        manager.checkpoint();
+        verify(factorReadingJournal, never()).checkpoint(anyLong());
+
+        doNothing().when(factorReadingRepository).batchSave(anyList());
+        long writes = manager.getStats().getWrittenCount();
+        for (int i = 0; i < 100 && manager.getStats().getWrittenCount() == writes; i++) {
+            Thread.sleep(20);
+        }
+        manager.checkpoint();
+        verify(factorReadingJournal, times(1)).checkpoint(1L);
+    }
+
+    private static IngestReadingDTO reading() {
+        return IngestReadingDTO.builder()
+                .siteCode("S001")
+                .factorCode("ph")
+                .readingTime(LocalDateTime.now())
+                .value(new BigDecimal("7.2"))
+                .build();
+    }
+}
@@ -0,0 +1,295 @@
+package com.aquainsight.application.service;
+
+import com.aquainsight.application.manager.AlertRuleEvaluationManager;
+import com.aquainsight.application.manager.ClusterJobManager;
+import com.aquainsight.domain.alert.entity.AlertRecord;
+import com.aquainsight.domain.alert.entity.AlertRule;
+import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.entity.RuleCondition;
+import com.aquainsight.domain.alert.event.AlertRecoveredEvent;
+import com.aquainsight.domain.alert.repository.AlertRecordRepository;
+import com.aquainsight.domain.alert.repository.AlertRuleRepository;
+import com.aquainsight.domain.alert.service.AlertRuleBacktestService;
+import com.aquainsight.domain.alert.service.AlertRuleDomainService;
+import com.aquainsight.domain.alert.service.AnomalyDetector;
+import com.aquainsight.domain.alert.service.SeriesBufferStore;
+import com.aquainsight.domain.alert.service.impl.LocalAlertQuietPeriodIndex;
+import com.aquainsight.domain.alert.types.AlertStatus;
+import com.aquainsight.domain.alert.types.AlertTargetType;
+import com.aquainsight.domain.alert.types.CompiledRule;
+import com.aquainsight.domain.alert.types.MetricSnapshot;
+import com.aquainsight.domain.alert.types.RuleEvaluationResult;
+import com.aquainsight.domain.cluster.types.Lease;
+import com.aquainsight.domain.maintenance.repository.TaskRepository;
+import com.aquainsight.domain.monitoring.entity.Site;
+import com.aquainsight.domain.monitoring.repository.DeviceRepository;
+import com.aquainsight.domain.monitoring.repository.SiteRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AlertApplicationServiceTest {
+
+    private final AlertRuleDomainService alertRuleDomainService = mock(AlertRuleDomainService.class);
+    private final AlertRuleRepository alertRuleRepository = mock(AlertRuleRepository.class);
+    private final AlertRecordRepository alertRecordRepository = mock(AlertRecordRepository.class);
+    private final SiteRepository siteRepository = mock(SiteRepository.class);
+    private final LocalAlertQuietPeriodIndex alertQuietPeriodIndex = new LocalAlertQuietPeriodIndex();
+    private final ClusterJobManager clusterJobManager = mock(ClusterJobManager.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final ApplicationEventPublisher eventPublisher = mock(ApplicationEventPublisher.class);
+    private final AlertApplicationService alertApplicationService = new AlertApplicationService(
+            alertRuleDomainService, alertRuleRepository, alertRecordRepository, siteRepository,
+            mock(DeviceRepository.class), mock(TaskRepository.class), alertQuietPeriodIndex,
+            mock(AlertRuleEvaluationManager.class), clusterJobManager, mock(SeriesBufferStore.class),
+            mock(AnomalyDetector.class), mock(AlertRuleBacktestService.class), transactionTemplate,
+            eventPublisher, Collections.emptyList());
+
+    private final AlertRule phRule = rule(1, 30);
+    private final CompiledRule compiledPhRule = CompiledRule.compile(phRule);
+    private final MetricSnapshot snapshot = new MetricSnapshot(Collections.emptyMap(), Collections.emptyMap(),
+            Collections.emptyMap(), 1, LocalDateTime.now());
+    private final Lease lease = new Lease("alert-recovery", "instance-1", 1L).withEpoch(2L);
+
+    @SuppressWarnings("unchecked")
+    private final ArgumentCaptor<List<AlertRecord>> batchCaptor = ArgumentCaptor.forClass(List.class);
+
+    /**
+     * 已保存的告警记录，按保存顺序
+     */
+    private final List<AlertRecord> saved = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        doAnswer(invocation -> {
+            invocation.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+        when(alertRecordRepository.save(any())).thenAnswer(invocation -> {
+            AlertRecord alert = invocation.getArgument(0);
+            alert.setId(saved.size() + 1);
+            saved.add(alert);
+            return alert;
+        });
+        when(siteRepository.findById(anyInt())).thenReturn(Optional.empty());
+        when(alertRuleRepository.findAllEnabled()).thenReturn(Collections.singletonList(phRule));
+    }
+
+    @Test
+    void suppressesRepeatedAlertsInsideQuietPeriod() {
+
+        assertEquals(1, alertApplicationService.createAlertsForTriggeredResults(compiledPhRule, triggered(3)).size());
+        assertEquals(1, alertApplicationService.createAlertsForTriggeredResults(compiledPhRule, triggered(3, 4)).size());
+
+        assertEquals(Arrays.asList(3, 4), targetIds(saved));
+    }
+
+    @Test
+    void releasesReservationsWhenSaveFails() {
+        // 第一个目标保存成功，第二个目标保存失败，整个事务回滚
+        doAnswer(invocation -> invocation.getArgument(0))
+                .doThrow(new IllegalStateException("数据库连接失败"))
+                .doAnswer(invocation -> {
+                    saved.add(invocation.getArgument(0));
+                    return invocation.getArgument(0);
+                })
+                .when(alertRecordRepository).save(any());
+
+        assertThrows(IllegalStateException.class,
+                () -> alertApplicationService.createAlertsForTriggeredResults(compiledPhRule, triggered(3, 4)));
+
+        // 事务回滚后两个目标的登记都已撤销，下次评估重新创建告警
+        assertEquals(2, alertApplicationService.createAlertsForTriggeredResults(compiledPhRule, triggered(3, 4)).size());
+        assertEquals(Arrays.asList(3, 4), targetIds(saved));
+    }
+
+    @Test
+    void warmsUpIndexFromRecentAlertsOnce() {
+        AlertRule noQuietPeriod = rule(2, 0);
+        when(alertRuleRepository.findAllEnabled()).thenReturn(Arrays.asList(phRule, noQuietPeriod));
+        when(alertRecordRepository.findByTimeRange(any(), any())).thenReturn(Arrays.asList(
+                alert(1, 3, LocalDateTime.now().minusMinutes(5)),
+                alert(1, 4, LocalDateTime.now().minusMinutes(31)),
+                alert(2, 5, LocalDateTime.now().minusMinutes(1))));
+
+        List<AlertRecord> alerts = alertApplicationService.createAlertsForTriggeredResults(
+                compiledPhRule, triggered(3, 4, 5));
+        alertApplicationService.createAlertsForTriggeredResults(compiledPhRule, triggered(6));
+
+        // 目标3仍在静默期内；目标4的告警已过静默期；目标5的历史告警属于无静默期的规则
+        assertEquals(Arrays.asList(4, 5), targetIds(alerts));
+        verify(alertRecordRepository, times(1)).findByTimeRange(any(), any());
+    }
+
+    @Test
+    void recoversAlertsPerRuleFromOneSnapshotAndOneBatchUpdate() {
+        List<AlertRecord> alerts = givenActiveAlerts();
+
+        alertApplicationService.checkAndRecoverAlerts(lease);
+
+        // 每条启用的规则只评估一次，共用同一份快照
+        verify(alertRuleDomainService, times(1)).collectMetricSnapshot(Collections.singletonList(phRule));
+        verify(alertRuleDomainService, times(1)).evaluateTriggeredTargets(any(), any());
+        verify(alertRuleDomainService).evaluateTriggeredTargets(compiledPhRule, snapshot);
+
+        // 仍触发的目标3、7保持原状态，其余告警恢复，包括禁用和已删除规则的告警
+        assertEquals(Arrays.asList(AlertStatus.PENDING, AlertStatus.RECOVERED, AlertStatus.RECOVERED,
+                AlertStatus.RECOVERED, AlertStatus.RECOVERED, AlertStatus.IN_PROGRESS), statuses(alerts));
+        InOrder inOrder = inOrder(clusterJobManager, alertRecordRepository);
+        inOrder.verify(clusterJobManager).checkFence(lease);
+        inOrder.verify(alertRecordRepository).batchUpdate(batchCaptor.capture());
+        verify(alertRecordRepository, never()).update(any());
+        assertEquals(6, batchCaptor.getValue().size());
+        verify(eventPublisher, times(4)).publishEvent(any(AlertRecoveredEvent.class));
+    }
+
+    @Test
+    void autoCancelsAlertsPerRuleWithOneBatchUpdate() {
+        List<AlertRecord> alerts = givenActiveAlerts();
+
+        alertApplicationService.autoCancelAlerts(lease);
+
+        verify(alertRuleDomainService, times(1)).evaluateTriggeredTargets(any(), any());
+        assertEquals(Arrays.asList(AlertStatus.PENDING, AlertStatus.IGNORED, AlertStatus.IGNORED,
+                AlertStatus.IGNORED, AlertStatus.IGNORED, AlertStatus.IN_PROGRESS), statuses(alerts));
+        assertEquals(Arrays.asList(null, "指标值已恢复正常，不再符合告警条件", "目标对象已被删除",
+                "关联的告警规则已被禁用", "关联的告警规则已被删除", null),
+                alerts.stream().map(AlertRecord::getRemark).collect(Collectors.toList()));
+        InOrder inOrder = inOrder(clusterJobManager, alertRecordRepository);
+        inOrder.verify(clusterJobManager).checkFence(lease);
+        inOrder.verify(alertRecordRepository).batchUpdate(batchCaptor.capture());
+        assertEquals(Arrays.asList(alerts.get(1), alerts.get(2), alerts.get(3), alerts.get(4)),
+                batchCaptor.getValue());
+    }
+
+    @Test
+    void writesNothingWhenFenceFails() {
+        givenActiveAlerts();
+        doThrow(new IllegalStateException("租约已失效")).when(clusterJobManager).checkFence(lease);
+
+        assertThrows(IllegalStateException.class, () -> alertApplicationService.checkAndRecoverAlerts(lease));
+        givenActiveAlerts();
+        assertThrows(IllegalStateException.class, () -> alertApplicationService.autoCancelAlerts(lease));
+
+        verify(alertRecordRepository, never()).batchUpdate(any());
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    /**
+     * 规则1下站点3、4、8和处理中的站点7的告警，禁用规则2下站点5的告警，已删除规则9下站点6的告警；
+     * 规则1当前仍对站点3、7触发，站点8已删除
+     */
+    private List<AlertRecord> givenActiveAlerts() {
+        AlertRule disabledRule = rule(2, 0);
+        disabledRule.disable();
+        when(alertRuleDomainService.findCompiledRule(1)).thenReturn(Optional.of(compiledPhRule));
+        when(alertRuleDomainService.findCompiledRule(2)).thenReturn(Optional.of(CompiledRule.compile(disabledRule)));
+        when(alertRuleDomainService.findCompiledRule(9)).thenReturn(Optional.empty());
+        when(alertRuleDomainService.collectMetricSnapshot(any())).thenReturn(snapshot);
+        Map<String, Set<Integer>> triggeredTargets = new HashMap<>();
+        triggeredTargets.put(AlertTargetType.SITE.getCode(), new HashSet<>(Arrays.asList(3, 7)));
+        when(alertRuleDomainService.evaluateTriggeredTargets(compiledPhRule, snapshot)).thenReturn(triggeredTargets);
+        for (int siteId = 3; siteId <= 7; siteId++) {
+            when(siteRepository.findById(siteId)).thenReturn(Optional.of(Site.builder().id(siteId).build()));
+        }
+
+        LocalDateTime createTime = LocalDateTime.now().minusMinutes(10);
+        List<AlertRecord> alerts = Arrays.asList(
+                activeAlert(1, 3, AlertStatus.PENDING, createTime),
+                activeAlert(1, 4, AlertStatus.PENDING, createTime),
+                activeAlert(1, 8, AlertStatus.PENDING, createTime),
+                activeAlert(2, 5, AlertStatus.PENDING, createTime),
+                activeAlert(9, 6, AlertStatus.PENDING, createTime),
+                activeAlert(1, 7, AlertStatus.IN_PROGRESS, createTime));
+        when(alertRecordRepository.findByStatus(AlertStatus.PENDING)).thenReturn(alerts.subList(0, 5));
+        when(alertRecordRepository.findByStatus(AlertStatus.IN_PROGRESS)).thenReturn(alerts.subList(5, 6));
+        return alerts;
+    }
+
+    private static List<AlertStatus> statuses(List<AlertRecord> alerts) {
+        return alerts.stream().map(AlertRecord::getStatus).collect(Collectors.toList());
+    }
+
+    private static AlertRecord activeAlert(Integer ruleId, Integer siteId, AlertStatus status,
+                                           LocalDateTime createTime) {
+        AlertRecord alert = alert(ruleId, siteId, createTime);
+        alert.setStatus(status);
+        return alert;
+    }
+
+    private static List<Integer> targetIds(List<AlertRecord> alerts) {
+        return alerts.stream().map(AlertRecord::getTargetId).collect(Collectors.toList());
+    }
+
+    private static List<RuleEvaluationResult> triggered(Integer... siteIds) {
+        List<RuleEvaluationResult> results = new ArrayList<>();
+        for (Integer siteId : siteIds) {
+            Metric metric = new Metric();
+            metric.setName("pH值");
+            metric.setTargetType(AlertTargetType.SITE.getCode());
+            metric.setTargetId(siteId);
+            metric.setValue(new BigDecimal("9.1"));
+            metric.setCollectTime(LocalDateTime.now());
+            results.add(RuleEvaluationResult.builder()
+                    .triggered(true)
+                    .triggeredMetrics(new ArrayList<>(Collections.singletonList(metric)))
+                    .build());
+        }
+        return results;
+    }
+
+    private static AlertRecord alert(Integer ruleId, Integer siteId, LocalDateTime createTime) {
+        return AlertRecord.builder()
+                .ruleId(ruleId)
+                .targetType(AlertTargetType.SITE)
+                .targetId(siteId)
+                .createTime(createTime)
+                .build();
+    }
+
+    private static AlertRule rule(Integer id, int quietPeriod) {
+        return AlertRule.builder()
+                .id(id)
+                .ruleName("pH过高")
+                .alertTargetType(AlertTargetType.SITE)
+                .enabled(1)
+                .quietPeriod(quietPeriod)
+                .conditionConfigs(Collections.singletonList(RuleCondition.builder()
+                        .metric("pH值")
+                        .operator(RuleCondition.ComparisonOperator.GT)
+                        .threshold(new BigDecimal("8.5"))
+                        .build()))
+                .build();
+    }
+}
@@ -0,0 +1,120 @@
+package com.aquainsight.application.service;
+
+import com.aquainsight.application.manager.ClusterJobManager;
+import com.aquainsight.domain.cluster.types.Lease;
+import com.aquainsight.domain.maintenance.entity.Task;
+import com.aquainsight.domain.maintenance.entity.TaskScheduler;
+import com.aquainsight.domain.maintenance.repository.TaskSchedulerRepository;
+import com.aquainsight.domain.maintenance.service.StepDomainService;
+import com.aquainsight.domain.maintenance.service.StepTemplateDomainService;
+import com.aquainsight.domain.maintenance.service.TaskDomainService;
+import com.aquainsight.domain.maintenance.service.TaskSchedulerDomainService;
+import com.aquainsight.domain.maintenance.service.TaskTemplateDomainService;
+import com.aquainsight.domain.monitoring.repository.SiteRepository;
+import com.aquainsight.domain.organization.service.DepartmentDomainService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MaintenanceApplicationServiceTest {
+
+    private final TaskDomainService taskDomainService = mock(TaskDomainService.class);
+    private final TaskSchedulerRepository taskSchedulerRepository = mock(TaskSchedulerRepository.class);
+    private final ClusterJobManager clusterJobManager = mock(ClusterJobManager.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final MaintenanceApplicationService maintenanceApplicationService = new MaintenanceApplicationService(
+            mock(StepTemplateDomainService.class), mock(TaskTemplateDomainService.class),
+            mock(TaskSchedulerDomainService.class), taskDomainService, taskSchedulerRepository,
+            mock(SiteRepository.class), mock(DepartmentDomainService.class), mock(StepDomainService.class),
+            clusterJobManager, transactionTemplate);
+
+    private final Lease lease = new Lease("task-generate", "instance-1", 1L).withEpoch(3L);
+    private final TaskScheduler plan1 = TaskScheduler.builder().id(1).build();
+    private final TaskScheduler plan2 = TaskScheduler.builder().id(2).build();
+    private final TaskScheduler plan3 = TaskScheduler.builder().id(3).build();
+
+    /**
+     * 按发生顺序记录事务边界、防护校验和任务生成，防护校验须发生在事务内
+     */
+    private final List<String> events = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(taskSchedulerRepository.findActiveTaskSchedulersWithDetails())
+                .thenReturn(Arrays.asList(plan1, plan2, plan3));
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            events.add("begin");
+            Object result = invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+            events.add("commit");
+            return result;
+        });
+        doAnswer(invocation -> events.add("fence")).when(clusterJobManager).checkFence(lease);
+        when(taskDomainService.generateNextInstanceForPlan(any(), eq("SYSTEM")))
+                .thenAnswer(invocation -> {
+                    TaskScheduler plan = invocation.getArgument(0);
+                    events.add("generate-" + plan.getId());
+                    return Task.builder().id(plan.getId()).build();
+                });
+    }
+
+    @Test
+    void generatesEachPlanInOwnFencedTransaction() {
+        when(taskDomainService.generateNextInstanceForPlan(eq(plan2), eq("SYSTEM")))
+                .thenThrow(new IllegalArgumentException("任务已存在"));
+
+        List<Task> generated = maintenanceApplicationService.generateNextInstancesForAllActivePlans("SYSTEM", lease);
+
+        assertEquals(2, generated.size());
+        assertEquals(Arrays.asList(
+                "begin", "fence", "generate-1", "commit",
+                "begin", "fence",
+                "begin", "fence", "generate-3", "commit"), events);
+    }
+
+    @Test
+    void stopsGeneratingWhenFenceFails() {
+        doAnswer(invocation -> {
+            events.add("fence");
+            if (events.contains("generate-1")) {
+                throw new IllegalStateException("写入纪元已过期");
+            }
+            return null;
+        }).when(clusterJobManager).checkFence(lease);
+
+        assertThrows(IllegalStateException.class,
+                () -> maintenanceApplicationService.generateNextInstancesForAllActivePlans("SYSTEM", lease));
+
+        verify(taskDomainService).generateNextInstanceForPlan(plan1, "SYSTEM");
+        verify(taskDomainService, never()).generateNextInstanceForPlan(plan2, "SYSTEM");
+        verify(taskDomainService, never()).generateNextInstanceForPlan(plan3, "SYSTEM");
+    }
+
+    @Test
+    void checksFenceBeforeStatusUpdates() {
+        doThrow(new IllegalStateException("租约已失效")).when(clusterJobManager).checkFence(lease);
+
+        assertThrows(IllegalStateException.class,
+                () -> maintenanceApplicationService.checkAndMarkAllOverdueInstances(lease));
+        assertThrows(IllegalStateException.class,
+                () -> maintenanceApplicationService.checkAndUpdateExpirationStatus(24, lease));
+
+        verify(taskDomainService, never()).checkAndMarkOverdueInstances();
+        verify(taskDomainService, never()).checkAndUpdateExpirationStatus(24);
+    }
+}
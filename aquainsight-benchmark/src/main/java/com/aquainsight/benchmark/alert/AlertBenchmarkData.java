@@ -0,0 +1,88 @@
+package com.aquainsight.benchmark.alert;
+
+import com.aquainsight.domain.alert.entity.AlertRule;
+import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.entity.RuleCondition;
+import com.aquainsight.domain.alert.types.AlertLevel;
+import com.aquainsight.domain.alert.types.AlertTargetType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 基准测试数据
+ * 按站点数生成11项水质指标（每个站点每项一个值），使用固定随机种子保证结果可复现
+ */
+final class AlertBenchmarkData {
+
+    static final String[] METRIC_NAMES = {
+            "site_ph", "site_do", "site_cod", "site_nh3n", "site_tp", "site_tn",
+            "site_turbidity", "site_conductivity", "site_temperature", "site_codmn", "site_flow"
+    };
+
+    private AlertBenchmarkData() {
+    }
+
+    /**
+     * 生成指标名称 -> 指标列表，列表中站点顺序打乱，与采集器返回的顺序无关
+     */
+    static Map<String, List<Metric>> metrics(int targetCount, long seed) {
+        Random random = new Random(seed);
+        LocalDateTime collectTime = LocalDateTime.now();
+        Map<String, List<Metric>> metricsByName = new LinkedHashMap<>();
+        for (String name : METRIC_NAMES) {
+            List<Metric> metrics = new ArrayList<>(targetCount);
+            for (int targetId = 1; targetId <= targetCount; targetId++) {
+                Metric metric = new Metric();
+                metric.setName(name);
+                metric.setTargetType("site");
+                metric.setTargetId(targetId);
+                metric.setValue(BigDecimal.valueOf(random.nextInt(10_000), 2));
+                metric.setCollectTime(collectTime);
+                metrics.add(metric);
+            }
+            Collections.shuffle(metrics, random);
+            metricsByName.put(name, metrics);
+        }
+        return metricsByName;
+    }
+
+    /**
+     * 三个条件的AND规则，各条件约一半站点满足，整体约1/8站点触发
+     */
+    static AlertRule rule() {
+        List<RuleCondition> conditions = Arrays.asList(
+                condition("site_ph", RuleCondition.ComparisonOperator.GT, "50"),
+                condition("site_cod", RuleCondition.ComparisonOperator.LTE, "50"),
+                RuleCondition.builder()
+                        .metric("site_nh3n")
+                        .operator(RuleCondition.ComparisonOperator.NOT_BETWEEN)
+                        .minThreshold(new BigDecimal("25"))
+                        .maxThreshold(new BigDecimal("75"))
+                        .build());
+        return AlertRule.builder()
+                .id(1)
+                .ruleName("基准规则")
+                .alertTargetType(AlertTargetType.SITE)
+                .conditionConfigs(conditions)
+                .alertLevel(AlertLevel.NORMAL)
+                .enabled(1)
+                .deleted(0)
+                .build();
+    }
+
+    private static RuleCondition condition(String metric, RuleCondition.ComparisonOperator operator, String threshold) {
+        return RuleCondition.builder()
+                .metric(metric)
+                .operator(operator)
+                .threshold(new BigDecimal(threshold))
+                .build();
+    }
+}
@@ -0,0 +1,114 @@
+package com.aquainsight.benchmark.alert;
+
+import com.aquainsight.domain.alert.entity.AlertRule;
+import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.entity.RuleCondition;
+import com.aquainsight.domain.alert.types.RuleEvaluationResult;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 优化前的规则评估路径，作为基准测试的对照组
+ * 逐目标逐条件遍历完整指标列表筛选目标数据，并按操作符用BigDecimal比较
+ */
+final class BaselineRuleEvaluator {
+
+    private BaselineRuleEvaluator() {
+    }
+
+    /**
+     * 优化前的 evaluateRuleBatch：目标数 × 指标数 × 条件数
+     */
+    static List<RuleEvaluationResult> evaluateRuleBatch(AlertRule rule, Map<String, List<Metric>> metricsByName) {
+        List<RuleEvaluationResult> results = new ArrayList<>();
+        if (!rule.isEnabled() || !rule.hasConditionConfigs()) {
+            return results;
+        }
+        List<RuleCondition> conditions = rule.getConditionConfigs();
+
+        Set<Integer> allTargetIds = new HashSet<>();
+        for (RuleCondition condition : conditions) {
+            for (Metric metric : metricsByName.get(condition.getMetric())) {
+                allTargetIds.add(metric.getTargetId());
+            }
+        }
+
+        LocalDateTime evaluationTime = LocalDateTime.now();
+        for (Integer targetId : allTargetIds) {
+            List<Metric> allTriggeredMetrics = new ArrayList<>();
+            boolean allConditionsMet = true;
+            for (RuleCondition condition : conditions) {
+                List<Metric> targetMetrics = metricsByName.get(condition.getMetric()).stream()
+                        .filter(m -> m.getTargetId().equals(targetId))
+                        .collect(Collectors.toList());
+                List<Metric> triggeredMetrics = evaluateCondition(condition, targetMetrics);
+                if (triggeredMetrics.isEmpty()) {
+                    allConditionsMet = false;
+                    break;
+                }
+                allTriggeredMetrics.addAll(triggeredMetrics);
+            }
+            if (allConditionsMet) {
+                results.add(RuleEvaluationResult.builder()
+                        .ruleId(rule.getId())
+                        .ruleName(rule.getRuleName())
+                        .triggered(true)
+                        .triggeredMetrics(allTriggeredMetrics)
+                        .evaluationTime(evaluationTime)
+                        .build());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 优化前的 evaluateCondition：每次调用都重新校验条件配置
+     */
+    static List<Metric> evaluateCondition(RuleCondition condition, List<Metric> metrics) {
+        List<Metric> triggeredMetrics = new ArrayList<>();
+        if (condition == null || !condition.isValid() || metrics == null || metrics.isEmpty()) {
+            return triggeredMetrics;
+        }
+        for (Metric metric : metrics) {
+            if (metric.getValue() != null && checkMetricValue(condition, metric.getValue())) {
+                triggeredMetrics.add(metric);
+            }
+        }
+        return triggeredMetrics;
+    }
+
+    /**
+     * 优化前的 checkMetricValue：按操作符分支做BigDecimal比较
+     */
+    static boolean checkMetricValue(RuleCondition condition, BigDecimal value) {
+        switch (condition.getOperator()) {
+            case GT:
+                return value.compareTo(condition.getThreshold()) > 0;
+            case GTE:
+                return value.compareTo(condition.getThreshold()) >= 0;
+            case LT:
+                return value.compareTo(condition.getThreshold()) < 0;
+            case LTE:
+                return value.compareTo(condition.getThreshold()) <= 0;
+            case EQ:
+                return value.compareTo(condition.getThreshold()) == 0;
+            case NEQ:
+                return value.compareTo(condition.getThreshold()) != 0;
+            case BETWEEN:
+                return value.compareTo(condition.getMinThreshold()) >= 0
+                        && value.compareTo(condition.getMaxThreshold()) <= 0;
+            case NOT_BETWEEN:
+                return value.compareTo(condition.getMinThreshold()) < 0
+                        || value.compareTo(condition.getMaxThreshold()) > 0;
+            default:
+                return false;
+        }
+    }
+}
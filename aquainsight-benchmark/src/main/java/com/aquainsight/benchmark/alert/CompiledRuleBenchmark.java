@@ -0,0 +1,157 @@
+package com.aquainsight.benchmark.alert;
+
+import com.aquainsight.common.util.JsonUtil;
+import com.aquainsight.domain.alert.entity.AlertRule;
+import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.entity.RuleCondition;
+import com.aquainsight.domain.alert.repository.AlertRuleRepository;
+import com.aquainsight.domain.alert.service.CompiledRuleCache;
+import com.aquainsight.domain.alert.types.CompiledRule;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Proxy;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 编译规则 vs 优化前的规则评估路径
+ * <ul>
+ *     <li>条件判断：每个指标按操作符分支做BigDecimal比较 vs 预编译的double比较</li>
+ *     <li>规则获取：每次从条件JSON重新解析 vs 从编译规则缓存读取</li>
+ * </ul>
+ *
+ * <pre>
+ * mvn -Pbenchmark -pl aquainsight-benchmark -am package -DskipTests
+ * java -jar aquainsight-benchmark/target/benchmarks.jar CompiledRuleBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CompiledRuleBenchmark {
+
+    @Param({"1000", "5000"})
+    private int targetCount;
+
+    private AlertRule rule;
+    private CompiledRule compiledRule;
+    private String conditionConfigsJson;
+    private CompiledRuleCache compiledRuleCache;
+
+    /**
+     * 按目标排列的条件指标，[目标][指标位置]，两条路径使用相同的数据
+     */
+    private Metric[][][] metricsByTarget;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rule = AlertBenchmarkData.rule();
+        compiledRule = CompiledRule.compile(rule);
+        conditionConfigsJson = JsonUtil.toJsonString(rule.getConditionConfigs());
+        compiledRuleCache = new CompiledRuleCache(ruleRepository(Collections.singletonList(rule)));
+
+        Map<String, List<Metric>> metricsByName = AlertBenchmarkData.metrics(targetCount, 42L);
+        metricsByTarget = new Metric[targetCount][compiledRule.getMetricCount()][];
+        for (int slot = 0; slot < compiledRule.getMetricCount(); slot++) {
+            for (Metric metric : metricsByName.get(compiledRule.getMetricName(slot))) {
+                metricsByTarget[metric.getTargetId() - 1][slot] = new Metric[]{metric};
+            }
+        }
+
+        if (baselineConditionCheck() != compiledConditionCheck()) {
+            throw new IllegalStateException("评估结果不一致");
+        }
+    }
+
+    /**
+     * 优化前：每个目标逐条件校验配置并做BigDecimal比较
+     */
+    @Benchmark
+    public int baselineConditionCheck() {
+        List<RuleCondition> conditions = rule.getConditionConfigs();
+        int triggered = 0;
+        for (Metric[][] targetMetrics : metricsByTarget) {
+            boolean allConditionsMet = true;
+            for (int i = 0; i < conditions.size(); i++) {
+                RuleCondition condition = conditions.get(i);
+                Metric[] metrics = targetMetrics[compiledRule.getMetricSlot(i)];
+                if (!condition.isValid() || !anyMatches(condition, metrics)) {
+                    allConditionsMet = false;
+                    break;
+                }
+            }
+            if (allConditionsMet) {
+                triggered++;
+            }
+        }
+        return triggered;
+    }
+
+    /**
+     * 优化后：编译规则的原始类型比较
+     */
+    @Benchmark
+    public int compiledConditionCheck() {
+        int triggered = 0;
+        for (Metric[][] targetMetrics : metricsByTarget) {
+            if (compiledRule.matches(targetMetrics, null)) {
+                triggered++;
+            }
+        }
+        return triggered;
+    }
+
+    /**
+     * 优化前：每次获取规则都从条件JSON重新解析（仓储转换器中的 stringToConditionList）
+     */
+    @Benchmark
+    public List<RuleCondition> baselineRuleLookup() {
+        return JsonUtil.parseList(conditionConfigsJson, RuleCondition.class);
+    }
+
+    /**
+     * 优化后：从编译规则缓存读取
+     */
+    @Benchmark
+    public CompiledRule cachedRuleLookup() {
+        return compiledRuleCache.getRule(rule.getId()).orElse(null);
+    }
+
+    private static boolean anyMatches(RuleCondition condition, Metric[] metrics) {
+        for (Metric metric : metrics) {
+            if (metric.getValue() != null && BaselineRuleEvaluator.checkMetricValue(condition, metric.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 只支持 findAll 的仓储，编译规则缓存加载规则时使用
+     */
+    private static AlertRuleRepository ruleRepository(List<AlertRule> rules) {
+        return (AlertRuleRepository) Proxy.newProxyInstance(AlertRuleRepository.class.getClassLoader(),
+                new Class<?>[]{AlertRuleRepository.class}, (proxy, method, args) -> {
+                    if ("findAll".equals(method.getName())) {
+                        return rules;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
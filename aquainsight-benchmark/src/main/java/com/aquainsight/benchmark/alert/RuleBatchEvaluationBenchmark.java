@@ -0,0 +1,97 @@
+package com.aquainsight.benchmark.alert;
+
+import com.aquainsight.domain.alert.entity.AlertRule;
+import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.service.AlertRuleDomainService;
+import com.aquainsight.domain.alert.types.CompiledRule;
+import com.aquainsight.domain.alert.types.MetricSnapshot;
+import com.aquainsight.domain.alert.types.RuleEvaluationResult;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量规则评估随站点数的扩展性：逐目标筛选指标列表 vs 按目标ID索引
+ *
+ * <pre>
+ * mvn -Pbenchmark -pl aquainsight-benchmark -am package -DskipTests
+ * java -jar aquainsight-benchmark/target/benchmarks.jar RuleBatchEvaluationBenchmark
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RuleBatchEvaluationBenchmark {
+
+    @Param({"100", "500", "1000", "5000"})
+    private int targetCount;
+
+    private AlertRule rule;
+    private CompiledRule compiledRule;
+    private Map<String, List<Metric>> metricsByName;
+    private MetricSnapshot snapshot;
+    private AlertRuleDomainService alertRuleDomainService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        rule = AlertBenchmarkData.rule();
+        compiledRule = CompiledRule.compile(rule);
+        metricsByName = AlertBenchmarkData.metrics(targetCount, 42L);
+        snapshot = buildSnapshot();
+        // 基于快照的评估不访问仓储、采集器、规则缓存和事件发布；规则不含持续/异常条件，也不读取采样序列
+        alertRuleDomainService = new AlertRuleDomainService(null, null, null, null, null);
+
+        int baseline = BaselineRuleEvaluator.evaluateRuleBatch(rule, metricsByName).size();
+        int indexed = alertRuleDomainService.evaluateRuleBatch(compiledRule, snapshot).size();
+        if (baseline != indexed) {
+            throw new IllegalStateException("评估结果不一致: " + baseline + " != " + indexed);
+        }
+    }
+
+    /**
+     * 优化前：每个目标、每个条件重新遍历完整指标列表
+     */
+    @Benchmark
+    public List<RuleEvaluationResult> baselineStreamFilter() {
+        return BaselineRuleEvaluator.evaluateRuleBatch(rule, metricsByName);
+    }
+
+    /**
+     * 优化后，含本轮快照与目标索引的构建（快照在一个周期内由所有规则共享，这是单规则的上界）
+     */
+    @Benchmark
+    public List<RuleEvaluationResult> indexedIncludingSnapshotBuild() {
+        return alertRuleDomainService.evaluateRuleBatch(compiledRule, buildSnapshot());
+    }
+
+    /**
+     * 优化后，快照已由本周期其他规则构建
+     */
+    @Benchmark
+    public List<RuleEvaluationResult> indexedSharedSnapshot() {
+        return alertRuleDomainService.evaluateRuleBatch(compiledRule, snapshot);
+    }
+
+    private MetricSnapshot buildSnapshot() {
+        return new MetricSnapshot(metricsByName, Collections.emptyMap(), Collections.emptyMap(),
+                AlertBenchmarkData.METRIC_NAMES.length, LocalDateTime.now());
+    }
+}
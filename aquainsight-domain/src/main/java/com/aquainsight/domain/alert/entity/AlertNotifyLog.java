@@ -18,6 +18,11 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 public class AlertNotifyLog {
 
+    /**
+     * 最大重试次数
+     */
+    public static final int MAX_RETRY_COUNT = 3;
+
     /**
      * 通知日志ID
      */
@@ -73,11 +78,43 @@ public class AlertNotifyLog {
      */
     private Integer retryCount;
 
+    /**
+     * 下次重试时间，为空表示不再重试
+     */
+    private LocalDateTime nextRetryTime;
+
     /**
      * 创建时间
      */
     private LocalDateTime createTime;
 
+    /**
+     * 创建待发送的通知日志
+     */
+    public static AlertNotifyLog create(Integer alertRecordId, NotifyType notifyType, String notifyTarget,
+                                        Integer notifyUserId, String notifyUserName, String notifyContent) {
+        if (alertRecordId == null) {
+            throw new IllegalArgumentException("告警记录ID不能为空");
+        }
+        if (notifyType == null) {
+            throw new IllegalArgumentException("通知方式不能为空");
+        }
+        if (notifyTarget == null || notifyTarget.trim().isEmpty()) {
+            throw new IllegalArgumentException("通知目标不能为空");
+        }
+        return AlertNotifyLog.builder()
+                .alertRecordId(alertRecordId)
+                .notifyType(notifyType)
+                .notifyTarget(notifyTarget)
+                .notifyUserId(notifyUserId)
+                .notifyUserName(notifyUserName)
+                .notifyContent(notifyContent)
+                .notifyStatus(NotifyStatus.PENDING)
+                .retryCount(0)
+                .createTime(LocalDateTime.now())
+                .build();
+    }
+
     /**
      * 标记发送成功
      */
@@ -85,6 +122,7 @@ public class AlertNotifyLog {
         this.notifyStatus = NotifyStatus.SUCCESS;
         this.sendTime = LocalDateTime.now();
         this.errorMessage = null;
+        this.nextRetryTime = null;
     }
 
     /**
@@ -96,6 +134,13 @@ public class AlertNotifyLog {
         this.errorMessage = errorMessage;
     }
 
+    /**
+     * 安排下次重试，重试次数已用尽时不再安排
+     */
+    public void scheduleRetry(LocalDateTime nextRetryTime) {
+        this.nextRetryTime = this.canRetry() ? nextRetryTime : null;
+    }
+
     /**
      * 增加重试次数
      */
@@ -131,7 +176,7 @@ public class AlertNotifyLog {
      * 是否可以重试
      */
     public boolean canRetry() {
-        return this.isFailed() && (this.retryCount == null || this.retryCount < 3);
+        return this.isFailed() && (this.retryCount == null || this.retryCount < MAX_RETRY_COUNT);
     }
 
     /**
@@ -168,6 +213,7 @@ public class AlertNotifyLog {
     public void resetToPending() {
         if (this.canRetry()) {
             this.notifyStatus = NotifyStatus.PENDING;
+            this.nextRetryTime = null;
             this.incrementRetryCount();
         } else {
             throw new IllegalStateException("该通知不可重试");
@@ -32,11 +32,12 @@ public class RuleCondition {
      * NEQ: 不等于
      * BETWEEN: 在范围内
      * NOT_BETWEEN: 不在范围内
+     * ANOMALY: 偏离历史基线（异常检测）
      */
     private ComparisonOperator operator;
 
     /**
-     * 阈值（单个阈值时使用）
+     * 阈值（单个阈值时使用；ANOMALY时为偏离基线的z分数阈值，如3表示偏离3个标准差）
      */
     private BigDecimal threshold;
 
@@ -50,6 +51,22 @@ public class RuleCondition {
      */
     private BigDecimal maxThreshold;
 
+    /**
+     * 持续时长(分钟)，条件需连续满足该时长才触发，如"pH值 < 6 持续15分钟"
+     * 为空或0时只判断当前值
+     */
+    private Integer durationMinutes;
+
+    /**
+     * 采样窗口大小，与 minMatchedSamples 配合使用，如"最近5个采样中有3个满足"
+     * 为空或0时不做窗口判断
+     */
+    private Integer windowSamples;
+
+    /**
+     * 采样窗口内至少满足条件的采样数
+     */
+    private Integer minMatchedSamples;
 
     /**
      * 比较操作符枚举
@@ -93,7 +110,12 @@ public class RuleCondition {
         /**
          * 不在范围内
          */
-        NOT_BETWEEN("NOT_BETWEEN", "不在范围内");
+        NOT_BETWEEN("NOT_BETWEEN", "不在范围内"),
+
+        /**
+         * 偏离历史基线
+         */
+        ANOMALY("ANOMALY", "偏离历史基线");
 
         private final String symbol;
         private final String description;
@@ -112,6 +134,14 @@ public class RuleCondition {
         }
     }
 
+    /**
+     * 是否配置了持续时长或采样窗口，需要基于历史采样判断
+     */
+    public boolean hasWindowClause() {
+        return (durationMinutes != null && durationMinutes > 0)
+                || (windowSamples != null && windowSamples > 0);
+    }
+
     /**
      * 验证配置是否有效
      */
@@ -120,11 +150,25 @@ public class RuleCondition {
             return false;
         }
 
+        // 持续时长不能为负，采样窗口需要配置有效的满足次数
+        if (durationMinutes != null && durationMinutes < 0) {
+            return false;
+        }
+        if (windowSamples != null && windowSamples > 0
+                && (minMatchedSamples == null || minMatchedSamples < 1 || minMatchedSamples > windowSamples)) {
+            return false;
+        }
+
         // 范围操作符需要最小和最大阈值
         if (operator == ComparisonOperator.BETWEEN || operator == ComparisonOperator.NOT_BETWEEN) {
             return minThreshold != null && maxThreshold != null && minThreshold.compareTo(maxThreshold) <= 0;
         }
 
+        // 异常检测需要正的z分数阈值
+        if (operator == ComparisonOperator.ANOMALY) {
+            return threshold != null && threshold.signum() > 0;
+        }
+
         // 其他操作符需要阈值
         return threshold != null;
     }
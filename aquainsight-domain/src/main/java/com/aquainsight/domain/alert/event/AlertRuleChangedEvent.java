@@ -0,0 +1,22 @@
+package com.aquainsight.domain.alert.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 告警规则变更事件
+ * 规则创建、修改、启用、禁用、删除或增删条件后触发
+ */
+@Getter
+public class AlertRuleChangedEvent extends ApplicationEvent {
+
+    /**
+     * 告警规则ID
+     */
+    private final Integer ruleId;
+
+    public AlertRuleChangedEvent(Object source, Integer ruleId) {
+        super(source);
+        this.ruleId = ruleId;
+    }
+}
@@ -6,6 +6,7 @@ import com.aquainsight.domain.alert.types.NotifyType;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -54,11 +55,25 @@ public interface AlertNotifyLogRepository {
      */
     List<AlertNotifyLog> findFailedAndRetryableNotifyLogs();
 
+    /**
+     * 查找已到重试时间的失败通知日志，按重试时间先后排列
+     *
+     * @param now 当前时间
+     * @param notifyTypes 只查找这些通知方式
+     * @param limit 最大条数
+     */
+    List<AlertNotifyLog> findRetryDueNotifyLogs(LocalDateTime now, Collection<NotifyType> notifyTypes, int limit);
+
     /**
      * 更新通知日志
      */
     AlertNotifyLog update(AlertNotifyLog notifyLog);
 
+    /**
+     * 批量更新通知日志
+     */
+    List<AlertNotifyLog> batchUpdate(List<AlertNotifyLog> notifyLogs);
+
     /**
      * 根据ID删除通知日志
      */
@@ -60,6 +60,11 @@ public interface AlertRecordRepository {
      */
     AlertRecord update(AlertRecord alertRecord);
 
+    /**
+     * 批量更新告警记录
+     */
+    List<AlertRecord> batchUpdate(List<AlertRecord> alertRecords);
+
     /**
      * 根据ID删除告警记录
      */
@@ -0,0 +1,24 @@
+package com.aquainsight.domain.alert.repository;
+
+import com.aquainsight.domain.alert.types.AnomalyBaseline;
+
+import java.util.Map;
+
+/**
+ * 异常检测基线仓储
+ * 保存基线检查点，重启后恢复，避免基线重新预热
+ */
+public interface AnomalyBaselineRepository {
+
+    /**
+     * 加载检查点
+     *
+     * @return 指标名称 -> 目标ID -> 基线，无检查点时返回空Map
+     */
+    Map<String, Map<Integer, AnomalyBaseline>> load();
+
+    /**
+     * 保存检查点，覆盖上一个检查点
+     */
+    void save(Map<String, Map<Integer, AnomalyBaseline>> baselines);
+}
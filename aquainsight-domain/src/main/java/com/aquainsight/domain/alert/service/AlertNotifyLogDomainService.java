@@ -11,6 +11,7 @@ import org.springframework.stereotype.Service;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 /**
  * 告警通知日志领域服务
@@ -20,6 +21,7 @@ import java.util.List;
 public class AlertNotifyLogDomainService {
 
     private final AlertNotifyLogRepository alertNotifyLogRepository;
+    private final NotificationDispatcher notificationDispatcher;
 
     /**
      * 创建通知日志
@@ -27,29 +29,8 @@ public class AlertNotifyLogDomainService {
     public AlertNotifyLog createNotifyLog(Integer alertRecordId, NotifyType notifyType,
                                          String notifyTarget, Integer notifyUserId,
                                          String notifyUserName, String notifyContent) {
-        // 验证必填字段
-        if (alertRecordId == null) {
-            throw new IllegalArgumentException("告警记录ID不能为空");
-        }
-        if (notifyType == null) {
-            throw new IllegalArgumentException("通知方式不能为空");
-        }
-        if (notifyTarget == null || notifyTarget.trim().isEmpty()) {
-            throw new IllegalArgumentException("通知目标不能为空");
-        }
-
-        AlertNotifyLog log = AlertNotifyLog.builder()
-                .alertRecordId(alertRecordId)
-                .notifyType(notifyType)
-                .notifyTarget(notifyTarget)
-                .notifyUserId(notifyUserId)
-                .notifyUserName(notifyUserName)
-                .notifyContent(notifyContent)
-                .notifyStatus(NotifyStatus.PENDING)
-                .retryCount(0)
-                .createTime(LocalDateTime.now())
-                .build();
-
+        AlertNotifyLog log = AlertNotifyLog.create(alertRecordId, notifyType, notifyTarget,
+                notifyUserId, notifyUserName, notifyContent);
         return alertNotifyLogRepository.save(log);
     }
 
@@ -219,23 +200,23 @@ public class AlertNotifyLogDomainService {
     }
 
     /**
-     * 批量重试失败的通知
+     * 批量重试已到重试时间的失败通知
+     * 只取渠道未熔断的通知方式，按重试时间先后取一批重新发送，再以发送结果和下次重试时间批量写回
+     *
+     * @param batchSize 本批最多重试的条数
+     * @return 本批重试的通知日志
      */
-    public List<AlertNotifyLog> batchRetryFailed() {
-        List<AlertNotifyLog> failedLogs = getFailedAndRetryableNotifyLogs();
-        List<AlertNotifyLog> retriedLogs = new ArrayList<>();
-
-        for (AlertNotifyLog log : failedLogs) {
-            try {
-                AlertNotifyLog retriedLog = retry(log.getId());
-                retriedLogs.add(retriedLog);
-            } catch (Exception e) {
-                // 记录日志但继续处理其他记录
-                continue;
-            }
+    public List<AlertNotifyLog> batchRetryFailed(int batchSize) {
+        Set<NotifyType> notifyTypes = notificationDispatcher.getAvailableNotifyTypes();
+        List<AlertNotifyLog> dueLogs = alertNotifyLogRepository.findRetryDueNotifyLogs(
+                LocalDateTime.now(), notifyTypes, batchSize);
+        if (dueLogs.isEmpty()) {
+            return dueLogs;
         }
 
-        return retriedLogs;
+        dueLogs.forEach(AlertNotifyLog::resetToPending);
+        notificationDispatcher.send(dueLogs);
+        return alertNotifyLogRepository.batchUpdate(dueLogs);
     }
 
     /**
@@ -0,0 +1,41 @@
+package com.aquainsight.domain.alert.service;
+
+/**
+ * 告警静默期去重索引
+ * 以(规则ID, 目标类型, 目标ID)为键记录最近一次告警时间，静默期内的重复告警无需查询告警记录表
+ */
+public interface AlertQuietPeriodIndex {
+
+    /**
+     * 尝试登记一次告警
+     * 静默期内已存在相同规则和目标的告警时返回false；否则登记本次告警时间并返回true
+     *
+     * @param ruleId 规则ID
+     * @param targetType 目标类型
+     * @param targetId 目标ID
+     * @param alertTimeMillis 告警时间(毫秒时间戳)
+     * @param quietPeriodMinutes 规则静默期(分钟)
+     * @return 是否允许创建告警
+     */
+    boolean tryAcquire(Integer ruleId, String targetType, Integer targetId,
+                       long alertTimeMillis, int quietPeriodMinutes);
+
+    /**
+     * 登记一条已存在的告警，用于启动时从告警记录预热
+     * 仅当该告警时间晚于已登记时间时覆盖
+     */
+    void record(Integer ruleId, String targetType, Integer targetId,
+                long alertTimeMillis, int quietPeriodMinutes);
+
+    /**
+     * 撤销登记，告警记录保存失败时调用
+     */
+    void release(Integer ruleId, String targetType, Integer targetId);
+
+    /**
+     * 构建索引键
+     */
+    static String key(Integer ruleId, String targetType, Integer targetId) {
+        return ruleId + ":" + targetType + ":" + targetId;
+    }
+}
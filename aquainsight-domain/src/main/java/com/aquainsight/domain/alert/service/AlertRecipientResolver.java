@@ -0,0 +1,205 @@
+package com.aquainsight.domain.alert.service;
+
+import com.aquainsight.domain.alert.entity.AlertRecord;
+import com.aquainsight.domain.alert.entity.AlertRule;
+import com.aquainsight.domain.alert.repository.AlertRuleRepository;
+import com.aquainsight.domain.alert.types.AlertNotifyPlan;
+import com.aquainsight.domain.alert.types.AlertTargetType;
+import com.aquainsight.domain.alert.types.CompiledRule;
+import com.aquainsight.domain.alert.types.NotifyType;
+import com.aquainsight.domain.maintenance.entity.Task;
+import com.aquainsight.domain.maintenance.repository.TaskRepository;
+import com.aquainsight.domain.organization.service.OrganizationIndex;
+import com.aquainsight.domain.user.entity.User;
+import com.aquainsight.domain.user.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 告警接收人解析
+ * 每条告警只取一次规则（优先取编译规则缓存中的规则），接收人先解析为用户ID列表，再一次批量查询用户。
+ * 规则配置的通知人员和通知部门按规则缓存，规则重新加载后自动失效；
+ * 通知部门（包含全部下级部门）和任务部门的成员由组织索引在内存中解析
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AlertRecipientResolver {
+
+    private final CompiledRuleCache compiledRuleCache;
+    private final AlertRuleRepository alertRuleRepository;
+    private final TaskRepository taskRepository;
+    private final UserRepository userRepository;
+    private final OrganizationIndex organizationIndex;
+
+    /**
+     * 规则ID -> 规则配置的接收人
+     */
+    private final Map<Integer, RuleRecipients> ruleRecipients = new ConcurrentHashMap<>();
+
+    /**
+     * 解析告警的接收人、通知方式和通知内容
+     */
+    public AlertNotifyPlan resolve(AlertRecord alertRecord) {
+        AlertRule rule = findRule(alertRecord.getRuleId());
+        return new AlertNotifyPlan(resolveRecipients(alertRecord, rule),
+                resolveNotifyTypes(rule), formatMessage(alertRecord, rule));
+    }
+
+    private AlertRule findRule(Integer ruleId) {
+        if (ruleId == null) {
+            return null;
+        }
+        return compiledRuleCache.getRule(ruleId)
+                .map(CompiledRule::getRule)
+                .orElseGet(() -> alertRuleRepository.findById(ruleId).orElse(null));
+    }
+
+    private List<User> resolveRecipients(AlertRecord alertRecord, AlertRule rule) {
+        if (rule == null) {
+            return new ArrayList<>();
+        }
+
+        // 优先使用规则中配置的通知人员和通知部门（包含下级部门）的成员
+        RuleRecipients configured = getRuleRecipients(rule);
+        if (!configured.isEmpty()) {
+            Set<Integer> userIds = new LinkedHashSet<>(configured.userIds);
+            userIds.addAll(organizationIndex.resolveUserIds(configured.departmentIds));
+            return findUsers(new ArrayList<>(userIds));
+        }
+
+        // 规则中没有配置人员时，根据目标类型获取负责人
+        if (AlertTargetType.TASK.equals(alertRecord.getTargetType())) {
+            return findUsers(getTaskUserIds(alertRecord.getTargetId()));
+        }
+        // TODO: 站点负责人需要在Site实体中添加负责人字段
+        return new ArrayList<>();
+    }
+
+    /**
+     * 规则配置的接收人，缓存项与规则实例绑定，规则重新加载后重新解析
+     */
+    private RuleRecipients getRuleRecipients(AlertRule rule) {
+        RuleRecipients cached = ruleRecipients.get(rule.getId());
+        if (cached != null && cached.rule == rule) {
+            return cached;
+        }
+        List<Integer> userIds;
+        try {
+            userIds = Collections.unmodifiableList(rule.getNotifyUserIdList());
+        } catch (NumberFormatException e) {
+            log.warn("告警规则通知人员配置无效，规则ID: {}, 配置: {}", rule.getId(), rule.getNotifyUsers());
+            userIds = Collections.emptyList();
+        }
+        List<Integer> departmentIds;
+        try {
+            departmentIds = Collections.unmodifiableList(rule.getNotifyDepartmentIdList());
+        } catch (NumberFormatException e) {
+            log.warn("告警规则通知部门配置无效，规则ID: {}, 配置: {}", rule.getId(), rule.getNotifyDepartments());
+            departmentIds = Collections.emptyList();
+        }
+        RuleRecipients recipients = new RuleRecipients(rule, userIds, departmentIds);
+        ruleRecipients.put(rule.getId(), recipients);
+        return recipients;
+    }
+
+    /**
+     * 任务所属部门的全部成员
+     */
+    private List<Integer> getTaskUserIds(Integer taskId) {
+        try {
+            Task task = taskRepository.findById(taskId);
+            if (task == null || task.getDepartmentId() == null) {
+                return Collections.emptyList();
+            }
+            return organizationIndex.getMemberIds(task.getDepartmentId());
+        } catch (Exception e) {
+            log.warn("获取任务负责人失败，任务ID: {}", taskId, e);
+            return Collections.emptyList();
+        }
+    }
+
+    /**
+     * 按ID批量查询用户，保持ID的顺序
+     */
+    private List<User> findUsers(List<Integer> userIds) {
+        if (userIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        Map<Integer, User> usersById = userRepository.findByIds(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity(), (a, b) -> a));
+        return userIds.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private List<NotifyType> resolveNotifyTypes(AlertRule rule) {
+        List<String> notifyTypeCodes = rule != null ? rule.getNotifyTypeList() : null;
+        if (notifyTypeCodes == null || notifyTypeCodes.isEmpty()) {
+            // 默认使用短信通知
+            List<NotifyType> defaultList = new ArrayList<>();
+            defaultList.add(NotifyType.SMS);
+            return defaultList;
+        }
+
+        // 转换为 NotifyType 枚举，忽略无效的编码
+        List<NotifyType> notifyTypes = new ArrayList<>(notifyTypeCodes.size());
+        for (String code : notifyTypeCodes) {
+            try {
+                notifyTypes.add(NotifyType.fromCode(code));
+            } catch (Exception e) {
+                log.warn("告警规则通知方式无效，规则ID: {}, 通知方式: {}", rule.getId(), code);
+            }
+        }
+        return notifyTypes;
+    }
+
+    private String formatMessage(AlertRecord alertRecord, AlertRule rule) {
+        if (rule == null || rule.getAlertMessage() == null) {
+            // 使用默认格式
+            return String.format("【%s告警】目标：%s，消息：%s",
+                    alertRecord.getAlertLevel().getDescription(),
+                    alertRecord.getTargetName(),
+                    alertRecord.getAlertMessage());
+        }
+
+        // 使用规则中的消息模板，支持 {targetName}、{alertMessage}、{alertLevel} 占位符
+        return rule.getAlertMessage()
+                .replace("{targetName}", alertRecord.getTargetName() != null ? alertRecord.getTargetName() : "")
+                .replace("{alertMessage}", alertRecord.getAlertMessage() != null ? alertRecord.getAlertMessage() : "")
+                .replace("{alertLevel}", alertRecord.getAlertLevel().getDescription());
+    }
+
+    /**
+     * 规则配置的接收人
+     */
+    private static final class RuleRecipients {
+
+        private final AlertRule rule;
+        private final List<Integer> userIds;
+        private final List<Integer> departmentIds;
+
+        private RuleRecipients(AlertRule rule, List<Integer> userIds, List<Integer> departmentIds) {
+            this.rule = rule;
+            this.userIds = userIds;
+            this.departmentIds = departmentIds;
+        }
+
+        private boolean isEmpty() {
+            return userIds.isEmpty() && departmentIds.isEmpty();
+        }
+    }
+}
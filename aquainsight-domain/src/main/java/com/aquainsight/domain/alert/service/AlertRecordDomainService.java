@@ -5,22 +5,15 @@ import com.aquainsight.domain.alert.entity.AlertRule;
 import com.aquainsight.domain.alert.event.AlertCreatedEvent;
 import com.aquainsight.domain.alert.event.AlertRecoveredEvent;
 import com.aquainsight.domain.alert.repository.AlertRecordRepository;
-import com.aquainsight.domain.alert.repository.AlertRuleRepository;
 import com.aquainsight.domain.alert.types.AlertLevel;
+import com.aquainsight.domain.alert.types.AlertNotifyPlan;
 import com.aquainsight.domain.alert.types.AlertRuleType;
 import com.aquainsight.domain.alert.types.AlertStatus;
 import com.aquainsight.domain.alert.types.AlertTargetType;
 import com.aquainsight.domain.alert.types.NotifyStatus;
 import com.aquainsight.domain.alert.types.NotifyType;
-import com.aquainsight.domain.maintenance.entity.Task;
 import com.aquainsight.domain.maintenance.entity.TaskScheduler;
-import com.aquainsight.domain.maintenance.repository.TaskRepository;
-import com.aquainsight.domain.monitoring.entity.Site;
-import com.aquainsight.domain.monitoring.repository.SiteRepository;
 import com.aquainsight.domain.user.entity.User;
-import com.aquainsight.domain.user.entity.UserDepartment;
-import com.aquainsight.domain.user.repository.UserDepartmentRepository;
-import com.aquainsight.domain.user.repository.UserRepository;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.ApplicationEventPublisher;
@@ -28,7 +21,6 @@ import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -41,11 +33,7 @@ public class AlertRecordDomainService {
 
     private final AlertRecordRepository alertRecordRepository;
     private final ApplicationEventPublisher eventPublisher;
-    private final AlertRuleRepository alertRuleRepository;
-    private final UserRepository userRepository;
-    private final SiteRepository siteRepository;
-    private final TaskRepository taskRepository;
-    private final UserDepartmentRepository userDepartmentRepository;
+    private final AlertRecipientResolver alertRecipientResolver;
 
     /**
      * 创建告警记录
@@ -281,47 +269,7 @@ public class AlertRecordDomainService {
      * @return 接收人用户列表
      */
     public List<User> getAlertRecipients(AlertRecord alertRecord) {
-        // 1. 获取告警规则
-        AlertRule alertRule = alertRuleRepository.findById(alertRecord.getRuleId())
-                .orElse(null);
-
-        if (alertRule == null) {
-            return new ArrayList<>();
-        }
-
-        List<User> recipients = new ArrayList<>();
-
-        // 2. 优先使用规则中配置的通知人员
-        List<Integer> notifyUserIds = alertRule.getNotifyUserIdList();
-        if (notifyUserIds != null && !notifyUserIds.isEmpty()) {
-            // 根据用户ID获取用户信息
-            for (Integer userId : notifyUserIds) {
-                try {
-                    User user = userRepository.findById(userId).orElse(null);
-                    if (user != null) {
-                        recipients.add(user);
-                    }
-                } catch (Exception e) {
-                    // 跳过异常用户
-                }
-            }
-            return recipients;
-        }
-
-        // 3. 如果规则中没有配置人员，则根据目标类型获取负责人
-        AlertTargetType targetType = alertRecord.getTargetType();
-        Integer targetId = alertRecord.getTargetId();
-
-        if (AlertTargetType.TASK.equals(targetType)) {
-            // 获取任务负责人
-            return getTaskRecipients(targetId);
-        } else if (AlertTargetType.SITE.equals(targetType)) {
-            // 获取站点负责人
-            return getSiteRecipients(targetId);
-        }
-
-        // 其他类型不做告警
-        return new ArrayList<>();
+        return alertRecipientResolver.resolve(alertRecord).getRecipients();
     }
 
     /**
@@ -331,37 +279,7 @@ public class AlertRecordDomainService {
      * @return 通知方式列表
      */
     public List<NotifyType> getNotifyTypes(AlertRecord alertRecord) {
-        // 获取告警规则
-        AlertRule alertRule = alertRuleRepository.findById(alertRecord.getRuleId())
-                .orElse(null);
-
-        if (alertRule == null) {
-            // 默认使用短信通知
-            List<NotifyType> defaultList = new ArrayList<>();
-            defaultList.add(NotifyType.SMS);
-            return defaultList;
-        }
-
-        // 从规则中获取通知方式
-        List<String> notifyTypeCodes = alertRule.getNotifyTypeList();
-        if (notifyTypeCodes == null || notifyTypeCodes.isEmpty()) {
-            // 默认使用短信通知
-            List<NotifyType> defaultList = new ArrayList<>();
-            defaultList.add(NotifyType.SMS);
-            return defaultList;
-        }
-
-        // 转换为 NotifyType 枚举
-        return notifyTypeCodes.stream()
-                .map(code -> {
-                    try {
-                        return NotifyType.fromCode(code);
-                    } catch (Exception e) {
-                        return null;
-                    }
-                })
-                .filter(type -> type != null)
-                .collect(Collectors.toList());
+        return alertRecipientResolver.resolve(alertRecord).getNotifyTypes();
     }
 
     /**
@@ -371,88 +289,16 @@ public class AlertRecordDomainService {
      * @return 格式化后的告警消息
      */
     public String getFormattedAlertMessage(AlertRecord alertRecord) {
-        // 获取告警规则
-        AlertRule alertRule = alertRuleRepository.findById(alertRecord.getRuleId())
-                .orElse(null);
-
-        if (alertRule == null || alertRule.getAlertMessage() == null) {
-            // 使用默认格式
-            return String.format("【%s告警】目标：%s，消息：%s",
-                    alertRecord.getAlertLevel().getDescription(),
-                    alertRecord.getTargetName(),
-                    alertRecord.getAlertMessage());
-        }
-
-        // 使用规则中的消息模板
-        // 可以支持占位符替换，例如：{targetName}、{alertMessage} 等
-        String template = alertRule.getAlertMessage();
-        return template
-                .replace("{targetName}", alertRecord.getTargetName() != null ? alertRecord.getTargetName() : "")
-                .replace("{alertMessage}", alertRecord.getAlertMessage() != null ? alertRecord.getAlertMessage() : "")
-                .replace("{alertLevel}", alertRecord.getAlertLevel().getDescription());
-    }
-
-    /**
-     * 获取任务负责人
-     * 返回任务所属 plan 中 department 的所有成员
-     */
-    private List<User> getTaskRecipients(Integer taskId) {
-        List<User> recipients = new ArrayList<>();
-
-        try {
-            Task jobInstance = taskRepository.findById(taskId);
-            if (jobInstance != null) {
-                // 获取任务中的部门ID
-                Integer departmentId = jobInstance.getDepartmentId();
-
-                if (departmentId != null) {
-                    // 获取部门的所有用户关系
-                    List<UserDepartment> userDepartments = userDepartmentRepository.findByDepartmentId(departmentId);
-
-                    // 根据用户ID获取用户信息
-                    for (UserDepartment userDepartment : userDepartments) {
-                        try {
-                            User user = userRepository.findById(userDepartment.getUserId()).orElse(null);
-                            if (user != null) {
-                                recipients.add(user);
-                            }
-                        } catch (Exception e) {
-                            // 跳过异常用户
-                        }
-                    }
-                }
-            }
-        } catch (Exception e) {
-            // 记录日志但不抛出异常
-        }
-
-        return recipients;
+        return alertRecipientResolver.resolve(alertRecord).getMessage();
     }
 
     /**
-     * 获取站点负责人
-     * TODO: 需要在Site实体中添加负责人字段
+     * 获取告警的接收人、通知方式和通知内容，规则只加载一次
+     *
+     * @param alertRecord 告警记录
+     * @return 告警通知计划
      */
-    private List<User> getSiteRecipients(Integer siteId) {
-        List<User> recipients = new ArrayList<>();
-
-        try {
-            Site site = siteRepository.findById(siteId).orElse(null);
-            if (site != null) {
-                // TODO: 从Site中获取负责人信息
-                // 目前Site实体中没有负责人字段，需要添加
-                // Integer principalUserId = site.getPrincipalUserId();
-                // if (principalUserId != null) {
-                //     User user = userRepository.findById(principalUserId).orElse(null);
-                //     if (user != null) {
-                //         recipients.add(user);
-                //     }
-                // }
-            }
-        } catch (Exception e) {
-            // 记录日志但不抛出异常
-        }
-
-        return recipients;
+    public AlertNotifyPlan getNotifyPlan(AlertRecord alertRecord) {
+        return alertRecipientResolver.resolve(alertRecord);
     }
 }
@@ -0,0 +1,424 @@
+package com.aquainsight.domain.alert.service;
+
+import com.aquainsight.domain.alert.entity.AlertRule;
+import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.repository.AlertRuleRepository;
+import com.aquainsight.domain.alert.types.AlertTargetType;
+import com.aquainsight.domain.alert.types.AnomalyBaseline;
+import com.aquainsight.domain.alert.types.BacktestEpisode;
+import com.aquainsight.domain.alert.types.BacktestResult;
+import com.aquainsight.domain.alert.types.BacktestTargetResult;
+import com.aquainsight.domain.alert.types.CompiledRule;
+import com.aquainsight.domain.alert.types.SeriesLookup;
+import com.aquainsight.domain.alert.types.SeriesRingBuffer;
+import com.aquainsight.domain.monitoring.entity.Factor;
+import com.aquainsight.domain.monitoring.entity.Site;
+import com.aquainsight.domain.monitoring.repository.FactorReadingRepository;
+import com.aquainsight.domain.monitoring.repository.FactorRepository;
+import com.aquainsight.domain.monitoring.repository.SiteRepository;
+import com.aquainsight.domain.monitoring.types.SeriesPointConsumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 告警规则回测服务
+ * 按站点逐条序列流式读取历史读数，按时间顺序回放给与流式评估相同的编译规则：
+ * 多指标条件使用各指标最近一次的值，持续条件和异常检测条件使用回测私有的采样序列和基线，
+ * 不读写生产评估状态，也不写入告警记录。站点之间互不影响，按fork/join并行回放
+ */
+@Slf4j
+@Service
+public class AlertRuleBacktestService {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final AlertRuleRepository alertRuleRepository;
+    private final FactorRepository factorRepository;
+    private final SiteRepository siteRepository;
+    private final FactorReadingRepository factorReadingRepository;
+    private final int seriesCapacity;
+    private final double anomalyAlpha;
+    private final int anomalyWarmupSamples;
+    private final int maxDays;
+    private final int maxTimelinePerTarget;
+    private final int sitesPerTask;
+    private final ForkJoinPool pool;
+
+    /**
+     * 同一时间只运行一个回测，避免多个大范围回测同时扫描历史读数
+     */
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public AlertRuleBacktestService(AlertRuleRepository alertRuleRepository,
+                                    FactorRepository factorRepository,
+                                    SiteRepository siteRepository,
+                                    FactorReadingRepository factorReadingRepository,
+                                    @Value("${aquainsight.alert.series.capacity:64}") int seriesCapacity,
+                                    @Value("${aquainsight.alert.anomaly.alpha:0.1}") double anomalyAlpha,
+                                    @Value("${aquainsight.alert.anomaly.warmup-samples:20}") int anomalyWarmupSamples,
+                                    @Value("${aquainsight.alert.backtest.parallelism:0}") int parallelism,
+                                    @Value("${aquainsight.alert.backtest.max-days:93}") int maxDays,
+                                    @Value("${aquainsight.alert.backtest.max-timeline-per-target:200}") int maxTimelinePerTarget,
+                                    @Value("${aquainsight.alert.backtest.sites-per-task:8}") int sitesPerTask) {
+        this.alertRuleRepository = alertRuleRepository;
+        this.factorRepository = factorRepository;
+        this.siteRepository = siteRepository;
+        this.factorReadingRepository = factorReadingRepository;
+        this.seriesCapacity = seriesCapacity;
+        this.anomalyAlpha = anomalyAlpha;
+        this.anomalyWarmupSamples = anomalyWarmupSamples;
+        this.maxDays = maxDays;
+        this.maxTimelinePerTarget = Math.max(0, maxTimelinePerTarget);
+        this.sitesPerTask = Math.max(1, sitesPerTask);
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(threads, forkJoinPool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(forkJoinPool);
+            thread.setName("alert-backtest-" + thread.getPoolIndex());
+            return thread;
+        }, null, false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * 回测告警规则在时间范围内本应产生的告警，规则未启用时同样按启用回测
+     *
+     * @param ruleId 告警规则ID
+     * @param startTime 开始时间
+     * @param endTime 结束时间
+     * @param siteIds 回测的站点，为空时回测全部站点
+     */
+    public BacktestResult backtest(Integer ruleId, LocalDateTime startTime, LocalDateTime endTime,
+                                   List<Integer> siteIds) {
+        if (startTime == null || endTime == null || !startTime.isBefore(endTime)) {
+            throw new IllegalArgumentException("回测时间范围不正确");
+        }
+        if (maxDays > 0 && startTime.plusDays(maxDays).isBefore(endTime)) {
+            throw new IllegalArgumentException("回测时间范围不能超过" + maxDays + "天");
+        }
+        AlertRule rule = alertRuleRepository.findById(ruleId)
+                .orElseThrow(() -> new IllegalArgumentException("告警规则不存在"));
+        if (rule.getAlertTargetType() != AlertTargetType.SITE) {
+            throw new IllegalArgumentException("只有站点监测因子保存了历史读数，仅支持回测站点告警规则");
+        }
+        CompiledRule compiledRule = CompiledRule.compileIgnoringEnabled(rule);
+        if (!compiledRule.isEvaluable()) {
+            throw new IllegalArgumentException("告警规则没有有效的触发条件");
+        }
+        int[] factorIds = resolveFactorIds(compiledRule);
+        int[] targets = resolveSiteIds(siteIds);
+
+        if (!running.compareAndSet(false, true)) {
+            throw new IllegalStateException("已有回测正在运行，请稍后再试");
+        }
+        try {
+            long begin = System.currentTimeMillis();
+            Replay replay = new Replay(compiledRule, factorIds, startTime, endTime);
+            List<BacktestTargetResult> results = pool.invoke(new SiteBatchTask(replay, targets, 0, targets.length));
+            results.sort(Comparator.comparingInt(BacktestTargetResult::getTriggerCount).reversed()
+                    .thenComparing(BacktestTargetResult::getTargetId));
+
+            long firingCount = 0;
+            long triggerCount = 0;
+            for (BacktestTargetResult result : results) {
+                firingCount += result.getFiringCount();
+                triggerCount += result.getTriggerCount();
+            }
+            long costMillis = System.currentTimeMillis() - begin;
+            log.info("告警规则回测完成。规则: {}, 时间范围: {} ~ {}, 站点数: {}, 读数: {}, 告警数: {}, 耗时: {}ms",
+                    rule.getRuleName(), startTime, endTime, replay.targetCount.sum(),
+                    replay.observationCount.sum(), triggerCount, costMillis);
+            return BacktestResult.builder()
+                    .ruleId(rule.getId())
+                    .ruleName(rule.getRuleName())
+                    .startTime(startTime)
+                    .endTime(endTime)
+                    .targetCount(replay.targetCount.intValue())
+                    .observationCount(replay.observationCount.sum())
+                    .firingCount(firingCount)
+                    .triggerCount(triggerCount)
+                    .costMillis(costMillis)
+                    .targets(results)
+                    .build();
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * 站点指标以因子名称命名，按规则的指标位置解析对应的因子ID
+     */
+    private int[] resolveFactorIds(CompiledRule compiledRule) {
+        Map<String, Integer> factorIdsByName = new HashMap<>();
+        for (Factor factor : factorRepository.findAll()) {
+            factorIdsByName.put(factor.getFactorName(), factor.getId());
+        }
+        int[] factorIds = new int[compiledRule.getMetricCount()];
+        for (int slot = 0; slot < factorIds.length; slot++) {
+            Integer factorId = factorIdsByName.get(compiledRule.getMetricName(slot));
+            if (factorId == null) {
+                throw new IllegalArgumentException("指标没有历史读数，不支持回测: " + compiledRule.getMetricName(slot));
+            }
+            factorIds[slot] = factorId;
+        }
+        return factorIds;
+    }
+
+    private int[] resolveSiteIds(List<Integer> siteIds) {
+        if (siteIds != null && !siteIds.isEmpty()) {
+            return siteIds.stream().filter(id -> id != null).mapToInt(Integer::intValue).distinct().toArray();
+        }
+        return siteRepository.findAll().stream().map(Site::getId).mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * 回放单个站点，规则引用的任一因子在时间范围内没有读数时跳过；没有触发时返回null
+     */
+    private BacktestTargetResult replaySite(Replay replay, int siteId) {
+        CompiledRule rule = replay.rule;
+        int metricCount = rule.getMetricCount();
+        PointBuffer[] points = new PointBuffer[metricCount];
+        for (int slot = 0; slot < metricCount; slot++) {
+            PointBuffer buffer = new PointBuffer();
+            factorReadingRepository.scanSeries(siteId, replay.factorIds[slot], replay.startTime, replay.endTime, buffer);
+            if (buffer.size == 0) {
+                return null;
+            }
+            points[slot] = buffer;
+        }
+        replay.targetCount.increment();
+
+        ReplaySeries series = new ReplaySeries(rule, seriesCapacity);
+        Metric[][] targetMetrics = new Metric[metricCount][];
+        for (int slot = 0; slot < metricCount; slot++) {
+            Metric metric = new Metric();
+            metric.setName(rule.getMetricName(slot));
+            metric.setTargetType(AlertTargetType.SITE.getCode());
+            metric.setTargetId(siteId);
+            targetMetrics[slot] = new Metric[]{metric};
+        }
+
+        AlertRule alertRule = rule.getRule();
+        long quietMillis = alertRule.hasQuietPeriod() ? alertRule.getQuietPeriod() * 60_000L : 0;
+        long lastAlertMillis = Long.MIN_VALUE;
+        boolean firing = false;
+        int firingCount = 0;
+        int triggerCount = 0;
+        boolean truncated = false;
+        List<BacktestEpisode> timeline = new ArrayList<>();
+        BacktestEpisode episode = null;
+
+        // 各指标的读数已按时间升序，多路归并后逐点回放；规则的指标数很少，直接线性选取最早的读数
+        int[] cursors = new int[metricCount];
+        int received = 0;
+        long observations = 0;
+        while (true) {
+            int slot = -1;
+            long timestamp = Long.MAX_VALUE;
+            for (int i = 0; i < metricCount; i++) {
+                if (cursors[i] < points[i].size && points[i].timestamps[cursors[i]] < timestamp) {
+                    slot = i;
+                    timestamp = points[i].timestamps[cursors[i]];
+                }
+            }
+            if (slot < 0) {
+                break;
+            }
+            double value = points[slot].values[cursors[slot]];
+            if (cursors[slot]++ == 0) {
+                received++;
+            }
+            observations++;
+            targetMetrics[slot][0].setValue(BigDecimal.valueOf(value));
+            series.record(slot, timestamp, value, anomalyAlpha, anomalyWarmupSamples);
+
+            // 与流式评估一致：任一指标尚无数据时视为不触发
+            boolean matches = received == metricCount && rule.matches(targetMetrics, series);
+            if (matches && !firing) {
+                firing = true;
+                firingCount++;
+                boolean alerted = lastAlertMillis == Long.MIN_VALUE || lastAlertMillis + quietMillis <= timestamp;
+                if (alerted) {
+                    triggerCount++;
+                    lastAlertMillis = timestamp;
+                }
+                if (timeline.size() < maxTimelinePerTarget) {
+                    episode = BacktestEpisode.builder().startTime(toLocal(timestamp)).alerted(alerted).build();
+                    timeline.add(episode);
+                } else {
+                    truncated = true;
+                }
+            } else if (!matches && firing) {
+                firing = false;
+                if (episode != null) {
+                    episode.setEndTime(toLocal(timestamp));
+                    episode = null;
+                }
+            }
+        }
+        replay.observationCount.add(observations);
+        if (firingCount == 0) {
+            return null;
+        }
+        return BacktestTargetResult.builder()
+                .targetType(AlertTargetType.SITE.getCode())
+                .targetId(siteId)
+                .firingCount(firingCount)
+                .triggerCount(triggerCount)
+                .timeline(timeline)
+                .truncated(truncated)
+                .build();
+    }
+
+    private static LocalDateTime toLocal(long timestampMillis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMillis), ZONE);
+    }
+
+    /**
+     * 一次回测的共享参数和统计
+     */
+    private static final class Replay {
+
+        private final CompiledRule rule;
+        private final int[] factorIds;
+        private final LocalDateTime startTime;
+        private final LocalDateTime endTime;
+        private final LongAdder targetCount = new LongAdder();
+        private final LongAdder observationCount = new LongAdder();
+
+        private Replay(CompiledRule rule, int[] factorIds, LocalDateTime startTime, LocalDateTime endTime) {
+            this.rule = rule;
+            this.factorIds = factorIds;
+            this.startTime = startTime;
+            this.endTime = endTime;
+        }
+    }
+
+    /**
+     * 按站点区间递归拆分的回放任务
+     */
+    private final class SiteBatchTask extends RecursiveTask<List<BacktestTargetResult>> {
+
+        private final Replay replay;
+        private final int[] siteIds;
+        private final int from;
+        private final int to;
+
+        private SiteBatchTask(Replay replay, int[] siteIds, int from, int to) {
+            this.replay = replay;
+            this.siteIds = siteIds;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected List<BacktestTargetResult> compute() {
+            if (to - from > sitesPerTask) {
+                int mid = (from + to) >>> 1;
+                SiteBatchTask left = new SiteBatchTask(replay, siteIds, from, mid);
+                left.fork();
+                List<BacktestTargetResult> results = new SiteBatchTask(replay, siteIds, mid, to).compute();
+                results.addAll(left.join());
+                return results;
+            }
+            List<BacktestTargetResult> results = new ArrayList<>();
+            for (int i = from; i < to; i++) {
+                BacktestTargetResult result = replaySite(replay, siteIds[i]);
+                if (result != null) {
+                    results.add(result);
+                }
+            }
+            return results;
+        }
+    }
+
+    /**
+     * 回测私有的序列状态，按规则的指标位置保存采样序列和异常检测基线
+     */
+    private static final class ReplaySeries implements SeriesLookup {
+
+        private final String[] metricNames;
+        private final SeriesRingBuffer[] buffers;
+        private final AnomalyBaseline[] baselines;
+
+        private ReplaySeries(CompiledRule rule, int capacity) {
+            int metricCount = rule.getMetricCount();
+            metricNames = new String[metricCount];
+            buffers = new SeriesRingBuffer[metricCount];
+            baselines = new AnomalyBaseline[metricCount];
+            for (int slot = 0; slot < metricCount; slot++) {
+                metricNames[slot] = rule.getMetricName(slot);
+                buffers[slot] = new SeriesRingBuffer(capacity);
+                baselines[slot] = new AnomalyBaseline();
+            }
+        }
+
+        private void record(int slot, long timestampMillis, double value, double alpha, int warmupSamples) {
+            buffers[slot].append(timestampMillis, value);
+            baselines[slot].observe(timestampMillis, value, alpha, warmupSamples);
+        }
+
+        @Override
+        public SeriesRingBuffer find(String metricName, int targetId) {
+            int slot = slotOf(metricName);
+            return slot >= 0 ? buffers[slot] : null;
+        }
+
+        @Override
+        public double anomalyScore(String metricName, int targetId) {
+            int slot = slotOf(metricName);
+            return slot >= 0 ? baselines[slot].getLastScore() : Double.NaN;
+        }
+
+        private int slotOf(String metricName) {
+            for (int slot = 0; slot < metricNames.length; slot++) {
+                if (metricNames[slot].equals(metricName)) {
+                    return slot;
+                }
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * 按时间升序接收一条序列的读数，使用原始类型数组保存
+     */
+    private static final class PointBuffer implements SeriesPointConsumer {
+
+        private long[] timestamps = new long[256];
+        private double[] values = new double[256];
+        private int size;
+
+        @Override
+        public void accept(long timestampMillis, double value) {
+            if (size == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, size << 1);
+                values = Arrays.copyOf(values, size << 1);
+            }
+            timestamps[size] = timestampMillis;
+            values[size] = value;
+            size++;
+        }
+    }
+}
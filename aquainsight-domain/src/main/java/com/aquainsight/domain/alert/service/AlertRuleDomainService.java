@@ -3,18 +3,31 @@ package com.aquainsight.domain.alert.service;
 import com.aquainsight.domain.alert.entity.AlertRule;
 import com.aquainsight.domain.alert.entity.Metric;
 import com.aquainsight.domain.alert.entity.RuleCondition;
+import com.aquainsight.domain.alert.event.AlertRuleChangedEvent;
 import com.aquainsight.domain.alert.repository.AlertRuleRepository;
 import com.aquainsight.domain.alert.types.AlertLevel;
 import com.aquainsight.domain.alert.types.AlertTargetType;
+import com.aquainsight.domain.alert.types.CompiledCondition;
+import com.aquainsight.domain.alert.types.CompiledRule;
+import com.aquainsight.domain.alert.types.MetricSnapshot;
 import com.aquainsight.domain.alert.types.RuleEvaluationResult;
+import com.aquainsight.domain.alert.types.TargetMetricIndex;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * 告警规则领域服务
@@ -25,6 +38,9 @@ public class AlertRuleDomainService {
 
     private final AlertRuleRepository alertRuleRepository;
     private final MetricCollectorRegistry metricCollectorRegistry;
+    private final CompiledRuleCache compiledRuleCache;
+    private final RuleSeriesState ruleSeriesState;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 创建告警规则
@@ -72,8 +88,11 @@ public class AlertRuleDomainService {
         if (!rule.validateConditionConfigs()) {
             throw new IllegalArgumentException("告警条件配置无效");
         }
+        validateWindows(rule.getConditionConfigs());
 
-        return alertRuleRepository.save(rule);
+        AlertRule savedRule = alertRuleRepository.save(rule);
+        eventPublisher.publishEvent(new AlertRuleChangedEvent(this, savedRule.getId()));
+        return savedRule;
     }
 
     /**
@@ -102,8 +121,9 @@ public class AlertRuleDomainService {
         if (!rule.validateConditionConfigs()) {
             throw new IllegalArgumentException("告警条件配置无效");
         }
+        validateWindows(rule.getConditionConfigs());
 
-        return alertRuleRepository.update(rule);
+        return updateAndPublish(rule);
     }
 
     /**
@@ -118,7 +138,7 @@ public class AlertRuleDomainService {
         }
 
         rule.enable();
-        return alertRuleRepository.update(rule);
+        return updateAndPublish(rule);
     }
 
     /**
@@ -133,7 +153,7 @@ public class AlertRuleDomainService {
         }
 
         rule.disable();
-        return alertRuleRepository.update(rule);
+        return updateAndPublish(rule);
     }
 
     /**
@@ -144,6 +164,16 @@ public class AlertRuleDomainService {
                 .orElseThrow(() -> new IllegalArgumentException("告警规则不存在"));
 
         alertRuleRepository.deleteById(ruleId);
+        eventPublisher.publishEvent(new AlertRuleChangedEvent(this, ruleId));
+    }
+
+    /**
+     * 更新规则并发布规则变更事件，事务提交后失效编译规则缓存
+     */
+    private AlertRule updateAndPublish(AlertRule rule) {
+        AlertRule updatedRule = alertRuleRepository.update(rule);
+        eventPublisher.publishEvent(new AlertRuleChangedEvent(this, rule.getId()));
+        return updatedRule;
     }
 
     /**
@@ -168,6 +198,21 @@ public class AlertRuleDomainService {
         return alertRuleRepository.findAllEnabled();
     }
 
+    /**
+     * 获取所有启用的编译规则
+     * 规则从缓存读取，只在规则变更后重新解析和编译
+     */
+    public List<CompiledRule> getEnabledCompiledRules() {
+        return compiledRuleCache.getEnabledRules();
+    }
+
+    /**
+     * 根据ID获取编译规则（包含禁用的规则）
+     */
+    public Optional<CompiledRule> findCompiledRule(Integer ruleId) {
+        return compiledRuleCache.getRule(ruleId);
+    }
+
     /**
      * 根据规则类型获取启用的告警规则
      */
@@ -192,9 +237,10 @@ public class AlertRuleDomainService {
         if (config == null || !config.isValid()) {
             throw new IllegalArgumentException("条件配置无效");
         }
+        ruleSeriesState.validateWindow(config);
 
         rule.addConditionConfig(config);
-        return alertRuleRepository.update(rule);
+        return updateAndPublish(rule);
     }
 
     /**
@@ -205,7 +251,16 @@ public class AlertRuleDomainService {
                 .orElseThrow(() -> new IllegalArgumentException("告警规则不存在"));
 
         rule.removeConditionConfig(config);
-        return alertRuleRepository.update(rule);
+        return updateAndPublish(rule);
+    }
+
+    /**
+     * 校验各条件的持续时长和采样窗口不超过采样序列可覆盖的范围
+     */
+    private void validateWindows(List<RuleCondition> conditionConfigs) {
+        if (conditionConfigs != null) {
+            conditionConfigs.forEach(ruleSeriesState::validateWindow);
+        }
     }
 
     /**
@@ -242,12 +297,9 @@ public class AlertRuleDomainService {
         }
 
         // 遍历所有采集到的指标值，找出所有满足条件的指标
+        CompiledCondition compiledCondition = CompiledCondition.compile(condition);
         for (Metric metric : metrics) {
-            if (metric.getValue() == null) {
-                continue;
-            }
-
-            if (checkMetricValue(condition, metric.getValue())) {
+            if (compiledCondition.test(metric.getValue())) {
                 triggeredMetrics.add(metric);
             }
         }
@@ -256,127 +308,161 @@ public class AlertRuleDomainService {
     }
 
     /**
-     * 检查指标值是否满足条件
+     * 采集指标快照
+     * 汇总所有规则引用的指标名称，每个指标只调用一次采集器
      *
-     * @param condition 规则条件
-     * @param value 指标值
-     * @return 是否满足条件
+     * @param rules 参与本轮评估的告警规则
+     * @return 只读的指标快照
+     */
+    public MetricSnapshot collectMetricSnapshot(List<AlertRule> rules) {
+        Set<String> metricNames = new LinkedHashSet<>();
+        int requestedCount = 0;
+        for (AlertRule rule : rules) {
+            if (!rule.hasConditionConfigs()) {
+                continue;
+            }
+            for (RuleCondition condition : rule.getConditionConfigs()) {
+                metricNames.add(condition.getMetric());
+                requestedCount++;
+            }
+        }
+
+        Map<String, List<Metric>> metricsByName = new LinkedHashMap<>();
+        Map<String, String> failedMetrics = new LinkedHashMap<>();
+        Map<String, Long> collectCostMillis = new LinkedHashMap<>();
+
+        for (String metricName : metricNames) {
+            long start = System.currentTimeMillis();
+            try {
+                // 根据指标名称获取对应的采集器
+                MetricCollector collector = metricCollectorRegistry.getCollector(metricName);
+
+                // 批量采集该指标的所有目标对象数据
+                metricsByName.put(metricName, collector.collectAll(metricName));
+            } catch (Exception e) {
+                failedMetrics.put(metricName, e.getMessage());
+            }
+            collectCostMillis.put(metricName, System.currentTimeMillis() - start);
+        }
+
+        return new MetricSnapshot(metricsByName, failedMetrics, collectCostMillis,
+                requestedCount, LocalDateTime.now());
+    }
+
+    /**
+     * 将快照中的采样记录到持续条件的采样序列和异常检测基线
+     * 每个评估周期只记录一次，恢复检查的快照不记录，以免重复计入采样窗口
      */
-    private boolean checkMetricValue(RuleCondition condition, BigDecimal value) {
-        RuleCondition.ComparisonOperator operator = condition.getOperator();
-
-        switch (operator) {
-            case GT:
-                return value.compareTo(condition.getThreshold()) > 0;
-            case GTE:
-                return value.compareTo(condition.getThreshold()) >= 0;
-            case LT:
-                return value.compareTo(condition.getThreshold()) < 0;
-            case LTE:
-                return value.compareTo(condition.getThreshold()) <= 0;
-            case EQ:
-                return value.compareTo(condition.getThreshold()) == 0;
-            case NEQ:
-                return value.compareTo(condition.getThreshold()) != 0;
-            case BETWEEN:
-                return value.compareTo(condition.getMinThreshold()) >= 0
-                    && value.compareTo(condition.getMaxThreshold()) <= 0;
-            case NOT_BETWEEN:
-                return value.compareTo(condition.getMinThreshold()) < 0
-                    || value.compareTo(condition.getMaxThreshold()) > 0;
-            default:
-                return false;
+    public void recordSeries(MetricSnapshot snapshot) {
+        for (String metricName : snapshot.getMetricNames()) {
+            ruleSeriesState.recordAll(metricName, snapshot.getMetrics(metricName));
         }
     }
 
     /**
      * 批量评估告警规则
      * 采集所有目标对象的指标，并按目标分组返回评估结果
-     * 用于定时任务中大规模扫描
      *
      * @param ruleId 告警规则ID
      * @return 按目标ID分组的评估结果列表（只包含触发告警的结果）
      */
     public List<RuleEvaluationResult> evaluateRuleBatch(Integer ruleId) {
-        List<RuleEvaluationResult> results = new ArrayList<>();
-
-        // 获取告警规则
-        AlertRule rule = alertRuleRepository.findById(ruleId)
+        // 从缓存获取编译后的告警规则
+        CompiledRule rule = compiledRuleCache.getRule(ruleId)
                 .orElseThrow(() -> new IllegalArgumentException("告警规则不存在"));
 
-        // 检查规则是否启用
-        if (!rule.isEnabled() || !rule.hasConditionConfigs()) {
-            return results;
+        // 规则禁用、无条件或存在无效条件时不可能触发
+        if (!rule.isEvaluable()) {
+            return new ArrayList<>();
         }
 
-        List<RuleCondition> conditions = rule.getConditionConfigs();
+        return evaluateRuleBatch(rule, collectMetricSnapshot(Collections.singletonList(rule.getRule())));
+    }
 
-        // 第一步：批量采集所有条件的指标数据
-        // 使用Map存储每个条件对应的所有指标数据
-        java.util.Map<String, List<Metric>> conditionMetricsMap = new java.util.HashMap<>();
+    /**
+     * 基于指标快照批量评估告警规则
+     *
+     * @param rule 告警规则
+     * @param snapshot 本轮评估周期的指标快照
+     * @return 按目标ID分组的评估结果列表（只包含触发告警的结果）
+     */
+    public List<RuleEvaluationResult> evaluateRuleBatch(AlertRule rule, MetricSnapshot snapshot) {
+        return evaluateRuleBatch(CompiledRule.compile(rule), snapshot);
+    }
 
-        for (RuleCondition condition : conditions) {
-            // 根据指标名称获取对应的采集器
-            MetricCollector collector = metricCollectorRegistry.getCollector(condition.getMetric());
+    /**
+     * 基于指标快照批量评估编译规则
+     * 用于定时任务中大规模扫描，所有规则共享同一份快照
+     *
+     * @param rule 编译后的告警规则
+     * @param snapshot 本轮评估周期的指标快照
+     * @return 按目标ID分组的评估结果列表（只包含触发告警的结果）
+     */
+    public List<RuleEvaluationResult> evaluateRuleBatch(CompiledRule rule, MetricSnapshot snapshot) {
+        List<RuleEvaluationResult> results = new ArrayList<>();
 
-            // 批量采集该指标的所有目标对象数据
-            List<Metric> allMetrics = collector.collectAll(condition.getMetric());
-            conditionMetricsMap.put(condition.getMetric(), allMetrics);
+        // 规则禁用、无条件或存在无效条件时不可能触发
+        if (!rule.isEvaluable()) {
+            return results;
         }
 
-        // 第二步：按目标ID分组，找出所有涉及的目标对象
-        java.util.Set<Integer> allTargetIds = new java.util.HashSet<>();
-        for (List<Metric> metrics : conditionMetricsMap.values()) {
-            for (Metric metric : metrics) {
-                allTargetIds.add(metric.getTargetId());
+        // 第一步：取出每个指标对应的目标索引，并找出目标最少的指标作为驱动
+        // AND逻辑下只有所有条件都有数据的目标才可能触发，遍历最小的索引即可
+        int metricCount = rule.getMetricCount();
+        TargetMetricIndex[] indexes = new TargetMetricIndex[metricCount];
+        int driver = 0;
+        for (int slot = 0; slot < metricCount; slot++) {
+            indexes[slot] = snapshot.getIndex(rule.getMetricName(slot));
+            if (indexes[slot].size() < indexes[driver].size()) {
+                driver = slot;
             }
         }
 
-        // 第三步：对每个目标对象进行规则评估
+        // 第二步：每个目标单次遍历所有条件，全部满足时才收集触发的指标
         LocalDateTime evaluationTime = LocalDateTime.now();
-        for (Integer targetId : allTargetIds) {
-            RuleEvaluationResult result = RuleEvaluationResult.builder()
-                    .ruleId(rule.getId())
-                    .ruleName(rule.getRuleName())
-                    .triggered(false)
-                    .triggeredMetrics(new ArrayList<>())
-                    .evaluationTime(evaluationTime)
-                    .build();
-
-            List<Metric> allTriggeredMetrics = new ArrayList<>();
-            boolean allConditionsMet = true;
-
-            // 检查该目标对象是否满足所有条件（AND逻辑）
-            for (RuleCondition condition : conditions) {
-                // 从采集的数据中筛选出该目标对象的指标
-                List<Metric> targetMetrics = conditionMetricsMap.get(condition.getMetric()).stream()
-                        .filter(m -> m.getTargetId().equals(targetId))
-                        .collect(java.util.stream.Collectors.toList());
-
-                // 评估条件，获取满足条件的指标
-                List<Metric> triggeredMetrics = evaluateCondition(condition, targetMetrics);
-
-                // 如果该条件没有满足的指标，则整体不触发告警
-                if (triggeredMetrics.isEmpty()) {
-                    allConditionsMet = false;
-                    break;
-                }
+        TargetMetricIndex driverIndex = indexes[driver];
+        Metric[][] targetMetrics = new Metric[metricCount][];
+        for (int position = 0; position < driverIndex.size(); position++) {
+            int targetId = driverIndex.targetIdAt(position);
+            for (int slot = 0; slot < metricCount; slot++) {
+                targetMetrics[slot] = indexes[slot].get(targetId);
+            }
 
-                // 收集所有触发的指标
-                allTriggeredMetrics.addAll(triggeredMetrics);
+            if (!rule.matches(targetMetrics, ruleSeriesState)) {
+                continue;
             }
 
             // 只有所有条件都满足时才触发告警
-            if (allConditionsMet) {
-                result.setTriggered(true);
-                result.setTriggeredMetrics(allTriggeredMetrics);
-                results.add(result);
-            }
+            results.add(RuleEvaluationResult.builder()
+                    .ruleId(rule.getRuleId())
+                    .ruleName(rule.getRule().getRuleName())
+                    .triggered(true)
+                    .triggeredMetrics(rule.collectMatchedMetrics(targetMetrics))
+                    .evaluationTime(evaluationTime)
+                    .build());
         }
 
         return results;
     }
 
+    /**
+     * 基于指标快照评估规则，返回当前仍触发告警的目标对象
+     * 用于批量恢复检查，一条规则只评估一次即可判定其下所有活跃告警
+     *
+     * @param rule 编译后的告警规则
+     * @param snapshot 指标快照
+     * @return 目标类型 -> 触发告警的目标ID集合
+     */
+    public Map<String, Set<Integer>> evaluateTriggeredTargets(CompiledRule rule, MetricSnapshot snapshot) {
+        Map<String, Set<Integer>> triggeredTargets = new HashMap<>();
+        for (RuleEvaluationResult result : evaluateRuleBatch(rule, snapshot)) {
+            Metric metric = result.getTriggeredMetrics().get(0);
+            triggeredTargets.computeIfAbsent(metric.getTargetType(), type -> new HashSet<>())
+                    .add(metric.getTargetId());
+        }
+        return triggeredTargets;
+    }
+
     /**
      * 评估告警规则的所有条件是否满足（单个目标对象）
      * 所有条件都满足时才触发告警（AND逻辑）
@@ -388,55 +474,37 @@ public class AlertRuleDomainService {
      * @return 规则评估结果，包含是否触发告警和触发的指标列表
      */
     public RuleEvaluationResult evaluateRule(Integer ruleId, String targetType, Integer targetId) {
-        // 获取告警规则
-        AlertRule rule = alertRuleRepository.findById(ruleId)
+        // 从缓存获取编译后的告警规则
+        CompiledRule rule = compiledRuleCache.getRule(ruleId)
                 .orElseThrow(() -> new IllegalArgumentException("告警规则不存在"));
 
         RuleEvaluationResult result = RuleEvaluationResult.builder()
-                .ruleId(rule.getId())
-                .ruleName(rule.getRuleName())
+                .ruleId(rule.getRuleId())
+                .ruleName(rule.getRule().getRuleName())
                 .triggered(false)
                 .triggeredMetrics(new ArrayList<>())
                 .evaluationTime(LocalDateTime.now())
                 .build();
 
-        // 检查规则是否启用
-        if (!rule.isEnabled() || !rule.hasConditionConfigs()) {
+        // 规则禁用、无条件或存在无效条件时不可能触发
+        if (!rule.isEvaluable()) {
             return result;
         }
 
-        List<RuleCondition> conditions = rule.getConditionConfigs();
-        List<Metric> allTriggeredMetrics = new ArrayList<>();
-        boolean allConditionsMet = true;
-
-        // 所有条件都必须满足（AND逻辑）
-        for (RuleCondition condition : conditions) {
-            // 根据指标名称获取对应的采集器
-            MetricCollector collector = metricCollectorRegistry.getCollector(condition.getMetric());
-
-            // 批量采集指标数据，然后筛选出目标对象的数据
-            List<Metric> allMetrics = collector.collectAll(condition.getMetric());
-            List<Metric> targetMetrics = allMetrics.stream()
-                    .filter(m -> m.getTargetId().equals(targetId) && targetType.equals(m.getTargetType()))
-                    .collect(java.util.stream.Collectors.toList());
-
-            // 评估条件，获取满足条件的指标
-            List<Metric> triggeredMetrics = evaluateCondition(condition, targetMetrics);
-
-            // 如果该条件没有满足的指标，则整体不触发告警
-            if (triggeredMetrics.isEmpty()) {
-                allConditionsMet = false;
-                break;
-            }
-
-            // 收集所有触发的指标
-            allTriggeredMetrics.addAll(triggeredMetrics);
+        // 每个指标只采集一次，然后筛选出目标对象的数据
+        Metric[][] targetMetrics = new Metric[rule.getMetricCount()][];
+        for (int slot = 0; slot < rule.getMetricCount(); slot++) {
+            String metricName = rule.getMetricName(slot);
+            MetricCollector collector = metricCollectorRegistry.getCollector(metricName);
+            targetMetrics[slot] = collector.collectAll(metricName).stream()
+                    .filter(m -> targetId.equals(m.getTargetId()) && targetType.equals(m.getTargetType()))
+                    .toArray(Metric[]::new);
         }
 
-        // 只有所有条件都满足时才触发告警
-        if (allConditionsMet) {
+        // 只有所有条件都满足时才触发告警（AND逻辑）
+        if (rule.matches(targetMetrics, ruleSeriesState)) {
             result.setTriggered(true);
-            result.setTriggeredMetrics(allTriggeredMetrics);
+            result.setTriggeredMetrics(rule.collectMatchedMetrics(targetMetrics));
         }
 
         return result;
@@ -0,0 +1,144 @@
+package com.aquainsight.domain.alert.service;
+
+import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.repository.AnomalyBaselineRepository;
+import com.aquainsight.domain.alert.types.AnomalyBaseline;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 在线异常检测
+ * 为ANOMALY条件引用的指标按(指标, 目标)维护EWMA基线，每个序列O(1)状态；
+ * 基线定期写入检查点，启动时恢复
+ */
+@Slf4j
+@Service
+public class AnomalyDetector {
+
+    private final CompiledRuleCache compiledRuleCache;
+    private final AnomalyBaselineRepository anomalyBaselineRepository;
+    private final double alpha;
+    private final int warmupSamples;
+
+    /**
+     * 指标名称 -> 目标ID -> 基线
+     */
+    private final Map<String, Map<Integer, AnomalyBaseline>> baselines = new ConcurrentHashMap<>();
+
+    /**
+     * 上次检查点之后是否有更新
+     */
+    private volatile boolean dirty;
+
+    public AnomalyDetector(CompiledRuleCache compiledRuleCache,
+                           AnomalyBaselineRepository anomalyBaselineRepository,
+                           @Value("${aquainsight.alert.anomaly.alpha:0.1}") double alpha,
+                           @Value("${aquainsight.alert.anomaly.warmup-samples:20}") int warmupSamples) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("异常检测平滑系数必须在(0, 1]之间: " + alpha);
+        }
+        this.compiledRuleCache = compiledRuleCache;
+        this.anomalyBaselineRepository = anomalyBaselineRepository;
+        this.alpha = alpha;
+        this.warmupSamples = warmupSamples;
+    }
+
+    @PostConstruct
+    public void restore() {
+        try {
+            Map<String, Map<Integer, AnomalyBaseline>> restored = anomalyBaselineRepository.load();
+            restored.forEach((metricName, series) ->
+                    baselines.put(metricName, new ConcurrentHashMap<>(series)));
+            log.info("异常检测基线已恢复，序列数: {}", getSeriesCount());
+        } catch (Exception e) {
+            log.warn("异常检测基线恢复失败，将重新预热", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        checkpoint();
+    }
+
+    /**
+     * 观测一个采样，未被ANOMALY条件引用的指标不处理
+     */
+    public void observe(Metric metric) {
+        if (metric.getName() == null || metric.getTargetId() == null || metric.getValue() == null
+                || !compiledRuleCache.isAnomalyTracked(metric.getName())) {
+            return;
+        }
+        observe(baselinesOf(metric.getName()), metric);
+    }
+
+    /**
+     * 批量观测同一指标的采样
+     */
+    public void observeAll(String metricName, Collection<Metric> metrics) {
+        if (!compiledRuleCache.isAnomalyTracked(metricName)) {
+            return;
+        }
+        Map<Integer, AnomalyBaseline> series = baselinesOf(metricName);
+        for (Metric metric : metrics) {
+            if (metric.getTargetId() != null && metric.getValue() != null) {
+                observe(series, metric);
+            }
+        }
+    }
+
+    /**
+     * 最近一个采样相对基线的z分数，基线不存在或尚未就绪时返回NaN
+     */
+    public double score(String metricName, int targetId) {
+        Map<Integer, AnomalyBaseline> series = baselines.get(metricName);
+        AnomalyBaseline baseline = series != null ? series.get(targetId) : null;
+        return baseline != null ? baseline.getLastScore() : Double.NaN;
+    }
+
+    /**
+     * 写入检查点，无更新时跳过
+     */
+    public void checkpoint() {
+        if (!dirty) {
+            return;
+        }
+        dirty = false;
+        try {
+            anomalyBaselineRepository.save(baselines);
+            log.debug("异常检测基线检查点已写入，序列数: {}", getSeriesCount());
+        } catch (Exception e) {
+            dirty = true;
+            log.error("异常检测基线检查点写入失败", e);
+        }
+    }
+
+    public int getSeriesCount() {
+        int count = 0;
+        for (Map<Integer, AnomalyBaseline> series : baselines.values()) {
+            count += series.size();
+        }
+        return count;
+    }
+
+    private Map<Integer, AnomalyBaseline> baselinesOf(String metricName) {
+        return baselines.computeIfAbsent(metricName, name -> new ConcurrentHashMap<>());
+    }
+
+    private void observe(Map<Integer, AnomalyBaseline> series, Metric metric) {
+        long timestamp = metric.getCollectTime() != null
+                ? metric.getCollectTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+        AnomalyBaseline baseline = series.computeIfAbsent(metric.getTargetId(), targetId -> new AnomalyBaseline());
+        if (baseline.observe(timestamp, metric.getValue().doubleValue(), alpha, warmupSamples)) {
+            dirty = true;
+        }
+    }
+}
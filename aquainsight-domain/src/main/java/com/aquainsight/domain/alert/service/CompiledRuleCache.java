@@ -0,0 +1,194 @@
+package com.aquainsight.domain.alert.service;
+
+import com.aquainsight.domain.alert.entity.AlertRule;
+import com.aquainsight.domain.alert.repository.AlertRuleRepository;
+import com.aquainsight.domain.alert.types.CompiledCondition;
+import com.aquainsight.domain.alert.types.CompiledRule;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 编译规则缓存
+ * 规则只在加载时从JSON解析并编译一次，规则变更的事务提交后失效缓存；
+ * 另设刷新周期，以便感知其他实例上的规则变更
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CompiledRuleCache {
+
+    /**
+     * 缓存刷新周期(毫秒)
+     */
+    private static final long REFRESH_INTERVAL_MILLIS = 60_000L;
+
+    private final AlertRuleRepository alertRuleRepository;
+
+    private volatile RuleSet ruleSet;
+
+    /**
+     * 失效代数，每次失效加一，规则集合记录加载开始时的代数
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * 是否有调用方正在重新加载
+     */
+    private final AtomicBoolean loading = new AtomicBoolean();
+
+    /**
+     * 获取所有启用的编译规则
+     */
+    public List<CompiledRule> getEnabledRules() {
+        return current().enabledRules;
+    }
+
+    /**
+     * 根据ID获取编译规则（包含禁用的规则）
+     */
+    public Optional<CompiledRule> getRule(Integer ruleId) {
+        return Optional.ofNullable(current().rulesById.get(ruleId));
+    }
+
+    /**
+     * 获取引用指定指标的可评估规则，用于指标到达时只评估受影响的规则
+     */
+    public List<CompiledRule> getRulesByMetric(String metricName) {
+        return current().rulesByMetric.getOrDefault(metricName, Collections.emptyList());
+    }
+
+    /**
+     * 指标是否被启用规则的持续时长/采样窗口条件引用，需要记录采样序列
+     */
+    public boolean isSeriesTracked(String metricName) {
+        return current().sustainedMetrics.contains(metricName);
+    }
+
+    /**
+     * 指标是否被启用规则的ANOMALY条件引用，需要维护异常检测基线
+     */
+    public boolean isAnomalyTracked(String metricName) {
+        return current().anomalyMetrics.contains(metricName);
+    }
+
+    /**
+     * 失效缓存，下次访问时重新加载
+     * 需在规则变更的事务提交后调用，否则并发加载可能读到提交前的规则
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+    }
+
+    /**
+     * 获取当前规则集合
+     * 只有首次加载时调用方需要等待；此后过期或失效时由一个调用方在锁外重新加载，
+     * 加载期间其他调用方继续使用旧的规则集合，加载完成后通过volatile引用发布
+     */
+    private RuleSet current() {
+        RuleSet current = ruleSet;
+        if (current == null) {
+            synchronized (this) {
+                current = ruleSet;
+                if (current == null) {
+                    current = load(generation.get());
+                    ruleSet = current;
+                }
+            }
+            return current;
+        }
+        if (isStale(current) && loading.compareAndSet(false, true)) {
+            try {
+                current = ruleSet;
+                if (isStale(current)) {
+                    current = load(generation.get());
+                    ruleSet = current;
+                }
+            } catch (RuntimeException e) {
+                log.warn("重新加载告警规则失败，继续使用上次加载的规则", e);
+            } finally {
+                loading.set(false);
+            }
+        }
+        return current;
+    }
+
+    private boolean isStale(RuleSet current) {
+        return current.generation != generation.get()
+                || System.currentTimeMillis() - current.loadTimeMillis > REFRESH_INTERVAL_MILLIS;
+    }
+
+    private RuleSet load(long loadGeneration) {
+        long loadTimeMillis = System.currentTimeMillis();
+        Map<Integer, CompiledRule> rulesById = new LinkedHashMap<>();
+        List<CompiledRule> enabledRules = new ArrayList<>();
+        Map<String, List<CompiledRule>> rulesByMetric = new HashMap<>();
+        Set<String> sustainedMetrics = new HashSet<>();
+        Set<String> anomalyMetrics = new HashSet<>();
+        for (AlertRule rule : alertRuleRepository.findAll()) {
+            CompiledRule compiledRule = CompiledRule.compile(rule);
+            rulesById.put(rule.getId(), compiledRule);
+            if (rule.isEnabled()) {
+                enabledRules.add(compiledRule);
+            }
+            if (compiledRule.isEvaluable()) {
+                for (int slot = 0; slot < compiledRule.getMetricCount(); slot++) {
+                    rulesByMetric.computeIfAbsent(compiledRule.getMetricName(slot), name -> new ArrayList<>())
+                            .add(compiledRule);
+                }
+                for (int i = 0; i < compiledRule.getConditionCount(); i++) {
+                    CompiledCondition condition = compiledRule.getCondition(i);
+                    if (condition.isAnomaly()) {
+                        anomalyMetrics.add(condition.getMetric());
+                    } else if (condition.isSustained()) {
+                        sustainedMetrics.add(condition.getMetric());
+                    }
+                }
+            }
+        }
+        return new RuleSet(Collections.unmodifiableMap(rulesById), Collections.unmodifiableList(enabledRules),
+                rulesByMetric, sustainedMetrics, anomalyMetrics, loadGeneration, loadTimeMillis);
+    }
+
+    /**
+     * 一次加载得到的只读规则集合
+     */
+    private static final class RuleSet {
+
+        private final Map<Integer, CompiledRule> rulesById;
+        private final List<CompiledRule> enabledRules;
+        private final Map<String, List<CompiledRule>> rulesByMetric;
+        private final Set<String> sustainedMetrics;
+        private final Set<String> anomalyMetrics;
+
+        /**
+         * 开始加载时的失效代数，加载期间发生失效时本集合立即视为过期
+         */
+        private final long generation;
+        private final long loadTimeMillis;
+
+        private RuleSet(Map<Integer, CompiledRule> rulesById, List<CompiledRule> enabledRules,
+                        Map<String, List<CompiledRule>> rulesByMetric, Set<String> sustainedMetrics,
+                        Set<String> anomalyMetrics, long generation, long loadTimeMillis) {
+            this.rulesById = rulesById;
+            this.enabledRules = enabledRules;
+            this.rulesByMetric = rulesByMetric;
+            this.sustainedMetrics = sustainedMetrics;
+            this.anomalyMetrics = anomalyMetrics;
+            this.generation = generation;
+            this.loadTimeMillis = loadTimeMillis;
+        }
+    }
+}
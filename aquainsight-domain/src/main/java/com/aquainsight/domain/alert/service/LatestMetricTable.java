@@ -0,0 +1,200 @@
+package com.aquainsight.domain.alert.service;
+
+import com.aquainsight.domain.alert.entity.Metric;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 指标最新值表
+ * 每个(指标, 目标)分配一个稠密序列ID，最新值和采集时间保存在按序列ID索引的基本类型数组中；
+ * 写入在数据接入时完成，采集器读取时只做内存扫描。
+ * 读取使用序列版本号校验(seqlock)，不加锁；同一序列的并发写入按分段锁串行
+ */
+@Slf4j
+@Service
+public class LatestMetricTable {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final int WRITE_STRIPES = 64;
+
+    private final int capacity;
+
+    /**
+     * 序列版本号，写入期间为奇数
+     */
+    private final AtomicLongArray versions;
+    private final AtomicLongArray valueBits;
+    private final AtomicLongArray collectMillis;
+    private final Object[] writeLocks = new Object[WRITE_STRIPES];
+
+    /**
+     * 指标名称 -> 该指标的序列
+     */
+    private final Map<String, MetricSeries> seriesByMetric = new ConcurrentHashMap<>();
+    private final AtomicInteger nextSeriesId = new AtomicInteger();
+    private volatile boolean overflowLogged;
+
+    public LatestMetricTable(@Value("${aquainsight.alert.latest.max-series:200000}") int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.versions = new AtomicLongArray(this.capacity);
+        this.valueBits = new AtomicLongArray(this.capacity);
+        this.collectMillis = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < WRITE_STRIPES; i++) {
+            writeLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * 更新一条指标观测值，早于当前值的观测值被忽略
+     */
+    public void update(Metric metric) {
+        if (metric.getTargetId() == null || metric.getValue() == null || metric.getCollectTime() == null) {
+            return;
+        }
+        MetricSeries series = seriesByMetric.computeIfAbsent(metric.getName(),
+                name -> new MetricSeries(metric.getTargetType()));
+        int seriesId = series.seriesIdOf(metric.getTargetId());
+        if (seriesId < 0) {
+            return;
+        }
+        long millis = metric.getCollectTime().atZone(ZONE).toInstant().toEpochMilli();
+        long bits = Double.doubleToRawLongBits(metric.getValue().doubleValue());
+        synchronized (writeLocks[seriesId & (WRITE_STRIPES - 1)]) {
+            if (millis < collectMillis.get(seriesId)) {
+                return;
+            }
+            versions.incrementAndGet(seriesId);
+            valueBits.set(seriesId, bits);
+            collectMillis.set(seriesId, millis);
+            versions.incrementAndGet(seriesId);
+        }
+    }
+
+    /**
+     * 批量更新指标观测值
+     */
+    public void updateAll(Collection<Metric> metrics) {
+        for (Metric metric : metrics) {
+            update(metric);
+        }
+    }
+
+    /**
+     * 读取指标所有目标的最新值
+     *
+     * @param maxAgeMillis 最新值的最大时效(毫秒)，采集时间早于此时效的值视为过期并排除；小于等于0时不排除
+     */
+    public List<Metric> collect(String metricName, long maxAgeMillis) {
+        MetricSeries series = seriesByMetric.get(metricName);
+        if (series == null) {
+            return new ArrayList<>();
+        }
+        long minMillis = maxAgeMillis > 0 ? System.currentTimeMillis() - maxAgeMillis : Long.MIN_VALUE;
+        // 先读数量再读数组，保证数组长度不小于数量
+        int count = series.count;
+        int[] targetIds = series.targetIds;
+        int[] seriesIds = series.seriesIds;
+        List<Metric> metrics = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int seriesId = seriesIds[i];
+            long version;
+            long millis;
+            long bits;
+            do {
+                version = versions.get(seriesId);
+                millis = collectMillis.get(seriesId);
+                bits = valueBits.get(seriesId);
+            } while ((version & 1) != 0 || version != versions.get(seriesId));
+            if (version == 0 || millis < minMillis) {
+                continue;
+            }
+            Metric metric = new Metric();
+            metric.setName(metricName);
+            metric.setTargetType(series.targetType);
+            metric.setTargetId(targetIds[i]);
+            metric.setValue(BigDecimal.valueOf(Double.longBitsToDouble(bits)));
+            metric.setCollectTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZONE));
+            metrics.add(metric);
+        }
+        return metrics;
+    }
+
+    /**
+     * 是否记录过指定指标
+     */
+    public boolean contains(String metricName) {
+        return seriesByMetric.containsKey(metricName);
+    }
+
+    /**
+     * 已分配的序列数量
+     */
+    public int getSeriesCount() {
+        return Math.min(nextSeriesId.get(), capacity);
+    }
+
+    /**
+     * 单个指标的序列分配
+     * 目标ID到序列ID的映射只在首次出现时加锁写入，遍历用的数组按拷贝追加发布
+     */
+    private final class MetricSeries {
+
+        private final String targetType;
+        private final Map<Integer, Integer> seriesIdsByTarget = new ConcurrentHashMap<>();
+        private volatile int[] targetIds = new int[16];
+        private volatile int[] seriesIds = new int[16];
+        private volatile int count;
+
+        private MetricSeries(String targetType) {
+            this.targetType = targetType;
+        }
+
+        private int seriesIdOf(int targetId) {
+            Integer seriesId = seriesIdsByTarget.get(targetId);
+            if (seriesId != null) {
+                return seriesId;
+            }
+            synchronized (this) {
+                seriesId = seriesIdsByTarget.get(targetId);
+                if (seriesId != null) {
+                    return seriesId;
+                }
+                int allocated = nextSeriesId.getAndIncrement();
+                if (allocated >= capacity) {
+                    if (!overflowLogged) {
+                        overflowLogged = true;
+                        log.warn("指标最新值表已满，新序列不再记录，容量: {}", capacity);
+                    }
+                    return -1;
+                }
+                int[] newTargetIds = targetIds;
+                int[] newSeriesIds = seriesIds;
+                if (count == newTargetIds.length) {
+                    newTargetIds = Arrays.copyOf(newTargetIds, count * 2);
+                    newSeriesIds = Arrays.copyOf(newSeriesIds, count * 2);
+                }
+                newTargetIds[count] = targetId;
+                newSeriesIds[count] = allocated;
+                targetIds = newTargetIds;
+                seriesIds = newSeriesIds;
+                count = count + 1;
+                seriesIdsByTarget.put(targetId, allocated);
+                return allocated;
+            }
+        }
+    }
+}
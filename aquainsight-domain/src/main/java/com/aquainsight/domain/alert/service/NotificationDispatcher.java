@@ -0,0 +1,243 @@
+package com.aquainsight.domain.alert.service;
+
+import com.aquainsight.domain.alert.entity.AlertNotifyLog;
+import com.aquainsight.domain.alert.repository.AlertNotifyLogRepository;
+import com.aquainsight.domain.alert.types.CircuitBreaker;
+import com.aquainsight.domain.alert.types.NotifyType;
+import com.aquainsight.domain.alert.types.TokenBucket;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 通知分发
+ * 待发送的通知按通知方式和内容分组，同组的接收人按渠道的批量上限合并为一次发送；
+ * 每个渠道按令牌桶限流，令牌按接收人计数，并由熔断器在渠道持续故障时暂停发送。
+ * 发送失败的通知按指数退避加随机抖动安排下次重试时间，由重试任务到期后批量重发
+ */
+@Slf4j
+@Service
+public class NotificationDispatcher {
+
+    private static final String CIRCUIT_OPEN_MESSAGE = "通知渠道已熔断";
+
+    private final AlertNotifyLogRepository alertNotifyLogRepository;
+    private final int maxBatchSize;
+
+    /**
+     * 通知方式 -> 渠道，没有渠道的通知方式直接记为发送失败
+     */
+    private final Map<NotifyType, NotifyChannel> channels = new EnumMap<>(NotifyType.class);
+
+    /**
+     * 通知方式 -> 限流令牌桶
+     */
+    private final Map<NotifyType, TokenBucket> rateLimiters = new EnumMap<>(NotifyType.class);
+
+    /**
+     * 通知方式 -> 渠道熔断器
+     */
+    private final Map<NotifyType, CircuitBreaker> circuitBreakers = new EnumMap<>(NotifyType.class);
+
+    /**
+     * 首次重试的退避时长(秒)，之后每次重试翻倍
+     */
+    private final long retryInitialDelaySeconds;
+
+    /**
+     * 重试退避时长上限(秒)
+     */
+    private final long retryMaxDelaySeconds;
+
+    public NotificationDispatcher(AlertNotifyLogRepository alertNotifyLogRepository,
+                                  ObjectProvider<NotifyChannel> notifyChannelProvider,
+                                  @Value("${aquainsight.notify.batch-size:100}") int maxBatchSize,
+                                  @Value("${aquainsight.notify.rate-limit.permits-per-second:50}") double permitsPerSecond,
+                                  @Value("${aquainsight.notify.rate-limit.burst:100}") int burst,
+                                  @Value("${aquainsight.notify.retry.initial-delay-seconds:60}") long retryInitialDelaySeconds,
+                                  @Value("${aquainsight.notify.retry.max-delay-seconds:3600}") long retryMaxDelaySeconds,
+                                  @Value("${aquainsight.notify.circuit-breaker.failure-threshold:5}") int failureThreshold,
+                                  @Value("${aquainsight.notify.circuit-breaker.open-seconds:60}") long openSeconds) {
+        this.alertNotifyLogRepository = alertNotifyLogRepository;
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.retryInitialDelaySeconds = Math.max(1, retryInitialDelaySeconds);
+        this.retryMaxDelaySeconds = Math.max(this.retryInitialDelaySeconds, retryMaxDelaySeconds);
+        List<NotifyChannel> notifyChannels = notifyChannelProvider.orderedStream().collect(Collectors.toList());
+        long now = System.nanoTime();
+        for (NotifyType notifyType : NotifyType.values()) {
+            // 渠道按优先级排列，取第一个支持该通知方式的渠道
+            for (NotifyChannel channel : notifyChannels) {
+                if (channel.supports(notifyType)) {
+                    channels.put(notifyType, channel);
+                    break;
+                }
+            }
+            if (channels.containsKey(notifyType)) {
+                rateLimiters.put(notifyType, new TokenBucket(permitsPerSecond, burst, now));
+                circuitBreakers.put(notifyType,
+                        new CircuitBreaker(failureThreshold, TimeUnit.SECONDS.toNanos(openSeconds)));
+                log.info("通知方式 {} 使用渠道: {}", notifyType.getDescription(),
+                        channels.get(notifyType).getClass().getSimpleName());
+            } else {
+                log.warn("通知方式 {} 没有可用的通知渠道", notifyType.getDescription());
+            }
+        }
+    }
+
+    /**
+     * 发送通知并批量写入通知日志
+     *
+     * @param notifyLogs 待发送的通知日志
+     * @return 已写入的通知日志，状态为发送成功或发送失败
+     */
+    public List<AlertNotifyLog> dispatch(List<AlertNotifyLog> notifyLogs) {
+        if (notifyLogs.isEmpty()) {
+            return Collections.emptyList();
+        }
+        send(notifyLogs);
+        return alertNotifyLogRepository.batchSave(notifyLogs);
+    }
+
+    /**
+     * 发送通知，只更新通知日志的状态和下次重试时间，不写入数据库
+     */
+    public void send(List<AlertNotifyLog> notifyLogs) {
+        Map<NotifyType, Map<String, List<AlertNotifyLog>>> groups = new EnumMap<>(NotifyType.class);
+        for (AlertNotifyLog notifyLog : notifyLogs) {
+            groups.computeIfAbsent(notifyLog.getNotifyType(), type -> new LinkedHashMap<>())
+                    .computeIfAbsent(notifyLog.getNotifyContent(), content -> new ArrayList<>())
+                    .add(notifyLog);
+        }
+        for (Map.Entry<NotifyType, Map<String, List<AlertNotifyLog>>> entry : groups.entrySet()) {
+            NotifyType notifyType = entry.getKey();
+            NotifyChannel channel = channels.get(notifyType);
+            for (List<AlertNotifyLog> sameContent : entry.getValue().values()) {
+                if (channel == null) {
+                    sameContent.forEach(notifyLog -> notifyLog.markFailed("没有可用的通知渠道"));
+                    continue;
+                }
+                int batchSize = Math.min(maxBatchSize, Math.max(1, channel.getMaxBatchSize()));
+                for (int from = 0; from < sameContent.size(); from += batchSize) {
+                    sendBatch(notifyType, channel,
+                            sameContent.subList(from, Math.min(sameContent.size(), from + batchSize)));
+                }
+            }
+        }
+        LocalDateTime now = LocalDateTime.now();
+        for (AlertNotifyLog notifyLog : notifyLogs) {
+            if (notifyLog.isFailed()) {
+                notifyLog.scheduleRetry(now.plusSeconds(retryDelaySeconds(notifyLog.getRetryCount())));
+            }
+        }
+    }
+
+    /**
+     * 获取当前可以发送的通知方式：有可用渠道且渠道未熔断
+     */
+    public Set<NotifyType> getAvailableNotifyTypes() {
+        Set<NotifyType> available = EnumSet.noneOf(NotifyType.class);
+        long now = System.nanoTime();
+        for (Map.Entry<NotifyType, CircuitBreaker> entry : circuitBreakers.entrySet()) {
+            if (!entry.getValue().isRejecting(now)) {
+                available.add(entry.getKey());
+            }
+        }
+        return available;
+    }
+
+    /**
+     * 第n次重试前的退避时长：基础时长每次翻倍且不超过上限，再取其一半加上随机的另一半，
+     * 避免同一时刻失败的大量通知在同一时刻重试
+     */
+    private long retryDelaySeconds(Integer retryCount) {
+        int attempt = retryCount != null ? Math.min(retryCount, 30) : 0;
+        long delay = Math.min(retryMaxDelaySeconds, retryInitialDelaySeconds << attempt);
+        long half = delay / 2;
+        return delay - half + ThreadLocalRandom.current().nextLong(half + 1);
+    }
+
+    private void sendBatch(NotifyType notifyType, NotifyChannel channel, List<AlertNotifyLog> batch) {
+        CircuitBreaker circuitBreaker = circuitBreakers.get(notifyType);
+        // 熔断中的渠道不占用限流令牌；等待令牌期间熔断器可能变化，放行前再申请一次
+        if (circuitBreaker.isRejecting(System.nanoTime())) {
+            batch.forEach(notifyLog -> notifyLog.markFailed(CIRCUIT_OPEN_MESSAGE));
+            return;
+        }
+        if (!acquire(notifyType, batch.size())) {
+            batch.forEach(notifyLog -> notifyLog.markFailed("发送被中断"));
+            return;
+        }
+        if (!circuitBreaker.tryAcquire(System.nanoTime())) {
+            batch.forEach(notifyLog -> notifyLog.markFailed(CIRCUIT_OPEN_MESSAGE));
+            return;
+        }
+        List<String> targets = new ArrayList<>(batch.size());
+        for (AlertNotifyLog notifyLog : batch) {
+            targets.add(notifyLog.getNotifyTarget());
+        }
+        // 放行后无论以何种方式结束都要报告结果，否则试探请求抛出Error时熔断器会一直停在试探中
+        boolean channelSucceeded = false;
+        try {
+            Map<String, String> failures;
+            try {
+                failures = channel.send(notifyType, targets, batch.get(0).getNotifyContent());
+            } catch (Exception e) {
+                log.warn("{}通知发送失败，接收人数: {}", notifyType.getDescription(), batch.size(), e);
+                String reason = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+                batch.forEach(notifyLog -> notifyLog.markFailed(reason));
+                return;
+            }
+            int failedCount = 0;
+            for (AlertNotifyLog notifyLog : batch) {
+                String reason = failures != null ? failures.get(notifyLog.getNotifyTarget()) : null;
+                if (reason == null) {
+                    notifyLog.markSuccess();
+                } else {
+                    notifyLog.markFailed(reason);
+                    failedCount++;
+                }
+            }
+            // 整批接收人全部失败按渠道失败处理
+            channelSucceeded = failedCount < batch.size();
+        } finally {
+            if (channelSucceeded) {
+                circuitBreaker.onSuccess();
+            } else if (circuitBreaker.onFailure(System.nanoTime())) {
+                log.warn("{}通知渠道连续发送失败，暂停发送", notifyType.getDescription());
+            }
+        }
+    }
+
+    /**
+     * 按接收人数获取令牌，令牌不足时等待
+     *
+     * @return 是否获取成功，等待期间被中断时返回false
+     */
+    private boolean acquire(NotifyType notifyType, int permits) {
+        long waitNanos = rateLimiters.get(notifyType).reserve(permits, System.nanoTime());
+        if (waitNanos <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.aquainsight.domain.alert.service;
+
+import com.aquainsight.domain.alert.types.NotifyType;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 通知渠道
+ * 短信、邮件、推送、微信等服务商的发送接口，服务商一般支持同一内容一次发送给多个接收人
+ */
+public interface NotifyChannel {
+
+    /**
+     * 是否支持该通知方式
+     */
+    boolean supports(NotifyType notifyType);
+
+    /**
+     * 单次发送的最大接收人数
+     */
+    int getMaxBatchSize();
+
+    /**
+     * 向多个接收人发送同一内容，整批发送失败时抛出异常
+     *
+     * @param notifyType 通知方式
+     * @param targets 通知目标(手机号/邮箱/用户ID等)
+     * @param content 通知内容
+     * @return 发送失败的通知目标 -> 失败原因，全部成功时返回空Map
+     */
+    Map<String, String> send(NotifyType notifyType, List<String> targets, String content);
+}
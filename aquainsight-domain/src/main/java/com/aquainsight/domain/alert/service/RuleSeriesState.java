@@ -0,0 +1,57 @@
+package com.aquainsight.domain.alert.service;
+
+import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.entity.RuleCondition;
+import com.aquainsight.domain.alert.types.SeriesLookup;
+import com.aquainsight.domain.alert.types.SeriesRingBuffer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+
+/**
+ * 规则评估使用的序列状态
+ * 统一记录采样到持续条件的采样序列和异常检测基线，并供规则评估查询
+ */
+@Service
+@RequiredArgsConstructor
+public class RuleSeriesState implements SeriesLookup {
+
+    private final SeriesBufferStore seriesBufferStore;
+    private final AnomalyDetector anomalyDetector;
+
+    /**
+     * 记录一个采样
+     */
+    public void record(Metric metric) {
+        seriesBufferStore.record(metric);
+        anomalyDetector.observe(metric);
+    }
+
+    /**
+     * 批量记录同一指标的采样
+     */
+    public void recordAll(String metricName, Collection<Metric> metrics) {
+        seriesBufferStore.recordAll(metricName, metrics);
+        anomalyDetector.observeAll(metricName, metrics);
+    }
+
+    /**
+     * 校验条件的采样窗口和持续时长能否由采样序列覆盖
+     *
+     * @throws IllegalArgumentException 条件永远无法满足时
+     */
+    public void validateWindow(RuleCondition condition) {
+        seriesBufferStore.validateWindow(condition);
+    }
+
+    @Override
+    public SeriesRingBuffer find(String metricName, int targetId) {
+        return seriesBufferStore.find(metricName, targetId);
+    }
+
+    @Override
+    public double anomalyScore(String metricName, int targetId) {
+        return anomalyDetector.score(metricName, targetId);
+    }
+}
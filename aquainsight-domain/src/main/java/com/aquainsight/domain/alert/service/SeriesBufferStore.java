@@ -0,0 +1,157 @@
+package com.aquainsight.domain.alert.service;
+
+import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.entity.RuleCondition;
+import com.aquainsight.domain.alert.types.SeriesRingBuffer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 采样序列存储
+ * 为持续时长/采样窗口条件引用的指标，按(指标, 目标)在内存中保存最近的采样，
+ * 评估时无需查询历史数据。每个序列容量固定，序列总数有上限，超出上限的新序列不再记录
+ */
+@Slf4j
+@Service
+public class SeriesBufferStore {
+
+    private final CompiledRuleCache compiledRuleCache;
+    private final int capacity;
+    private final int maxSeries;
+    private final int sampleIntervalMinutes;
+
+    /**
+     * 指标名称 -> 目标ID -> 采样序列
+     */
+    private final Map<String, Map<Integer, SeriesRingBuffer>> seriesByMetric = new ConcurrentHashMap<>();
+
+    private final AtomicInteger seriesCount = new AtomicInteger();
+    private final AtomicLong rejectedSeriesCount = new AtomicLong();
+
+    public SeriesBufferStore(CompiledRuleCache compiledRuleCache,
+                             @Value("${aquainsight.alert.series.capacity:64}") int capacity,
+                             @Value("${aquainsight.alert.series.max-series:50000}") int maxSeries,
+                             @Value("${aquainsight.alert.series.sample-interval-minutes:1}") int sampleIntervalMinutes) {
+        this.compiledRuleCache = compiledRuleCache;
+        this.capacity = capacity;
+        this.maxSeries = maxSeries;
+        this.sampleIntervalMinutes = Math.max(1, sampleIntervalMinutes);
+    }
+
+    /**
+     * 校验条件的采样窗口和持续时长能否由序列覆盖
+     * 每个序列只保存 capacity 个采样，按最短采样间隔最多覆盖 (capacity - 1) 个间隔，超出时条件永远无法满足
+     *
+     * @throws IllegalArgumentException 采样窗口超过序列容量或持续时长超过序列可覆盖的时长
+     */
+    public void validateWindow(RuleCondition condition) {
+        Integer windowSamples = condition.getWindowSamples();
+        if (windowSamples != null && windowSamples > capacity) {
+            throw new IllegalArgumentException("采样窗口 " + windowSamples + " 超过序列容量 " + capacity);
+        }
+        Integer durationMinutes = condition.getDurationMinutes();
+        if (durationMinutes != null && durationMinutes > getMaxDurationMinutes()) {
+            throw new IllegalArgumentException("持续时长 " + durationMinutes + " 分钟超过序列可覆盖的 "
+                    + getMaxDurationMinutes() + " 分钟");
+        }
+    }
+
+    /**
+     * 序列按最短采样间隔可覆盖的最长持续时长(分钟)
+     */
+    public long getMaxDurationMinutes() {
+        return (long) (capacity - 1) * sampleIntervalMinutes;
+    }
+
+    /**
+     * 记录一个采样，未被持续条件引用的指标不记录
+     */
+    public void record(Metric metric) {
+        if (metric.getName() == null || metric.getTargetId() == null || metric.getValue() == null
+                || !compiledRuleCache.isSeriesTracked(metric.getName())) {
+            return;
+        }
+        append(seriesOf(metric.getName()), metric);
+    }
+
+    /**
+     * 批量记录同一指标的采样
+     */
+    public void recordAll(String metricName, Collection<Metric> metrics) {
+        if (!compiledRuleCache.isSeriesTracked(metricName)) {
+            return;
+        }
+        Map<Integer, SeriesRingBuffer> series = seriesOf(metricName);
+        for (Metric metric : metrics) {
+            if (metric.getTargetId() != null && metric.getValue() != null) {
+                append(series, metric);
+            }
+        }
+    }
+
+    /**
+     * 查找采样序列，不存在时返回null
+     */
+    public SeriesRingBuffer find(String metricName, int targetId) {
+        Map<Integer, SeriesRingBuffer> series = seriesByMetric.get(metricName);
+        return series != null ? series.get(targetId) : null;
+    }
+
+    public int getSeriesCount() {
+        return seriesCount.get();
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getMaxSeries() {
+        return maxSeries;
+    }
+
+    /**
+     * 因序列数达到上限而未记录的新序列次数
+     */
+    public long getRejectedSeriesCount() {
+        return rejectedSeriesCount.get();
+    }
+
+    /**
+     * 所有序列占用的估算内存(字节)
+     */
+    public long getEstimatedBytes() {
+        return seriesCount.get() * SeriesRingBuffer.estimateBytes(capacity);
+    }
+
+    private Map<Integer, SeriesRingBuffer> seriesOf(String metricName) {
+        return seriesByMetric.computeIfAbsent(metricName, name -> new ConcurrentHashMap<>());
+    }
+
+    private void append(Map<Integer, SeriesRingBuffer> series, Metric metric) {
+        SeriesRingBuffer buffer = series.get(metric.getTargetId());
+        if (buffer == null) {
+            if (seriesCount.get() >= maxSeries) {
+                if (rejectedSeriesCount.getAndIncrement() == 0) {
+                    log.warn("采样序列数已达上限 {}，新序列不再记录", maxSeries);
+                }
+                return;
+            }
+            buffer = series.computeIfAbsent(metric.getTargetId(), targetId -> {
+                seriesCount.incrementAndGet();
+                return new SeriesRingBuffer(capacity);
+            });
+        }
+        long timestamp = metric.getCollectTime() != null
+                ? metric.getCollectTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli()
+                : System.currentTimeMillis();
+        buffer.append(timestamp, metric.getValue().doubleValue());
+    }
+}
@@ -0,0 +1,258 @@
+package com.aquainsight.domain.alert.service;
+
+import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.types.CompiledRule;
+import com.aquainsight.domain.alert.types.RuleEvaluationResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 流式规则评估
+ * 指标到达时按"指标名称 -> 引用该指标的规则"索引只评估受影响的(规则, 目标)组合；
+ * 多指标规则的其他条件使用各目标最近一次到达的指标值。
+ * 只在(规则, 目标)从未触发变为触发时返回结果，持续触发期间不重复产生结果；
+ * 调用方创建告警失败时需调用 {@link #clearFiring(Collection)}，使下次观测值重新触发。
+ * 最近值和触发状态超过保留时长未更新时清除，最近值总数有上限，超出上限的新目标不参与流式评估。
+ * 同一目标的指标需由调用方串行提交
+ */
+@Slf4j
+@Service
+public class StreamingRuleEvaluator {
+
+    /**
+     * 清理过期最近值和触发状态的间隔(毫秒)
+     */
+    private static final long SWEEP_INTERVAL_MILLIS = 60_000L;
+
+    private final CompiledRuleCache compiledRuleCache;
+    private final RuleSeriesState ruleSeriesState;
+    private final long retentionMillis;
+    private final int maxLatestMetrics;
+
+    /**
+     * 指标名称 -> 目标ID -> 最近一次到达的指标
+     */
+    private final Map<String, Map<Integer, LatestMetric>> latestMetrics = new ConcurrentHashMap<>();
+
+    /**
+     * 当前处于触发状态的(规则ID, 目标ID)组合 -> 最近一次满足条件的时间(毫秒)
+     */
+    private final Map<Long, Long> firingKeys = new ConcurrentHashMap<>();
+
+    private final AtomicInteger latestMetricCount = new AtomicInteger();
+    private final AtomicLong rejectedTargetCount = new AtomicLong();
+    private final AtomicLong observationCount = new AtomicLong();
+    private final AtomicLong evaluationCount = new AtomicLong();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+    private volatile long nextSweepMillis = System.currentTimeMillis() + SWEEP_INTERVAL_MILLIS;
+
+    public StreamingRuleEvaluator(CompiledRuleCache compiledRuleCache, RuleSeriesState ruleSeriesState,
+                                  @Value("${aquainsight.alert.streaming.retention-minutes:1440}") long retentionMinutes,
+                                  @Value("${aquainsight.alert.streaming.max-latest-metrics:200000}") int maxLatestMetrics) {
+        this.compiledRuleCache = compiledRuleCache;
+        this.ruleSeriesState = ruleSeriesState;
+        this.retentionMillis = TimeUnit.MINUTES.toMillis(Math.max(1L, retentionMinutes));
+        this.maxLatestMetrics = Math.max(1, maxLatestMetrics);
+    }
+
+    /**
+     * 处理一条指标观测值
+     *
+     * @param observation 到达的指标
+     * @return 因本次观测值新触发的评估结果
+     */
+    public List<RuleEvaluationResult> onMetric(Metric observation) {
+        if (observation.getName() == null || observation.getTargetId() == null || observation.getValue() == null) {
+            return Collections.emptyList();
+        }
+        observationCount.incrementAndGet();
+        long now = System.currentTimeMillis();
+        sweepIfDue(now);
+        Integer targetId = observation.getTargetId();
+        boolean tracked = putLatest(observation, now);
+        ruleSeriesState.record(observation);
+
+        List<CompiledRule> rules = compiledRuleCache.getRulesByMetric(observation.getName());
+        if (rules.isEmpty() || !tracked) {
+            return Collections.emptyList();
+        }
+
+        List<RuleEvaluationResult> results = new ArrayList<>();
+        for (CompiledRule rule : rules) {
+            evaluationCount.incrementAndGet();
+            Metric[][] targetMetrics = latestTargetMetrics(rule, targetId);
+            long firingKey = firingKey(rule.getRuleId(), targetId);
+            if (targetMetrics == null || !rule.matches(targetMetrics, ruleSeriesState)) {
+                firingKeys.remove(firingKey);
+                continue;
+            }
+            if (firingKeys.put(firingKey, now) == null) {
+                results.add(RuleEvaluationResult.builder()
+                        .ruleId(rule.getRuleId())
+                        .ruleName(rule.getRule().getRuleName())
+                        .triggered(true)
+                        .triggeredMetrics(rule.collectMatchedMetrics(targetMetrics))
+                        .evaluationTime(LocalDateTime.now())
+                        .build());
+            }
+        }
+        return results;
+    }
+
+    /**
+     * 清除评估结果对应(规则, 目标)的触发状态
+     * 新触发的结果未能写入告警时调用，使目标下次满足条件时重新产生结果
+     *
+     * @param results {@link #onMetric(Metric)} 返回的评估结果
+     */
+    public void clearFiring(Collection<RuleEvaluationResult> results) {
+        for (RuleEvaluationResult result : results) {
+            if (result.hasTriggeredMetrics()) {
+                firingKeys.remove(firingKey(result.getRuleId(), result.getTriggeredMetrics().get(0).getTargetId()));
+            }
+        }
+    }
+
+    /**
+     * 已处理的观测值数量
+     */
+    public long getObservationCount() {
+        return observationCount.get();
+    }
+
+    /**
+     * 已执行的(规则, 目标)评估次数
+     */
+    public long getEvaluationCount() {
+        return evaluationCount.get();
+    }
+
+    /**
+     * 当前处于触发状态的(规则, 目标)数量
+     */
+    public int getFiringCount() {
+        return firingKeys.size();
+    }
+
+    /**
+     * 当前保存的(指标, 目标)最近值数量
+     */
+    public int getLatestMetricCount() {
+        return latestMetricCount.get();
+    }
+
+    /**
+     * 最近值达到上限后未被记录的观测值数量
+     */
+    public long getRejectedTargetCount() {
+        return rejectedTargetCount.get();
+    }
+
+    /**
+     * 清理超过保留时长未更新的最近值和触发状态
+     *
+     * @param now 当前时间(毫秒)
+     */
+    public void sweep(long now) {
+        long expireBefore = now - retentionMillis;
+        int removed = 0;
+        for (Map<Integer, LatestMetric> metricsByTarget : latestMetrics.values()) {
+            for (Map.Entry<Integer, LatestMetric> entry : metricsByTarget.entrySet()) {
+                if (entry.getValue().arrivedMillis < expireBefore
+                        && metricsByTarget.remove(entry.getKey(), entry.getValue())) {
+                    latestMetricCount.decrementAndGet();
+                    removed++;
+                }
+            }
+        }
+        firingKeys.values().removeIf(lastMatchedMillis -> lastMatchedMillis < expireBefore);
+        if (removed > 0) {
+            log.debug("清理过期的流式评估最近值 {} 个，剩余 {} 个", removed, latestMetricCount.get());
+        }
+    }
+
+    private void sweepIfDue(long now) {
+        if (now < nextSweepMillis || !sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            nextSweepMillis = now + SWEEP_INTERVAL_MILLIS;
+            sweep(now);
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    /**
+     * 记录目标的最近值，最近值总数达到上限时不再接收新目标
+     *
+     * @return 目标的最近值是否已记录
+     */
+    private boolean putLatest(Metric observation, long now) {
+        Map<Integer, LatestMetric> metricsByTarget =
+                latestMetrics.computeIfAbsent(observation.getName(), name -> new ConcurrentHashMap<>());
+        LatestMetric latest = new LatestMetric(observation, now);
+        if (metricsByTarget.replace(observation.getTargetId(), latest) != null) {
+            return true;
+        }
+        if (latestMetricCount.get() >= maxLatestMetrics) {
+            if (rejectedTargetCount.getAndIncrement() == 0) {
+                log.warn("流式评估最近值数量已达上限 {}，新目标只由定时扫描评估", maxLatestMetrics);
+            }
+            return false;
+        }
+        if (metricsByTarget.putIfAbsent(observation.getTargetId(), latest) == null) {
+            latestMetricCount.incrementAndGet();
+        } else {
+            metricsByTarget.put(observation.getTargetId(), latest);
+        }
+        return true;
+    }
+
+    /**
+     * 取出目标对象在规则各指标上的最近值，任一指标尚无数据时返回null
+     */
+    private Metric[][] latestTargetMetrics(CompiledRule rule, Integer targetId) {
+        Metric[][] targetMetrics = new Metric[rule.getMetricCount()][];
+        for (int slot = 0; slot < rule.getMetricCount(); slot++) {
+            Map<Integer, LatestMetric> metricsByTarget = latestMetrics.get(rule.getMetricName(slot));
+            LatestMetric latest = metricsByTarget != null ? metricsByTarget.get(targetId) : null;
+            if (latest == null) {
+                return null;
+            }
+            targetMetrics[slot] = new Metric[]{latest.metric};
+        }
+        return targetMetrics;
+    }
+
+    private static long firingKey(Integer ruleId, Integer targetId) {
+        return ((long) ruleId << 32) | (targetId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 目标最近一次到达的指标及到达时间
+     */
+    private static final class LatestMetric {
+
+        private final Metric metric;
+        private final long arrivedMillis;
+
+        private LatestMetric(Metric metric, long arrivedMillis) {
+            this.metric = metric;
+            this.arrivedMillis = arrivedMillis;
+        }
+    }
+}
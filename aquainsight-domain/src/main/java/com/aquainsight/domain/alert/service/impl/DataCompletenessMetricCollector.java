@@ -0,0 +1,50 @@
+package com.aquainsight.domain.alert.service.impl;
+
+import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.service.MetricCollector;
+import com.aquainsight.domain.alert.types.AlertTargetType;
+import com.aquainsight.domain.monitoring.service.DataCompletenessDomainService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 数据缺失指标采集器
+ * 指标值为站点最近一个已结束采集时段内未收到读数的应上报因子数，站点停止上报时等于应上报因子总数；
+ * 由内存中的时段位图计算，不访问数据库
+ */
+@Component
+@RequiredArgsConstructor
+public class DataCompletenessMetricCollector implements MetricCollector {
+
+    public static final String METRIC_NAME = "数据缺失";
+
+    private final DataCompletenessDomainService dataCompletenessDomainService;
+
+    @Override
+    public List<Metric> collectAll(String metricName) {
+        LocalDateTime now = LocalDateTime.now();
+        Map<Integer, Integer> missingBySite = dataCompletenessDomainService.countMissingFactors();
+        List<Metric> metrics = new ArrayList<>(missingBySite.size());
+        for (Map.Entry<Integer, Integer> entry : missingBySite.entrySet()) {
+            Metric metric = new Metric();
+            metric.setName(METRIC_NAME);
+            metric.setTargetType(AlertTargetType.SITE.getCode());
+            metric.setTargetId(entry.getKey());
+            metric.setValue(BigDecimal.valueOf(entry.getValue()));
+            metric.setCollectTime(now);
+            metrics.add(metric);
+        }
+        return metrics;
+    }
+
+    @Override
+    public boolean supports(String metricName) {
+        return METRIC_NAME.equals(metricName);
+    }
+}
@@ -0,0 +1,100 @@
+package com.aquainsight.domain.alert.service.impl;
+
+import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.service.LatestMetricTable;
+import com.aquainsight.domain.alert.service.MetricCollector;
+import com.aquainsight.domain.alert.types.AlertTargetType;
+import com.aquainsight.domain.monitoring.entity.Device;
+import com.aquainsight.domain.monitoring.repository.DeviceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 设备指标采集器
+ * 设备状态类指标在启动时从设备表加载、状态变更时更新，不设时效；
+ * 电压、电流、温度等测量类指标目前没有数据来源，不由本采集器支持
+ */
+@Slf4j
+@Component
+public class DeviceMetricCollector implements MetricCollector {
+
+    /**
+     * 设备状态类指标，值由设备状态(0-离线,1-在线,2-故障)推导
+     */
+    private static final List<String> STATUS_METRICS = Arrays.asList("设备状态", "设备在线", "设备故障");
+
+    private final LatestMetricTable latestMetricTable;
+    private final DeviceRepository deviceRepository;
+
+    public DeviceMetricCollector(LatestMetricTable latestMetricTable, DeviceRepository deviceRepository) {
+        this.latestMetricTable = latestMetricTable;
+        this.deviceRepository = deviceRepository;
+    }
+
+    @PostConstruct
+    public void loadDeviceStatus() {
+        try {
+            List<Device> devices = deviceRepository.findAll();
+            for (Device device : devices) {
+                recordStatus(device);
+            }
+            log.info("设备状态指标已加载，设备数: {}", devices.size());
+        } catch (Exception e) {
+            log.error("加载设备状态指标失败，设备状态告警在设备状态变更后生效", e);
+        }
+    }
+
+    /**
+     * 记录设备状态，设备状态变更后调用
+     */
+    public void recordStatus(Device device) {
+        if (device.getId() == null || device.getStatus() == null) {
+            return;
+        }
+        recordStatus(device.getId(), device.getStatus(), LocalDateTime.now());
+    }
+
+    /**
+     * 记录设备状态
+     *
+     * @return 记录的设备状态类指标，供转交告警流式评估
+     */
+    public List<Metric> recordStatus(Integer deviceId, int status, LocalDateTime changeTime) {
+        List<Metric> metrics = Arrays.asList(
+                statusMetric("设备状态", deviceId, status, changeTime),
+                statusMetric("设备在线", deviceId, status == 1 ? 1 : 0, changeTime),
+                statusMetric("设备故障", deviceId, status == 2 ? 1 : 0, changeTime));
+        latestMetricTable.updateAll(metrics);
+        return metrics;
+    }
+
+    @Override
+    public List<Metric> collectAll(String metricName) {
+        if (!supports(metricName)) {
+            return Collections.emptyList();
+        }
+        return latestMetricTable.collect(metricName, 0);
+    }
+
+    @Override
+    public boolean supports(String metricName) {
+        return STATUS_METRICS.contains(metricName);
+    }
+
+    private static Metric statusMetric(String metricName, Integer deviceId, int value, LocalDateTime collectTime) {
+        Metric metric = new Metric();
+        metric.setName(metricName);
+        metric.setTargetType(AlertTargetType.DEVICE.getCode());
+        metric.setTargetId(deviceId);
+        metric.setValue(BigDecimal.valueOf(value));
+        metric.setCollectTime(collectTime);
+        return metric;
+    }
+}
@@ -0,0 +1,87 @@
+package com.aquainsight.domain.alert.service.impl;
+
+import com.aquainsight.domain.alert.service.AlertQuietPeriodIndex;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 进程内告警静默期去重索引
+ * 条目在静默期结束后过期，写入时按批次顺带清理过期条目
+ */
+@Component
+@ConditionalOnProperty(prefix = "aquainsight.alert.dedup", name = "store", havingValue = "local", matchIfMissing = true)
+public class LocalAlertQuietPeriodIndex implements AlertQuietPeriodIndex {
+
+    /**
+     * 每写入多少次清理一次过期条目
+     */
+    private static final int EVICT_INTERVAL = 1024;
+
+    private static final long MILLIS_PER_MINUTE = 60_000L;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicInteger writeCounter = new AtomicInteger();
+
+    @Override
+    public boolean tryAcquire(Integer ruleId, String targetType, Integer targetId,
+                              long alertTimeMillis, int quietPeriodMinutes) {
+        long quietMillis = quietPeriodMinutes * MILLIS_PER_MINUTE;
+        boolean[] acquired = new boolean[1];
+        entries.compute(AlertQuietPeriodIndex.key(ruleId, targetType, targetId), (key, entry) -> {
+            // 按规则当前的静默期判断，规则修改静默期后立即生效
+            if (entry != null && entry.lastAlertMillis + quietMillis > alertTimeMillis) {
+                return entry;
+            }
+            acquired[0] = true;
+            return new Entry(alertTimeMillis, alertTimeMillis + quietMillis);
+        });
+        evictExpiredIfNeeded(alertTimeMillis);
+        return acquired[0];
+    }
+
+    @Override
+    public void record(Integer ruleId, String targetType, Integer targetId,
+                       long alertTimeMillis, int quietPeriodMinutes) {
+        long expireAtMillis = alertTimeMillis + quietPeriodMinutes * MILLIS_PER_MINUTE;
+        entries.merge(AlertQuietPeriodIndex.key(ruleId, targetType, targetId),
+                new Entry(alertTimeMillis, expireAtMillis),
+                (existing, incoming) -> existing.lastAlertMillis >= incoming.lastAlertMillis ? existing : incoming);
+        evictExpiredIfNeeded(System.currentTimeMillis());
+    }
+
+    @Override
+    public void release(Integer ruleId, String targetType, Integer targetId) {
+        entries.remove(AlertQuietPeriodIndex.key(ruleId, targetType, targetId));
+    }
+
+    /**
+     * 当前登记的条目数量
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    private void evictExpiredIfNeeded(long nowMillis) {
+        if (writeCounter.incrementAndGet() % EVICT_INTERVAL == 0) {
+            entries.values().removeIf(entry -> entry.expireAtMillis <= nowMillis);
+        }
+    }
+
+    /**
+     * 索引条目
+     */
+    private static final class Entry {
+
+        private final long lastAlertMillis;
+        private final long expireAtMillis;
+
+        private Entry(long lastAlertMillis, long expireAtMillis) {
+            this.lastAlertMillis = lastAlertMillis;
+            this.expireAtMillis = expireAtMillis;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.aquainsight.domain.alert.service.impl;
+
+import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.service.LatestMetricTable;
+import com.aquainsight.domain.alert.service.MetricCollector;
+import com.aquainsight.domain.alert.types.AlertTargetType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 站点监测因子指标采集器
+ * 从指标最新值表读取各站点因子的最新读数，不访问数据库；超过时效的读数不参与评估。
+ * 数据缺失指标由数据缺失指标采集器负责
+ */
+@Component
+public class SiteFactorMetricCollector implements MetricCollector {
+
+    private final LatestMetricTable latestMetricTable;
+    private final long maxAgeMillis;
+
+    public SiteFactorMetricCollector(LatestMetricTable latestMetricTable,
+                                     @Value("${aquainsight.alert.latest.max-age-minutes:30}") long maxAgeMinutes) {
+        this.latestMetricTable = latestMetricTable;
+        this.maxAgeMillis = TimeUnit.MINUTES.toMillis(maxAgeMinutes);
+    }
+
+    @Override
+    public List<Metric> collectAll(String metricName) {
+        return latestMetricTable.collect(metricName, maxAgeMillis);
+    }
+
+    @Override
+    public boolean supports(String metricName) {
+        return AlertTargetType.SITE.supportsMetric(metricName)
+                && !DataCompletenessMetricCollector.METRIC_NAME.equals(metricName);
+    }
+}
@@ -0,0 +1,35 @@
+package com.aquainsight.domain.alert.types;
+
+import com.aquainsight.domain.user.entity.User;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 告警通知计划
+ * 一条告警的接收人、通知方式和通知内容，由同一次加载的告警规则得出
+ */
+@Getter
+public class AlertNotifyPlan {
+
+    /**
+     * 接收人
+     */
+    private final List<User> recipients;
+
+    /**
+     * 通知方式
+     */
+    private final List<NotifyType> notifyTypes;
+
+    /**
+     * 格式化后的告警消息
+     */
+    private final String message;
+
+    public AlertNotifyPlan(List<User> recipients, List<NotifyType> notifyTypes, String message) {
+        this.recipients = recipients;
+        this.notifyTypes = notifyTypes;
+        this.message = message;
+    }
+}
@@ -16,7 +16,7 @@ public enum AlertTargetType {
      */
     SITE("site", "站点", Arrays.asList(
             "pH值", "化学需氧量", "氨氮", "总磷", "总氮", "溶解氧", "浊度", "温度",
-            "电导率", "流量", "压力"
+            "电导率", "流量", "压力", "数据缺失"
     )),
 
     /**
@@ -0,0 +1,109 @@
+package com.aquainsight.domain.alert.types;
+
+/**
+ * 单个(指标, 目标)序列的异常检测基线
+ * 以指数加权移动平均(EWMA)维护均值和方差，状态大小固定，无需保存历史数据。
+ * 每个新采样先相对当前基线计算z分数，再更新基线；基线就绪后偏离过大的采样按截断值更新，
+ * 避免单个离群值把基线拉偏。标准差设有下限，按固定精度上报、预热期间数值不变的传感器
+ * 在数值出现一个最小刻度的变化时不会被判为异常
+ */
+public final class AnomalyBaseline {
+
+    /**
+     * 基线就绪后更新时的截断倍数(标准差)
+     */
+    private static final double CLAMP_SIGMA = 4.0;
+
+    /**
+     * 标准差下限：绝对值
+     */
+    private static final double MIN_STD_ABSOLUTE = 0.01;
+
+    /**
+     * 标准差下限：相对均值绝对值的比例
+     */
+    private static final double MIN_STD_RELATIVE = 0.01;
+
+    private double mean;
+    private double variance;
+    private long count;
+    private long lastTimestampMillis;
+    private double lastScore = Double.NaN;
+
+    public AnomalyBaseline() {
+    }
+
+    /**
+     * 从检查点恢复基线
+     */
+    public AnomalyBaseline(double mean, double variance, long count, long lastTimestampMillis) {
+        this.mean = mean;
+        this.variance = variance;
+        this.count = count;
+        this.lastTimestampMillis = lastTimestampMillis;
+    }
+
+    /**
+     * 观测一个采样，时间不晚于上一个采样时忽略
+     *
+     * @param timestampMillis 采样时间
+     * @param value 采样值
+     * @param alpha 平滑系数
+     * @param warmupSamples 基线就绪所需的采样数
+     * @return 是否已更新
+     */
+    public synchronized boolean observe(long timestampMillis, double value, double alpha, int warmupSamples) {
+        if (count > 0 && timestampMillis <= lastTimestampMillis) {
+            return false;
+        }
+        lastTimestampMillis = timestampMillis;
+
+        if (count == 0) {
+            mean = value;
+            variance = 0;
+            count = 1;
+            lastScore = Double.NaN;
+            return true;
+        }
+
+        double std = Math.max(Math.sqrt(variance), Math.max(MIN_STD_ABSOLUTE, MIN_STD_RELATIVE * Math.abs(mean)));
+        boolean ready = count >= warmupSamples;
+        lastScore = ready ? Math.abs(value - mean) / std : Double.NaN;
+
+        // 预热阶段按累计平均收敛，就绪后截断离群值再更新
+        double effectiveAlpha = Math.max(alpha, 1.0 / (count + 1));
+        double x = value;
+        if (ready) {
+            x = Math.max(mean - CLAMP_SIGMA * std, Math.min(mean + CLAMP_SIGMA * std, value));
+        }
+        double diff = x - mean;
+        double increment = effectiveAlpha * diff;
+        mean += increment;
+        variance = (1 - effectiveAlpha) * (variance + diff * increment);
+        count++;
+        return true;
+    }
+
+    /**
+     * 最近一个采样的z分数，基线尚未就绪时为NaN
+     */
+    public synchronized double getLastScore() {
+        return lastScore;
+    }
+
+    public synchronized double getMean() {
+        return mean;
+    }
+
+    public synchronized double getVariance() {
+        return variance;
+    }
+
+    public synchronized long getCount() {
+        return count;
+    }
+
+    public synchronized long getLastTimestampMillis() {
+        return lastTimestampMillis;
+    }
+}
@@ -0,0 +1,33 @@
+package com.aquainsight.domain.alert.types;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 回测中规则持续触发的一个时段
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BacktestEpisode {
+
+    /**
+     * 开始触发的读数时间
+     */
+    private LocalDateTime startTime;
+
+    /**
+     * 恢复为不触发的读数时间，回测结束时仍在触发则为空
+     */
+    private LocalDateTime endTime;
+
+    /**
+     * 是否产生告警，处于静默期内的触发不产生告警
+     */
+    private boolean alerted;
+}
@@ -0,0 +1,72 @@
+package com.aquainsight.domain.alert.types;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 告警规则回测结果
+ * 历史读数按时间顺序回放给规则，统计规则在时间范围内本应产生的告警，不写入告警记录
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BacktestResult {
+
+    /**
+     * 告警规则ID
+     */
+    private Integer ruleId;
+
+    /**
+     * 告警规则名称
+     */
+    private String ruleName;
+
+    /**
+     * 回测开始时间
+     */
+    private LocalDateTime startTime;
+
+    /**
+     * 回测结束时间
+     */
+    private LocalDateTime endTime;
+
+    /**
+     * 回放的目标对象数
+     */
+    private int targetCount;
+
+    /**
+     * 回放的读数数量
+     */
+    private long observationCount;
+
+    /**
+     * 规则从未触发变为触发的次数
+     */
+    private long firingCount;
+
+    /**
+     * 扣除静默期后本应产生的告警数
+     */
+    private long triggerCount;
+
+    /**
+     * 回测耗时(毫秒)
+     */
+    private long costMillis;
+
+    /**
+     * 有触发的目标对象，按告警数降序
+     */
+    @Builder.Default
+    private List<BacktestTargetResult> targets = new ArrayList<>();
+}
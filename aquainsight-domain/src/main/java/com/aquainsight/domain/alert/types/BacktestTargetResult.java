@@ -0,0 +1,50 @@
+package com.aquainsight.domain.alert.types;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 单个目标对象的回测结果
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BacktestTargetResult {
+
+    /**
+     * 目标对象类型
+     */
+    private String targetType;
+
+    /**
+     * 目标对象ID
+     */
+    private Integer targetId;
+
+    /**
+     * 规则从未触发变为触发的次数
+     */
+    private int firingCount;
+
+    /**
+     * 扣除静默期后本应产生的告警数
+     */
+    private int triggerCount;
+
+    /**
+     * 触发时段，按开始时间升序，超过上限的时段只计数不记录
+     */
+    @Builder.Default
+    private List<BacktestEpisode> timeline = new ArrayList<>();
+
+    /**
+     * 触发时段是否因超过上限被截断
+     */
+    private boolean truncated;
+}
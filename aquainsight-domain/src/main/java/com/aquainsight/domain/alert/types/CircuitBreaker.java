@@ -0,0 +1,90 @@
+package com.aquainsight.domain.alert.types;
+
+/**
+ * 熔断器
+ * 连续失败达到阈值后熔断，熔断期内直接拒绝请求；熔断期结束后放行一次试探请求，
+ * 试探成功则恢复，失败则重新熔断
+ */
+public final class CircuitBreaker {
+
+    /**
+     * 熔断器状态
+     */
+    public enum State {
+        /**
+         * 正常放行
+         */
+        CLOSED,
+        /**
+         * 熔断中，拒绝请求
+         */
+        OPEN,
+        /**
+         * 试探中，只放行一次请求
+         */
+        HALF_OPEN
+    }
+
+    private final int failureThreshold;
+    private final long openNanos;
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openUntilNanos;
+
+    public CircuitBreaker(int failureThreshold, long openNanos) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = Math.max(0, openNanos);
+    }
+
+    /**
+     * 申请放行一次请求
+     *
+     * @return 是否放行，放行后须以 {@link #onSuccess()} 或 {@link #onFailure(long)} 报告结果
+     */
+    public synchronized boolean tryAcquire(long nowNanos) {
+        switch (state) {
+            case OPEN:
+                if (nowNanos - openUntilNanos < 0) {
+                    return false;
+                }
+                state = State.HALF_OPEN;
+                return true;
+            case HALF_OPEN:
+                // 试探请求尚未返回
+                return false;
+            case CLOSED:
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * 报告请求成功
+     */
+    public synchronized void onSuccess() {
+        state = State.CLOSED;
+        consecutiveFailures = 0;
+    }
+
+    /**
+     * 报告请求失败
+     *
+     * @return 本次失败是否使熔断器进入熔断
+     */
+    public synchronized boolean onFailure(long nowNanos) {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || (state == State.CLOSED && consecutiveFailures >= failureThreshold)) {
+            state = State.OPEN;
+            openUntilNanos = nowNanos + openNanos;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 当前是否会拒绝请求
+     */
+    public synchronized boolean isRejecting(long nowNanos) {
+        return state == State.HALF_OPEN || (state == State.OPEN && nowNanos - openUntilNanos < 0);
+    }
+}
@@ -0,0 +1,174 @@
+package com.aquainsight.domain.alert.types;
+
+import com.aquainsight.domain.alert.entity.RuleCondition;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 编译后的规则条件
+ * 规则加载时将阈值转换为double，评估时只做原始类型比较
+ */
+public final class CompiledCondition {
+
+    private static final int GT = 0;
+    private static final int GTE = 1;
+    private static final int LT = 2;
+    private static final int LTE = 3;
+    private static final int EQ = 4;
+    private static final int NEQ = 5;
+    private static final int BETWEEN = 6;
+    private static final int NOT_BETWEEN = 7;
+    private static final int ANOMALY = 8;
+
+    private final String metric;
+    private final int opcode;
+    private final double threshold;
+    private final double minThreshold;
+    private final double maxThreshold;
+    private final long durationMillis;
+    private final int windowSamples;
+    private final int minMatchedSamples;
+    private final RuleCondition source;
+
+    private CompiledCondition(RuleCondition source, int opcode) {
+        this.source = source;
+        this.metric = source.getMetric();
+        this.opcode = opcode;
+        this.threshold = toDouble(source.getThreshold());
+        this.minThreshold = toDouble(source.getMinThreshold());
+        this.maxThreshold = toDouble(source.getMaxThreshold());
+        this.durationMillis = source.getDurationMinutes() != null
+                ? TimeUnit.MINUTES.toMillis(source.getDurationMinutes()) : 0L;
+        this.windowSamples = source.getWindowSamples() != null ? source.getWindowSamples() : 0;
+        this.minMatchedSamples = source.getMinMatchedSamples() != null ? source.getMinMatchedSamples() : 0;
+    }
+
+    /**
+     * 编译条件，条件无效时返回null
+     */
+    public static CompiledCondition compile(RuleCondition condition) {
+        if (condition == null || !condition.isValid()) {
+            return null;
+        }
+        return new CompiledCondition(condition, opcodeOf(condition.getOperator()));
+    }
+
+    /**
+     * 判断指标值是否满足条件
+     */
+    public boolean test(double value) {
+        switch (opcode) {
+            case GT:
+                return value > threshold;
+            case GTE:
+                return value >= threshold;
+            case LT:
+                return value < threshold;
+            case LTE:
+                return value <= threshold;
+            case EQ:
+                return value == threshold;
+            case NEQ:
+                return value != threshold;
+            case BETWEEN:
+                return value >= minThreshold && value <= maxThreshold;
+            case NOT_BETWEEN:
+                return value < minThreshold || value > maxThreshold;
+            case ANOMALY:
+                // 异常检测依赖历史基线，不能只根据当前值判断
+                return false;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * 判断指标值是否满足条件，空值不满足任何条件
+     */
+    public boolean test(BigDecimal value) {
+        return value != null && test(value.doubleValue());
+    }
+
+    /**
+     * 是否为偏离历史基线的异常检测条件
+     */
+    public boolean isAnomaly() {
+        return opcode == ANOMALY;
+    }
+
+    /**
+     * 判断异常分数是否达到阈值，基线尚未就绪(NaN)时不满足
+     */
+    public boolean testAnomalyScore(double score) {
+        return !Double.isNaN(score) && score >= threshold;
+    }
+
+    /**
+     * 是否需要基于历史采样判断（持续时长或采样窗口）
+     */
+    public boolean isSustained() {
+        return durationMillis > 0 || windowSamples > 0;
+    }
+
+    /**
+     * 判断采样序列是否满足持续时长和采样窗口要求
+     * 同时配置时两者都需满足；序列不存在时不满足
+     */
+    public boolean testSeries(SeriesRingBuffer series) {
+        if (series == null) {
+            return false;
+        }
+        if (windowSamples > 0 && series.countRecentMatches(this, windowSamples) < minMatchedSamples) {
+            return false;
+        }
+        return durationMillis <= 0 || series.trailingMatchSpanMillis(this) >= durationMillis;
+    }
+
+    /**
+     * 判断所需的最少采样数
+     */
+    public int getWindowSamples() {
+        return windowSamples;
+    }
+
+    public String getMetric() {
+        return metric;
+    }
+
+    /**
+     * 编译前的原始条件配置
+     */
+    public RuleCondition getSource() {
+        return source;
+    }
+
+    private static int opcodeOf(RuleCondition.ComparisonOperator operator) {
+        switch (operator) {
+            case GT:
+                return GT;
+            case GTE:
+                return GTE;
+            case LT:
+                return LT;
+            case LTE:
+                return LTE;
+            case EQ:
+                return EQ;
+            case NEQ:
+                return NEQ;
+            case BETWEEN:
+                return BETWEEN;
+            case NOT_BETWEEN:
+                return NOT_BETWEEN;
+            case ANOMALY:
+                return ANOMALY;
+            default:
+                throw new IllegalArgumentException("不支持的比较操作符: " + operator);
+        }
+    }
+
+    private static double toDouble(BigDecimal value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+}
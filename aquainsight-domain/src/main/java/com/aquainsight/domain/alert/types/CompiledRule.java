@@ -0,0 +1,185 @@
+package com.aquainsight.domain.alert.types;
+
+import com.aquainsight.domain.alert.entity.AlertRule;
+import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.entity.RuleCondition;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 编译后的告警规则
+ * 条件预先编译为原始类型比较，AND组合的结构在加载时确定：
+ * 规则不可能触发（禁用、无条件或存在无效条件）时直接短路
+ */
+public final class CompiledRule {
+
+    private final AlertRule rule;
+
+    /**
+     * 按配置顺序排列的编译条件
+     */
+    private final CompiledCondition[] conditions;
+
+    /**
+     * 规则引用的去重指标名称
+     */
+    private final String[] metricNames;
+
+    /**
+     * 每个条件对应的指标在 {@link #metricNames} 中的位置
+     */
+    private final int[] metricSlots;
+
+    /**
+     * 规则是否可能触发
+     */
+    private final boolean evaluable;
+
+    private CompiledRule(AlertRule rule, CompiledCondition[] conditions, String[] metricNames,
+                         int[] metricSlots, boolean evaluable) {
+        this.rule = rule;
+        this.conditions = conditions;
+        this.metricNames = metricNames;
+        this.metricSlots = metricSlots;
+        this.evaluable = evaluable;
+    }
+
+    /**
+     * 编译告警规则
+     */
+    public static CompiledRule compile(AlertRule rule) {
+        return compile(rule, rule.isEnabled());
+    }
+
+    /**
+     * 不论规则是否启用都按启用编译，用于规则启用前的历史回测
+     */
+    public static CompiledRule compileIgnoringEnabled(AlertRule rule) {
+        return compile(rule, true);
+    }
+
+    private static CompiledRule compile(AlertRule rule, boolean enabled) {
+        List<RuleCondition> configs = rule.getConditionConfigs() != null
+                ? rule.getConditionConfigs() : new ArrayList<>();
+        boolean evaluable = enabled && !configs.isEmpty();
+
+        CompiledCondition[] conditions = new CompiledCondition[configs.size()];
+        int[] metricSlots = new int[configs.size()];
+        Map<String, Integer> slots = new LinkedHashMap<>();
+        for (int i = 0; i < configs.size(); i++) {
+            CompiledCondition condition = CompiledCondition.compile(configs.get(i));
+            if (condition == null) {
+                // AND逻辑下任一条件无效，规则都不会触发
+                evaluable = false;
+                conditions = new CompiledCondition[0];
+                metricSlots = new int[0];
+                slots.clear();
+                break;
+            }
+            conditions[i] = condition;
+            Integer slot = slots.get(condition.getMetric());
+            if (slot == null) {
+                slot = slots.size();
+                slots.put(condition.getMetric(), slot);
+            }
+            metricSlots[i] = slot;
+        }
+
+        return new CompiledRule(rule, conditions, slots.keySet().toArray(new String[0]), metricSlots, evaluable);
+    }
+
+    public AlertRule getRule() {
+        return rule;
+    }
+
+    public Integer getRuleId() {
+        return rule.getId();
+    }
+
+    public boolean isEvaluable() {
+        return evaluable;
+    }
+
+    public int getConditionCount() {
+        return conditions.length;
+    }
+
+    public CompiledCondition getCondition(int index) {
+        return conditions[index];
+    }
+
+    /**
+     * 条件对应的去重指标位置
+     */
+    public int getMetricSlot(int conditionIndex) {
+        return metricSlots[conditionIndex];
+    }
+
+    public int getMetricCount() {
+        return metricNames.length;
+    }
+
+    public String getMetricName(int slot) {
+        return metricNames[slot];
+    }
+
+    /**
+     * 目标对象的指标是否满足规则的所有条件（AND逻辑）
+     * 异常检测条件基于序列的历史基线判断，持续时长和采样窗口条件基于序列的历史采样判断，
+     * 其余条件判断当前值
+     *
+     * @param targetMetrics 按指标位置排列的目标对象指标
+     * @param series 采样序列查找，为空时异常检测和持续条件均不满足
+     */
+    public boolean matches(Metric[][] targetMetrics, SeriesLookup series) {
+        for (int i = 0; i < conditions.length; i++) {
+            CompiledCondition condition = conditions[i];
+            Metric[] metrics = targetMetrics[metricSlots[i]];
+            if (condition.isAnomaly()) {
+                if (metrics.length == 0 || series == null || !condition.testAnomalyScore(
+                        series.anomalyScore(condition.getMetric(), metrics[0].getTargetId()))) {
+                    return false;
+                }
+            } else if (condition.isSustained()) {
+                if (metrics.length == 0 || series == null
+                        || !condition.testSeries(series.find(condition.getMetric(), metrics[0].getTargetId()))) {
+                    return false;
+                }
+            } else if (!anyMetricMatches(condition, metrics)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 按条件顺序收集满足条件的指标
+     * 异常检测和持续条件以目标对象的当前指标作为触发依据
+     *
+     * @param targetMetrics 按指标位置排列的目标对象指标
+     */
+    public List<Metric> collectMatchedMetrics(Metric[][] targetMetrics) {
+        List<Metric> triggeredMetrics = new ArrayList<>();
+        for (int i = 0; i < conditions.length; i++) {
+            for (Metric metric : targetMetrics[metricSlots[i]]) {
+                if (conditions[i].isAnomaly() || conditions[i].isSustained()
+                        || conditions[i].test(metric.getValue())) {
+                    triggeredMetrics.add(metric);
+                }
+            }
+        }
+        return triggeredMetrics;
+    }
+
+    private static boolean anyMetricMatches(CompiledCondition condition, Metric[] metrics) {
+        for (Metric metric : metrics) {
+            if (condition.test(metric.getValue())) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
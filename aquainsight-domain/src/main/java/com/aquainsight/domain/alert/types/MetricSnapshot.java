@@ -0,0 +1,146 @@
+package com.aquainsight.domain.alert.types;
+
+import com.aquainsight.domain.alert.entity.Metric;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 指标快照
+ * 一个评估周期内每个指标名称只采集一次，所有规则共享同一份只读数据
+ */
+public final class MetricSnapshot {
+
+    /**
+     * 指标名称 -> 采集到的指标列表
+     */
+    private final Map<String, List<Metric>> metricsByName;
+
+    /**
+     * 指标名称 -> 按目标对象ID建立的索引
+     */
+    private final Map<String, TargetMetricIndex> indexByName;
+
+    /**
+     * 采集失败的指标名称 -> 失败原因
+     */
+    private final Map<String, String> failedMetrics;
+
+    /**
+     * 指标名称 -> 采集耗时(毫秒)
+     */
+    private final Map<String, Long> collectCostMillis;
+
+    /**
+     * 规则条件对指标的引用总次数（未共享快照时的采集调用次数）
+     */
+    private final int requestedCount;
+
+    /**
+     * 快照时间
+     */
+    private final LocalDateTime snapshotTime;
+
+    public MetricSnapshot(Map<String, List<Metric>> metricsByName, Map<String, String> failedMetrics,
+                          Map<String, Long> collectCostMillis, int requestedCount, LocalDateTime snapshotTime) {
+        Map<String, List<Metric>> copy = new LinkedHashMap<>();
+        Map<String, TargetMetricIndex> indexes = new LinkedHashMap<>();
+        metricsByName.forEach((name, metrics) -> {
+            copy.put(name, Collections.unmodifiableList(metrics));
+            indexes.put(name, TargetMetricIndex.build(metrics));
+        });
+        this.metricsByName = Collections.unmodifiableMap(copy);
+        this.indexByName = Collections.unmodifiableMap(indexes);
+        this.failedMetrics = Collections.unmodifiableMap(new LinkedHashMap<>(failedMetrics));
+        this.collectCostMillis = Collections.unmodifiableMap(new LinkedHashMap<>(collectCostMillis));
+        this.requestedCount = requestedCount;
+        this.snapshotTime = snapshotTime;
+    }
+
+    /**
+     * 获取指定指标的所有目标对象数据
+     * 指标采集失败时抛出原始失败原因，使引用该指标的规则按失败处理
+     */
+    public List<Metric> getMetrics(String metricName) {
+        List<Metric> metrics = metricsByName.get(metricName);
+        if (metrics != null) {
+            return metrics;
+        }
+        if (failedMetrics.containsKey(metricName)) {
+            throw new IllegalArgumentException(failedMetrics.get(metricName));
+        }
+        throw new IllegalStateException("指标快照中不包含指标: " + metricName);
+    }
+
+    /**
+     * 获取指定指标按目标对象ID建立的索引
+     * 指标采集失败时抛出原始失败原因
+     */
+    public TargetMetricIndex getIndex(String metricName) {
+        TargetMetricIndex index = indexByName.get(metricName);
+        if (index != null) {
+            return index;
+        }
+        getMetrics(metricName);
+        throw new IllegalStateException("指标快照中不包含指标: " + metricName);
+    }
+
+    /**
+     * 采集成功的指标名称
+     */
+    public Set<String> getMetricNames() {
+        return metricsByName.keySet();
+    }
+
+    /**
+     * 快照中是否包含指定指标（含采集失败的指标）
+     */
+    public boolean contains(String metricName) {
+        return metricsByName.containsKey(metricName) || failedMetrics.containsKey(metricName);
+    }
+
+    /**
+     * 实际调用采集器的次数
+     */
+    public int getCollectorCalls() {
+        return metricsByName.size() + failedMetrics.size();
+    }
+
+    /**
+     * 相比每个条件单独采集节省的采集调用次数
+     */
+    public int getSavedCollectorCalls() {
+        return Math.max(0, requestedCount - getCollectorCalls());
+    }
+
+    public int getRequestedCount() {
+        return requestedCount;
+    }
+
+    public Map<String, String> getFailedMetrics() {
+        return failedMetrics;
+    }
+
+    public Map<String, Long> getCollectCostMillis() {
+        return collectCostMillis;
+    }
+
+    /**
+     * 所有指标采集总耗时(毫秒)
+     */
+    public long getTotalCollectCostMillis() {
+        long total = 0;
+        for (Long cost : collectCostMillis.values()) {
+            total += cost;
+        }
+        return total;
+    }
+
+    public LocalDateTime getSnapshotTime() {
+        return snapshotTime;
+    }
+}
@@ -0,0 +1,17 @@
+package com.aquainsight.domain.alert.types;
+
+/**
+ * 按(指标, 目标)查找序列状态
+ */
+public interface SeriesLookup {
+
+    /**
+     * 查找采样序列，不存在时返回null
+     */
+    SeriesRingBuffer find(String metricName, int targetId);
+
+    /**
+     * 最近一个采样相对历史基线的异常分数，基线尚未就绪时返回NaN
+     */
+    double anomalyScore(String metricName, int targetId);
+}
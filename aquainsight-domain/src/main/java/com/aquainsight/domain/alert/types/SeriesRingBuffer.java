@@ -0,0 +1,110 @@
+package com.aquainsight.domain.alert.types;
+
+/**
+ * 单个(指标, 目标)序列的定长环形缓冲
+ * 使用原始类型数组保存最近的采样时间和值，写满后覆盖最旧的采样，内存占用固定
+ */
+public final class SeriesRingBuffer {
+
+    /**
+     * 对象头及字段的估算开销(字节)
+     */
+    private static final int OVERHEAD_BYTES = 64;
+
+    private final long[] timestamps;
+    private final double[] values;
+
+    /**
+     * 下一次写入的位置
+     */
+    private int head;
+
+    /**
+     * 已保存的采样数
+     */
+    private int size;
+
+    public SeriesRingBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("环形缓冲容量必须大于0");
+        }
+        this.timestamps = new long[capacity];
+        this.values = new double[capacity];
+    }
+
+    /**
+     * 追加一个采样，时间不晚于最新采样时忽略
+     *
+     * @return 是否已追加
+     */
+    public synchronized boolean append(long timestampMillis, double value) {
+        if (size > 0 && timestampMillis <= timestamps[indexOf(0)]) {
+            return false;
+        }
+        timestamps[head] = timestampMillis;
+        values[head] = value;
+        head = (head + 1) % timestamps.length;
+        if (size < timestamps.length) {
+            size++;
+        }
+        return true;
+    }
+
+    /**
+     * 最近 lastN 个采样中满足条件的个数
+     */
+    public synchronized int countRecentMatches(CompiledCondition condition, int lastN) {
+        int limit = Math.min(lastN, size);
+        int matched = 0;
+        for (int i = 0; i < limit; i++) {
+            if (condition.test(values[indexOf(i)])) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * 从最新采样向前连续满足条件的时间跨度(毫秒)
+     * 最新采样不满足条件时返回-1
+     */
+    public synchronized long trailingMatchSpanMillis(CompiledCondition condition) {
+        if (size == 0 || !condition.test(values[indexOf(0)])) {
+            return -1;
+        }
+        long newest = timestamps[indexOf(0)];
+        long runStart = newest;
+        for (int i = 1; i < size; i++) {
+            int index = indexOf(i);
+            if (!condition.test(values[index])) {
+                break;
+            }
+            runStart = timestamps[index];
+        }
+        return newest - runStart;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return timestamps.length;
+    }
+
+    /**
+     * 指定容量的缓冲占用的估算内存(字节)
+     */
+    public static long estimateBytes(int capacity) {
+        // long[] 与 double[] 各占 16字节数组头 + 8字节/采样
+        return OVERHEAD_BYTES + 2L * (16 + 8L * capacity);
+    }
+
+    /**
+     * 第 offset 新的采样在数组中的位置，0表示最新
+     */
+    private int indexOf(int offset) {
+        int capacity = timestamps.length;
+        return ((head - 1 - offset) % capacity + capacity) % capacity;
+    }
+}
@@ -0,0 +1,141 @@
+package com.aquainsight.domain.alert.types;
+
+import com.aquainsight.domain.alert.entity.Metric;
+
+import java.util.List;
+
+/**
+ * 按目标对象ID索引的指标表
+ * 使用int开放寻址散列，构建后只读，可在多线程间共享
+ */
+public final class TargetMetricIndex {
+
+    private static final Metric[] EMPTY = new Metric[0];
+
+    /**
+     * 散列槽位中的目标ID
+     */
+    private final int[] slotKeys;
+
+    /**
+     * 散列槽位中的指标数组，null表示空槽
+     */
+    private final Metric[][] slotValues;
+
+    private final int mask;
+
+    /**
+     * 按首次出现顺序排列的目标ID，用于遍历
+     */
+    private final int[] targetIds;
+
+    private TargetMetricIndex(int[] slotKeys, Metric[][] slotValues, int[] targetIds) {
+        this.slotKeys = slotKeys;
+        this.slotValues = slotValues;
+        this.mask = slotKeys.length - 1;
+        this.targetIds = targetIds;
+    }
+
+    /**
+     * 根据指标列表构建索引，忽略目标ID为空的指标
+     */
+    public static TargetMetricIndex build(List<Metric> metrics) {
+        int capacity = tableSizeFor(Math.max(4, metrics.size() * 2));
+        int mask = capacity - 1;
+        int[] slotKeys = new int[capacity];
+        int[] slotCounts = new int[capacity];
+        boolean[] used = new boolean[capacity];
+        int[] targetIds = new int[metrics.size()];
+        int targetCount = 0;
+
+        // 第一遍：登记目标ID并统计每个目标的指标数量
+        for (Metric metric : metrics) {
+            Integer targetId = metric.getTargetId();
+            if (targetId == null) {
+                continue;
+            }
+            int slot = findSlot(slotKeys, used, mask, targetId);
+            if (!used[slot]) {
+                used[slot] = true;
+                slotKeys[slot] = targetId;
+                targetIds[targetCount++] = targetId;
+            }
+            slotCounts[slot]++;
+        }
+
+        // 第二遍：按统计好的大小一次性分配数组并填充
+        Metric[][] slotValues = new Metric[capacity][];
+        int[] cursors = new int[capacity];
+        for (Metric metric : metrics) {
+            Integer targetId = metric.getTargetId();
+            if (targetId == null) {
+                continue;
+            }
+            int slot = findSlot(slotKeys, used, mask, targetId);
+            if (slotValues[slot] == null) {
+                slotValues[slot] = new Metric[slotCounts[slot]];
+            }
+            slotValues[slot][cursors[slot]++] = metric;
+        }
+
+        int[] distinctTargetIds = new int[targetCount];
+        System.arraycopy(targetIds, 0, distinctTargetIds, 0, targetCount);
+        return new TargetMetricIndex(slotKeys, slotValues, distinctTargetIds);
+    }
+
+    /**
+     * 获取指定目标对象的指标，不存在时返回空数组
+     */
+    public Metric[] get(int targetId) {
+        int slot = mix(targetId) & mask;
+        while (slotValues[slot] != null) {
+            if (slotKeys[slot] == targetId) {
+                return slotValues[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        return EMPTY;
+    }
+
+    /**
+     * 是否包含指定目标对象
+     */
+    public boolean contains(int targetId) {
+        return get(targetId).length > 0;
+    }
+
+    /**
+     * 目标对象数量
+     */
+    public int size() {
+        return targetIds.length;
+    }
+
+    /**
+     * 按位置获取目标ID，配合 {@link #size()} 遍历
+     */
+    public int targetIdAt(int position) {
+        return targetIds[position];
+    }
+
+    private static int findSlot(int[] slotKeys, boolean[] used, int mask, int targetId) {
+        int slot = mix(targetId) & mask;
+        while (used[slot] && slotKeys[slot] != targetId) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(int size) {
+        int n = 1;
+        while (n < size) {
+            n <<= 1;
+        }
+        return n;
+    }
+}
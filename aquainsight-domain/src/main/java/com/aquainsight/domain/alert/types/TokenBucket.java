@@ -0,0 +1,40 @@
+package com.aquainsight.domain.alert.types;
+
+/**
+ * 令牌桶限流
+ * 令牌按固定速率补充，桶满后不再累积；令牌不足时允许透支，透支部分由后续调用方等待偿还，
+ * 单次请求的令牌数超过桶容量时也不会永远等待
+ */
+public final class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final double permitsPerSecond;
+    private final double capacity;
+    private double tokens;
+    private long lastRefillNanos;
+
+    public TokenBucket(double permitsPerSecond, double capacity, long nowNanos) {
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("令牌补充速率必须大于0");
+        }
+        this.permitsPerSecond = permitsPerSecond;
+        this.capacity = Math.max(1, capacity);
+        this.tokens = this.capacity;
+        this.lastRefillNanos = nowNanos;
+    }
+
+    /**
+     * 预留令牌
+     *
+     * @return 调用方需要等待的纳秒数，令牌充足时为0
+     */
+    public synchronized long reserve(int permits, long nowNanos) {
+        if (nowNanos > lastRefillNanos) {
+            tokens = Math.min(capacity, tokens + (nowNanos - lastRefillNanos) / NANOS_PER_SECOND * permitsPerSecond);
+            lastRefillNanos = nowNanos;
+        }
+        tokens -= permits;
+        return tokens >= 0 ? 0 : (long) (-tokens / permitsPerSecond * NANOS_PER_SECOND);
+    }
+}
@@ -0,0 +1,28 @@
+package com.aquainsight.domain.cluster.repository;
+
+/**
+ * 集群防护行仓储
+ * 每个租约在数据库中有一行防护记录，保存当前持有者和单调递增的写入纪元。
+ * 持有者每次获取租约后递增纪元；写事务内以共享锁读取防护行并比较纪元，
+ * 新持有者递增纪元的更新会等待旧持有者进行中的写事务提交，此后旧持有者的写事务校验失败
+ */
+public interface ClusterFenceRepository {
+
+    /**
+     * 递增租约的写入纪元并登记持有者，防护行不存在时创建
+     *
+     * @param leaseName 租约名称
+     * @param holderId 持有者实例ID
+     * @return 递增后的写入纪元，纪元已被其他持有者再次递增时返回空
+     */
+    Long advance(String leaseName, String holderId);
+
+    /**
+     * 在当前事务内以共享锁读取防护行，判断写入纪元是否仍是最新
+     * 共享锁持有到事务结束，期间其他持有者无法递增纪元；不在事务内调用时只做一次性校验
+     *
+     * @param leaseName 租约名称
+     * @param epoch 获取租约时得到的写入纪元
+     */
+    boolean isCurrent(String leaseName, long epoch);
+}
@@ -0,0 +1,52 @@
+package com.aquainsight.domain.cluster.service;
+
+import com.aquainsight.domain.cluster.types.Lease;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 集群协调服务
+ * 提供带防护令牌的租约和实例存活登记，用于多实例部署时定时任务的选主与分片
+ */
+public interface ClusterCoordinator {
+
+    /**
+     * 尝试获取租约
+     * 租约空闲或已由当前持有者持有时成功；持有者变更时发放新的防护令牌
+     *
+     * @param leaseName 租约名称
+     * @param holderId 持有者实例ID
+     * @param ttlMillis 租约有效期(毫秒)
+     * @return 获取到的租约，被其他实例持有时返回空
+     */
+    Optional<Lease> tryAcquire(String leaseName, String holderId, long ttlMillis);
+
+    /**
+     * 续约，租约已失效或被其他实例持有时返回false
+     */
+    boolean renew(Lease lease, long ttlMillis);
+
+    /**
+     * 租约是否仍由持有者持有且防护令牌未变
+     */
+    boolean isValid(Lease lease);
+
+    /**
+     * 释放租约，仅当防护令牌仍是最新时生效
+     */
+    void release(Lease lease);
+
+    /**
+     * 登记实例存活
+     *
+     * @param memberId 实例ID
+     * @param ttlMillis 存活有效期(毫秒)，超过有效期未再登记视为下线
+     */
+    void heartbeat(String memberId, long ttlMillis);
+
+    /**
+     * 获取当前存活的实例ID
+     */
+    List<String> getLiveMembers();
+}
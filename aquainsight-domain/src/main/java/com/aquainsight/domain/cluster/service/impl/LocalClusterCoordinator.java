@@ -0,0 +1,100 @@
+package com.aquainsight.domain.cluster.service.impl;
+
+import com.aquainsight.domain.cluster.service.ClusterCoordinator;
+import com.aquainsight.domain.cluster.types.Lease;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 进程内集群协调服务
+ * 单实例部署及本地调试使用，语义与Redis实现一致，可在同一进程内模拟多个实例争抢租约
+ */
+@Component
+@ConditionalOnProperty(prefix = "aquainsight.cluster", name = "store", havingValue = "local", matchIfMissing = true)
+public class LocalClusterCoordinator implements ClusterCoordinator {
+
+    private final Map<String, LeaseState> leases = new HashMap<>();
+    private final Map<String, Long> fencingTokens = new HashMap<>();
+    private final Map<String, Long> members = new ConcurrentHashMap<>();
+
+    @Override
+    public synchronized Optional<Lease> tryAcquire(String leaseName, String holderId, long ttlMillis) {
+        long now = System.currentTimeMillis();
+        LeaseState state = leases.get(leaseName);
+        if (state != null && state.expireAtMillis > now && !state.holderId.equals(holderId)) {
+            return Optional.empty();
+        }
+        long fencingToken;
+        if (state != null && state.expireAtMillis > now) {
+            fencingToken = state.fencingToken;
+        } else {
+            fencingToken = fencingTokens.merge(leaseName, 1L, Long::sum);
+        }
+        leases.put(leaseName, new LeaseState(holderId, fencingToken, now + ttlMillis));
+        return Optional.of(new Lease(leaseName, holderId, fencingToken));
+    }
+
+    @Override
+    public synchronized boolean renew(Lease lease, long ttlMillis) {
+        if (!isValid(lease)) {
+            return false;
+        }
+        leases.put(lease.getLeaseName(), new LeaseState(lease.getHolderId(), lease.getFencingToken(),
+                System.currentTimeMillis() + ttlMillis));
+        return true;
+    }
+
+    @Override
+    public synchronized boolean isValid(Lease lease) {
+        LeaseState state = leases.get(lease.getLeaseName());
+        return state != null
+                && state.expireAtMillis > System.currentTimeMillis()
+                && state.holderId.equals(lease.getHolderId())
+                && state.fencingToken == lease.getFencingToken();
+    }
+
+    @Override
+    public synchronized void release(Lease lease) {
+        if (isValid(lease)) {
+            leases.remove(lease.getLeaseName());
+        }
+    }
+
+    @Override
+    public void heartbeat(String memberId, long ttlMillis) {
+        members.put(memberId, System.currentTimeMillis() + ttlMillis);
+    }
+
+    @Override
+    public List<String> getLiveMembers() {
+        long now = System.currentTimeMillis();
+        members.entrySet().removeIf(entry -> entry.getValue() <= now);
+        List<String> liveMembers = new ArrayList<>(members.keySet());
+        Collections.sort(liveMembers);
+        return liveMembers;
+    }
+
+    /**
+     * 租约状态
+     */
+    private static final class LeaseState {
+
+        private final String holderId;
+        private final long fencingToken;
+        private final long expireAtMillis;
+
+        private LeaseState(String holderId, long fencingToken, long expireAtMillis) {
+            this.holderId = holderId;
+            this.fencingToken = fencingToken;
+            this.expireAtMillis = expireAtMillis;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.aquainsight.domain.cluster.types;
+
+/**
+ * 集群租约
+ * 同一时刻只有一个实例持有某个租约；每次持有者变更时发放单调递增的防护令牌(fencing token)。
+ * 获取租约后还会在数据库防护行中递增写入纪元，写事务内按纪元校验，
+ * 避免因停顿而过期的旧持有者在校验之后、提交之前继续写入
+ */
+public final class Lease {
+
+    /**
+     * 租约名称
+     */
+    private final String leaseName;
+
+    /**
+     * 持有者实例ID
+     */
+    private final String holderId;
+
+    /**
+     * 防护令牌
+     */
+    private final long fencingToken;
+
+    /**
+     * 数据库防护行中的写入纪元，0表示尚未登记
+     */
+    private final long epoch;
+
+    public Lease(String leaseName, String holderId, long fencingToken) {
+        this(leaseName, holderId, fencingToken, 0L);
+    }
+
+    private Lease(String leaseName, String holderId, long fencingToken, long epoch) {
+        this.leaseName = leaseName;
+        this.holderId = holderId;
+        this.fencingToken = fencingToken;
+        this.epoch = epoch;
+    }
+
+    /**
+     * 返回登记了写入纪元的租约
+     */
+    public Lease withEpoch(long epoch) {
+        return new Lease(leaseName, holderId, fencingToken, epoch);
+    }
+
+    public String getLeaseName() {
+        return leaseName;
+    }
+
+    public String getHolderId() {
+        return holderId;
+    }
+
+    public long getFencingToken() {
+        return fencingToken;
+    }
+
+    public long getEpoch() {
+        return epoch;
+    }
+
+    @Override
+    public String toString() {
+        return leaseName + "[" + holderId + "#" + fencingToken + ", epoch=" + epoch + "]";
+    }
+}
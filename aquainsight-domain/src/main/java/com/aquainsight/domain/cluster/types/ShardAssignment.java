@@ -0,0 +1,67 @@
+package com.aquainsight.domain.cluster.types;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 分片分配
+ * 基于存活实例列表做最高随机权重(rendezvous)哈希，实例增减时只有少量键需要迁移
+ */
+public final class ShardAssignment {
+
+    private final String selfId;
+    private final List<String> members;
+
+    public ShardAssignment(String selfId, List<String> liveMembers) {
+        List<String> sorted = new ArrayList<>(liveMembers);
+        if (!sorted.contains(selfId)) {
+            sorted.add(selfId);
+        }
+        Collections.sort(sorted);
+        this.selfId = selfId;
+        this.members = Collections.unmodifiableList(sorted);
+    }
+
+    /**
+     * 当前实例是否负责指定键
+     */
+    public boolean owns(int key) {
+        return selfId.equals(ownerOf(key));
+    }
+
+    /**
+     * 指定键的负责实例
+     */
+    public String ownerOf(int key) {
+        String owner = null;
+        long maxWeight = Long.MIN_VALUE;
+        for (String member : members) {
+            long weight = weight(member, key);
+            if (owner == null || weight > maxWeight) {
+                owner = member;
+                maxWeight = weight;
+            }
+        }
+        return owner;
+    }
+
+    public String getSelfId() {
+        return selfId;
+    }
+
+    public List<String> getMembers() {
+        return members;
+    }
+
+    private static long weight(String member, int key) {
+        // 64位混合函数，保证不同实例对同一键的权重相互独立
+        long h = member.hashCode() * 0x9E3779B97F4A7C15L + key;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
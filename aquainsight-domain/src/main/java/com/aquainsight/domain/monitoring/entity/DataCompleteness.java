@@ -0,0 +1,142 @@
+package com.aquainsight.domain.monitoring.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 数据完整率实体
+ * 一条序列(站点, 因子)一天的采集时段位图，一天按站点的采集间隔划分为若干时段，收到读数的时段置位
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DataCompleteness {
+
+    private static final int MINUTES_PER_DAY = 1440;
+
+    /**
+     * 站点ID
+     */
+    private Integer siteId;
+
+    /**
+     * 监测因子ID
+     */
+    private Integer factorId;
+
+    /**
+     * 统计日期
+     */
+    private LocalDate statDate;
+
+    /**
+     * 采集间隔(分钟)，当天首次统计时确定，当天内不再变化
+     */
+    private Integer intervalMinutes;
+
+    /**
+     * 时段位图，第i位表示第i个时段是否收到读数
+     */
+    private long[] slotBitmap;
+
+    /**
+     * 创建一天的空位图
+     */
+    public static DataCompleteness create(Integer siteId, Integer factorId, LocalDate statDate, int intervalMinutes) {
+        int slotCount = MINUTES_PER_DAY / intervalMinutes;
+        return DataCompleteness.builder()
+                .siteId(siteId)
+                .factorId(factorId)
+                .statDate(statDate)
+                .intervalMinutes(intervalMinutes)
+                .slotBitmap(new long[(slotCount + 63) >>> 6])
+                .build();
+    }
+
+    /**
+     * 一天的时段数
+     */
+    public int getSlotCount() {
+        return MINUTES_PER_DAY / intervalMinutes;
+    }
+
+    /**
+     * 监测时间所在的时段
+     */
+    public int slotOf(LocalDateTime readingTime) {
+        return (readingTime.getHour() * 60 + readingTime.getMinute()) / intervalMinutes;
+    }
+
+    /**
+     * 标记时段已收到读数
+     *
+     * @return 该时段此前是否未收到读数
+     */
+    public boolean markReceived(int slot) {
+        long mask = 1L << (slot & 63);
+        long word = slotBitmap[slot >>> 6];
+        if ((word & mask) != 0) {
+            return false;
+        }
+        slotBitmap[slot >>> 6] = word | mask;
+        return true;
+    }
+
+    /**
+     * 时段是否收到读数
+     */
+    public boolean isReceived(int slot) {
+        return (slotBitmap[slot >>> 6] & (1L << (slot & 63))) != 0;
+    }
+
+    /**
+     * 前slotLimit个时段中收到读数的时段数
+     */
+    public int countReceived(int slotLimit) {
+        int limit = Math.min(slotLimit, getSlotCount());
+        int count = 0;
+        int fullWords = limit >>> 6;
+        for (int i = 0; i < fullWords; i++) {
+            count += Long.bitCount(slotBitmap[i]);
+        }
+        int remainder = limit & 63;
+        if (remainder > 0) {
+            count += Long.bitCount(slotBitmap[fullWords] & ((1L << remainder) - 1));
+        }
+        return count;
+    }
+
+    /**
+     * 截至指定时间应收到读数的时段数，当天只计已结束的时段
+     */
+    public int expectedSlotCount(LocalDateTime now) {
+        LocalDate today = now.toLocalDate();
+        if (statDate.isBefore(today)) {
+            return getSlotCount();
+        }
+        if (statDate.isAfter(today)) {
+            return 0;
+        }
+        return (now.getHour() * 60 + now.getMinute()) / intervalMinutes;
+    }
+
+    /**
+     * 截至指定时间的完整率(百分比)，没有应收时段时返回null
+     */
+    public BigDecimal completenessAt(LocalDateTime now) {
+        int expected = expectedSlotCount(now);
+        if (expected == 0) {
+            return null;
+        }
+        return BigDecimal.valueOf(countReceived(expected) * 100L)
+                .divide(BigDecimal.valueOf(expected), 2, RoundingMode.HALF_UP);
+    }
+}
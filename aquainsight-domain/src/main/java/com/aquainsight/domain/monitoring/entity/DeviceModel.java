@@ -56,6 +56,11 @@ public class DeviceModel {
      */
     private Factor factor;
 
+    /**
+     * 心跳超时时长(秒)，超过该时长未收到数据的设备置为离线，为空时使用系统默认值
+     */
+    private Integer heartbeatTimeoutSeconds;
+
     /**
      * 创建时间
      */
@@ -75,7 +80,8 @@ public class DeviceModel {
      * 更新设备型号信息
      */
     public void updateInfo(String modelName, String deviceType, String manufacturer,
-                          String description, String specifications, Factor factor) {
+                          String description, String specifications, Factor factor,
+                          Integer heartbeatTimeoutSeconds) {
         if (modelName != null) {
             this.modelName = modelName;
         }
@@ -94,6 +100,9 @@ public class DeviceModel {
         if (factor != null) {
             this.factor = factor;
         }
+        if (heartbeatTimeoutSeconds != null) {
+            this.heartbeatTimeoutSeconds = heartbeatTimeoutSeconds;
+        }
         this.updateTime = LocalDateTime.now();
     }
 }
@@ -0,0 +1,54 @@
+package com.aquainsight.domain.monitoring.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 因子监测读数实体
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FactorReading {
+
+    /**
+     * 读数ID
+     */
+    private Long id;
+
+    /**
+     * 站点ID
+     */
+    private Integer siteId;
+
+    /**
+     * 设备ID，按站点上报时为空
+     */
+    private Integer deviceId;
+
+    /**
+     * 监测因子ID
+     */
+    private Integer factorId;
+
+    /**
+     * 监测时间
+     */
+    private LocalDateTime readingTime;
+
+    /**
+     * 监测值，已按因子精度取整
+     */
+    private BigDecimal value;
+
+    /**
+     * 入库时间
+     */
+    private LocalDateTime createTime;
+}
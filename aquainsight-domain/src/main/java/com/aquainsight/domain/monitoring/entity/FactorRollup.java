@@ -0,0 +1,146 @@
+package com.aquainsight.domain.monitoring.entity;
+
+import com.aquainsight.domain.monitoring.types.RollupResolution;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 因子监测数据聚合实体
+ * 一个(站点, 因子)在一个时间桶内读数的最小值、最大值、平均值、数量和最后值
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FactorRollup {
+
+    /**
+     * 平均值保留的小数位数
+     */
+    private static final int AVG_SCALE = 4;
+
+    /**
+     * 站点ID
+     */
+    private Integer siteId;
+
+    /**
+     * 监测因子ID
+     */
+    private Integer factorId;
+
+    /**
+     * 聚合粒度
+     */
+    private RollupResolution resolution;
+
+    /**
+     * 时间桶起始时间
+     */
+    private LocalDateTime bucketTime;
+
+    /**
+     * 最小值
+     */
+    private BigDecimal minValue;
+
+    /**
+     * 最大值
+     */
+    private BigDecimal maxValue;
+
+    /**
+     * 平均值
+     */
+    private BigDecimal avgValue;
+
+    /**
+     * 读数数量
+     */
+    private Integer sampleCount;
+
+    /**
+     * 桶内最后一条读数的值
+     */
+    private BigDecimal lastValue;
+
+    /**
+     * 由按时间升序排列的原始读数聚合
+     */
+    public static FactorRollup ofReadings(RollupResolution resolution, LocalDateTime bucketTime,
+                                          List<FactorReading> readings) {
+        FactorReading first = readings.get(0);
+        BigDecimal min = first.getValue();
+        BigDecimal max = first.getValue();
+        BigDecimal sum = BigDecimal.ZERO;
+        for (FactorReading reading : readings) {
+            min = min.min(reading.getValue());
+            max = max.max(reading.getValue());
+            sum = sum.add(reading.getValue());
+        }
+        return FactorRollup.builder()
+                .siteId(first.getSiteId())
+                .factorId(first.getFactorId())
+                .resolution(resolution)
+                .bucketTime(bucketTime)
+                .minValue(min)
+                .maxValue(max)
+                .avgValue(sum.divide(BigDecimal.valueOf(readings.size()), AVG_SCALE, RoundingMode.HALF_UP))
+                .sampleCount(readings.size())
+                .lastValue(readings.get(readings.size() - 1).getValue())
+                .build();
+    }
+
+    /**
+     * 由按时间升序排列的下一级聚合汇总，平均值按读数数量加权
+     */
+    public static FactorRollup ofRollups(RollupResolution resolution, LocalDateTime bucketTime,
+                                         List<FactorRollup> rollups) {
+        FactorRollup first = rollups.get(0);
+        BigDecimal min = first.getMinValue();
+        BigDecimal max = first.getMaxValue();
+        BigDecimal weightedSum = BigDecimal.ZERO;
+        int count = 0;
+        for (FactorRollup rollup : rollups) {
+            min = min.min(rollup.getMinValue());
+            max = max.max(rollup.getMaxValue());
+            weightedSum = weightedSum.add(rollup.getAvgValue().multiply(BigDecimal.valueOf(rollup.getSampleCount())));
+            count += rollup.getSampleCount();
+        }
+        return FactorRollup.builder()
+                .siteId(first.getSiteId())
+                .factorId(first.getFactorId())
+                .resolution(resolution)
+                .bucketTime(bucketTime)
+                .minValue(min)
+                .maxValue(max)
+                .avgValue(weightedSum.divide(BigDecimal.valueOf(Math.max(1, count)), AVG_SCALE, RoundingMode.HALF_UP))
+                .sampleCount(count)
+                .lastValue(rollups.get(rollups.size() - 1).getLastValue())
+                .build();
+    }
+
+    /**
+     * 单条原始读数表示为聚合点，用于按原始粒度返回查询结果
+     */
+    public static FactorRollup ofReading(FactorReading reading) {
+        return FactorRollup.builder()
+                .siteId(reading.getSiteId())
+                .factorId(reading.getFactorId())
+                .resolution(RollupResolution.RAW)
+                .bucketTime(reading.getReadingTime())
+                .minValue(reading.getValue())
+                .maxValue(reading.getValue())
+                .avgValue(reading.getValue())
+                .sampleCount(1)
+                .lastValue(reading.getValue())
+                .build();
+    }
+}
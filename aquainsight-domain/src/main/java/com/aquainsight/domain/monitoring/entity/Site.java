@@ -67,6 +67,11 @@ public class Site {
      */
     private Integer isAutoUpload;
 
+    /**
+     * 数据采集间隔(分钟)，用于计算数据完整率，为空时使用系统默认值
+     */
+    private Integer sampleIntervalMinutes;
+
     /**
      * 创建时间
      */
@@ -87,7 +92,7 @@ public class Site {
      */
     public void updateInfo(String siteName, String siteType, String siteTag,
                           BigDecimal longitude, BigDecimal latitude, String address,
-                          Enterprise enterprise, Integer isAutoUpload) {
+                          Enterprise enterprise, Integer isAutoUpload, Integer sampleIntervalMinutes) {
         if (siteName != null) {
             this.siteName = siteName;
         }
@@ -112,6 +117,9 @@ public class Site {
         if (isAutoUpload != null) {
             this.isAutoUpload = isAutoUpload;
         }
+        if (sampleIntervalMinutes != null) {
+            this.sampleIntervalMinutes = sampleIntervalMinutes;
+        }
         this.updateTime = LocalDateTime.now();
     }
 
@@ -0,0 +1,31 @@
+package com.aquainsight.domain.monitoring.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * 设备状态变更事件
+ * 设备心跳跟踪将一批在线/离线状态变更写入设备表后触发
+ */
+@Getter
+public class DeviceStatusChangedEvent extends ApplicationEvent {
+
+    /**
+     * 设备ID -> 变更后的状态(0-离线,1-在线,2-故障)
+     */
+    private final Map<Integer, Integer> statusByDeviceId;
+
+    /**
+     * 变更时间
+     */
+    private final LocalDateTime changeTime;
+
+    public DeviceStatusChangedEvent(Object source, Map<Integer, Integer> statusByDeviceId, LocalDateTime changeTime) {
+        super(source);
+        this.statusByDeviceId = statusByDeviceId;
+        this.changeTime = changeTime;
+    }
+}
@@ -0,0 +1,40 @@
+package com.aquainsight.domain.monitoring.repository;
+
+import com.aquainsight.domain.monitoring.entity.DataCompleteness;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 数据完整率仓储接口
+ */
+public interface DataCompletenessRepository {
+
+    /**
+     * 保存时段位图，同一(站点, 因子, 日期)已存在时覆盖
+     */
+    void saveAll(List<DataCompleteness> completenessList);
+
+    /**
+     * 查询一条序列一天的时段位图
+     */
+    Optional<DataCompleteness> find(Integer siteId, Integer factorId, LocalDate statDate);
+
+    /**
+     * 查询日期范围内所有序列的时段位图
+     */
+    List<DataCompleteness> findByDateRange(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * 查询站点在日期范围内的时段位图
+     */
+    List<DataCompleteness> findBySite(Integer siteId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * 删除指定日期之前的时段位图
+     *
+     * @return 删除的行数
+     */
+    long deleteBefore(LocalDate statDate);
+}
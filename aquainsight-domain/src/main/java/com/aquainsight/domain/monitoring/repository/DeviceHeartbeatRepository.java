@@ -0,0 +1,23 @@
+package com.aquainsight.domain.monitoring.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * 设备心跳时间仓储
+ * 多实例部署时同一设备的读数可能由不同实例接收，各实例定期写入本地收到的最后心跳时间，
+ * 判定设备离线前以所有实例共享的最后心跳时间为准
+ */
+public interface DeviceHeartbeatRepository {
+
+    /**
+     * 批量记录设备心跳时间，已记录更晚时间的设备保持不变
+     */
+    void saveBatch(Collection<Integer> deviceIds, LocalDateTime heartbeatTime);
+
+    /**
+     * 查询设备最后心跳时间，未记录时返回空
+     */
+    Optional<LocalDateTime> findLastHeartbeatTime(Integer deviceId);
+}
@@ -3,7 +3,9 @@ package com.aquainsight.domain.monitoring.repository;
 import com.aquainsight.domain.monitoring.entity.Device;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -51,6 +53,27 @@ public interface DeviceRepository {
      */
     Device update(Device device);
 
+    /**
+     * 批量更新设备状态
+     *
+     * @return 更新的设备数量
+     */
+    int updateStatusBatch(List<Integer> deviceIds, Integer status);
+
+    /**
+     * 批量更新当前状态为预期状态的设备，其他设备不变
+     *
+     * @return 更新的设备数量
+     */
+    int updateStatusBatch(List<Integer> deviceIds, Integer expectedStatus, Integer status);
+
+    /**
+     * 查询设备当前状态
+     *
+     * @return 设备ID -> 状态，已删除的设备不包含在内
+     */
+    Map<Integer, Integer> findStatusByIds(Collection<Integer> deviceIds);
+
     /**
      * 根据ID删除设备实例
      */
@@ -0,0 +1,72 @@
+package com.aquainsight.domain.monitoring.repository;
+
+import com.aquainsight.domain.monitoring.entity.FactorReading;
+
+import java.util.List;
+
+/**
+ * 监测读数预写日志
+ * 读数在写入存储前先追加到日志并落盘，进程异常退出后重放检查点之后的记录恢复未持久化的读数
+ */
+public interface FactorReadingJournal {
+
+    /**
+     * 追加一批读数，只写入操作系统缓存，不等待落盘
+     *
+     * @return 记录序号，序号按追加顺序递增
+     */
+    long append(List<FactorReading> readings);
+
+    /**
+     * 等待直到指定序号及之前的记录全部落盘，并发等待方共用一次落盘
+     */
+    void sync(long sequence);
+
+    /**
+     * 按序号顺序重放检查点之后的记录，启动时调用
+     *
+     * @return 重放的记录数量
+     */
+    long replay(ReplayConsumer consumer);
+
+    /**
+     * 记录检查点并删除只包含检查点之前记录的日志段
+     *
+     * @param sequence 该序号及之前的读数已全部持久化到存储
+     */
+    void checkpoint(long sequence);
+
+    /**
+     * 最新记录序号
+     */
+    long getLastSequence();
+
+    /**
+     * 检查点序号
+     */
+    long getCheckpointSequence();
+
+    /**
+     * 日志段数量
+     */
+    int getSegmentCount();
+
+    /**
+     * 落盘次数
+     */
+    long getSyncCount();
+
+    /**
+     * 通过落盘持久化的记录数量
+     */
+    long getSyncedRecordCount();
+
+    /**
+     * 重放记录消费者
+     */
+    @FunctionalInterface
+    interface ReplayConsumer {
+
+        void accept(long sequence, List<FactorReading> readings);
+    }
+}
@@ -0,0 +1,48 @@
+package com.aquainsight.domain.monitoring.repository;
+
+import com.aquainsight.domain.monitoring.entity.FactorReading;
+import com.aquainsight.domain.monitoring.types.SeriesPointConsumer;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 因子监测读数仓储接口
+ * 读数按(站点, 因子)组成时间序列存储
+ */
+public interface FactorReadingRepository {
+
+    /**
+     * 批量保存监测读数
+     */
+    void batchSave(List<FactorReading> readings);
+
+    /**
+     * 查询站点某个因子在时间范围内的读数，按监测时间升序
+     */
+    List<FactorReading> findBySeries(Integer siteId, Integer factorId, LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * 按监测时间升序逐点回调站点某个因子在时间范围内的读数，不在内存中保留整个结果，用于大范围查询
+     */
+    void scanSeries(Integer siteId, Integer factorId, LocalDateTime startTime, LocalDateTime endTime,
+                    SeriesPointConsumer consumer);
+
+    /**
+     * 将缓冲中的读数持久化，存储实现不缓冲时为空操作
+     */
+    void flush();
+
+    /**
+     * 持久化水位，在此时间(毫秒时间戳)之前写入的读数均已持久化，进程退出不会丢失；
+     * 用于判断预写日志中的记录何时可以删除
+     */
+    long getPersistedBeforeMillis();
+
+    /**
+     * 删除监测时间早于截止时间的读数
+     *
+     * @return 删除的读数数量
+     */
+    long deleteBefore(LocalDateTime cutoffTime);
+}
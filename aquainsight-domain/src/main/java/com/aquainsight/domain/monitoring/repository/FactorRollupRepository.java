@@ -0,0 +1,36 @@
+package com.aquainsight.domain.monitoring.repository;
+
+import com.aquainsight.domain.monitoring.entity.FactorRollup;
+import com.aquainsight.domain.monitoring.types.RollupResolution;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 因子监测数据聚合仓储接口
+ */
+public interface FactorRollupRepository {
+
+    /**
+     * 保存聚合结果，同一(站点, 因子, 粒度, 时间桶)已存在时覆盖
+     */
+    void saveAll(List<FactorRollup> rollups);
+
+    /**
+     * 查询站点某个因子在时间范围内的聚合，按时间桶升序
+     */
+    List<FactorRollup> findBySeries(Integer siteId, Integer factorId, RollupResolution resolution,
+                                    LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * 将缓冲中的聚合结果持久化，存储实现不缓冲时为空操作
+     */
+    void flush();
+
+    /**
+     * 删除指定粒度下时间桶早于截止时间的聚合
+     *
+     * @return 删除的聚合数量
+     */
+    long deleteBefore(RollupResolution resolution, LocalDateTime cutoffTime);
+}
@@ -0,0 +1,283 @@
+package com.aquainsight.domain.monitoring.service;
+
+import com.aquainsight.domain.monitoring.entity.DataCompleteness;
+import com.aquainsight.domain.monitoring.entity.FactorReading;
+import com.aquainsight.domain.monitoring.repository.DataCompletenessRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 数据完整率领域服务
+ * 每条序列每天一个时段位图，读数写入后只置位其所在时段，不回扫原始读数；
+ * 最近几天的位图常驻内存，定时将有变化的位图写回数据库，更早日期的迟到读数按需从数据库加载
+ */
+@Slf4j
+@Service
+public class DataCompletenessDomainService {
+
+    /**
+     * 单次查询的最大天数
+     */
+    private static final int MAX_QUERY_DAYS = 366;
+
+    private final DataCompletenessRepository dataCompletenessRepository;
+    private final TelemetryCatalog telemetryCatalog;
+    private final int defaultIntervalMinutes;
+    private final int residentDays;
+    private final int retentionDays;
+    private final int graceMinutes;
+
+    /**
+     * 常驻内存的时段位图，位图本身的读写由其对象锁保护
+     */
+    private final Map<SeriesDay, DataCompleteness> bitmaps = new ConcurrentHashMap<>();
+
+    /**
+     * 有变化待写回的位图
+     */
+    private final Set<SeriesDay> dirty = ConcurrentHashMap.newKeySet();
+
+    private volatile LocalDate lastRetentionDate;
+
+    public DataCompletenessDomainService(DataCompletenessRepository dataCompletenessRepository,
+                                         TelemetryCatalog telemetryCatalog,
+                                         @Value("${aquainsight.telemetry.completeness.default-interval-minutes:5}") int defaultIntervalMinutes,
+                                         @Value("${aquainsight.telemetry.completeness.resident-days:2}") int residentDays,
+                                         @Value("${aquainsight.telemetry.completeness.retention-days:400}") int retentionDays,
+                                         @Value("${aquainsight.telemetry.completeness.grace-minutes:5}") int graceMinutes) {
+        if (defaultIntervalMinutes <= 0 || 1440 % defaultIntervalMinutes != 0) {
+            throw new IllegalArgumentException("默认数据采集间隔必须能整除一天的分钟数: " + defaultIntervalMinutes);
+        }
+        this.dataCompletenessRepository = dataCompletenessRepository;
+        this.telemetryCatalog = telemetryCatalog;
+        this.defaultIntervalMinutes = defaultIntervalMinutes;
+        this.residentDays = Math.max(1, residentDays);
+        this.retentionDays = retentionDays;
+        this.graceMinutes = Math.max(0, graceMinutes);
+    }
+
+    @PostConstruct
+    public void load() {
+        try {
+            LocalDate today = LocalDate.now();
+            List<DataCompleteness> loaded = dataCompletenessRepository.findByDateRange(
+                    residentStart(today), today.plusDays(1));
+            for (DataCompleteness completeness : loaded) {
+                bitmaps.put(new SeriesDay(completeness.getSiteId(), completeness.getFactorId(),
+                        completeness.getStatDate()), completeness);
+            }
+            log.info("数据完整率位图已加载，序列天数: {}", loaded.size());
+        } catch (Exception e) {
+            log.error("加载数据完整率位图失败，当天已统计的时段将在写回时被覆盖", e);
+        }
+    }
+
+    /**
+     * 登记已写入读数所在的时段
+     */
+    public void record(List<FactorReading> readings) {
+        LocalDate residentStart = residentStart(LocalDate.now());
+        for (FactorReading reading : readings) {
+            SeriesDay key = new SeriesDay(reading.getSiteId(), reading.getFactorId(),
+                    reading.getReadingTime().toLocalDate());
+            DataCompleteness completeness = bitmaps.get(key);
+            if (completeness == null) {
+                completeness = bitmaps.computeIfAbsent(key, k -> k.statDate.isBefore(residentStart)
+                        // 常驻日期之前的迟到读数，从数据库取回当天的位图
+                        ? dataCompletenessRepository.find(k.siteId, k.factorId, k.statDate)
+                                .orElseGet(() -> newBitmap(k))
+                        : newBitmap(k));
+            }
+            boolean changed;
+            synchronized (completeness) {
+                changed = completeness.markReceived(completeness.slotOf(reading.getReadingTime()));
+            }
+            if (changed) {
+                dirty.add(key);
+            }
+        }
+    }
+
+    /**
+     * 将有变化的位图写回数据库，并释放常驻日期之前的位图
+     *
+     * @return 写回的位图数量
+     */
+    public int flush() {
+        List<SeriesDay> keys = new ArrayList<>(dirty.size());
+        List<DataCompleteness> snapshots = new ArrayList<>(dirty.size());
+        Iterator<SeriesDay> iterator = dirty.iterator();
+        while (iterator.hasNext()) {
+            SeriesDay key = iterator.next();
+            iterator.remove();
+            DataCompleteness completeness = bitmaps.get(key);
+            if (completeness != null) {
+                keys.add(key);
+                snapshots.add(snapshot(completeness));
+            }
+        }
+        if (!snapshots.isEmpty()) {
+            try {
+                dataCompletenessRepository.saveAll(snapshots);
+            } catch (Exception e) {
+                dirty.addAll(keys);
+                throw e;
+            }
+        }
+
+        LocalDate today = LocalDate.now();
+        LocalDate residentStart = residentStart(today);
+        bitmaps.keySet().removeIf(key -> key.statDate.isBefore(residentStart) && !dirty.contains(key));
+        if (retentionDays > 0 && !today.equals(lastRetentionDate)) {
+            long deleted = dataCompletenessRepository.deleteBefore(today.minusDays(retentionDays));
+            lastRetentionDate = today;
+            if (deleted > 0) {
+                log.info("删除超出保留期的数据完整率位图: {}", deleted);
+            }
+        }
+        return snapshots.size();
+    }
+
+    /**
+     * 查询站点在日期范围内每个因子每天的时段位图
+     * 站点应上报但当天没有读数的因子返回空位图，按日期、因子排列
+     */
+    public List<DataCompleteness> findBySite(Integer siteId, LocalDate startDate, LocalDate endDate) {
+        if (siteId == null) {
+            throw new IllegalArgumentException("站点ID不能为空");
+        }
+        if (startDate == null || endDate == null || startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("查询日期范围不正确");
+        }
+        if (startDate.plusDays(MAX_QUERY_DAYS).isBefore(endDate)) {
+            throw new IllegalArgumentException("查询日期范围不能超过" + MAX_QUERY_DAYS + "天");
+        }
+        Map<SeriesDay, DataCompleteness> result = new HashMap<>();
+        for (DataCompleteness completeness : dataCompletenessRepository.findBySite(siteId, startDate, endDate)) {
+            result.put(new SeriesDay(siteId, completeness.getFactorId(), completeness.getStatDate()), completeness);
+        }
+        // 内存中的位图比数据库中的新
+        for (Map.Entry<SeriesDay, DataCompleteness> entry : bitmaps.entrySet()) {
+            SeriesDay key = entry.getKey();
+            if (key.siteId.equals(siteId) && !key.statDate.isBefore(startDate) && !key.statDate.isAfter(endDate)) {
+                result.put(key, snapshot(entry.getValue()));
+            }
+        }
+        Set<Integer> expectedFactorIds = telemetryCatalog.getExpectedFactorIds().get(siteId);
+        if (expectedFactorIds != null) {
+            LocalDate lastDate = endDate.isAfter(LocalDate.now()) ? LocalDate.now() : endDate;
+            for (LocalDate date = startDate; !date.isAfter(lastDate); date = date.plusDays(1)) {
+                for (Integer factorId : expectedFactorIds) {
+                    result.computeIfAbsent(new SeriesDay(siteId, factorId, date), this::newBitmap);
+                }
+            }
+        }
+        List<DataCompleteness> list = new ArrayList<>(result.values());
+        list.sort(Comparator.comparing(DataCompleteness::getStatDate).thenComparing(DataCompleteness::getFactorId));
+        return list;
+    }
+
+    /**
+     * 统计各站点最近一个已结束时段缺失读数的应上报因子数
+     * 时段结束后等待宽限时长再判定，容忍上报延迟
+     *
+     * @return 站点ID -> 缺失因子数，只包含有应上报因子的站点
+     */
+    public Map<Integer, Integer> countMissingFactors() {
+        LocalDateTime checkTime = LocalDateTime.now().minusMinutes(graceMinutes);
+        Map<Integer, Integer> missingBySite = new HashMap<>();
+        for (Map.Entry<Integer, Set<Integer>> entry : telemetryCatalog.getExpectedFactorIds().entrySet()) {
+            Integer siteId = entry.getKey();
+            // 向前推一个采集间隔的时刻位于最近一个已结束的时段内
+            LocalDateTime slotTime = checkTime.minusMinutes(intervalOf(siteId));
+            int missing = 0;
+            for (Integer factorId : entry.getValue()) {
+                DataCompleteness completeness = bitmaps.get(new SeriesDay(siteId, factorId, slotTime.toLocalDate()));
+                boolean received;
+                if (completeness == null) {
+                    received = false;
+                } else {
+                    synchronized (completeness) {
+                        received = completeness.isReceived(completeness.slotOf(slotTime));
+                    }
+                }
+                if (!received) {
+                    missing++;
+                }
+            }
+            missingBySite.put(siteId, missing);
+        }
+        return missingBySite;
+    }
+
+    private DataCompleteness newBitmap(SeriesDay key) {
+        return DataCompleteness.create(key.siteId, key.factorId, key.statDate, intervalOf(key.siteId));
+    }
+
+    private int intervalOf(Integer siteId) {
+        Integer interval = telemetryCatalog.findSampleIntervalMinutes(siteId);
+        return interval != null ? interval : defaultIntervalMinutes;
+    }
+
+    private LocalDate residentStart(LocalDate today) {
+        return today.minusDays(residentDays - 1L);
+    }
+
+    private static DataCompleteness snapshot(DataCompleteness completeness) {
+        synchronized (completeness) {
+            return DataCompleteness.builder()
+                    .siteId(completeness.getSiteId())
+                    .factorId(completeness.getFactorId())
+                    .statDate(completeness.getStatDate())
+                    .intervalMinutes(completeness.getIntervalMinutes())
+                    .slotBitmap(completeness.getSlotBitmap().clone())
+                    .build();
+        }
+    }
+
+    /**
+     * 序列(站点, 因子)的某一天
+     */
+    private static final class SeriesDay {
+
+        private final Integer siteId;
+        private final Integer factorId;
+        private final LocalDate statDate;
+
+        private SeriesDay(Integer siteId, Integer factorId, LocalDate statDate) {
+            this.siteId = siteId;
+            this.factorId = factorId;
+            this.statDate = statDate;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SeriesDay)) {
+                return false;
+            }
+            SeriesDay that = (SeriesDay) o;
+            return siteId.equals(that.siteId) && factorId.equals(that.factorId) && statDate.equals(that.statDate);
+        }
+
+        @Override
+        public int hashCode() {
+            return (siteId * 31 + factorId) * 31 + statDate.hashCode();
+        }
+    }
+}
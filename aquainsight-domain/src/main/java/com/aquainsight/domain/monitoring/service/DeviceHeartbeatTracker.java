@@ -0,0 +1,503 @@
+package com.aquainsight.domain.monitoring.service;
+
+import com.aquainsight.domain.monitoring.entity.Device;
+import com.aquainsight.domain.monitoring.entity.DeviceModel;
+import com.aquainsight.domain.monitoring.entity.Factor;
+import com.aquainsight.domain.monitoring.entity.FactorReading;
+import com.aquainsight.domain.monitoring.event.DeviceStatusChangedEvent;
+import com.aquainsight.domain.monitoring.repository.DeviceHeartbeatRepository;
+import com.aquainsight.domain.monitoring.repository.DeviceRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 设备心跳跟踪
+ * 接入的读数即为设备心跳，心跳只更新设备最后上报时间；本实例启动后收到过心跳的在线设备挂在哈希时间轮上，
+ * 到期时若期间有过心跳则按最后上报时间重新挂入，否则置为离线，不做周期性的全表扫描。
+ * 从未在本实例上报过的设备不会被本实例置为离线，未接入数据的部署中人工设置的在线状态保持不变。
+ * 离线设备收到心跳后置为在线。状态变更先登记在内存中，由定时任务批量写入设备表并发布设备状态变更事件。
+ * 多实例部署时各实例只收到部分读数：最后心跳时间随状态定期写入共享存储，置离线前以各实例中最晚的心跳时间为准；
+ * 状态只在设备表中仍为变更前状态时写入，否则以设备表为准同步本地状态。
+ * 故障状态只能人工设置和解除，心跳不改变故障设备的状态
+ */
+@Slf4j
+@Service
+public class DeviceHeartbeatTracker {
+
+    private static final int STATUS_OFFLINE = 0;
+    private static final int STATUS_ONLINE = 1;
+    private static final int STATUS_FAULT = 2;
+
+    /**
+     * 查询共享心跳时间失败时，重新检查的等待时间(毫秒)
+     */
+    private static final long RECHECK_MILLIS = 60_000L;
+
+    private final DeviceRepository deviceRepository;
+    private final DeviceHeartbeatRepository deviceHeartbeatRepository;
+    private final TelemetryCatalog telemetryCatalog;
+    private final ApplicationEventPublisher eventPublisher;
+    private final boolean enabled;
+    private final long defaultTimeoutMillis;
+    private final long tickMillis;
+    private final int wheelSize;
+
+    /**
+     * 设备ID -> 心跳状态
+     */
+    private final Map<Integer, HeartbeatState> states = new ConcurrentHashMap<>();
+
+    /**
+     * 时间轮槽位，只由时间轮线程访问
+     */
+    private final ArrayDeque<HeartbeatState>[] wheel;
+
+    /**
+     * 等待挂入时间轮的设备，由心跳线程提交、时间轮线程挂入
+     */
+    private final ConcurrentLinkedQueue<HeartbeatState> pendingSchedule = new ConcurrentLinkedQueue<>();
+
+    /**
+     * 状态已变更待写入设备表的设备ID，写入时取设备当前状态
+     */
+    private final Set<Integer> changedDeviceIds = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 上次写入后收到过心跳的设备ID，最后心跳时间待写入共享存储
+     */
+    private final Set<Integer> heartbeatDeviceIds = ConcurrentHashMap.newKeySet();
+
+    private final AtomicLong heartbeatCount = new AtomicLong();
+    private final AtomicLong onlineCount = new AtomicLong();
+    private final AtomicLong offlineCount = new AtomicLong();
+
+    /**
+     * 时间轮当前刻度，只由时间轮线程访问
+     */
+    private long currentTick;
+    private long wheelStartMillis;
+    private Thread ticker;
+    private volatile boolean running;
+
+    @SuppressWarnings("unchecked")
+    public DeviceHeartbeatTracker(DeviceRepository deviceRepository,
+                                  DeviceHeartbeatRepository deviceHeartbeatRepository,
+                                  TelemetryCatalog telemetryCatalog,
+                                  ApplicationEventPublisher eventPublisher,
+                                  @Value("${aquainsight.device.heartbeat.enabled:false}") boolean enabled,
+                                  @Value("${aquainsight.device.heartbeat.default-timeout-seconds:600}") long defaultTimeoutSeconds,
+                                  @Value("${aquainsight.device.heartbeat.tick-millis:1000}") long tickMillis,
+                                  @Value("${aquainsight.device.heartbeat.wheel-size:512}") int wheelSize) {
+        this.deviceRepository = deviceRepository;
+        this.deviceHeartbeatRepository = deviceHeartbeatRepository;
+        this.telemetryCatalog = telemetryCatalog;
+        this.eventPublisher = eventPublisher;
+        this.enabled = enabled;
+        this.defaultTimeoutMillis = TimeUnit.SECONDS.toMillis(Math.max(1, defaultTimeoutSeconds));
+        this.tickMillis = Math.max(10, tickMillis);
+        this.wheelSize = Math.max(16, wheelSize);
+        this.wheel = new ArrayDeque[this.wheelSize];
+        for (int i = 0; i < this.wheelSize; i++) {
+            wheel[i] = new ArrayDeque<>();
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            log.info("设备心跳跟踪未启用");
+            return;
+        }
+        try {
+            // 只加载状态，设备在本实例收到首次心跳后才挂入时间轮
+            List<Device> devices = deviceRepository.findAll();
+            for (Device device : devices) {
+                register(device.getId(), device.getStatus());
+            }
+            log.info("设备心跳跟踪已加载，设备数: {}", devices.size());
+        } catch (Exception e) {
+            log.error("加载设备状态失败，设备在首次心跳或状态变更后开始跟踪", e);
+        }
+        running = true;
+        wheelStartMillis = System.currentTimeMillis();
+        ticker = new Thread(this::tickLoop, "device-heartbeat-wheel");
+        ticker.setDaemon(true);
+        ticker.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (ticker != null) {
+            ticker.interrupt();
+        }
+        flushStatus();
+    }
+
+    /**
+     * 记录一批读数对应设备的心跳
+     * 按设备上报的读数直接对应设备；按站点上报的读数对应站点下该因子所属型号的设备
+     */
+    public void heartbeat(List<FactorReading> readings) {
+        if (!running) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        Integer lastDeviceId = null;
+        for (FactorReading reading : readings) {
+            if (reading.getDeviceId() != null) {
+                // 同一设备的连续读数只记一次
+                if (!reading.getDeviceId().equals(lastDeviceId)) {
+                    touch(reading.getDeviceId(), now);
+                    lastDeviceId = reading.getDeviceId();
+                }
+                continue;
+            }
+            Factor factor = telemetryCatalog.findFactor(reading.getFactorId());
+            if (factor == null || factor.getDeviceModel() == null) {
+                continue;
+            }
+            for (Integer deviceId : telemetryCatalog.findDeviceIds(reading.getSiteId(), factor.getDeviceModel().getId())) {
+                touch(deviceId, now);
+            }
+        }
+    }
+
+    /**
+     * 同步人工设置的设备状态；本实例收到过心跳的设备设置为在线时从当前时刻开始计算超时，
+     * 未收到过心跳的设备只记录状态，不判定超时
+     */
+    public void syncStatus(Device device) {
+        if (!running || device.getId() == null || device.getStatus() == null) {
+            return;
+        }
+        HeartbeatState state = register(device.getId(), device.getStatus());
+        state.status.set(device.getStatus());
+        if (device.isOnline() && state.lastSeenMillis > 0) {
+            state.lastSeenMillis = System.currentTimeMillis();
+            submitSchedule(state);
+        }
+    }
+
+    /**
+     * 停止跟踪已删除的设备
+     */
+    public void remove(Integer deviceId) {
+        states.remove(deviceId);
+        changedDeviceIds.remove(deviceId);
+        heartbeatDeviceIds.remove(deviceId);
+    }
+
+    /**
+     * 将最后心跳时间写入共享存储，将已登记的状态变更批量写入设备表，并发布设备状态变更事件
+     * 设备表中的状态已不是变更前状态(人工设置或其他实例已变更)时不写入，以设备表为准同步本地状态
+     *
+     * @return 写入的设备数
+     */
+    public int flushStatus() {
+        flushHeartbeats();
+        if (changedDeviceIds.isEmpty()) {
+            return 0;
+        }
+        Map<Integer, List<Integer>> idsByStatus = new HashMap<>();
+        Iterator<Integer> iterator = changedDeviceIds.iterator();
+        while (iterator.hasNext()) {
+            Integer deviceId = iterator.next();
+            iterator.remove();
+            HeartbeatState state = states.get(deviceId);
+            if (state == null) {
+                continue;
+            }
+            int status = state.status.get();
+            idsByStatus.computeIfAbsent(status, key -> new ArrayList<>()).add(deviceId);
+        }
+        Map<Integer, Integer> persisted = new HashMap<>();
+        for (Map.Entry<Integer, List<Integer>> entry : idsByStatus.entrySet()) {
+            int status = entry.getKey();
+            int expectedStatus = status == STATUS_ONLINE ? STATUS_OFFLINE : STATUS_ONLINE;
+            try {
+                Map<Integer, Integer> current = deviceRepository.findStatusByIds(entry.getValue());
+                List<Integer> applicable = new ArrayList<>();
+                for (Integer deviceId : entry.getValue()) {
+                    Integer currentStatus = current.get(deviceId);
+                    if (currentStatus == null) {
+                        continue;
+                    }
+                    if (currentStatus == expectedStatus) {
+                        applicable.add(deviceId);
+                    } else if (currentStatus != status) {
+                        adoptStatus(deviceId, status, currentStatus);
+                    }
+                }
+                if (!applicable.isEmpty()) {
+                    deviceRepository.updateStatusBatch(applicable, expectedStatus, status);
+                    for (Integer deviceId : applicable) {
+                        persisted.put(deviceId, status);
+                    }
+                }
+            } catch (Exception e) {
+                log.error("批量更新设备状态失败，状态: {}, 设备数: {}", entry.getKey(), entry.getValue().size(), e);
+                changedDeviceIds.addAll(entry.getValue());
+            }
+        }
+        if (!persisted.isEmpty()) {
+            log.info("设备状态已更新，设备数: {}", persisted.size());
+            eventPublisher.publishEvent(new DeviceStatusChangedEvent(this, persisted, LocalDateTime.now()));
+        }
+        return persisted.size();
+    }
+
+    public int getTrackedCount() {
+        return states.size();
+    }
+
+    public long getHeartbeatCount() {
+        return heartbeatCount.get();
+    }
+
+    public long getOnlineCount() {
+        return onlineCount.get();
+    }
+
+    public long getOfflineCount() {
+        return offlineCount.get();
+    }
+
+    public int getPendingCount() {
+        return changedDeviceIds.size();
+    }
+
+    /**
+     * 将本地收到的心跳写入共享存储，取这批设备中最早的最后上报时间，只会低估心跳时间
+     */
+    private void flushHeartbeats() {
+        if (heartbeatDeviceIds.isEmpty()) {
+            return;
+        }
+        List<Integer> deviceIds = new ArrayList<>();
+        long earliest = Long.MAX_VALUE;
+        Iterator<Integer> iterator = heartbeatDeviceIds.iterator();
+        while (iterator.hasNext()) {
+            Integer deviceId = iterator.next();
+            iterator.remove();
+            HeartbeatState state = states.get(deviceId);
+            if (state != null) {
+                deviceIds.add(deviceId);
+                earliest = Math.min(earliest, state.lastSeenMillis);
+            }
+        }
+        if (deviceIds.isEmpty()) {
+            return;
+        }
+        try {
+            deviceHeartbeatRepository.saveBatch(deviceIds, toDateTime(earliest));
+        } catch (Exception e) {
+            log.error("写入设备心跳时间失败，设备数: {}", deviceIds.size(), e);
+            heartbeatDeviceIds.addAll(deviceIds);
+        }
+    }
+
+    /**
+     * 设备表中的状态与本地登记的变更不一致时以设备表为准，本地状态在此期间再次变更的不处理
+     */
+    private void adoptStatus(Integer deviceId, int localStatus, int currentStatus) {
+        HeartbeatState state = states.get(deviceId);
+        if (state != null && state.status.compareAndSet(localStatus, currentStatus)) {
+            log.info("设备状态已由人工或其他实例变更，同步本地状态，设备ID: {}, 状态: {}", deviceId, currentStatus);
+            if (currentStatus == STATUS_ONLINE && state.lastSeenMillis > 0) {
+                submitSchedule(state);
+            }
+        }
+    }
+
+    private void touch(Integer deviceId, long now) {
+        HeartbeatState state = states.get(deviceId);
+        if (state == null) {
+            // 启动后新建的设备，从接入目录取得初始状态
+            Device device = telemetryCatalog.findDevice(deviceId);
+            if (device == null) {
+                return;
+            }
+            state = register(deviceId, device.getStatus());
+        }
+        heartbeatCount.incrementAndGet();
+        // 先写最后上报时间再检查状态，与时间轮的置离线后复查配合，保证心跳不会丢失
+        state.lastSeenMillis = now;
+        heartbeatDeviceIds.add(deviceId);
+        int status = state.status.get();
+        if (status == STATUS_FAULT) {
+            return;
+        }
+        if (status == STATUS_OFFLINE && state.status.compareAndSet(STATUS_OFFLINE, STATUS_ONLINE)) {
+            onlineCount.incrementAndGet();
+            changedDeviceIds.add(deviceId);
+        }
+        submitSchedule(state);
+    }
+
+    private HeartbeatState register(Integer deviceId, Integer status) {
+        return states.computeIfAbsent(deviceId,
+                key -> new HeartbeatState(key, status != null ? status : STATUS_OFFLINE));
+    }
+
+    private void submitSchedule(HeartbeatState state) {
+        if (!state.scheduled.get() && state.scheduled.compareAndSet(false, true)) {
+            pendingSchedule.offer(state);
+        }
+    }
+
+    private void tickLoop() {
+        while (running) {
+            long deadline = wheelStartMillis + (currentTick + 1) * tickMillis;
+            long sleepMillis = deadline - System.currentTimeMillis();
+            if (sleepMillis > 0) {
+                try {
+                    Thread.sleep(sleepMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            try {
+                HeartbeatState state;
+                while ((state = pendingSchedule.poll()) != null) {
+                    schedule(state, state.lastSeenMillis + timeoutMillisOf(state.deviceId));
+                }
+                expireSlot(System.currentTimeMillis());
+            } catch (Exception e) {
+                log.error("设备心跳时间轮处理失败，刻度: {}", currentTick, e);
+            }
+            currentTick++;
+        }
+    }
+
+    private void expireSlot(long now) {
+        ArrayDeque<HeartbeatState> slot = wheel[(int) (currentTick % wheelSize)];
+        for (int i = slot.size(); i > 0; i--) {
+            HeartbeatState state = slot.poll();
+            if (state.deadlineTick > currentTick) {
+                // 未到期，还需再转若干圈
+                slot.offer(state);
+                continue;
+            }
+            expire(state, now);
+        }
+    }
+
+    private void expire(HeartbeatState state, long now) {
+        if (states.get(state.deviceId) != state || state.status.get() != STATUS_ONLINE) {
+            // 设备已删除、已离线或已置为故障，停止跟踪
+            release(state);
+            return;
+        }
+        long timeoutMillis = timeoutMillisOf(state.deviceId);
+        long deadline = state.lastSeenMillis + timeoutMillis;
+        if (deadline > now) {
+            schedule(state, deadline);
+            return;
+        }
+        // 本实例未收到心跳，其他实例可能收到了，以共享的最后心跳时间为准
+        long sharedDeadline;
+        try {
+            sharedDeadline = deviceHeartbeatRepository.findLastHeartbeatTime(state.deviceId)
+                    .map(time -> toMillis(time) + timeoutMillis)
+                    .orElse(0L);
+        } catch (Exception e) {
+            log.error("查询设备共享心跳时间失败，稍后重新检查，设备ID: {}", state.deviceId, e);
+            schedule(state, now + Math.min(timeoutMillis, RECHECK_MILLIS));
+            return;
+        }
+        if (sharedDeadline > now) {
+            schedule(state, sharedDeadline);
+            return;
+        }
+        if (state.status.compareAndSet(STATUS_ONLINE, STATUS_OFFLINE)) {
+            offlineCount.incrementAndGet();
+            changedDeviceIds.add(state.deviceId);
+        }
+        // 置离线与心跳并发时，心跳若未看到离线状态，则其上报时间在此处可见，恢复为在线
+        if (state.lastSeenMillis + timeoutMillis > now && state.status.compareAndSet(STATUS_OFFLINE, STATUS_ONLINE)) {
+            offlineCount.decrementAndGet();
+        }
+        release(state);
+    }
+
+    /**
+     * 移出时间轮；移出前已被心跳置为在线的设备，其心跳提交的挂入因未移出而被忽略，在此重新提交
+     */
+    private void release(HeartbeatState state) {
+        state.scheduled.set(false);
+        if (state.status.get() == STATUS_ONLINE && states.get(state.deviceId) == state) {
+            submitSchedule(state);
+        }
+    }
+
+    private void schedule(HeartbeatState state, long deadlineMillis) {
+        long ticks = Math.max(1, (deadlineMillis - wheelStartMillis + tickMillis - 1) / tickMillis - currentTick);
+        state.deadlineTick = currentTick + ticks;
+        wheel[(int) (state.deadlineTick % wheelSize)].offer(state);
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault());
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private long timeoutMillisOf(Integer deviceId) {
+        Device device = telemetryCatalog.findDevice(deviceId);
+        DeviceModel deviceModel = device != null ? device.getDeviceModel() : null;
+        if (deviceModel != null && deviceModel.getHeartbeatTimeoutSeconds() != null) {
+            return TimeUnit.SECONDS.toMillis(deviceModel.getHeartbeatTimeoutSeconds());
+        }
+        return defaultTimeoutMillis;
+    }
+
+    /**
+     * 单台设备的心跳状态
+     */
+    private static final class HeartbeatState {
+
+        private final Integer deviceId;
+        private final AtomicInteger status;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        /**
+         * 本实例收到的最后心跳时间(毫秒)，0表示本实例启动后未收到过心跳
+         */
+        private volatile long lastSeenMillis;
+
+        /**
+         * 到期刻度，只由时间轮线程访问
+         */
+        private long deadlineTick;
+
+        private HeartbeatState(Integer deviceId, int status) {
+            this.deviceId = deviceId;
+            this.status = new AtomicInteger(status);
+        }
+    }
+}
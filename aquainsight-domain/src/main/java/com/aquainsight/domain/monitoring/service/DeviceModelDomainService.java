@@ -21,13 +21,14 @@ public class DeviceModelDomainService {
 
     private final DeviceModelRepository deviceModelRepository;
     private final FactorRepository factorRepository;
+    private final TelemetryCatalog telemetryCatalog;
 
     /**
      * 创建设备型号
      */
     public DeviceModel createDeviceModel(String modelCode, String modelName, String deviceType,
                                         String manufacturer, String description, String specifications,
-                                        Integer factorId) {
+                                        Integer factorId, Integer heartbeatTimeoutSeconds) {
         // 领域规则验证
         if (modelCode == null || modelCode.trim().isEmpty()) {
             throw new IllegalArgumentException("型号编码不能为空");
@@ -38,6 +39,7 @@ public class DeviceModelDomainService {
         if (deviceModelRepository.existsByModelCode(modelCode)) {
             throw new IllegalArgumentException("型号编码已存在");
         }
+        checkHeartbeatTimeout(heartbeatTimeoutSeconds);
 
         // 获取关联的因子
         Factor factor = null;
@@ -57,6 +59,7 @@ public class DeviceModelDomainService {
                 .description(description)
                 .specifications(specifications)
                 .factor(factor)
+                .heartbeatTimeoutSeconds(heartbeatTimeoutSeconds)
                 .createTime(LocalDateTime.now())
                 .updateTime(LocalDateTime.now())
                 .deleted(0)
@@ -70,11 +73,12 @@ public class DeviceModelDomainService {
      */
     public DeviceModel updateDeviceModelInfo(Integer deviceModelId, String modelName, String deviceType,
                                             String manufacturer, String description, String specifications,
-                                            Integer factorId) {
+                                            Integer factorId, Integer heartbeatTimeoutSeconds) {
         Optional<DeviceModel> deviceModelOpt = deviceModelRepository.findById(deviceModelId);
         if (!deviceModelOpt.isPresent()) {
             throw new IllegalArgumentException("设备型号不存在");
         }
+        checkHeartbeatTimeout(heartbeatTimeoutSeconds);
 
         // 获取关联的因子
         Factor factor = null;
@@ -87,8 +91,12 @@ public class DeviceModelDomainService {
         }
 
         DeviceModel deviceModel = deviceModelOpt.get();
-        deviceModel.updateInfo(modelName, deviceType, manufacturer, description, specifications, factor);
-        return deviceModelRepository.update(deviceModel);
+        deviceModel.updateInfo(modelName, deviceType, manufacturer, description, specifications, factor,
+                heartbeatTimeoutSeconds);
+        DeviceModel updated = deviceModelRepository.update(deviceModel);
+        // 心跳超时时长由接入目录缓存提供给设备心跳跟踪
+        telemetryCatalog.invalidate();
+        return updated;
     }
 
     /**
@@ -143,4 +151,10 @@ public class DeviceModelDomainService {
     public IPage<DeviceModel> getDeviceModelPage(Integer pageNum, Integer pageSize, String deviceType) {
         return deviceModelRepository.findPage(pageNum, pageSize, deviceType);
     }
+
+    private static void checkHeartbeatTimeout(Integer heartbeatTimeoutSeconds) {
+        if (heartbeatTimeoutSeconds != null && heartbeatTimeoutSeconds <= 0) {
+            throw new IllegalArgumentException("心跳超时时长必须大于0");
+        }
+    }
 }
@@ -22,6 +22,7 @@ public class FactorDomainService {
 
     private final FactorRepository factorRepository;
     private final DeviceModelRepository deviceModelRepository;
+    private final TelemetryCatalog telemetryCatalog;
 
     /**
      * 创建监测因子
@@ -63,7 +64,9 @@ public class FactorDomainService {
                 .deleted(0)
                 .build();
 
-        return factorRepository.save(factor);
+        Factor saved = factorRepository.save(factor);
+        telemetryCatalog.invalidate();
+        return saved;
     }
 
     /**
@@ -78,7 +81,9 @@ public class FactorDomainService {
 
         Factor factor = factorOpt.get();
         factor.updateInfo(factorName, shortName, category, unit, upperLimit, lowerLimit, precisionDigits);
-        return factorRepository.update(factor);
+        Factor updated = factorRepository.update(factor);
+        telemetryCatalog.invalidate();
+        return updated;
     }
 
     /**
@@ -110,7 +115,9 @@ public class FactorDomainService {
         if (!factorOpt.isPresent()) {
             throw new IllegalArgumentException("监测因子不存在");
         }
-        return factorRepository.deleteById(factorId);
+        boolean deleted = factorRepository.deleteById(factorId);
+        telemetryCatalog.invalidate();
+        return deleted;
     }
 
     /**
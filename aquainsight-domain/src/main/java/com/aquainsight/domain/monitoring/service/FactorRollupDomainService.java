@@ -0,0 +1,293 @@
+package com.aquainsight.domain.monitoring.service;
+
+import com.aquainsight.domain.monitoring.entity.FactorReading;
+import com.aquainsight.domain.monitoring.entity.FactorRollup;
+import com.aquainsight.domain.monitoring.repository.FactorReadingRepository;
+import com.aquainsight.domain.monitoring.repository.FactorRollupRepository;
+import com.aquainsight.domain.monitoring.types.LttbDownsampler;
+import com.aquainsight.domain.monitoring.types.RollupResolution;
+import com.aquainsight.domain.monitoring.types.SeriesPointConsumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * 监测数据聚合领域服务
+ * 读数写入后登记受影响的1分钟桶，聚合时只重算这些桶，再逐级重算其所在的1小时桶和1天桶；
+ * 迟到数据同样只登记其所在的桶，不会触发整段重算
+ */
+@Slf4j
+@Service
+public class FactorRollupDomainService {
+
+    /**
+     * 相邻脏桶间隔不超过该时长时合并为一次原始读数查询
+     */
+    private static final Duration MERGE_GAP = Duration.ofHours(1);
+
+    /**
+     * 降采样查询的源数据点数上限相对点数预算的倍数，既给LTTB留出候选点，又限制扫描的数据量
+     */
+    private static final int DOWNSAMPLE_OVERSAMPLING = 8;
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final FactorReadingRepository factorReadingRepository;
+    private final FactorRollupRepository factorRollupRepository;
+    private final Map<RollupResolution, Integer> retentionDays = new EnumMap<>(RollupResolution.class);
+
+    /**
+     * 序列(站点, 因子) -> 待重算的1分钟桶
+     */
+    private Map<SeriesKey, NavigableSet<LocalDateTime>> dirtyMinutes = new HashMap<>();
+
+    public FactorRollupDomainService(FactorReadingRepository factorReadingRepository,
+                                     FactorRollupRepository factorRollupRepository,
+                                     @Value("${aquainsight.telemetry.retention-days:365}") int rawRetentionDays,
+                                     @Value("${aquainsight.telemetry.rollup.minute-retention-days:30}") int minuteRetentionDays,
+                                     @Value("${aquainsight.telemetry.rollup.hour-retention-days:730}") int hourRetentionDays,
+                                     @Value("${aquainsight.telemetry.rollup.day-retention-days:3650}") int dayRetentionDays) {
+        this.factorReadingRepository = factorReadingRepository;
+        this.factorRollupRepository = factorRollupRepository;
+        retentionDays.put(RollupResolution.RAW, rawRetentionDays);
+        retentionDays.put(RollupResolution.MINUTE, minuteRetentionDays);
+        retentionDays.put(RollupResolution.HOUR, hourRetentionDays);
+        retentionDays.put(RollupResolution.DAY, dayRetentionDays);
+    }
+
+    /**
+     * 登记已写入读数所在的1分钟桶
+     */
+    public void markDirty(List<FactorReading> readings) {
+        synchronized (this) {
+            for (FactorReading reading : readings) {
+                dirtyMinutes.computeIfAbsent(new SeriesKey(reading.getSiteId(), reading.getFactorId()),
+                                key -> new TreeSet<>())
+                        .add(RollupResolution.MINUTE.bucketStartOf(reading.getReadingTime()));
+            }
+        }
+    }
+
+    /**
+     * 重算已登记的桶
+     *
+     * @return 重算的1分钟桶数量
+     */
+    public int rollup() {
+        Map<SeriesKey, NavigableSet<LocalDateTime>> pending;
+        synchronized (this) {
+            if (dirtyMinutes.isEmpty()) {
+                return 0;
+            }
+            pending = dirtyMinutes;
+            dirtyMinutes = new HashMap<>();
+        }
+        int minuteCount = 0;
+        for (Map.Entry<SeriesKey, NavigableSet<LocalDateTime>> entry : pending.entrySet()) {
+            SeriesKey series = entry.getKey();
+            try {
+                rollupSeries(series, entry.getValue());
+                minuteCount += entry.getValue().size();
+            } catch (Exception e) {
+                log.error("监测数据聚合失败，站点ID: {}, 因子ID: {}", series.siteId, series.factorId, e);
+                requeue(series, entry.getValue());
+            }
+        }
+        return minuteCount;
+    }
+
+    /**
+     * 查询历史数据，选择满足点数预算的最细粒度，且该粒度的保留期需覆盖查询起点
+     */
+    public List<FactorRollup> findHistory(Integer siteId, Integer factorId, LocalDateTime startTime,
+                                          LocalDateTime endTime, int maxPoints) {
+        RollupResolution resolution = selectResolution(startTime, endTime, maxPoints);
+        if (resolution == RollupResolution.RAW) {
+            List<FactorReading> readings = factorReadingRepository.findBySeries(siteId, factorId, startTime, endTime);
+            List<FactorRollup> points = new ArrayList<>(readings.size());
+            for (FactorReading reading : readings) {
+                points.add(FactorRollup.ofReading(reading));
+            }
+            return points;
+        }
+        return factorRollupRepository.findBySeries(siteId, factorId, resolution,
+                resolution.bucketStartOf(startTime), endTime);
+    }
+
+    /**
+     * 选择降采样查询的源数据粒度，点数预算不大于0时表示不降采样，使用原始读数
+     */
+    public RollupResolution selectDownsampleSource(LocalDateTime startTime, LocalDateTime endTime, int maxPoints) {
+        if (maxPoints <= 0) {
+            return RollupResolution.RAW;
+        }
+        return selectResolution(startTime, endTime, maxPoints * DOWNSAMPLE_OVERSAMPLING);
+    }
+
+    /**
+     * 流式降采样查询，从源数据中按LTTB选取不超过maxPoints个点按时间升序逐点回调；
+     * 源数据为聚合时使用桶均值。原始读数逐点扫描，内存占用与时间范围无关
+     *
+     * @return 输出的点数
+     */
+    public long scanDownsampled(Integer siteId, Integer factorId, RollupResolution source, LocalDateTime startTime,
+                                LocalDateTime endTime, int maxPoints, SeriesPointConsumer consumer) {
+        LttbDownsampler downsampler = new LttbDownsampler(toMillis(startTime), toMillis(endTime), maxPoints, consumer);
+        if (source == RollupResolution.RAW) {
+            factorReadingRepository.scanSeries(siteId, factorId, startTime, endTime, downsampler);
+        } else {
+            for (FactorRollup rollup : factorRollupRepository.findBySeries(siteId, factorId, source,
+                    source.bucketStartOf(startTime), endTime)) {
+                downsampler.accept(toMillis(rollup.getBucketTime()), rollup.getAvgValue().doubleValue());
+            }
+        }
+        downsampler.finish();
+        return downsampler.getEmittedCount();
+    }
+
+    /**
+     * 选择查询使用的聚合粒度
+     */
+    public RollupResolution selectResolution(LocalDateTime startTime, LocalDateTime endTime, int maxPoints) {
+        long rangeMillis = Duration.between(startTime, endTime).toMillis();
+        LocalDateTime now = LocalDateTime.now();
+        for (RollupResolution resolution : RollupResolution.values()) {
+            int days = retentionDays.get(resolution);
+            boolean retained = days <= 0 || !startTime.isBefore(now.minusDays(days));
+            if (retained && rangeMillis / resolution.getStepMillis() <= maxPoints) {
+                return resolution;
+            }
+        }
+        return RollupResolution.DAY;
+    }
+
+    /**
+     * 删除超出各自保留期的聚合
+     */
+    public long applyRetention() {
+        long deleted = 0;
+        LocalDateTime now = LocalDateTime.now();
+        for (RollupResolution resolution : new RollupResolution[]{
+                RollupResolution.MINUTE, RollupResolution.HOUR, RollupResolution.DAY}) {
+            int days = retentionDays.get(resolution);
+            if (days > 0) {
+                deleted += factorRollupRepository.deleteBefore(resolution, now.minusDays(days));
+            }
+        }
+        return deleted;
+    }
+
+    private void rollupSeries(SeriesKey series, NavigableSet<LocalDateTime> minutes) {
+        // 1分钟桶：相邻的脏桶合并为一次原始读数查询
+        List<FactorRollup> minuteRollups = new ArrayList<>();
+        LocalDateTime runStart = null;
+        LocalDateTime runEnd = null;
+        for (LocalDateTime minute : minutes) {
+            if (runStart != null && Duration.between(runEnd, minute).compareTo(MERGE_GAP) > 0) {
+                aggregateMinutes(series, minutes.subSet(runStart, true, runEnd, true), minuteRollups);
+                runStart = null;
+            }
+            if (runStart == null) {
+                runStart = minute;
+            }
+            runEnd = minute;
+        }
+        aggregateMinutes(series, minutes.subSet(runStart, true, runEnd, true), minuteRollups);
+        factorRollupRepository.saveAll(minuteRollups);
+
+        NavigableSet<LocalDateTime> hours = new TreeSet<>();
+        for (LocalDateTime minute : minutes) {
+            hours.add(RollupResolution.HOUR.bucketStartOf(minute));
+        }
+        rollupFromSource(series, RollupResolution.HOUR, hours);
+
+        NavigableSet<LocalDateTime> days = new TreeSet<>();
+        for (LocalDateTime hour : hours) {
+            days.add(RollupResolution.DAY.bucketStartOf(hour));
+        }
+        rollupFromSource(series, RollupResolution.DAY, days);
+    }
+
+    private void aggregateMinutes(SeriesKey series, NavigableSet<LocalDateTime> minutes, List<FactorRollup> output) {
+        LocalDateTime start = minutes.first();
+        LocalDateTime end = RollupResolution.MINUTE.bucketEndOf(minutes.last()).minusNanos(1);
+        List<FactorReading> readings = factorReadingRepository.findBySeries(series.siteId, series.factorId, start, end);
+        Map<LocalDateTime, List<FactorReading>> byMinute = new HashMap<>();
+        for (FactorReading reading : readings) {
+            LocalDateTime minute = RollupResolution.MINUTE.bucketStartOf(reading.getReadingTime());
+            if (minutes.contains(minute)) {
+                byMinute.computeIfAbsent(minute, key -> new ArrayList<>()).add(reading);
+            }
+        }
+        for (LocalDateTime minute : minutes) {
+            List<FactorReading> bucket = byMinute.get(minute);
+            if (bucket != null) {
+                output.add(FactorRollup.ofReadings(RollupResolution.MINUTE, minute, bucket));
+            }
+        }
+    }
+
+    private void rollupFromSource(SeriesKey series, RollupResolution resolution, NavigableSet<LocalDateTime> buckets) {
+        List<FactorRollup> rollups = new ArrayList<>(buckets.size());
+        for (LocalDateTime bucket : buckets) {
+            List<FactorRollup> sources = factorRollupRepository.findBySeries(series.siteId, series.factorId,
+                    resolution.source(), bucket, resolution.bucketEndOf(bucket).minusNanos(1));
+            if (!sources.isEmpty()) {
+                rollups.add(FactorRollup.ofRollups(resolution, bucket, sources));
+            }
+        }
+        factorRollupRepository.saveAll(rollups);
+    }
+
+    private void requeue(SeriesKey series, NavigableSet<LocalDateTime> minutes) {
+        synchronized (this) {
+            dirtyMinutes.computeIfAbsent(series, key -> new TreeSet<>()).addAll(minutes);
+        }
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    /**
+     * 序列标识
+     */
+    private static final class SeriesKey {
+
+        private final Integer siteId;
+        private final Integer factorId;
+
+        private SeriesKey(Integer siteId, Integer factorId) {
+            this.siteId = siteId;
+            this.factorId = factorId;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof SeriesKey)) {
+                return false;
+            }
+            SeriesKey that = (SeriesKey) o;
+            return siteId.equals(that.siteId) && factorId.equals(that.factorId);
+        }
+
+        @Override
+        public int hashCode() {
+            return siteId * 31 + factorId;
+        }
+    }
+}
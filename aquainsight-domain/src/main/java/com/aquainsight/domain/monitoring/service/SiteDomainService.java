@@ -22,13 +22,14 @@ public class SiteDomainService {
 
     private final SiteRepository siteRepository;
     private final EnterpriseRepository enterpriseRepository;
+    private final TelemetryCatalog telemetryCatalog;
 
     /**
      * 创建站点
      */
     public Site createSite(String siteCode, String siteName, String siteType, String siteTag,
                           BigDecimal longitude, BigDecimal latitude, String address,
-                          Integer enterpriseId, Integer isAutoUpload) {
+                          Integer enterpriseId, Integer isAutoUpload, Integer sampleIntervalMinutes) {
         // 领域规则验证
         if (siteCode == null || siteCode.trim().isEmpty()) {
             throw new IllegalArgumentException("站点编码不能为空");
@@ -42,6 +43,7 @@ public class SiteDomainService {
         if (siteRepository.existsBySiteCode(siteCode)) {
             throw new IllegalArgumentException("站点编码已存在");
         }
+        checkSampleInterval(sampleIntervalMinutes);
 
         // 获取企业对象
         Optional<Enterprise> enterpriseOpt = enterpriseRepository.findById(enterpriseId);
@@ -59,6 +61,7 @@ public class SiteDomainService {
                 .address(address)
                 .enterprise(enterpriseOpt.get())
                 .isAutoUpload(isAutoUpload == null ? 0 : isAutoUpload)
+                .sampleIntervalMinutes(sampleIntervalMinutes)
                 .createTime(LocalDateTime.now())
                 .updateTime(LocalDateTime.now())
                 .deleted(0)
@@ -72,12 +75,13 @@ public class SiteDomainService {
      */
     public Site updateSiteInfo(Integer siteId, String siteName, String siteType, String siteTag,
                               BigDecimal longitude, BigDecimal latitude, String address,
-                              Integer enterpriseId, Integer isAutoUpload) {
+                              Integer enterpriseId, Integer isAutoUpload, Integer sampleIntervalMinutes) {
         Optional<Site> siteOpt = siteRepository.findById(siteId);
         if (!siteOpt.isPresent()) {
             throw new IllegalArgumentException("站点不存在");
         }
 
+        checkSampleInterval(sampleIntervalMinutes);
         Site site = siteOpt.get();
 
         // 如果企业ID有变化，获取新的企业对象
@@ -90,8 +94,12 @@ public class SiteDomainService {
             enterprise = enterpriseOpt.get();
         }
 
-        site.updateInfo(siteName, siteType, siteTag, longitude, latitude, address, enterprise, isAutoUpload);
-        return siteRepository.update(site);
+        site.updateInfo(siteName, siteType, siteTag, longitude, latitude, address, enterprise, isAutoUpload,
+                sampleIntervalMinutes);
+        Site updated = siteRepository.update(site);
+        // 采集间隔由接入目录缓存提供给数据完整率统计
+        telemetryCatalog.invalidate();
+        return updated;
     }
 
     /**
@@ -146,4 +154,10 @@ public class SiteDomainService {
     public IPage<Site> getSitePage(Integer pageNum, Integer pageSize, String siteType, Integer enterpriseId) {
         return siteRepository.findPage(pageNum, pageSize, siteType, enterpriseId);
     }
+
+    private static void checkSampleInterval(Integer sampleIntervalMinutes) {
+        if (sampleIntervalMinutes != null && (sampleIntervalMinutes <= 0 || 1440 % sampleIntervalMinutes != 0)) {
+            throw new IllegalArgumentException("数据采集间隔必须能整除一天的分钟数");
+        }
+    }
 }
@@ -0,0 +1,264 @@
+package com.aquainsight.domain.monitoring.service;
+
+import com.aquainsight.domain.monitoring.entity.Device;
+import com.aquainsight.domain.monitoring.entity.Factor;
+import com.aquainsight.domain.monitoring.entity.Site;
+import com.aquainsight.domain.monitoring.repository.DeviceRepository;
+import com.aquainsight.domain.monitoring.repository.FactorRepository;
+import com.aquainsight.domain.monitoring.repository.SiteRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 数据接入目录缓存
+ * 缓存因子、站点、设备的编码索引，使读数校验不访问数据库；
+ * 因子变更时由领域服务失效缓存，遇到未知编码时限频重新加载以感知新建的站点和设备
+ */
+@Service
+@RequiredArgsConstructor
+public class TelemetryCatalog {
+
+    /**
+     * 缓存刷新周期(毫秒)
+     */
+    private static final long REFRESH_INTERVAL_MILLIS = 60_000L;
+
+    /**
+     * 未知编码触发重新加载的最小间隔(毫秒)
+     */
+    private static final long MISS_RELOAD_INTERVAL_MILLIS = 5_000L;
+
+    private final FactorRepository factorRepository;
+    private final SiteRepository siteRepository;
+    private final DeviceRepository deviceRepository;
+
+    private volatile Catalog catalog;
+
+    /**
+     * 失效代数，加载期间发生失效时丢弃本次加载结果
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * 根据因子编码查找因子
+     */
+    public Factor findFactor(String factorCode) {
+        Factor factor = current().factorsByCode.get(factorCode);
+        if (factor == null && reloadOnMiss()) {
+            factor = current().factorsByCode.get(factorCode);
+        }
+        return factor;
+    }
+
+    /**
+     * 根据国标污染物编码查找因子
+     */
+    public Factor findFactorByNationalCode(String nationalCode) {
+        Factor factor = current().factorsByNationalCode.get(nationalCode);
+        if (factor == null && reloadOnMiss()) {
+            factor = current().factorsByNationalCode.get(nationalCode);
+        }
+        return factor;
+    }
+
+    /**
+     * 根据因子ID查找因子
+     */
+    public Factor findFactor(Integer factorId) {
+        return current().factorsById.get(factorId);
+    }
+
+    /**
+     * 根据站点编码查找站点ID
+     */
+    public Integer findSiteId(String siteCode) {
+        Integer siteId = current().siteIdsByCode.get(siteCode);
+        if (siteId == null && reloadOnMiss()) {
+            siteId = current().siteIdsByCode.get(siteCode);
+        }
+        return siteId;
+    }
+
+    /**
+     * 根据设备编码查找设备
+     */
+    public Device findDevice(String deviceCode) {
+        Device device = current().devicesByCode.get(deviceCode);
+        if (device == null && reloadOnMiss()) {
+            device = current().devicesByCode.get(deviceCode);
+        }
+        return device;
+    }
+
+    /**
+     * 根据设备ID查找设备
+     */
+    public Device findDevice(Integer deviceId) {
+        return current().devicesById.get(deviceId);
+    }
+
+    /**
+     * 查找站点下指定型号的设备ID
+     */
+    public List<Integer> findDeviceIds(Integer siteId, Integer deviceModelId) {
+        return current().deviceIdsBySiteModel.getOrDefault(siteModelKey(siteId, deviceModelId), Collections.emptyList());
+    }
+
+    /**
+     * 站点配置的数据采集间隔(分钟)，未配置时返回null
+     */
+    public Integer findSampleIntervalMinutes(Integer siteId) {
+        return current().sampleIntervalsBySiteId.get(siteId);
+    }
+
+    /**
+     * 各站点应上报的因子ID，即站点已安装设备的型号所监测的因子
+     */
+    public Map<Integer, Set<Integer>> getExpectedFactorIds() {
+        return current().expectedFactorIdsBySiteId;
+    }
+
+    /**
+     * 失效缓存，下次访问时重新加载
+     */
+    public void invalidate() {
+        generation.incrementAndGet();
+        catalog = null;
+    }
+
+    private boolean reloadOnMiss() {
+        Catalog current = catalog;
+        if (current == null || System.currentTimeMillis() - current.loadTimeMillis < MISS_RELOAD_INTERVAL_MILLIS) {
+            return false;
+        }
+        synchronized (this) {
+            if (catalog != current) {
+                return true;
+            }
+            long loadGeneration = generation.get();
+            Catalog loaded = load();
+            if (generation.get() == loadGeneration) {
+                catalog = loaded;
+            }
+            return true;
+        }
+    }
+
+    private Catalog current() {
+        Catalog current = catalog;
+        if (current == null || System.currentTimeMillis() - current.loadTimeMillis > REFRESH_INTERVAL_MILLIS) {
+            synchronized (this) {
+                current = catalog;
+                if (current == null || System.currentTimeMillis() - current.loadTimeMillis > REFRESH_INTERVAL_MILLIS) {
+                    long loadGeneration = generation.get();
+                    current = load();
+                    if (generation.get() == loadGeneration) {
+                        catalog = current;
+                    }
+                }
+            }
+        }
+        return current;
+    }
+
+    private Catalog load() {
+        long loadTimeMillis = System.currentTimeMillis();
+        Map<String, Factor> factorsByCode = new HashMap<>();
+        Map<String, Factor> factorsByNationalCode = new HashMap<>();
+        Map<Integer, Factor> factorsById = new HashMap<>();
+        for (Factor factor : factorRepository.findAll()) {
+            factorsByCode.put(factor.getFactorCode(), factor);
+            if (factor.getNationalCode() != null && !factor.getNationalCode().isEmpty()) {
+                factorsByNationalCode.put(factor.getNationalCode(), factor);
+            }
+            factorsById.put(factor.getId(), factor);
+        }
+        Map<String, Integer> siteIdsByCode = new HashMap<>();
+        Map<Integer, Integer> sampleIntervalsBySiteId = new HashMap<>();
+        for (Site site : siteRepository.findAll()) {
+            siteIdsByCode.put(site.getSiteCode(), site.getId());
+            if (site.getSampleIntervalMinutes() != null) {
+                sampleIntervalsBySiteId.put(site.getId(), site.getSampleIntervalMinutes());
+            }
+        }
+        Map<Integer, List<Integer>> factorIdsByModelId = new HashMap<>();
+        for (Factor factor : factorsById.values()) {
+            if (factor.getDeviceModel() != null) {
+                factorIdsByModelId.computeIfAbsent(factor.getDeviceModel().getId(), key -> new ArrayList<>())
+                        .add(factor.getId());
+            }
+        }
+        Map<String, Device> devicesByCode = new HashMap<>();
+        Map<Integer, Device> devicesById = new HashMap<>();
+        Map<Long, List<Integer>> deviceIdsBySiteModel = new HashMap<>();
+        Map<Integer, Set<Integer>> expectedFactorIdsBySiteId = new HashMap<>();
+        for (Device device : deviceRepository.findAll()) {
+            devicesByCode.put(device.getDeviceCode(), device);
+            devicesById.put(device.getId(), device);
+            if (device.getSite() != null && device.getDeviceModel() != null) {
+                deviceIdsBySiteModel.computeIfAbsent(
+                        siteModelKey(device.getSite().getId(), device.getDeviceModel().getId()),
+                        key -> new ArrayList<>()).add(device.getId());
+                List<Integer> modelFactorIds = factorIdsByModelId.get(device.getDeviceModel().getId());
+                if (modelFactorIds != null) {
+                    expectedFactorIdsBySiteId.computeIfAbsent(device.getSite().getId(), key -> new HashSet<>())
+                            .addAll(modelFactorIds);
+                }
+            }
+        }
+        return new Catalog(factorsByCode, factorsByNationalCode, factorsById, siteIdsByCode, devicesByCode,
+                devicesById, deviceIdsBySiteModel, sampleIntervalsBySiteId,
+                Collections.unmodifiableMap(expectedFactorIdsBySiteId), loadTimeMillis);
+    }
+
+    private static long siteModelKey(Integer siteId, Integer deviceModelId) {
+        return ((long) siteId << 32) | (deviceModelId & 0xFFFFFFFFL);
+    }
+
+    /**
+     * 一次加载得到的只读目录
+     */
+    private static final class Catalog {
+
+        private final Map<String, Factor> factorsByCode;
+        private final Map<String, Factor> factorsByNationalCode;
+        private final Map<Integer, Factor> factorsById;
+        private final Map<String, Integer> siteIdsByCode;
+        private final Map<String, Device> devicesByCode;
+        private final Map<Integer, Device> devicesById;
+
+        /**
+         * (站点ID, 设备型号ID) -> 设备ID
+         */
+        private final Map<Long, List<Integer>> deviceIdsBySiteModel;
+        private final Map<Integer, Integer> sampleIntervalsBySiteId;
+        private final Map<Integer, Set<Integer>> expectedFactorIdsBySiteId;
+        private final long loadTimeMillis;
+
+        private Catalog(Map<String, Factor> factorsByCode, Map<String, Factor> factorsByNationalCode,
+                        Map<Integer, Factor> factorsById, Map<String, Integer> siteIdsByCode,
+                        Map<String, Device> devicesByCode, Map<Integer, Device> devicesById,
+                        Map<Long, List<Integer>> deviceIdsBySiteModel, Map<Integer, Integer> sampleIntervalsBySiteId,
+                        Map<Integer, Set<Integer>> expectedFactorIdsBySiteId, long loadTimeMillis) {
+            this.factorsByCode = factorsByCode;
+            this.factorsByNationalCode = factorsByNationalCode;
+            this.factorsById = factorsById;
+            this.siteIdsByCode = siteIdsByCode;
+            this.devicesByCode = devicesByCode;
+            this.devicesById = devicesById;
+            this.deviceIdsBySiteModel = deviceIdsBySiteModel;
+            this.sampleIntervalsBySiteId = sampleIntervalsBySiteId;
+            this.expectedFactorIdsBySiteId = expectedFactorIdsBySiteId;
+            this.loadTimeMillis = loadTimeMillis;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.aquainsight.domain.monitoring.service;
+
+import com.aquainsight.domain.monitoring.entity.Device;
+import com.aquainsight.domain.monitoring.entity.Factor;
+import com.aquainsight.domain.monitoring.entity.FactorReading;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+
+/**
+ * 监测数据接入领域服务
+ * 按缓存的因子定义校验上报读数，校验过程不访问数据库
+ */
+@Service
+@RequiredArgsConstructor
+public class TelemetryDomainService {
+
+    /**
+     * 允许的监测时间超前量(分钟)，容忍现场设备时钟偏差
+     */
+    private static final long MAX_CLOCK_SKEW_MINUTES = 5;
+
+    private final TelemetryCatalog telemetryCatalog;
+
+    /**
+     * 校验一条上报读数并解析为读数实体
+     * 站点编码和设备编码至少提供一个，同时提供时设备必须属于该站点；
+     * 因子代码和国标污染物编码至少提供一个，优先使用因子代码
+     *
+     * @throws IllegalArgumentException 读数不合法时抛出，消息为拒绝原因
+     */
+    public FactorReading resolve(String siteCode, String deviceCode, String factorCode, String nationalCode,
+                                 LocalDateTime readingTime, BigDecimal value) {
+        boolean hasFactorCode = factorCode != null && !factorCode.isEmpty();
+        if (!hasFactorCode && (nationalCode == null || nationalCode.isEmpty())) {
+            throw new IllegalArgumentException("因子代码不能为空");
+        }
+        if (readingTime == null) {
+            throw new IllegalArgumentException("监测时间不能为空");
+        }
+        if (value == null) {
+            throw new IllegalArgumentException("监测值不能为空");
+        }
+        if (readingTime.isAfter(LocalDateTime.now().plusMinutes(MAX_CLOCK_SKEW_MINUTES))) {
+            throw new IllegalArgumentException("监测时间超前: " + readingTime);
+        }
+
+        Factor factor = hasFactorCode
+                ? telemetryCatalog.findFactor(factorCode)
+                : telemetryCatalog.findFactorByNationalCode(nationalCode);
+        if (factor == null) {
+            throw new IllegalArgumentException("监测因子不存在: " + (hasFactorCode ? factorCode : nationalCode));
+        }
+
+        Integer siteId = null;
+        Integer deviceId = null;
+        if (deviceCode != null && !deviceCode.isEmpty()) {
+            Device device = telemetryCatalog.findDevice(deviceCode);
+            if (device == null) {
+                throw new IllegalArgumentException("设备不存在: " + deviceCode);
+            }
+            if (device.getSite() == null) {
+                throw new IllegalArgumentException("设备未关联站点: " + deviceCode);
+            }
+            if (factor.getDeviceModel() != null && device.getDeviceModel() != null
+                    && !factor.getDeviceModel().getId().equals(device.getDeviceModel().getId())) {
+                throw new IllegalArgumentException("设备型号不支持监测因子: " + deviceCode + "/" + factor.getFactorCode());
+            }
+            deviceId = device.getId();
+            siteId = device.getSite().getId();
+        }
+        if (siteCode != null && !siteCode.isEmpty()) {
+            Integer codeSiteId = telemetryCatalog.findSiteId(siteCode);
+            if (codeSiteId == null) {
+                throw new IllegalArgumentException("站点不存在: " + siteCode);
+            }
+            if (siteId != null && !siteId.equals(codeSiteId)) {
+                throw new IllegalArgumentException("设备不属于站点: " + deviceCode + "/" + siteCode);
+            }
+            siteId = codeSiteId;
+        }
+        if (siteId == null) {
+            throw new IllegalArgumentException("站点编码和设备编码不能同时为空");
+        }
+
+        if (factor.getLowerLimit() != null && value.compareTo(factor.getLowerLimit()) < 0
+                || factor.getUpperLimit() != null && value.compareTo(factor.getUpperLimit()) > 0) {
+            throw new IllegalArgumentException("监测值超出因子量程: " + factor.getFactorCode() + "=" + value.toPlainString());
+        }
+        BigDecimal normalized = factor.getPrecisionDigits() != null
+                ? value.setScale(factor.getPrecisionDigits(), RoundingMode.HALF_UP)
+                : value;
+
+        return FactorReading.builder()
+                .siteId(siteId)
+                .deviceId(deviceId)
+                .factorId(factor.getId())
+                .readingTime(readingTime)
+                .value(normalized)
+                .build();
+    }
+
+    /**
+     * 读数对应的告警指标名称，站点类告警指标以因子名称命名
+     */
+    public String metricNameOf(FactorReading reading) {
+        Factor factor = telemetryCatalog.findFactor(reading.getFactorId());
+        return factor != null ? factor.getFactorName() : null;
+    }
+}
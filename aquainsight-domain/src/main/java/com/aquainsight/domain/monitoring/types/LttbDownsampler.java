@@ -0,0 +1,188 @@
+package com.aquainsight.domain.monitoring.types;
+
+import java.util.Arrays;
+
+/**
+ * 流式LTTB(Largest-Triangle-Three-Buckets)降采样
+ * 查询时间范围按时间等分为 maxPoints-2 个桶，首尾数据点原样保留，每个非空桶保留与前一个保留点
+ * 和下一个非空桶均值构成三角形面积最大的点；数据点须按时间升序输入，只缓存当前桶和下一个桶，
+ * 内存占用与查询范围无关
+ */
+public final class LttbDownsampler implements SeriesPointConsumer {
+
+    private final SeriesPointConsumer sink;
+    private final long startMillis;
+    private final double bucketMillis;
+    private final int bucketCount;
+
+    /**
+     * 已输出的数据点数量
+     */
+    private long emittedCount;
+
+    /**
+     * 上一个保留点
+     */
+    private boolean hasSelected;
+    private long selectedTimestamp;
+    private double selectedValue;
+
+    /**
+     * 等待选点的桶和其后一个非空桶
+     */
+    private Bucket pending;
+    private Bucket following;
+
+    /**
+     * @param maxPoints 输出的最大点数，小于3时不降采样
+     */
+    public LttbDownsampler(long startMillis, long endMillis, int maxPoints, SeriesPointConsumer sink) {
+        this.sink = sink;
+        this.startMillis = startMillis;
+        this.bucketCount = maxPoints >= 3 ? maxPoints - 2 : 0;
+        this.bucketMillis = bucketCount > 0 ? Math.max(1.0, (double) (endMillis - startMillis + 1) / bucketCount) : 0;
+        this.pending = new Bucket(startMillis);
+        this.following = new Bucket(startMillis);
+    }
+
+    @Override
+    public void accept(long timestampMillis, double value) {
+        if (bucketCount == 0) {
+            emit(timestampMillis, value);
+            return;
+        }
+        if (!hasSelected) {
+            // 第一个数据点原样保留
+            select(timestampMillis, value);
+            return;
+        }
+        int index = bucketOf(timestampMillis);
+        if (following.size > 0 && index != following.index) {
+            if (pending.size > 0) {
+                selectFrom(pending, following.averageTimestamp(), following.averageValue());
+            }
+            Bucket recycled = pending;
+            pending = following;
+            following = recycled.reset();
+        }
+        following.index = index;
+        following.add(timestampMillis, value);
+    }
+
+    /**
+     * 输入结束，输出剩余的桶和最后一个数据点
+     */
+    public void finish() {
+        if (bucketCount == 0 || following.size == 0) {
+            return;
+        }
+        long lastTimestamp = following.timestamps[following.size - 1];
+        double lastValue = following.values[following.size - 1];
+        following.removeLast();
+        if (following.size > 0) {
+            if (pending.size > 0) {
+                selectFrom(pending, following.averageTimestamp(), following.averageValue());
+            }
+            selectFrom(following, lastTimestamp, lastValue);
+        } else if (pending.size > 0) {
+            selectFrom(pending, lastTimestamp, lastValue);
+        }
+        select(lastTimestamp, lastValue);
+    }
+
+    public long getEmittedCount() {
+        return emittedCount;
+    }
+
+    private int bucketOf(long timestampMillis) {
+        int index = (int) ((timestampMillis - startMillis) / bucketMillis);
+        return Math.max(0, Math.min(bucketCount - 1, index));
+    }
+
+    /**
+     * 在桶中选择与上一个保留点(a)和下一桶均值(c)构成三角形面积最大的点
+     */
+    private void selectFrom(Bucket bucket, double nextTimestamp, double nextValue) {
+        double ax = selectedTimestamp;
+        double ay = selectedValue;
+        int best = 0;
+        double bestArea = -1;
+        for (int i = 0; i < bucket.size; i++) {
+            double area = Math.abs((ax - nextTimestamp) * (bucket.values[i] - ay)
+                    - (ax - bucket.timestamps[i]) * (nextValue - ay));
+            if (area > bestArea) {
+                bestArea = area;
+                best = i;
+            }
+        }
+        select(bucket.timestamps[best], bucket.values[best]);
+    }
+
+    private void select(long timestampMillis, double value) {
+        hasSelected = true;
+        selectedTimestamp = timestampMillis;
+        selectedValue = value;
+        emit(timestampMillis, value);
+    }
+
+    private void emit(long timestampMillis, double value) {
+        emittedCount++;
+        sink.accept(timestampMillis, value);
+    }
+
+    /**
+     * 一个时间桶内的数据点，数组在桶之间复用
+     */
+    private static final class Bucket {
+
+        private final long baseMillis;
+        private int index = -1;
+        private long[] timestamps = new long[16];
+        private double[] values = new double[16];
+        private int size;
+
+        /**
+         * 相对查询起点的时间之和，避免毫秒时间戳累加损失精度
+         */
+        private double offsetSum;
+        private double valueSum;
+
+        private Bucket(long baseMillis) {
+            this.baseMillis = baseMillis;
+        }
+
+        private void add(long timestampMillis, double value) {
+            if (size == timestamps.length) {
+                timestamps = Arrays.copyOf(timestamps, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            timestamps[size] = timestampMillis;
+            values[size] = value;
+            size++;
+            offsetSum += timestampMillis - baseMillis;
+            valueSum += value;
+        }
+
+        private void removeLast() {
+            size--;
+            offsetSum -= timestamps[size] - baseMillis;
+            valueSum -= values[size];
+        }
+
+        private double averageTimestamp() {
+            return baseMillis + offsetSum / size;
+        }
+
+        private double averageValue() {
+            return valueSum / size;
+        }
+
+        private Bucket reset() {
+            index = -1;
+            size = 0;
+            offsetSum = 0;
+            valueSum = 0;
+            return this;
+        }
+    }
+}
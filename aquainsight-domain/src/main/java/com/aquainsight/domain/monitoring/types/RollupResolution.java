@@ -0,0 +1,114 @@
+package com.aquainsight.domain.monitoring.types;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * 监测数据聚合粒度
+ */
+public enum RollupResolution {
+
+    /**
+     * 原始读数，不聚合
+     */
+    RAW("raw", "原始", 60_000L),
+
+    /**
+     * 1分钟聚合
+     */
+    MINUTE("1m", "1分钟", 60_000L),
+
+    /**
+     * 1小时聚合
+     */
+    HOUR("1h", "1小时", 3_600_000L),
+
+    /**
+     * 1天聚合
+     */
+    DAY("1d", "1天", 86_400_000L);
+
+    private final String code;
+    private final String description;
+
+    /**
+     * 桶时长(毫秒)，原始读数按分钟采样估算点数
+     */
+    private final long stepMillis;
+
+    RollupResolution(String code, String description, long stepMillis) {
+        this.code = code;
+        this.description = description;
+        this.stepMillis = stepMillis;
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getDescription() {
+        return description;
+    }
+
+    public long getStepMillis() {
+        return stepMillis;
+    }
+
+    /**
+     * 时间所在桶的起始时间
+     */
+    public LocalDateTime bucketStartOf(LocalDateTime time) {
+        switch (this) {
+            case MINUTE:
+                return time.truncatedTo(ChronoUnit.MINUTES);
+            case HOUR:
+                return time.truncatedTo(ChronoUnit.HOURS);
+            case DAY:
+                return time.truncatedTo(ChronoUnit.DAYS);
+            default:
+                return time;
+        }
+    }
+
+    /**
+     * 桶的结束时间(不含)
+     */
+    public LocalDateTime bucketEndOf(LocalDateTime bucketStart) {
+        switch (this) {
+            case MINUTE:
+                return bucketStart.plusMinutes(1);
+            case HOUR:
+                return bucketStart.plusHours(1);
+            case DAY:
+                return bucketStart.plusDays(1);
+            default:
+                return bucketStart;
+        }
+    }
+
+    /**
+     * 由下一级聚合粒度汇总得到的粒度，1分钟聚合的来源为原始读数
+     */
+    public RollupResolution source() {
+        switch (this) {
+            case HOUR:
+                return MINUTE;
+            case DAY:
+                return HOUR;
+            default:
+                return RAW;
+        }
+    }
+
+    /**
+     * 根据code获取枚举
+     */
+    public static RollupResolution fromCode(String code) {
+        for (RollupResolution resolution : values()) {
+            if (resolution.code.equals(code)) {
+                return resolution;
+            }
+        }
+        throw new IllegalArgumentException("未知的聚合粒度: " + code);
+    }
+}
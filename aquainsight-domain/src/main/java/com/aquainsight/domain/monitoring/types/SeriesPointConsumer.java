@@ -0,0 +1,14 @@
+package com.aquainsight.domain.monitoring.types;
+
+/**
+ * 时间序列数据点消费者，逐点回调，避免为每个数据点创建对象
+ */
+@FunctionalInterface
+public interface SeriesPointConsumer {
+
+    /**
+     * @param timestampMillis 数据点时间(毫秒时间戳)
+     * @param value           数据点值
+     */
+    void accept(long timestampMillis, double value);
+}
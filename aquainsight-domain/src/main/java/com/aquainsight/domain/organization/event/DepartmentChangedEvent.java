@@ -0,0 +1,34 @@
+package com.aquainsight.domain.organization.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * 部门变更事件
+ * 部门创建、修改或删除后触发
+ */
+@Getter
+public class DepartmentChangedEvent extends ApplicationEvent {
+
+    /**
+     * 部门ID
+     */
+    private final Integer departmentId;
+
+    /**
+     * 变更后的父部门ID，0表示顶级部门
+     */
+    private final Integer parentId;
+
+    /**
+     * 是否已删除
+     */
+    private final boolean deleted;
+
+    public DepartmentChangedEvent(Object source, Integer departmentId, Integer parentId, boolean deleted) {
+        super(source);
+        this.departmentId = departmentId;
+        this.parentId = parentId;
+        this.deleted = deleted;
+    }
+}
@@ -1,8 +1,10 @@
 package com.aquainsight.domain.organization.service;
 
 import com.aquainsight.domain.organization.entity.Department;
+import com.aquainsight.domain.organization.event.DepartmentChangedEvent;
 import com.aquainsight.domain.organization.repository.DepartmentRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -22,6 +24,7 @@ import java.util.stream.Collectors;
 public class DepartmentDomainService {
 
     private final DepartmentRepository departmentRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 创建部门
@@ -46,7 +49,9 @@ public class DepartmentDomainService {
                 .deleted(0)
                 .build();
 
-        return departmentRepository.save(department);
+        Department saved = departmentRepository.save(department);
+        eventPublisher.publishEvent(new DepartmentChangedEvent(this, saved.getId(), saved.getParentId(), false));
+        return saved;
     }
 
     /**
@@ -86,7 +91,9 @@ public class DepartmentDomainService {
         }
         department.setUpdateTime(LocalDateTime.now());
 
-        return departmentRepository.update(department);
+        Department updated = departmentRepository.update(department);
+        eventPublisher.publishEvent(new DepartmentChangedEvent(this, id, department.getParentId(), false));
+        return updated;
     }
 
     /**
@@ -102,7 +109,11 @@ public class DepartmentDomainService {
             throw new IllegalArgumentException("该部门下存在子部门，无法删除");
         }
 
-        return departmentRepository.deleteById(id);
+        boolean deleted = departmentRepository.deleteById(id);
+        if (deleted) {
+            eventPublisher.publishEvent(new DepartmentChangedEvent(this, id, null, true));
+        }
+        return deleted;
     }
 
     /**
@@ -0,0 +1,321 @@
+package com.aquainsight.domain.organization.service;
+
+import com.aquainsight.domain.organization.entity.Department;
+import com.aquainsight.domain.organization.repository.DepartmentRepository;
+import com.aquainsight.domain.user.entity.UserDepartment;
+import com.aquainsight.domain.user.repository.UserDepartmentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 组织索引
+ * 在内存中维护部门树的闭包（部门 -> 自身及全部下级部门）和部门 -> 成员，
+ * 按部门集合解析包含下级部门的去重成员列表时不访问数据库。
+ * 首次使用时全量加载；本实例上的部门和成员变更按事件增量更新，
+ * 另设全量重建周期，以便感知其他实例上的变更
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OrganizationIndex {
+
+    /**
+     * 全量重建周期(毫秒)
+     */
+    private static final long REBUILD_INTERVAL_MILLIS = 300_000L;
+
+    /**
+     * 顶级部门的父部门ID
+     */
+    private static final Integer ROOT_PARENT_ID = 0;
+
+    private final DepartmentRepository departmentRepository;
+    private final UserDepartmentRepository userDepartmentRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * 变更代数，全量加载期间发生增量变更时不使用本次加载结果
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile boolean loaded = false;
+    private volatile long loadTimeMillis;
+
+    /**
+     * 部门ID -> 父部门ID，以下索引由读写锁保护
+     */
+    private Map<Integer, Integer> parentById = new HashMap<>();
+
+    /**
+     * 部门ID -> 直接下级部门ID
+     */
+    private Map<Integer, Set<Integer>> childrenById = new HashMap<>();
+
+    /**
+     * 部门ID -> 自身及全部下级部门ID
+     */
+    private Map<Integer, Set<Integer>> descendantsById = new HashMap<>();
+
+    /**
+     * 部门ID -> 直接成员用户ID
+     */
+    private Map<Integer, Set<Integer>> membersById = new HashMap<>();
+
+    /**
+     * 解析部门集合（包含全部下级部门）的成员，按部门顺序去重
+     *
+     * @param departmentIds 部门ID集合，不存在的部门忽略
+     * @return 成员用户ID列表
+     */
+    public List<Integer> resolveUserIds(Collection<Integer> departmentIds) {
+        if (departmentIds.isEmpty()) {
+            return new ArrayList<>();
+        }
+        ensureLoaded();
+        Set<Integer> userIds = new LinkedHashSet<>();
+        lock.readLock().lock();
+        try {
+            for (Integer departmentId : departmentIds) {
+                Set<Integer> descendants = descendantsById.get(departmentId);
+                if (descendants == null) {
+                    continue;
+                }
+                for (Integer descendantId : descendants) {
+                    Set<Integer> members = membersById.get(descendantId);
+                    if (members != null) {
+                        userIds.addAll(members);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new ArrayList<>(userIds);
+    }
+
+    /**
+     * 获取部门的直接成员，不包含下级部门
+     */
+    public List<Integer> getMemberIds(Integer departmentId) {
+        ensureLoaded();
+        lock.readLock().lock();
+        try {
+            Set<Integer> members = membersById.get(departmentId);
+            return members != null ? new ArrayList<>(members) : new ArrayList<>();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 部门创建、修改或删除后增量更新部门树，只调整受影响的上级部门的闭包
+     *
+     * @param departmentId 部门ID
+     * @param parentId 变更后的父部门ID
+     * @param deleted 是否已删除
+     */
+    public void onDepartmentChanged(Integer departmentId, Integer parentId, boolean deleted) {
+        lock.writeLock().lock();
+        try {
+            generation.incrementAndGet();
+            if (!loaded) {
+                return;
+            }
+            if (deleted) {
+                removeDepartment(departmentId);
+            } else {
+                moveDepartment(departmentId, parentId != null ? parentId : ROOT_PARENT_ID);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 用户-部门关系变更后，从数据库重新读取受影响部门和用户的成员关系
+     *
+     * @param departmentIds 成员发生变化的部门
+     * @param userIds 部门关系发生变化的用户
+     */
+    public void onMembersChanged(Collection<Integer> departmentIds, Collection<Integer> userIds) {
+        if (!loaded) {
+            generation.incrementAndGet();
+            return;
+        }
+        Map<Integer, List<UserDepartment>> relationsByDepartment = new HashMap<>();
+        for (Integer departmentId : departmentIds) {
+            relationsByDepartment.put(departmentId, userDepartmentRepository.findByDepartmentId(departmentId));
+        }
+        Map<Integer, List<UserDepartment>> relationsByUser = new HashMap<>();
+        for (Integer userId : userIds) {
+            relationsByUser.put(userId, userDepartmentRepository.findByUserId(userId));
+        }
+
+        lock.writeLock().lock();
+        try {
+            generation.incrementAndGet();
+            for (Map.Entry<Integer, List<UserDepartment>> entry : relationsByDepartment.entrySet()) {
+                Set<Integer> members = new LinkedHashSet<>();
+                entry.getValue().forEach(relation -> members.add(relation.getUserId()));
+                if (members.isEmpty()) {
+                    membersById.remove(entry.getKey());
+                } else {
+                    membersById.put(entry.getKey(), members);
+                }
+            }
+            for (Map.Entry<Integer, List<UserDepartment>> entry : relationsByUser.entrySet()) {
+                Integer userId = entry.getKey();
+                membersById.values().removeIf(members -> members.remove(userId) && members.isEmpty());
+                for (UserDepartment relation : entry.getValue()) {
+                    membersById.computeIfAbsent(relation.getDepartmentId(), id -> new LinkedHashSet<>())
+                            .add(userId);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void ensureLoaded() {
+        if (loaded && System.currentTimeMillis() - loadTimeMillis <= REBUILD_INTERVAL_MILLIS) {
+            return;
+        }
+        synchronized (this) {
+            if (loaded && System.currentTimeMillis() - loadTimeMillis <= REBUILD_INTERVAL_MILLIS) {
+                return;
+            }
+            rebuild();
+        }
+    }
+
+    /**
+     * 全量重建索引
+     */
+    private void rebuild() {
+        long loadGeneration = generation.get();
+        long startMillis = System.currentTimeMillis();
+        List<Department> departments = departmentRepository.findAll();
+        List<UserDepartment> relations = userDepartmentRepository.findAll();
+
+        Map<Integer, Integer> parents = new HashMap<>();
+        Map<Integer, Set<Integer>> children = new HashMap<>();
+        for (Department department : departments) {
+            Integer parentId = department.getParentId() != null ? department.getParentId() : ROOT_PARENT_ID;
+            parents.put(department.getId(), parentId);
+            children.computeIfAbsent(parentId, id -> new HashSet<>()).add(department.getId());
+        }
+        Map<Integer, Set<Integer>> descendants = new HashMap<>();
+        for (Integer departmentId : parents.keySet()) {
+            descendants.computeIfAbsent(departmentId, id -> new HashSet<>()).add(departmentId);
+            for (Integer ancestorId : ancestorsOf(departmentId, parents)) {
+                descendants.computeIfAbsent(ancestorId, id -> new HashSet<>()).add(departmentId);
+            }
+        }
+        Map<Integer, Set<Integer>> members = new HashMap<>();
+        for (UserDepartment relation : relations) {
+            members.computeIfAbsent(relation.getDepartmentId(), id -> new LinkedHashSet<>())
+                    .add(relation.getUserId());
+        }
+
+        lock.writeLock().lock();
+        try {
+            boolean changedDuringLoad = generation.get() != loadGeneration;
+            if (loaded && changedDuringLoad) {
+                // 保留已增量更新的索引，下次访问时重试
+                return;
+            }
+            parentById = parents;
+            childrenById = children;
+            descendantsById = descendants;
+            membersById = members;
+            // 首次加载期间发生变更时仍使用本次结果，但立即过期以便下次访问重新加载
+            loadTimeMillis = changedDuringLoad ? 0 : startMillis;
+            loaded = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.debug("组织索引已重建，部门数: {}, 成员关系数: {}, 耗时: {}ms",
+                departments.size(), relations.size(), System.currentTimeMillis() - startMillis);
+    }
+
+    private void moveDepartment(Integer departmentId, Integer parentId) {
+        Set<Integer> subtree = descendantsById.get(departmentId);
+        if (subtree == null) {
+            subtree = new HashSet<>();
+            subtree.add(departmentId);
+            descendantsById.put(departmentId, subtree);
+        } else {
+            Integer oldParentId = parentById.get(departmentId);
+            if (Objects.equals(oldParentId, parentId)) {
+                return;
+            }
+            if (subtree.contains(parentId)) {
+                log.warn("部门 {} 的父部门 {} 是其下级部门，下次访问时全量重建组织索引", departmentId, parentId);
+                loadTimeMillis = 0;
+                return;
+            }
+            for (Integer ancestorId : ancestorsOf(departmentId, parentById)) {
+                descendantsById.get(ancestorId).removeAll(subtree);
+            }
+            Set<Integer> siblings = childrenById.get(oldParentId);
+            if (siblings != null) {
+                siblings.remove(departmentId);
+            }
+        }
+        parentById.put(departmentId, parentId);
+        childrenById.computeIfAbsent(parentId, id -> new HashSet<>()).add(departmentId);
+        for (Integer ancestorId : ancestorsOf(departmentId, parentById)) {
+            descendantsById.computeIfAbsent(ancestorId, id -> new HashSet<>()).addAll(subtree);
+        }
+    }
+
+    private void removeDepartment(Integer departmentId) {
+        Set<Integer> subtree = descendantsById.get(departmentId);
+        if (subtree == null) {
+            return;
+        }
+        for (Integer ancestorId : ancestorsOf(departmentId, parentById)) {
+            descendantsById.get(ancestorId).removeAll(subtree);
+        }
+        Set<Integer> siblings = childrenById.get(parentById.get(departmentId));
+        if (siblings != null) {
+            siblings.remove(departmentId);
+        }
+        // 成员关系保留在用户-部门关系中，这里只移出部门树
+        for (Integer removedId : new ArrayList<>(subtree)) {
+            parentById.remove(removedId);
+            childrenById.remove(removedId);
+            descendantsById.remove(removedId);
+        }
+    }
+
+    /**
+     * 沿父部门向上查找已知的上级部门，不包含自身；父部门数据成环时在重复处停止
+     */
+    private static List<Integer> ancestorsOf(Integer departmentId, Map<Integer, Integer> parents) {
+        List<Integer> ancestors = new ArrayList<>();
+        Set<Integer> visited = new HashSet<>();
+        visited.add(departmentId);
+        Integer current = parents.get(departmentId);
+        while (current != null && parents.containsKey(current) && visited.add(current)) {
+            ancestors.add(current);
+            current = parents.get(current);
+        }
+        return ancestors;
+    }
+}
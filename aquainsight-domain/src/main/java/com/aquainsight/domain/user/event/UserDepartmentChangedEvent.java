@@ -0,0 +1,31 @@
+package com.aquainsight.domain.user.event;
+
+import lombok.Getter;
+import org.springframework.context.ApplicationEvent;
+
+import java.util.Collections;
+import java.util.Set;
+
+/**
+ * 用户-部门关系变更事件
+ * 用户加入、移出部门，或按用户/部门批量删除关系后触发
+ */
+@Getter
+public class UserDepartmentChangedEvent extends ApplicationEvent {
+
+    /**
+     * 成员发生变化的部门ID，按用户删除全部关系时为空
+     */
+    private final Set<Integer> departmentIds;
+
+    /**
+     * 部门关系发生变化的用户ID，按部门删除全部关系时为空
+     */
+    private final Set<Integer> userIds;
+
+    public UserDepartmentChangedEvent(Object source, Set<Integer> departmentIds, Set<Integer> userIds) {
+        super(source);
+        this.departmentIds = departmentIds != null ? departmentIds : Collections.emptySet();
+        this.userIds = userIds != null ? userIds : Collections.emptySet();
+    }
+}
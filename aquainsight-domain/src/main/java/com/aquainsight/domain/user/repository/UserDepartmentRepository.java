@@ -28,6 +28,13 @@ public interface UserDepartmentRepository {
      */
     Optional<UserDepartment> findById(Integer id);
 
+    /**
+     * 查询所有用户-部门关系
+     *
+     * @return 关系列表
+     */
+    List<UserDepartment> findAll();
+
     /**
      * 根据用户ID查询所有部门关系
      *
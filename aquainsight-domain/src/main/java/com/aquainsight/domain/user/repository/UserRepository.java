@@ -3,6 +3,7 @@ package com.aquainsight.domain.user.repository;
 import com.aquainsight.domain.user.entity.User;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,6 +30,14 @@ public interface UserRepository {
      */
     Optional<User> findById(Integer id);
 
+    /**
+     * 根据ID集合批量查询用户
+     *
+     * @param ids 用户ID集合
+     * @return 用户列表，不存在或已删除的用户不返回
+     */
+    List<User> findByIds(Collection<Integer> ids);
+
     /**
      * 根据手机号查询用户
      *
@@ -2,14 +2,21 @@ package com.aquainsight.domain.user.service;
 
 import com.aquainsight.domain.user.entity.User;
 import com.aquainsight.domain.user.entity.UserDepartment;
+import com.aquainsight.domain.user.event.UserDepartmentChangedEvent;
 import com.aquainsight.domain.user.repository.UserDepartmentRepository;
 import com.aquainsight.domain.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -23,6 +30,7 @@ public class UserDepartmentDomainService {
 
     private final UserDepartmentRepository userDepartmentRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * 添加用户到部门
@@ -54,7 +62,9 @@ public class UserDepartmentDomainService {
                 .createTime(LocalDateTime.now())
                 .build();
 
-        return userDepartmentRepository.save(userDepartment);
+        UserDepartment saved = userDepartmentRepository.save(userDepartment);
+        publishChanged(Collections.singleton(departmentId), Collections.singleton(userId));
+        return saved;
     }
 
     /**
@@ -65,7 +75,11 @@ public class UserDepartmentDomainService {
      * @return 是否移除成功
      */
     public boolean removeUserFromDepartment(Integer userId, Integer departmentId) {
-        return userDepartmentRepository.deleteByUserIdAndDepartmentId(userId, departmentId);
+        boolean removed = userDepartmentRepository.deleteByUserIdAndDepartmentId(userId, departmentId);
+        if (removed) {
+            publishChanged(Collections.singleton(departmentId), Collections.singleton(userId));
+        }
+        return removed;
     }
 
     /**
@@ -116,12 +130,7 @@ public class UserDepartmentDomainService {
      */
     public List<User> getUsersByDepartmentId(Integer departmentId) {
         List<UserDepartment> relations = userDepartmentRepository.findByDepartmentId(departmentId);
-
-        return relations.stream()
-                .map(relation -> userRepository.findById(relation.getUserId()))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toList());
+        return findUsers(relations);
     }
 
     /**
@@ -133,12 +142,7 @@ public class UserDepartmentDomainService {
     public List<User> getLeadersByDepartmentId(Integer departmentId) {
         List<UserDepartment> leaderRelations =
                 userDepartmentRepository.findLeadersByDepartmentId(departmentId);
-
-        return leaderRelations.stream()
-                .map(relation -> userRepository.findById(relation.getUserId()))
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toList());
+        return findUsers(leaderRelations);
     }
 
     /**
@@ -187,7 +191,11 @@ public class UserDepartmentDomainService {
      * @return 删除的数量
      */
     public int removeAllDepartmentsForUser(Integer userId) {
-        return userDepartmentRepository.deleteByUserId(userId);
+        int deleted = userDepartmentRepository.deleteByUserId(userId);
+        if (deleted > 0) {
+            publishChanged(null, Collections.singleton(userId));
+        }
+        return deleted;
     }
 
     /**
@@ -197,6 +205,32 @@ public class UserDepartmentDomainService {
      * @return 删除的数量
      */
     public int removeAllUsersFromDepartment(Integer departmentId) {
-        return userDepartmentRepository.deleteByDepartmentId(departmentId);
+        int deleted = userDepartmentRepository.deleteByDepartmentId(departmentId);
+        if (deleted > 0) {
+            publishChanged(Collections.singleton(departmentId), null);
+        }
+        return deleted;
+    }
+
+    /**
+     * 按关系中的用户ID批量查询用户，保持关系的顺序
+     */
+    private List<User> findUsers(List<UserDepartment> relations) {
+        List<Integer> userIds = relations.stream()
+                .map(UserDepartment::getUserId)
+                .collect(Collectors.toList());
+        Map<Integer, User> usersById = userRepository.findByIds(userIds).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity(), (a, b) -> a));
+        return userIds.stream()
+                .map(usersById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 发布用户-部门关系变更事件
+     */
+    private void publishChanged(Set<Integer> departmentIds, Set<Integer> userIds) {
+        eventPublisher.publishEvent(new UserDepartmentChangedEvent(this, departmentIds, userIds));
     }
 }
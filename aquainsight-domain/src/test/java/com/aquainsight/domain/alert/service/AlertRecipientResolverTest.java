@@ -0,0 +1,157 @@
+package com.aquainsight.domain.alert.service;
+
+import com.aquainsight.domain.alert.entity.AlertRecord;
+import com.aquainsight.domain.alert.entity.AlertRule;
+import com.aquainsight.domain.alert.entity.RuleCondition;
+import com.aquainsight.domain.alert.repository.AlertRuleRepository;
+import com.aquainsight.domain.alert.types.AlertLevel;
+import com.aquainsight.domain.alert.types.AlertNotifyPlan;
+import com.aquainsight.domain.alert.types.AlertTargetType;
+import com.aquainsight.domain.alert.types.NotifyType;
+import com.aquainsight.domain.maintenance.entity.Task;
+import com.aquainsight.domain.maintenance.repository.TaskRepository;
+import com.aquainsight.domain.organization.service.OrganizationIndex;
+import com.aquainsight.domain.user.entity.User;
+import com.aquainsight.domain.user.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AlertRecipientResolverTest {
+
+    private final AlertRuleRepository alertRuleRepository = mock(AlertRuleRepository.class);
+    private final TaskRepository taskRepository = mock(TaskRepository.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final OrganizationIndex organizationIndex = mock(OrganizationIndex.class);
+    private final CompiledRuleCache compiledRuleCache = new CompiledRuleCache(alertRuleRepository);
+    private final AlertRecipientResolver resolver = new AlertRecipientResolver(compiledRuleCache,
+            alertRuleRepository, taskRepository, userRepository, organizationIndex);
+
+    @Test
+    void fetchesRuleOncePerAlertFromCacheOrRepository() {
+        when(alertRuleRepository.findAll()).thenReturn(Collections.singletonList(rule(1, "3", null)));
+        when(alertRuleRepository.findById(2)).thenReturn(Optional.of(rule(2, "4", null)));
+        givenUsers(3, 4);
+
+        assertEquals(Collections.singletonList(3), userIds(resolver.resolve(alert(1, AlertTargetType.SITE))));
+        verify(alertRuleRepository, never()).findById(anyInt());
+
+        // 编译规则缓存中没有的规则回退到仓储查询
+        assertEquals(Collections.singletonList(4), userIds(resolver.resolve(alert(2, AlertTargetType.SITE))));
+        verify(alertRuleRepository, times(1)).findById(2);
+        verify(alertRuleRepository, times(1)).findAll();
+    }
+
+    @Test
+    void reparsesRecipientsOnlyWhenRuleReloaded() {
+        AlertRule rule = rule(1, "3", null);
+        when(alertRuleRepository.findAll()).thenReturn(Collections.singletonList(rule));
+        givenUsers(3, 4, 5);
+        assertEquals(Collections.singletonList(3), userIds(resolver.resolve(alert(1, AlertTargetType.SITE))));
+
+        // 同一规则实例使用缓存的接收人
+        rule.setNotifyUsers("4");
+        assertEquals(Collections.singletonList(3), userIds(resolver.resolve(alert(1, AlertTargetType.SITE))));
+
+        when(alertRuleRepository.findAll()).thenReturn(Collections.singletonList(rule(1, "5", null)));
+        compiledRuleCache.invalidate();
+        assertEquals(Collections.singletonList(5), userIds(resolver.resolve(alert(1, AlertTargetType.SITE))));
+    }
+
+    @Test
+    void returnsUsersInConfiguredOrderFromOneQuery() {
+        when(alertRuleRepository.findAll()).thenReturn(Collections.singletonList(rule(1, "5,3,9", "7")));
+        when(organizationIndex.resolveUserIds(Collections.singletonList(7))).thenReturn(Arrays.asList(3, 8));
+        givenUsers(9, 8, 3, 5);
+
+        AlertNotifyPlan plan = resolver.resolve(alert(1, AlertTargetType.SITE));
+
+        // 部门成员排在通知人员之后，重复的用户只保留一次
+        assertEquals(Arrays.asList(5, 3, 9, 8), userIds(plan));
+        verify(userRepository, times(1)).findByIds(Arrays.asList(5, 3, 9, 8));
+    }
+
+    @Test
+    void fallsBackToTaskDepartmentWithoutConfiguredRecipients() {
+        when(alertRuleRepository.findAll()).thenReturn(Collections.singletonList(rule(1, null, null)));
+        when(taskRepository.findById(10)).thenReturn(Task.builder().id(10).departmentId(2).build());
+        when(organizationIndex.getMemberIds(2)).thenReturn(Arrays.asList(6, 7));
+        givenUsers(6, 7);
+
+        assertEquals(Arrays.asList(6, 7), userIds(resolver.resolve(alert(1, AlertTargetType.TASK))));
+
+        // 站点告警没有负责人，不查询用户
+        assertTrue(resolver.resolve(alert(1, AlertTargetType.SITE)).getRecipients().isEmpty());
+        verify(userRepository, times(1)).findByIds(any());
+    }
+
+    @Test
+    void skipsInvalidNotifyTypes() {
+        AlertRule rule = rule(1, null, null);
+        rule.setNotifyTypes("sms,fax,email");
+        when(alertRuleRepository.findAll()).thenReturn(Arrays.asList(rule, rule(2, null, null)));
+
+        assertEquals(Arrays.asList(NotifyType.SMS, NotifyType.EMAIL),
+                resolver.resolve(alert(1, AlertTargetType.SITE)).getNotifyTypes());
+        // 未配置通知方式时默认短信
+        assertEquals(Collections.singletonList(NotifyType.SMS),
+                resolver.resolve(alert(2, AlertTargetType.SITE)).getNotifyTypes());
+    }
+
+    /**
+     * 用户仓储按给定顺序返回用户，与查询的ID顺序无关
+     */
+    private void givenUsers(Integer... ids) {
+        List<User> users = new ArrayList<>();
+        for (Integer id : ids) {
+            users.add(User.builder().id(id).name("用户" + id).build());
+        }
+        when(userRepository.findByIds(any())).thenReturn(users);
+    }
+
+    private static List<Integer> userIds(AlertNotifyPlan plan) {
+        return plan.getRecipients().stream().map(User::getId).collect(Collectors.toList());
+    }
+
+    private static AlertRecord alert(Integer ruleId, AlertTargetType targetType) {
+        return AlertRecord.builder()
+                .ruleId(ruleId)
+                .targetType(targetType)
+                .targetId(10)
+                .targetName("目标10")
+                .alertLevel(AlertLevel.URGENT)
+                .alertMessage("pH超标")
+                .build();
+    }
+
+    private static AlertRule rule(int id, String notifyUsers, String notifyDepartments) {
+        return AlertRule.builder()
+                .id(id)
+                .ruleName("规则" + id)
+                .enabled(1)
+                .notifyUsers(notifyUsers)
+                .notifyDepartments(notifyDepartments)
+                .conditionConfigs(Collections.singletonList(RuleCondition.builder()
+                        .metric("site_ph")
+                        .operator(RuleCondition.ComparisonOperator.GT)
+                        .threshold(new BigDecimal("8.5"))
+                        .build()))
+                .build();
+    }
+}
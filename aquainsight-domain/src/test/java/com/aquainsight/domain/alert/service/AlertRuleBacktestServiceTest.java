@@ -0,0 +1,164 @@
+package com.aquainsight.domain.alert.service;
+
+import com.aquainsight.domain.alert.entity.AlertRule;
+import com.aquainsight.domain.alert.entity.RuleCondition;
+import com.aquainsight.domain.alert.repository.AlertRuleRepository;
+import com.aquainsight.domain.alert.types.AlertTargetType;
+import com.aquainsight.domain.alert.types.BacktestEpisode;
+import com.aquainsight.domain.alert.types.BacktestResult;
+import com.aquainsight.domain.alert.types.BacktestTargetResult;
+import com.aquainsight.domain.monitoring.entity.Factor;
+import com.aquainsight.domain.monitoring.entity.Site;
+import com.aquainsight.domain.monitoring.repository.FactorReadingRepository;
+import com.aquainsight.domain.monitoring.repository.FactorRepository;
+import com.aquainsight.domain.monitoring.repository.SiteRepository;
+import com.aquainsight.domain.monitoring.types.SeriesPointConsumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AlertRuleBacktestServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final long START_MILLIS = START.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    private static final int PH_FACTOR_ID = 7;
+
+    private final AlertRuleRepository alertRuleRepository = mock(AlertRuleRepository.class);
+    private final FactorRepository factorRepository = mock(FactorRepository.class);
+    private final SiteRepository siteRepository = mock(SiteRepository.class);
+    private final FactorReadingRepository factorReadingRepository = mock(FactorReadingRepository.class);
+
+    /**
+     * 站点ID -> 按分钟排列的pH读数，null表示该分钟没有读数
+     */
+    private final Map<Integer, Double[]> readings = new HashMap<>();
+
+    private AlertRuleBacktestService backtestService;
+
+    @BeforeEach
+    void setUp() {
+        // 每个任务最多2个站点，20个站点会被拆分到多个fork/join任务
+        backtestService = new AlertRuleBacktestService(alertRuleRepository, factorRepository, siteRepository,
+                factorReadingRepository, 64, 0.1, 20, 4, 93, 200, 2);
+        when(alertRuleRepository.findById(1)).thenReturn(Optional.of(rule(AlertTargetType.SITE, 30)));
+        when(factorRepository.findAll()).thenReturn(Collections.singletonList(
+                Factor.builder().id(PH_FACTOR_ID).factorName("pH").build()));
+        List<Site> sites = new ArrayList<>();
+        for (int siteId = 1; siteId <= 20; siteId++) {
+            sites.add(Site.builder().id(siteId).build());
+            readings.put(siteId, new Double[]{7.0, 7.2, 7.1});
+        }
+        when(siteRepository.findAll()).thenReturn(sites);
+        doAnswer(invocation -> {
+            Double[] values = readings.get(invocation.<Integer>getArgument(0));
+            SeriesPointConsumer consumer = invocation.getArgument(4);
+            for (int minute = 0; values != null && minute < values.length; minute++) {
+                if (values[minute] != null) {
+                    consumer.accept(START_MILLIS + minute * 60_000L, values[minute]);
+                }
+            }
+            return null;
+        }).when(factorReadingRepository).scanSeries(anyInt(), eq(PH_FACTOR_ID), any(), any(), any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        backtestService.shutdown();
+    }
+
+    @Test
+    void replaysEachSiteAndAppliesQuietPeriodInReplayTime() {
+        // 站点3：两段超标间隔3分钟，第二段落在30分钟静默期内只计超标不告警
+        readings.put(3, new Double[]{7.0, 9.0, 9.1, 7.0, 9.0, 7.0});
+        // 站点15：两段超标间隔40分钟，各自告警
+        Double[] site15 = new Double[41];
+        site15[0] = 9.0;
+        site15[20] = 7.0;
+        site15[40] = 9.2;
+        readings.put(15, site15);
+        // 站点20没有读数，不计入回测站点
+        readings.remove(20);
+
+        BacktestResult result = backtestService.backtest(1, START, START.plusDays(1), null);
+
+        assertEquals(19, result.getTargetCount());
+        assertEquals(17 * 3 + 6 + 3, result.getObservationCount());
+        assertEquals(4, result.getFiringCount());
+        assertEquals(3, result.getTriggerCount());
+        assertEquals(2, result.getTargets().size());
+
+        BacktestTargetResult site15Result = result.getTargets().get(0);
+        assertEquals(15, site15Result.getTargetId());
+        assertEquals(2, site15Result.getTriggerCount());
+
+        BacktestTargetResult site3Result = result.getTargets().get(1);
+        assertEquals(3, site3Result.getTargetId());
+        assertEquals(2, site3Result.getFiringCount());
+        assertEquals(1, site3Result.getTriggerCount());
+        List<BacktestEpisode> timeline = site3Result.getTimeline();
+        assertEquals(START.plusMinutes(1), timeline.get(0).getStartTime());
+        assertEquals(START.plusMinutes(3), timeline.get(0).getEndTime());
+        assertTrue(timeline.get(0).isAlerted());
+        assertEquals(START.plusMinutes(4), timeline.get(1).getStartTime());
+        assertFalse(timeline.get(1).isAlerted());
+    }
+
+    @Test
+    void replaysOnlyRequestedSites() {
+        readings.put(3, new Double[]{9.0});
+        readings.put(4, new Double[]{9.0});
+
+        BacktestResult result = backtestService.backtest(1, START, START.plusDays(1), Collections.singletonList(4));
+
+        assertEquals(1, result.getTargetCount());
+        assertEquals(1, result.getTargets().size());
+        assertEquals(4, result.getTargets().get(0).getTargetId());
+    }
+
+    @Test
+    void rejectsInvalidRequests() {
+        when(alertRuleRepository.findById(2)).thenReturn(Optional.of(rule(AlertTargetType.DEVICE, 0)));
+
+        assertThrows(IllegalArgumentException.class, () -> backtestService.backtest(1, START, START, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> backtestService.backtest(1, START, START.plusDays(94), null));
+        assertThrows(IllegalArgumentException.class,
+                () -> backtestService.backtest(2, START, START.plusDays(1), null));
+    }
+
+    private static AlertRule rule(AlertTargetType targetType, int quietPeriod) {
+        return AlertRule.builder()
+                .id(1)
+                .ruleName("pH过高")
+                .alertTargetType(targetType)
+                .enabled(0)
+                .quietPeriod(quietPeriod)
+                .conditionConfigs(Collections.singletonList(RuleCondition.builder()
+                        .metric("pH")
+                        .operator(RuleCondition.ComparisonOperator.GT)
+                        .threshold(new BigDecimal("8.5"))
+                        .build()))
+                .build();
+    }
+}
@@ -0,0 +1,108 @@
+package com.aquainsight.domain.alert.service;
+
+import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.repository.AnomalyBaselineRepository;
+import com.aquainsight.domain.alert.types.AnomalyBaseline;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AnomalyDetectorTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private final CompiledRuleCache compiledRuleCache = mock(CompiledRuleCache.class);
+    private final AnomalyBaselineRepository anomalyBaselineRepository = mock(AnomalyBaselineRepository.class);
+    private final AnomalyDetector anomalyDetector =
+            new AnomalyDetector(compiledRuleCache, anomalyBaselineRepository, 0.01, 20);
+
+    @BeforeEach
+    void setUp() {
+        when(compiledRuleCache.isAnomalyTracked("site_ph")).thenReturn(true);
+    }
+
+    @Test
+    void tracksOnlyMetricsReferencedByAnomalyConditions() {
+        anomalyDetector.observe(metric("site_cod", 1, 0, 10));
+        anomalyDetector.observe(metric("site_ph", 1, 0, 7));
+
+        assertEquals(1, anomalyDetector.getSeriesCount());
+        assertTrue(Double.isNaN(anomalyDetector.score("site_cod", 1)));
+    }
+
+    @Test
+    void scoresEachTargetSeparately() {
+        for (int i = 0; i < 20; i++) {
+            anomalyDetector.observe(metric("site_ph", 1, i, i % 2 == 0 ? 9 : 11));
+            anomalyDetector.observe(metric("site_ph", 2, i, 7));
+        }
+
+        anomalyDetector.observe(metric("site_ph", 1, 20, 13));
+
+        assertEquals(3.0, anomalyDetector.score("site_ph", 1), 1e-9);
+        assertTrue(Double.isNaN(anomalyDetector.score("site_ph", 2)));
+    }
+
+    @Test
+    void restoresCheckpointAndToleratesLoadFailure() {
+        when(anomalyBaselineRepository.load()).thenReturn(Collections.singletonMap("site_ph",
+                Collections.singletonMap(1, new AnomalyBaseline(10, 1, 100, 0))));
+
+        anomalyDetector.restore();
+        anomalyDetector.observe(metric("site_ph", 1, 1, 13));
+
+        assertEquals(3.0, anomalyDetector.score("site_ph", 1), 1e-9);
+
+        AnomalyDetector fresh = new AnomalyDetector(compiledRuleCache, anomalyBaselineRepository, 0.01, 20);
+        when(anomalyBaselineRepository.load()).thenThrow(new IllegalStateException("检查点格式错误"));
+        fresh.restore();
+        assertEquals(0, fresh.getSeriesCount());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void checkpointsOnlyWhenDirtyAndRetriesAfterFailure() {
+        anomalyDetector.checkpoint();
+        verify(anomalyBaselineRepository, never()).save(any());
+
+        anomalyDetector.observe(metric("site_ph", 1, 0, 7));
+        doThrow(new IllegalStateException("磁盘已满")).doNothing()
+                .when(anomalyBaselineRepository).save(any(Map.class));
+        anomalyDetector.checkpoint();
+        anomalyDetector.checkpoint();
+        anomalyDetector.checkpoint();
+
+        // 失败后保持待写入，下一次写入成功后不再重复写入
+        verify(anomalyBaselineRepository, times(2)).save(any());
+    }
+
+    @Test
+    void rejectsInvalidAlpha() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new AnomalyDetector(compiledRuleCache, anomalyBaselineRepository, 0, 20));
+    }
+
+    private static Metric metric(String name, int targetId, int minute, double value) {
+        Metric metric = new Metric();
+        metric.setName(name);
+        metric.setTargetId(targetId);
+        metric.setValue(BigDecimal.valueOf(value));
+        metric.setCollectTime(START.plusMinutes(minute));
+        return metric;
+    }
+}
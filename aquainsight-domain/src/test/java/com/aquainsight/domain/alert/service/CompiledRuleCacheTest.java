@@ -0,0 +1,122 @@
+package com.aquainsight.domain.alert.service;
+
+import com.aquainsight.domain.alert.entity.AlertRule;
+import com.aquainsight.domain.alert.entity.RuleCondition;
+import com.aquainsight.domain.alert.repository.AlertRuleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class CompiledRuleCacheTest {
+
+    private final AlertRuleRepository alertRuleRepository = mock(AlertRuleRepository.class);
+    private final CompiledRuleCache cache = new CompiledRuleCache(alertRuleRepository);
+
+    @Test
+    void loadsOnceUntilInvalidated() {
+        when(alertRuleRepository.findAll()).thenReturn(rules(rule(1, 1)));
+
+        assertEquals(1, cache.getEnabledRules().size());
+        assertTrue(cache.getRule(1).isPresent());
+        assertEquals(1, cache.getRulesByMetric("site_ph").size());
+        verify(alertRuleRepository, times(1)).findAll();
+
+        when(alertRuleRepository.findAll()).thenReturn(rules(rule(1, 0)));
+        cache.invalidate();
+
+        assertTrue(cache.getEnabledRules().isEmpty());
+        assertFalse(cache.getRule(1).get().isEvaluable());
+        verify(alertRuleRepository, times(2)).findAll();
+    }
+
+    @Test
+    void readersUseCurrentRulesWhileReloading() throws Exception {
+        when(alertRuleRepository.findAll()).thenReturn(rules(rule(1, 1)));
+        assertEquals(1, cache.getEnabledRules().size());
+
+        CountDownLatch reloading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(alertRuleRepository.findAll()).thenAnswer(invocation -> {
+            reloading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return rules(rule(1, 1), rule(2, 1));
+        });
+        cache.invalidate();
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> loader = executor.submit(() -> cache.getEnabledRules().size());
+            assertTrue(reloading.await(5, TimeUnit.SECONDS));
+
+            // 加载线程阻塞在仓储中，其他调用方不等待，继续使用上次加载的规则
+            assertEquals(1, cache.getEnabledRules().size());
+            assertFalse(cache.getRule(2).isPresent());
+
+            release.countDown();
+            assertEquals(2, loader.get(5, TimeUnit.SECONDS).intValue());
+            assertTrue(cache.getRule(2).isPresent());
+            verify(alertRuleRepository, times(2)).findAll();
+        } finally {
+            release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void keepsPreviousRulesWhenReloadFails() {
+        when(alertRuleRepository.findAll()).thenReturn(rules(rule(1, 1)));
+        assertEquals(1, cache.getEnabledRules().size());
+
+        when(alertRuleRepository.findAll()).thenThrow(new IllegalStateException("数据库不可用"));
+        cache.invalidate();
+
+        assertEquals(1, cache.getEnabledRules().size());
+    }
+
+    @Test
+    void invalidationDuringLoadMarksResultStale() {
+        when(alertRuleRepository.findAll()).thenAnswer(invocation -> {
+            // 加载期间其他事务提交了规则变更
+            cache.invalidate();
+            return rules(rule(1, 1));
+        }).thenReturn(rules(rule(1, 1), rule(2, 1)));
+
+        assertEquals(1, cache.getEnabledRules().size());
+        assertEquals(2, cache.getEnabledRules().size());
+    }
+
+    private static List<AlertRule> rules(AlertRule... rules) {
+        List<AlertRule> list = new ArrayList<>();
+        Collections.addAll(list, rules);
+        return list;
+    }
+
+    private static AlertRule rule(int id, int enabled) {
+        return AlertRule.builder()
+                .id(id)
+                .ruleName("规则" + id)
+                .enabled(enabled)
+                .conditionConfigs(Collections.singletonList(RuleCondition.builder()
+                        .metric("site_ph")
+                        .operator(RuleCondition.ComparisonOperator.GT)
+                        .threshold(new BigDecimal("8.5"))
+                        .build()))
+                .build();
+    }
+}
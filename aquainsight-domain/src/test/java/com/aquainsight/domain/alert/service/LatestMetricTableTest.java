@@ -0,0 +1,142 @@
+package com.aquainsight.domain.alert.service;
+
+import com.aquainsight.domain.alert.entity.Metric;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatestMetricTableTest {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final LatestMetricTable table = new LatestMetricTable(100);
+
+    @Test
+    void ignoresOlderObservations() {
+        LocalDateTime now = LocalDateTime.now();
+        table.update(metric("pH值", 1, 7.2, now));
+        table.update(metric("pH值", 1, 6.0, now.minusMinutes(1)));
+        table.update(metric("pH值", 2, 8.1, now.minusMinutes(5)));
+
+        List<Metric> metrics = table.collect("pH值", 0);
+
+        assertEquals(2, metrics.size());
+        assertEquals(1, metrics.get(0).getTargetId());
+        assertEquals(0, new BigDecimal("7.2").compareTo(metrics.get(0).getValue()));
+        assertEquals(now.withNano(now.getNano() / 1_000_000 * 1_000_000), metrics.get(0).getCollectTime());
+        assertEquals("site", metrics.get(0).getTargetType());
+        assertEquals(2, table.getSeriesCount());
+    }
+
+    @Test
+    void excludesStaleObservations() {
+        LocalDateTime now = LocalDateTime.now();
+        table.update(metric("氨氮", 1, 0.5, now.minusMinutes(10)));
+        table.update(metric("氨氮", 2, 0.6, now.minusMinutes(40)));
+
+        assertEquals(1, table.collect("氨氮", TimeUnit.MINUTES.toMillis(30)).size());
+        assertEquals(1, table.collect("氨氮", TimeUnit.MINUTES.toMillis(30)).get(0).getTargetId());
+        // 不限时效时返回全部
+        assertEquals(2, table.collect("氨氮", 0).size());
+        assertTrue(table.collect("总磷", 0).isEmpty());
+        assertFalse(table.contains("总磷"));
+    }
+
+    @Test
+    void dropsNewSeriesWhenFull() {
+        LatestMetricTable small = new LatestMetricTable(2);
+        LocalDateTime now = LocalDateTime.now();
+
+        small.update(metric("pH值", 1, 7.0, now));
+        small.update(metric("pH值", 2, 7.1, now));
+        small.update(metric("pH值", 3, 7.2, now));
+        small.update(metric("浊度", 1, 3.0, now));
+        // 已分配的序列继续更新
+        small.update(metric("pH值", 1, 7.5, now.plusSeconds(1)));
+
+        assertEquals(2, small.getSeriesCount());
+        assertEquals(2, small.collect("pH值", 0).size());
+        assertEquals(0, new BigDecimal("7.5").compareTo(small.collect("pH值", 0).get(0).getValue()));
+        assertTrue(small.collect("浊度", 0).isEmpty());
+    }
+
+    @Test
+    void readersNeverSeeTornValueAndTime() throws Exception {
+        int targets = 8;
+        int writers = 4;
+        int readers = 4;
+        long base = System.currentTimeMillis();
+        ExecutorService executor = Executors.newFixedThreadPool(writers + readers);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        try {
+            List<Future<?>> writerFutures = new ArrayList<>();
+            for (int w = 0; w < writers; w++) {
+                int writer = w;
+                writerFutures.add(executor.submit(() -> {
+                    start.await();
+                    // 值与采集时间一一对应，读到不一致的组合即为撕裂读
+                    for (int i = 0; i < 20_000; i++) {
+                        long millis = base + i * writers + writer;
+                        LocalDateTime time = LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZONE);
+                        table.update(metric("流量", i % targets, millis - base, time));
+                    }
+                    return null;
+                }));
+            }
+            List<Future<Integer>> readerFutures = new ArrayList<>();
+            for (int r = 0; r < readers; r++) {
+                readerFutures.add(executor.submit(() -> {
+                    start.await();
+                    int torn = 0;
+                    while (writing.get()) {
+                        for (Metric metric : table.collect("流量", 0)) {
+                            long millis = metric.getCollectTime().atZone(ZONE).toInstant().toEpochMilli();
+                            if (metric.getValue().longValue() != millis - base) {
+                                torn++;
+                            }
+                        }
+                    }
+                    return torn;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : writerFutures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+            writing.set(false);
+            for (Future<Integer> future : readerFutures) {
+                assertEquals(0, future.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(targets, table.collect("流量", 0).size());
+    }
+
+    private static Metric metric(String name, int targetId, double value, LocalDateTime collectTime) {
+        Metric metric = new Metric();
+        metric.setName(name);
+        metric.setTargetType("site");
+        metric.setTargetId(targetId);
+        metric.setValue(BigDecimal.valueOf(value));
+        metric.setCollectTime(collectTime);
+        return metric;
+    }
+}
@@ -0,0 +1,115 @@
+package com.aquainsight.domain.alert.service;
+
+import com.aquainsight.domain.alert.entity.AlertNotifyLog;
+import com.aquainsight.domain.alert.repository.AlertNotifyLogRepository;
+import com.aquainsight.domain.alert.types.NotifyType;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class NotificationDispatcherTest {
+
+    private final NotifyChannel channel = mock(NotifyChannel.class);
+
+    @Test
+    void errorDuringProbeReopensCircuit() {
+        // 熔断期为0，熔断后下一批立即作为试探请求放行
+        NotificationDispatcher dispatcher = dispatcher(1, 0);
+        when(channel.send(any(), anyList(), anyString()))
+                .thenThrow(new IllegalStateException("网关超时"))
+                .thenThrow(new LinkageError("渠道SDK加载失败"));
+
+        dispatcher.send(logs("13800000001"));
+        assertThrows(LinkageError.class, () -> dispatcher.send(logs("13800000001")));
+
+        // 试探请求以Error结束也要报告失败，否则熔断器停在试探中，渠道永远不可用
+        assertTrue(dispatcher.getAvailableNotifyTypes().contains(NotifyType.SMS));
+    }
+
+    @Test
+    void batchWithAllTargetsFailedCountsAsChannelFailure() {
+        NotificationDispatcher dispatcher = dispatcher(1, 60);
+        Map<String, String> failures = new HashMap<>();
+        failures.put("13800000001", "号码停机");
+        failures.put("13800000002", "号码停机");
+        when(channel.send(any(), anyList(), anyString())).thenReturn(failures);
+
+        List<AlertNotifyLog> notifyLogs = logs("13800000001", "13800000002");
+        dispatcher.send(notifyLogs);
+
+        assertTrue(notifyLogs.stream().allMatch(AlertNotifyLog::isFailed));
+        assertFalse(dispatcher.getAvailableNotifyTypes().contains(NotifyType.SMS));
+    }
+
+    @Test
+    void batchWithSomeTargetsFailedCountsAsChannelSuccess() {
+        NotificationDispatcher dispatcher = dispatcher(1, 60);
+        when(channel.send(any(), anyList(), anyString()))
+                .thenReturn(Collections.singletonMap("13800000001", "号码停机"));
+
+        List<AlertNotifyLog> notifyLogs = logs("13800000001", "13800000002");
+        dispatcher.send(notifyLogs);
+
+        assertTrue(notifyLogs.get(0).isFailed());
+        assertTrue(notifyLogs.get(1).isSuccess());
+        assertTrue(dispatcher.getAvailableNotifyTypes().contains(NotifyType.SMS));
+    }
+
+    @Test
+    void groupsSameContentIntoChannelSizedBatches() {
+        NotificationDispatcher dispatcher = dispatcher(5, 60);
+        when(channel.getMaxBatchSize()).thenReturn(2);
+        when(channel.send(any(), anyList(), anyString())).thenReturn(Collections.emptyMap());
+
+        List<AlertNotifyLog> notifyLogs = logs("13800000001", "13800000002", "13800000003");
+        notifyLogs.add(AlertNotifyLog.create(2, NotifyType.SMS, "13800000004", null, null, "浊度超标"));
+        notifyLogs.add(AlertNotifyLog.create(2, NotifyType.EMAIL, "ops@example.com", null, null, "浊度超标"));
+        dispatcher.send(notifyLogs);
+
+        verify(channel).send(NotifyType.SMS, Arrays.asList("13800000001", "13800000002"), "pH超标");
+        verify(channel).send(NotifyType.SMS, Collections.singletonList("13800000003"), "pH超标");
+        verify(channel).send(NotifyType.SMS, Collections.singletonList("13800000004"), "浊度超标");
+        verify(channel, times(3)).send(any(), anyList(), anyString());
+        assertTrue(notifyLogs.subList(0, 4).stream().allMatch(AlertNotifyLog::isSuccess));
+        // 没有渠道支持邮件，直接标记失败并安排重试
+        assertTrue(notifyLogs.get(4).isFailed());
+        assertNotNull(notifyLogs.get(4).getNextRetryTime());
+    }
+
+    @SuppressWarnings("unchecked")
+    private NotificationDispatcher dispatcher(int failureThreshold, long openSeconds) {
+        when(channel.supports(NotifyType.SMS)).thenReturn(true);
+        when(channel.getMaxBatchSize()).thenReturn(100);
+        ObjectProvider<NotifyChannel> provider = mock(ObjectProvider.class);
+        when(provider.orderedStream()).thenAnswer(invocation -> Stream.of(channel));
+        return new NotificationDispatcher(mock(AlertNotifyLogRepository.class), provider,
+                100, 1000, 1000, 60, 3600, failureThreshold, openSeconds);
+    }
+
+    private static List<AlertNotifyLog> logs(String... targets) {
+        List<AlertNotifyLog> notifyLogs = new ArrayList<>();
+        for (String target : Arrays.asList(targets)) {
+            notifyLogs.add(AlertNotifyLog.create(1, NotifyType.SMS, target, null, null, "pH超标"));
+        }
+        return notifyLogs;
+    }
+}
@@ -0,0 +1,44 @@
+package com.aquainsight.domain.alert.service;
+
+import com.aquainsight.domain.alert.entity.RuleCondition;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+
+class SeriesBufferStoreTest {
+
+    private final SeriesBufferStore store = new SeriesBufferStore(mock(CompiledRuleCache.class), 64, 100, 5);
+
+    @Test
+    void acceptsWindowsCoveredBySeries() {
+        assertEquals(315, store.getMaxDurationMinutes());
+        assertDoesNotThrow(() -> store.validateWindow(condition(315, null, null)));
+        assertDoesNotThrow(() -> store.validateWindow(condition(null, 64, 3)));
+    }
+
+    @Test
+    void rejectsWindowLargerThanCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> store.validateWindow(condition(null, 65, 3)));
+    }
+
+    @Test
+    void rejectsDurationLongerThanSeriesSpan() {
+        assertThrows(IllegalArgumentException.class, () -> store.validateWindow(condition(316, null, null)));
+    }
+
+    private static RuleCondition condition(Integer durationMinutes, Integer windowSamples, Integer minMatchedSamples) {
+        return RuleCondition.builder()
+                .metric("site_ph")
+                .operator(RuleCondition.ComparisonOperator.LT)
+                .threshold(new BigDecimal("6"))
+                .durationMinutes(durationMinutes)
+                .windowSamples(windowSamples)
+                .minMatchedSamples(minMatchedSamples)
+                .build();
+    }
+}
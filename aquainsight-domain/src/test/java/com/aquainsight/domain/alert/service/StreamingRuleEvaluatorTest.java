@@ -0,0 +1,109 @@
+package com.aquainsight.domain.alert.service;
+
+import com.aquainsight.domain.alert.entity.AlertRule;
+import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.entity.RuleCondition;
+import com.aquainsight.domain.alert.repository.AlertRuleRepository;
+import com.aquainsight.domain.alert.types.RuleEvaluationResult;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StreamingRuleEvaluatorTest {
+
+    private final AlertRuleRepository alertRuleRepository = mock(AlertRuleRepository.class);
+    private final CompiledRuleCache compiledRuleCache = new CompiledRuleCache(alertRuleRepository);
+    private final RuleSeriesState ruleSeriesState = mock(RuleSeriesState.class);
+
+    @BeforeEach
+    void setUp() {
+        when(alertRuleRepository.findAll()).thenReturn(Collections.singletonList(AlertRule.builder()
+                .id(1)
+                .ruleName("pH过高")
+                .enabled(1)
+                .conditionConfigs(Collections.singletonList(RuleCondition.builder()
+                        .metric("site_ph")
+                        .operator(RuleCondition.ComparisonOperator.GT)
+                        .threshold(new BigDecimal("8.5"))
+                        .build()))
+                .build()));
+    }
+
+    @Test
+    void firesOnceWhileConditionHolds() {
+        StreamingRuleEvaluator evaluator = evaluator(100);
+
+        assertEquals(1, evaluator.onMetric(metric(7, "9.0")).size());
+        assertTrue(evaluator.onMetric(metric(7, "9.5")).isEmpty());
+        assertEquals(1, evaluator.getFiringCount());
+
+        assertTrue(evaluator.onMetric(metric(7, "7.0")).isEmpty());
+        assertEquals(0, evaluator.getFiringCount());
+        assertEquals(1, evaluator.onMetric(metric(7, "9.0")).size());
+    }
+
+    @Test
+    void clearedResultFiresAgain() {
+        StreamingRuleEvaluator evaluator = evaluator(100);
+        List<RuleEvaluationResult> results = evaluator.onMetric(metric(7, "9.0"));
+        assertEquals(1, results.size());
+
+        // 告警写入失败后清除触发状态，条件仍满足时重新产生结果
+        evaluator.clearFiring(results);
+
+        assertEquals(0, evaluator.getFiringCount());
+        assertEquals(1, evaluator.onMetric(metric(7, "9.2")).size());
+    }
+
+    @Test
+    void rejectsNewTargetsPastLimit() {
+        StreamingRuleEvaluator evaluator = evaluator(2);
+
+        assertEquals(1, evaluator.onMetric(metric(1, "9.0")).size());
+        assertEquals(1, evaluator.onMetric(metric(2, "9.0")).size());
+        assertTrue(evaluator.onMetric(metric(3, "9.0")).isEmpty());
+
+        assertEquals(2, evaluator.getLatestMetricCount());
+        assertEquals(1, evaluator.getRejectedTargetCount());
+        // 已记录的目标继续更新
+        assertTrue(evaluator.onMetric(metric(1, "7.0")).isEmpty());
+        assertEquals(1, evaluator.getFiringCount());
+    }
+
+    @Test
+    void sweepEvictsStaleTargets() {
+        StreamingRuleEvaluator evaluator = evaluator(2);
+        evaluator.onMetric(metric(1, "9.0"));
+        evaluator.onMetric(metric(2, "9.0"));
+
+        evaluator.sweep(System.currentTimeMillis() + TimeUnit.MINUTES.toMillis(61));
+
+        assertEquals(0, evaluator.getLatestMetricCount());
+        assertEquals(0, evaluator.getFiringCount());
+        assertEquals(1, evaluator.onMetric(metric(3, "9.0")).size());
+    }
+
+    private StreamingRuleEvaluator evaluator(int maxLatestMetrics) {
+        return new StreamingRuleEvaluator(compiledRuleCache, ruleSeriesState, 60, maxLatestMetrics);
+    }
+
+    private static Metric metric(int targetId, String value) {
+        Metric metric = new Metric();
+        metric.setName("site_ph");
+        metric.setTargetType("SITE");
+        metric.setTargetId(targetId);
+        metric.setValue(new BigDecimal(value));
+        metric.setCollectTime(LocalDateTime.now());
+        return metric;
+    }
+}
@@ -0,0 +1,59 @@
+package com.aquainsight.domain.alert.service.impl;
+
+import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.service.LatestMetricTable;
+import com.aquainsight.domain.monitoring.entity.Device;
+import com.aquainsight.domain.monitoring.repository.DeviceRepository;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DeviceMetricCollectorTest {
+
+    private final LatestMetricTable latestMetricTable = new LatestMetricTable(100);
+    private final DeviceRepository deviceRepository = mock(DeviceRepository.class);
+    private final DeviceMetricCollector collector = new DeviceMetricCollector(latestMetricTable, deviceRepository);
+
+    @Test
+    void collectsStatusLoadedAtStartupAndUpdatedOnChange() {
+        when(deviceRepository.findAll()).thenReturn(Arrays.asList(
+                Device.builder().id(1).status(1).build(),
+                Device.builder().id(2).status(2).build(),
+                Device.builder().id(3).build()));
+        collector.loadDeviceStatus();
+
+        assertEquals(Arrays.asList("1=1", "2=2"), values(collector.collectAll("设备状态")));
+        assertEquals(Arrays.asList("1=1", "2=0"), values(collector.collectAll("设备在线")));
+        assertEquals(Arrays.asList("1=0", "2=1"), values(collector.collectAll("设备故障")));
+
+        // 状态类指标不设时效，较早的变更不覆盖当前状态
+        collector.recordStatus(1, 0, LocalDateTime.now().plusSeconds(1));
+        collector.recordStatus(2, 1, LocalDateTime.now().minusDays(1));
+
+        assertEquals(Arrays.asList("1=0", "2=2"), values(collector.collectAll("设备状态")));
+        assertEquals("device", collector.collectAll("设备状态").get(0).getTargetType());
+    }
+
+    @Test
+    void returnsNothingForUnsupportedMetrics() {
+        collector.recordStatus(1, 1, LocalDateTime.now());
+
+        assertTrue(collector.collectAll("设备电压").isEmpty());
+        assertTrue(collector.collectAll("pH值").isEmpty());
+    }
+
+    private static List<String> values(List<Metric> metrics) {
+        String[] values = new String[metrics.size()];
+        for (int i = 0; i < metrics.size(); i++) {
+            values[i] = metrics.get(i).getTargetId() + "=" + metrics.get(i).getValue().intValue();
+        }
+        return Arrays.asList(values);
+    }
+}
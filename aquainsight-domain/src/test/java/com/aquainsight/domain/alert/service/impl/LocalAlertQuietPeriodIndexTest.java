@@ -0,0 +1,76 @@
+package com.aquainsight.domain.alert.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalAlertQuietPeriodIndexTest {
+
+    private static final long MINUTE = 60_000L;
+    private static final long T0 = 1_700_000_000_000L;
+
+    private final LocalAlertQuietPeriodIndex index = new LocalAlertQuietPeriodIndex();
+
+    @Test
+    void acquiresOnlyOutsideQuietPeriod() {
+        assertTrue(index.tryAcquire(1, "site", 3, T0, 30));
+
+        assertFalse(index.tryAcquire(1, "site", 3, T0 + 29 * MINUTE, 30));
+        // 不同规则或目标互不影响
+        assertTrue(index.tryAcquire(2, "site", 3, T0, 30));
+        assertTrue(index.tryAcquire(1, "device", 3, T0, 30));
+
+        // 静默期结束后重新登记，新的静默期从本次告警开始
+        assertTrue(index.tryAcquire(1, "site", 3, T0 + 30 * MINUTE, 30));
+        assertFalse(index.tryAcquire(1, "site", 3, T0 + 59 * MINUTE, 30));
+        // 规则缩短静默期后立即按新的静默期判断
+        assertTrue(index.tryAcquire(1, "site", 3, T0 + 40 * MINUTE, 10));
+    }
+
+    @Test
+    void releaseAllowsImmediateRetry() {
+        assertTrue(index.tryAcquire(1, "site", 3, T0, 30));
+
+        index.release(1, "site", 3);
+
+        assertTrue(index.tryAcquire(1, "site", 3, T0 + MINUTE, 30));
+    }
+
+    @Test
+    void recordKeepsLatestAlertTime() {
+        index.record(1, "site", 3, T0, 30);
+        index.record(1, "site", 3, T0 - 20 * MINUTE, 30);
+
+        assertFalse(index.tryAcquire(1, "site", 3, T0 + 29 * MINUTE, 30));
+        assertTrue(index.tryAcquire(1, "site", 3, T0 + 30 * MINUTE, 30));
+    }
+
+    @Test
+    void evictsExpiredEntriesEvery1024Writes() {
+        assertTrue(index.tryAcquire(0, "site", 0, T0, 1));
+        for (int targetId = 1; targetId < 1023; targetId++) {
+            assertTrue(index.tryAcquire(1, "site", targetId, T0 + 2 * MINUTE, 10));
+        }
+        assertEquals(1023, index.size());
+
+        // 第1024次写入按本次告警时间清理过期条目，静默期内的条目保留
+        assertFalse(index.tryAcquire(1, "site", 1, T0 + 3 * MINUTE, 10));
+
+        assertEquals(1022, index.size());
+    }
+
+    @Test
+    void evictsRecordedEntriesPastTtl() {
+        long now = System.currentTimeMillis();
+        index.record(1, "site", 0, now - 60 * MINUTE, 30);
+        for (int targetId = 1; targetId < 1024; targetId++) {
+            index.record(1, "site", targetId, now, 30);
+        }
+
+        // 预热写入按当前时间清理，静默期已结束的告警不保留
+        assertEquals(1023, index.size());
+        assertTrue(index.tryAcquire(1, "site", 0, now, 30));
+    }
+}
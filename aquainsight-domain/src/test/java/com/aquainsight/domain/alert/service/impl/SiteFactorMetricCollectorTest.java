@@ -0,0 +1,52 @@
+package com.aquainsight.domain.alert.service.impl;
+
+import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.service.LatestMetricTable;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SiteFactorMetricCollectorTest {
+
+    private final LatestMetricTable latestMetricTable = new LatestMetricTable(100);
+    private final SiteFactorMetricCollector collector = new SiteFactorMetricCollector(latestMetricTable, 30);
+
+    @Test
+    void collectsFreshReadingsFromTable() {
+        LocalDateTime now = LocalDateTime.now();
+        latestMetricTable.update(metric(1, 7.1, now.minusMinutes(1)));
+        latestMetricTable.update(metric(2, 7.4, now.minusMinutes(29)));
+        latestMetricTable.update(metric(3, 6.9, now.minusMinutes(31)));
+
+        List<Metric> metrics = collector.collectAll("pH值");
+
+        assertEquals(2, metrics.size());
+        assertEquals(1, metrics.get(0).getTargetId());
+        assertEquals(0, new BigDecimal("7.1").compareTo(metrics.get(0).getValue()));
+        assertEquals(2, metrics.get(1).getTargetId());
+        assertTrue(collector.collectAll("氨氮").isEmpty());
+    }
+
+    @Test
+    void supportsSiteFactorsExceptDataCompleteness() {
+        assertTrue(collector.supports("pH值"));
+        assertFalse(collector.supports(DataCompletenessMetricCollector.METRIC_NAME));
+        assertFalse(collector.supports("设备状态"));
+    }
+
+    private static Metric metric(int siteId, double value, LocalDateTime collectTime) {
+        Metric metric = new Metric();
+        metric.setName("pH值");
+        metric.setTargetType("site");
+        metric.setTargetId(siteId);
+        metric.setValue(BigDecimal.valueOf(value));
+        metric.setCollectTime(collectTime);
+        return metric;
+    }
+}
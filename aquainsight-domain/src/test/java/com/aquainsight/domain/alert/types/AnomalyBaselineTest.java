@@ -0,0 +1,105 @@
+package com.aquainsight.domain.alert.types;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnomalyBaselineTest {
+
+    private static final double ALPHA = 0.01;
+    private static final int WARMUP = 20;
+
+    private final AnomalyBaseline baseline = new AnomalyBaseline();
+    private long timestamp;
+
+    @Test
+    void convergesToCumulativeMeanAndVarianceDuringWarmup() {
+        for (int value = 1; value <= 5; value++) {
+            observe(value);
+            // 预热期间不判定异常
+            assertTrue(Double.isNaN(baseline.getLastScore()));
+        }
+
+        // 预热期间按累计平均收敛，等价于1..5的均值和总体方差
+        assertEquals(3.0, baseline.getMean(), 1e-12);
+        assertEquals(2.0, baseline.getVariance(), 1e-12);
+        assertEquals(5, baseline.getCount());
+    }
+
+    @Test
+    void scoresAgainstKnownSeries() {
+        warmUpAlternating();
+
+        observe(13);
+
+        assertEquals(3.0, baseline.getLastScore(), 1e-9);
+    }
+
+    @Test
+    void clampsOutliersAtFourSigmaWhenUpdating() {
+        warmUpAlternating();
+
+        observe(110);
+
+        assertEquals(100.0, baseline.getLastScore(), 1e-9);
+        // 按截断值14更新，而不是110
+        assertEquals(10 + 4.0 / 21, baseline.getMean(), 1e-9);
+    }
+
+    @Test
+    void ignoresOutOfOrderSamples() {
+        warmUpAlternating();
+        observe(13);
+        long count = baseline.getCount();
+        double mean = baseline.getMean();
+
+        assertFalse(baseline.observe(timestamp, 50, ALPHA, WARMUP));
+        assertFalse(baseline.observe(timestamp - 1000, 50, ALPHA, WARMUP));
+
+        assertEquals(count, baseline.getCount());
+        assertEquals(mean, baseline.getMean());
+        assertEquals(3.0, baseline.getLastScore(), 1e-9);
+    }
+
+    @Test
+    void flatSeriesDoesNotFireOnSmallestStep() {
+        for (int i = 0; i < WARMUP; i++) {
+            observe(7.00);
+        }
+        assertEquals(0.0, baseline.getVariance());
+
+        observe(7.01);
+
+        // 标准差下限为均值的1%，变化0.01时z分数约0.14
+        assertEquals(0.01 / 0.07, baseline.getLastScore(), 1e-9);
+    }
+
+    @Test
+    void flatZeroSeriesUsesAbsoluteStdFloor() {
+        for (int i = 0; i < WARMUP; i++) {
+            observe(0);
+        }
+
+        observe(0.01);
+
+        assertEquals(1.0, baseline.getLastScore(), 1e-9);
+    }
+
+    /**
+     * 交替观测9和11共20个采样，基线就绪时均值为10、方差为1
+     */
+    private void warmUpAlternating() {
+        for (int i = 0; i < WARMUP; i++) {
+            observe(i % 2 == 0 ? 9 : 11);
+        }
+        assertEquals(10.0, baseline.getMean(), 1e-9);
+        assertEquals(1.0, baseline.getVariance(), 1e-9);
+    }
+
+    private void observe(double value) {
+        timestamp += 60_000L;
+        assertTrue(baseline.observe(timestamp, value, ALPHA, WARMUP));
+    }
+}
@@ -0,0 +1,75 @@
+package com.aquainsight.domain.alert.types;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_NANOS = 1_000L;
+
+    private final CircuitBreaker circuitBreaker = new CircuitBreaker(3, OPEN_NANOS);
+
+    @Test
+    void opensAfterConsecutiveFailuresReachThreshold() {
+        assertFalse(circuitBreaker.onFailure(0));
+        assertFalse(circuitBreaker.onFailure(0));
+        assertTrue(circuitBreaker.onFailure(0));
+
+        assertTrue(circuitBreaker.isRejecting(OPEN_NANOS - 1));
+        assertFalse(circuitBreaker.tryAcquire(OPEN_NANOS - 1));
+    }
+
+    @Test
+    void successResetsConsecutiveFailures() {
+        circuitBreaker.onFailure(0);
+        circuitBreaker.onFailure(0);
+        circuitBreaker.onSuccess();
+
+        assertFalse(circuitBreaker.onFailure(0));
+        assertFalse(circuitBreaker.isRejecting(0));
+    }
+
+    @Test
+    void allowsSingleProbeAfterOpenPeriod() {
+        open();
+
+        assertFalse(circuitBreaker.isRejecting(OPEN_NANOS));
+        assertTrue(circuitBreaker.tryAcquire(OPEN_NANOS));
+        // 试探请求返回前不再放行
+        assertTrue(circuitBreaker.isRejecting(OPEN_NANOS));
+        assertFalse(circuitBreaker.tryAcquire(OPEN_NANOS));
+    }
+
+    @Test
+    void probeSuccessCloses() {
+        open();
+        circuitBreaker.tryAcquire(OPEN_NANOS);
+
+        circuitBreaker.onSuccess();
+
+        assertFalse(circuitBreaker.isRejecting(OPEN_NANOS));
+        assertTrue(circuitBreaker.tryAcquire(OPEN_NANOS));
+        assertTrue(circuitBreaker.tryAcquire(OPEN_NANOS));
+    }
+
+    @Test
+    void probeFailureReopens() {
+        open();
+        circuitBreaker.tryAcquire(OPEN_NANOS);
+
+        // 试探失败一次即重新熔断，不需要再次达到阈值
+        assertTrue(circuitBreaker.onFailure(OPEN_NANOS));
+
+        assertTrue(circuitBreaker.isRejecting(2 * OPEN_NANOS - 1));
+        assertFalse(circuitBreaker.tryAcquire(2 * OPEN_NANOS - 1));
+        assertTrue(circuitBreaker.tryAcquire(2 * OPEN_NANOS));
+    }
+
+    private void open() {
+        for (int i = 0; i < 3; i++) {
+            circuitBreaker.onFailure(0);
+        }
+    }
+}
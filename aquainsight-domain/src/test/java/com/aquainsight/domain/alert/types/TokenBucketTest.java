@@ -0,0 +1,55 @@
+package com.aquainsight.domain.alert.types;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TokenBucketTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    void allowsBurstUpToCapacity() {
+        TokenBucket tokenBucket = new TokenBucket(10, 20, 0);
+
+        assertEquals(0, tokenBucket.reserve(20, 0));
+        // 令牌用尽后按补充速率计算等待时长：1个令牌需要0.1秒
+        assertEquals(SECOND / 10, tokenBucket.reserve(1, 0));
+    }
+
+    @Test
+    void reservationsQueueBehindEachOther() {
+        TokenBucket tokenBucket = new TokenBucket(10, 10, 0);
+        tokenBucket.reserve(10, 0);
+
+        assertEquals(SECOND / 2, tokenBucket.reserve(5, 0));
+        assertEquals(SECOND, tokenBucket.reserve(5, 0));
+    }
+
+    @Test
+    void refillsOverTimeWithoutExceedingCapacity() {
+        TokenBucket tokenBucket = new TokenBucket(10, 10, 0);
+        tokenBucket.reserve(10, 0);
+
+        assertEquals(0, tokenBucket.reserve(5, SECOND / 2));
+        // 空闲再久也只能累积到容量上限
+        assertEquals(0, tokenBucket.reserve(10, 100 * SECOND));
+        assertEquals(SECOND / 10, tokenBucket.reserve(1, 100 * SECOND));
+    }
+
+    @Test
+    void ignoresClockGoingBackwards() {
+        TokenBucket tokenBucket = new TokenBucket(10, 10, SECOND);
+        tokenBucket.reserve(10, SECOND);
+
+        assertEquals(SECOND / 10, tokenBucket.reserve(1, 0));
+    }
+
+    @Test
+    void rejectsNonPositiveRate() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 10, 0));
+    }
+}
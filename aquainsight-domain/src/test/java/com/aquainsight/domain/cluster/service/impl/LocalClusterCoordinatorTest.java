@@ -0,0 +1,86 @@
+package com.aquainsight.domain.cluster.service.impl;
+
+import com.aquainsight.domain.cluster.types.Lease;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LocalClusterCoordinatorTest {
+
+    private static final String LEASE = "alert-rule-evaluation";
+
+    private final LocalClusterCoordinator coordinator = new LocalClusterCoordinator();
+
+    @Test
+    void acquireIsExclusiveAndReentrantForHolder() {
+        Lease lease = coordinator.tryAcquire(LEASE, "node-a", 60_000L).get();
+
+        assertFalse(coordinator.tryAcquire(LEASE, "node-b", 60_000L).isPresent());
+        Lease again = coordinator.tryAcquire(LEASE, "node-a", 60_000L).get();
+        // 持有者未变更时沿用原防护令牌
+        assertEquals(lease.getFencingToken(), again.getFencingToken());
+        assertTrue(coordinator.isValid(lease));
+    }
+
+    @Test
+    void renewExtendsLeaseBeyondOriginalTtl() throws InterruptedException {
+        Lease lease = coordinator.tryAcquire(LEASE, "node-a", 100L).get();
+        Thread.sleep(60L);
+        assertTrue(coordinator.renew(lease, 200L));
+        Thread.sleep(80L);
+
+        assertTrue(coordinator.isValid(lease));
+        assertFalse(coordinator.tryAcquire(LEASE, "node-b", 60_000L).isPresent());
+    }
+
+    @Test
+    void expiredLeaseIsTakenOverWithHigherToken() throws InterruptedException {
+        Lease stale = coordinator.tryAcquire(LEASE, "node-a", 50L).get();
+        Thread.sleep(80L);
+
+        assertFalse(coordinator.isValid(stale));
+        Lease taken = coordinator.tryAcquire(LEASE, "node-b", 60_000L).get();
+        assertTrue(taken.getFencingToken() > stale.getFencingToken());
+
+        // 旧持有者停顿后恢复：不能续约、不能释放新持有者的租约、校验失败
+        assertFalse(coordinator.renew(stale, 60_000L));
+        coordinator.release(stale);
+        assertTrue(coordinator.isValid(taken));
+        assertFalse(coordinator.isValid(stale));
+    }
+
+    @Test
+    void sameHolderGetsNewTokenAfterExpiry() throws InterruptedException {
+        Lease first = coordinator.tryAcquire(LEASE, "node-a", 50L).get();
+        Thread.sleep(80L);
+
+        Lease second = coordinator.tryAcquire(LEASE, "node-a", 60_000L).get();
+        assertTrue(second.getFencingToken() > first.getFencingToken());
+        assertFalse(coordinator.isValid(first));
+    }
+
+    @Test
+    void releaseLetsOthersAcquireImmediately() {
+        Lease lease = coordinator.tryAcquire(LEASE, "node-a", 60_000L).get();
+        coordinator.release(lease);
+
+        Optional<Lease> taken = coordinator.tryAcquire(LEASE, "node-b", 60_000L);
+        assertTrue(taken.isPresent());
+        assertTrue(taken.get().getFencingToken() > lease.getFencingToken());
+    }
+
+    @Test
+    void liveMembersExpire() throws InterruptedException {
+        coordinator.heartbeat("node-b", 60_000L);
+        coordinator.heartbeat("node-a", 60_000L);
+        coordinator.heartbeat("node-c", 30L);
+        Thread.sleep(60L);
+
+        assertEquals(Arrays.asList("node-a", "node-b"), coordinator.getLiveMembers());
+    }
+}
@@ -0,0 +1,72 @@
+package com.aquainsight.domain.monitoring.entity;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DataCompletenessTest {
+
+    private static final LocalDate DATE = LocalDate.of(2026, 3, 1);
+
+    @Test
+    void mapsReadingTimeToIntervalSlots() {
+        DataCompleteness completeness = DataCompleteness.create(1, 2, DATE, 10);
+
+        assertEquals(144, completeness.getSlotCount());
+        assertEquals(3, completeness.getSlotBitmap().length);
+        assertEquals(0, completeness.slotOf(DATE.atTime(0, 9, 59)));
+        assertEquals(62, completeness.slotOf(DATE.atTime(10, 25)));
+        assertEquals(143, completeness.slotOf(DATE.atTime(23, 59)));
+        assertEquals(288, DataCompleteness.create(1, 2, DATE, 5).getSlotCount());
+    }
+
+    @Test
+    void countsReceivedSlotsAcrossWords() {
+        DataCompleteness completeness = DataCompleteness.create(1, 2, DATE, 5);
+
+        assertTrue(completeness.markReceived(0));
+        assertFalse(completeness.markReceived(0));
+        completeness.markReceived(63);
+        completeness.markReceived(64);
+        completeness.markReceived(287);
+
+        assertTrue(completeness.isReceived(63));
+        assertFalse(completeness.isReceived(62));
+        assertEquals(1, completeness.countReceived(63));
+        assertEquals(2, completeness.countReceived(64));
+        assertEquals(3, completeness.countReceived(65));
+        assertEquals(4, completeness.countReceived(10_000));
+    }
+
+    @Test
+    void expectsOnlyEndedSlotsToday() {
+        DataCompleteness completeness = DataCompleteness.create(1, 2, DATE, 10);
+
+        assertEquals(144, completeness.expectedSlotCount(DATE.plusDays(1).atTime(8, 0)));
+        assertEquals(0, completeness.expectedSlotCount(DATE.minusDays(1).atTime(23, 59)));
+        // 10:25所在的时段未结束，不计入应收时段
+        assertEquals(62, completeness.expectedSlotCount(DATE.atTime(10, 25)));
+        assertEquals(63, completeness.expectedSlotCount(DATE.atTime(10, 30)));
+    }
+
+    @Test
+    void computesCompletenessPercentage() {
+        DataCompleteness completeness = DataCompleteness.create(1, 2, DATE, 10);
+        completeness.markReceived(0);
+        completeness.markReceived(1);
+        completeness.markReceived(61);
+        // 进行中时段的读数不计入
+        completeness.markReceived(62);
+
+        assertEquals(new BigDecimal("4.84"), completeness.completenessAt(DATE.atTime(10, 25)));
+        assertEquals(new BigDecimal("2.78"), completeness.completenessAt(DATE.plusDays(3).atStartOfDay()));
+        assertNull(completeness.completenessAt(DATE.atTime(0, 9)));
+    }
+}
@@ -0,0 +1,193 @@
+package com.aquainsight.domain.monitoring.service;
+
+import com.aquainsight.domain.alert.entity.Metric;
+import com.aquainsight.domain.alert.service.impl.DataCompletenessMetricCollector;
+import com.aquainsight.domain.monitoring.entity.DataCompleteness;
+import com.aquainsight.domain.monitoring.entity.FactorReading;
+import com.aquainsight.domain.monitoring.repository.DataCompletenessRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DataCompletenessDomainServiceTest {
+
+    private final DataCompletenessRepository dataCompletenessRepository = mock(DataCompletenessRepository.class);
+    private final TelemetryCatalog telemetryCatalog = mock(TelemetryCatalog.class);
+    private final DataCompletenessDomainService completenessService =
+            new DataCompletenessDomainService(dataCompletenessRepository, telemetryCatalog, 5, 2, 400, 5);
+
+    /**
+     * 站点1按10分钟采集，应上报因子1、2、3；站点2使用默认5分钟间隔，应上报因子1、2
+     */
+    private final Map<Integer, Set<Integer>> expectedFactorIds = new HashMap<>();
+
+    @SuppressWarnings("unchecked")
+    private final ArgumentCaptor<List<DataCompleteness>> savedCaptor = ArgumentCaptor.forClass(List.class);
+
+    @BeforeEach
+    void setUp() {
+        expectedFactorIds.put(1, new HashSet<>(Arrays.asList(1, 2, 3)));
+        expectedFactorIds.put(2, new HashSet<>(Arrays.asList(1, 2)));
+        when(telemetryCatalog.getExpectedFactorIds()).thenReturn(expectedFactorIds);
+        when(telemetryCatalog.findSampleIntervalMinutes(anyInt())).thenReturn(null);
+        when(telemetryCatalog.findSampleIntervalMinutes(1)).thenReturn(10);
+        when(dataCompletenessRepository.find(anyInt(), anyInt(), any())).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void recordsSlotsWithSiteOrDefaultInterval() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        completenessService.record(Arrays.asList(
+                reading(1, 1, yesterday.atTime(10, 0)),
+                reading(1, 1, yesterday.atTime(10, 9)),
+                reading(1, 1, yesterday.atTime(10, 10)),
+                reading(2, 1, yesterday.atTime(10, 0)),
+                reading(2, 1, yesterday.atTime(10, 9))));
+
+        List<DataCompleteness> site1 = completenessService.findBySite(1, yesterday, yesterday);
+        List<DataCompleteness> site2 = completenessService.findBySite(2, yesterday, yesterday);
+
+        // 未上报的应上报因子返回空位图
+        assertEquals(Arrays.asList(1, 2, 3), factorIds(site1));
+        assertEquals(10, site1.get(0).getIntervalMinutes());
+        assertEquals(2, site1.get(0).countReceived(144));
+        assertEquals(new BigDecimal("1.39"), site1.get(0).completenessAt(LocalDateTime.now()));
+        assertEquals(0, site1.get(1).countReceived(144));
+        assertEquals(5, site2.get(0).getIntervalMinutes());
+        assertEquals(2, site2.get(0).countReceived(288));
+        assertEquals(new BigDecimal("0.69"), site2.get(0).completenessAt(LocalDateTime.now()));
+        verify(dataCompletenessRepository, never()).find(anyInt(), anyInt(), any());
+    }
+
+    @Test
+    void loadsOlderDayForLateReadingsAndReleasesItAfterFlush() {
+        LocalDate oldDay = LocalDate.now().minusDays(5);
+        DataCompleteness stored = DataCompleteness.create(1, 1, oldDay, 10);
+        stored.markReceived(0);
+        when(dataCompletenessRepository.find(1, 1, oldDay)).thenReturn(Optional.of(stored));
+
+        completenessService.record(Collections.singletonList(reading(1, 1, oldDay.atTime(0, 30))));
+        assertEquals(1, completenessService.flush());
+
+        verify(dataCompletenessRepository).saveAll(savedCaptor.capture());
+        DataCompleteness saved = savedCaptor.getValue().get(0);
+        assertEquals(oldDay, saved.getStatDate());
+        assertEquals(2, saved.countReceived(144));
+        // 写回后释放，再次迟到时重新从数据库加载
+        completenessService.record(Collections.singletonList(reading(1, 1, oldDay.atTime(0, 40))));
+        verify(dataCompletenessRepository, times(2)).find(1, 1, oldDay);
+    }
+
+    @Test
+    void flushesOnlyChangedBitmapsAndRetriesAfterFailure() {
+        LocalDateTime time = LocalDate.now().atStartOfDay();
+        completenessService.record(Arrays.asList(reading(1, 1, time), reading(1, 2, time)));
+        when(dataCompletenessRepository.deleteBefore(any())).thenReturn(0L);
+        doThrow(new IllegalStateException("数据库连接失败")).doNothing()
+                .when(dataCompletenessRepository).saveAll(any());
+
+        assertThrows(IllegalStateException.class, completenessService::flush);
+        assertEquals(2, completenessService.flush());
+        // 同一时段重复的读数不产生变化
+        completenessService.record(Collections.singletonList(reading(1, 1, time.plusMinutes(1))));
+        assertEquals(0, completenessService.flush());
+        verify(dataCompletenessRepository, times(1)).deleteBefore(LocalDate.now().minusDays(400));
+    }
+
+    @Test
+    void countsMissingFactorsAfterGracePeriod() {
+        LocalDateTime now = LocalDateTime.now();
+        // 站点1因子1、2在最近一小时每个时段都有读数
+        List<FactorReading> readings = new ArrayList<>();
+        for (int minutesAgo = 0; minutesAgo <= 60; minutesAgo++) {
+            readings.add(reading(1, 1, now.minusMinutes(minutesAgo)));
+            readings.add(reading(1, 2, now.minusMinutes(minutesAgo)));
+        }
+        // 因子3只在宽限期内有读数，最近一个已结束时段仍判定缺失
+        readings.add(reading(1, 3, now.minusMinutes(2)));
+        readings.add(reading(1, 3, now));
+        completenessService.record(readings);
+
+        Map<Integer, Integer> missing = completenessService.countMissingFactors();
+
+        assertEquals(1, missing.get(1));
+        // 站点2停止上报，缺失数等于应上报因子总数
+        assertEquals(2, missing.get(2));
+        assertEquals(2, missing.size());
+    }
+
+    @Test
+    void reportsMissingFactorsAsMetric() {
+        LocalDateTime now = LocalDateTime.now();
+        List<FactorReading> readings = new ArrayList<>();
+        for (int minutesAgo = 0; minutesAgo <= 60; minutesAgo++) {
+            readings.add(reading(2, 1, now.minusMinutes(minutesAgo)));
+            readings.add(reading(2, 2, now.minusMinutes(minutesAgo)));
+        }
+        completenessService.record(readings);
+        DataCompletenessMetricCollector collector = new DataCompletenessMetricCollector(completenessService);
+
+        Map<Integer, Integer> values = new HashMap<>();
+        for (Metric metric : collector.collectAll(DataCompletenessMetricCollector.METRIC_NAME)) {
+            assertEquals("site", metric.getTargetType());
+            values.put(metric.getTargetId(), metric.getValue().intValue());
+        }
+
+        // 站点1全部因子缺失，站点2全部上报
+        assertEquals(3, values.get(1));
+        assertEquals(0, values.get(2));
+        assertTrue(collector.supports(DataCompletenessMetricCollector.METRIC_NAME));
+    }
+
+    @Test
+    void rejectsInvalidQueries() {
+        LocalDate today = LocalDate.now();
+
+        assertThrows(IllegalArgumentException.class, () -> completenessService.findBySite(null, today, today));
+        assertThrows(IllegalArgumentException.class,
+                () -> completenessService.findBySite(1, today, today.minusDays(1)));
+        assertThrows(IllegalArgumentException.class,
+                () -> completenessService.findBySite(1, today.minusDays(400), today));
+        assertThrows(IllegalArgumentException.class, () -> new DataCompletenessDomainService(
+                dataCompletenessRepository, telemetryCatalog, 7, 2, 400, 5));
+    }
+
+    private static List<Integer> factorIds(List<DataCompleteness> completenessList) {
+        return completenessList.stream().map(DataCompleteness::getFactorId).collect(Collectors.toList());
+    }
+
+    private static FactorReading reading(Integer siteId, Integer factorId, LocalDateTime readingTime) {
+        return FactorReading.builder()
+                .siteId(siteId)
+                .factorId(factorId)
+                .readingTime(readingTime)
+                .value(BigDecimal.ONE)
+                .build();
+    }
+}
@@ -0,0 +1,117 @@
+package com.aquainsight.domain.monitoring.service;
+
+import com.aquainsight.domain.monitoring.entity.Device;
+import com.aquainsight.domain.monitoring.entity.FactorReading;
+import com.aquainsight.domain.monitoring.repository.DeviceHeartbeatRepository;
+import com.aquainsight.domain.monitoring.repository.DeviceRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DeviceHeartbeatTrackerTest {
+
+    private static final int OFFLINE = 0;
+    private static final int ONLINE = 1;
+    private static final int FAULT = 2;
+
+    private final DeviceRepository deviceRepository = mock(DeviceRepository.class);
+    private final DeviceHeartbeatRepository deviceHeartbeatRepository = mock(DeviceHeartbeatRepository.class);
+    private final TelemetryCatalog telemetryCatalog = mock(TelemetryCatalog.class);
+    private final DeviceHeartbeatTracker tracker = new DeviceHeartbeatTracker(deviceRepository,
+            deviceHeartbeatRepository, telemetryCatalog, mock(ApplicationEventPublisher.class), true, 1, 10, 16);
+
+    @AfterEach
+    void tearDown() {
+        tracker.stop();
+    }
+
+    @Test
+    void onlineDeviceWithoutLocalHeartbeatIsNotExpired() throws InterruptedException {
+        start(device(1, ONLINE));
+
+        Thread.sleep(2000);
+
+        assertEquals(0, tracker.flushStatus());
+        verify(deviceRepository, never()).updateStatusBatch(anyList(), anyInt(), anyInt());
+    }
+
+    @Test
+    void heartbeatedDeviceGoesOfflineAfterTimeout() throws InterruptedException {
+        start(device(1, ONLINE));
+        when(deviceHeartbeatRepository.findLastHeartbeatTime(1)).thenReturn(Optional.empty());
+        when(deviceRepository.findStatusByIds(anyList())).thenReturn(Collections.singletonMap(1, ONLINE));
+
+        tracker.heartbeat(Collections.singletonList(reading(1)));
+        Thread.sleep(2000);
+
+        assertEquals(1, tracker.flushStatus());
+        verify(deviceRepository).updateStatusBatch(Collections.singletonList(1), ONLINE, OFFLINE);
+    }
+
+    @Test
+    void heartbeatSeenByOtherInstanceKeepsDeviceOnline() throws InterruptedException {
+        start(device(1, ONLINE));
+        when(deviceHeartbeatRepository.findLastHeartbeatTime(1))
+                .thenAnswer(invocation -> Optional.of(LocalDateTime.now()));
+
+        tracker.heartbeat(Collections.singletonList(reading(1)));
+        Thread.sleep(2000);
+
+        assertEquals(0, tracker.flushStatus());
+        verify(deviceHeartbeatRepository).saveBatch(eq(Collections.singletonList(1)), any(LocalDateTime.class));
+        verify(deviceRepository, never()).updateStatusBatch(anyList(), anyInt(), anyInt());
+    }
+
+    @Test
+    void faultSetElsewhereIsNotOverwrittenByHeartbeat() {
+        start(device(1, OFFLINE));
+        when(deviceRepository.findStatusByIds(anyList())).thenReturn(Collections.singletonMap(1, FAULT));
+
+        tracker.heartbeat(Collections.singletonList(reading(1)));
+        assertEquals(0, tracker.flushStatus());
+
+        // 本地状态已同步为故障，后续心跳不再登记状态变更
+        tracker.heartbeat(Collections.singletonList(reading(1)));
+        assertEquals(0, tracker.getPendingCount());
+        verify(deviceRepository, never()).updateStatusBatch(anyList(), anyInt(), anyInt());
+    }
+
+    @Test
+    void offlineDeviceComesOnlineOnHeartbeat() {
+        start(device(1, OFFLINE));
+        when(deviceRepository.findStatusByIds(anyList())).thenReturn(Collections.singletonMap(1, OFFLINE));
+
+        tracker.heartbeat(Collections.singletonList(reading(1)));
+
+        assertEquals(1, tracker.flushStatus());
+        verify(deviceRepository).updateStatusBatch(Collections.singletonList(1), OFFLINE, ONLINE);
+    }
+
+    private void start(Device device) {
+        when(deviceRepository.findAll()).thenReturn(Collections.singletonList(device));
+        when(telemetryCatalog.findDevice(device.getId())).thenReturn(device);
+        tracker.start();
+    }
+
+    private static Device device(int id, int status) {
+        return Device.builder().id(id).status(status).build();
+    }
+
+    private static FactorReading reading(int deviceId) {
+        return FactorReading.builder().siteId(1).deviceId(deviceId).factorId(1).build();
+    }
+}
@@ -0,0 +1,250 @@
+package com.aquainsight.domain.monitoring.service;
+
+import com.aquainsight.domain.monitoring.entity.FactorReading;
+import com.aquainsight.domain.monitoring.entity.FactorRollup;
+import com.aquainsight.domain.monitoring.repository.FactorReadingRepository;
+import com.aquainsight.domain.monitoring.repository.FactorRollupRepository;
+import com.aquainsight.domain.monitoring.types.RollupResolution;
+import com.aquainsight.domain.monitoring.types.SeriesPointConsumer;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class FactorRollupDomainServiceTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2026, 3, 1, 0, 0);
+    private static final LocalDateTime H10 = DAY.plusHours(10);
+
+    private final InMemoryReadingRepository readingRepository = new InMemoryReadingRepository();
+    private final InMemoryRollupRepository rollupRepository = new InMemoryRollupRepository();
+    private final FactorRollupDomainService rollupService =
+            new FactorRollupDomainService(readingRepository, rollupRepository, 7, 30, 730, 3650);
+
+    @Test
+    void lateReadingRebuildsOnlyItsMinuteThenHourAndDayFromFinerLevel() {
+        write(H10, 1);
+        write(H10.plusMinutes(1), 3);
+        write(H10.plusMinutes(30), 5);
+        write(H10.plusHours(1).plusMinutes(15), 7);
+        assertEquals(4, rollupService.rollup());
+        assertRollup(RollupResolution.HOUR, H10, 3, "3.0000", "1", "5");
+        assertRollup(RollupResolution.DAY, DAY, 4, "4.0000", "1", "7");
+        readingRepository.queries.clear();
+
+        // 迟到读数落在已聚合的10点，只重查其所在的1分钟桶
+        write(H10.plusMinutes(5).plusSeconds(20), 11);
+        assertEquals(1, rollupService.rollup());
+
+        assertEquals(Collections.singletonList(range(H10.plusMinutes(5), H10.plusMinutes(5))),
+                readingRepository.queries);
+        assertRollup(RollupResolution.MINUTE, H10.plusMinutes(5), 1, "11.0000", "11", "11");
+        // 小时和天由下一级聚合重算，包含未变化的桶
+        assertRollup(RollupResolution.HOUR, H10, 4, "5.0000", "1", "11");
+        assertRollup(RollupResolution.HOUR, H10.plusHours(1), 1, "7.0000", "7", "7");
+        assertRollup(RollupResolution.DAY, DAY, 5, "5.4000", "1", "11");
+        assertEquals(0, rollupService.rollup());
+    }
+
+    @Test
+    void mergesDirtyMinutesWithinGapIntoOneQuery() {
+        write(H10, 1);
+        write(H10.plusMinutes(50), 2);
+        write(H10.plusMinutes(110), 3);
+        write(H10.plusMinutes(171), 4);
+
+        assertEquals(4, rollupService.rollup());
+
+        // 间隔50分钟、60分钟的脏桶合并，间隔61分钟的另起一次查询
+        assertEquals(Arrays.asList(range(H10, H10.plusMinutes(110)),
+                        range(H10.plusMinutes(171), H10.plusMinutes(171))),
+                readingRepository.queries);
+        assertEquals(4, rollupRepository.find(RollupResolution.MINUTE).size());
+        assertEquals(Arrays.asList(H10, H10.plusHours(1), H10.plusHours(2)),
+                rollupRepository.find(RollupResolution.HOUR).stream()
+                        .map(FactorRollup::getBucketTime).collect(Collectors.toList()));
+    }
+
+    @Test
+    void requeuesSeriesWhenRollupFails() {
+        write(H10, 1);
+        write(H10.plusMinutes(1), 2);
+        readingRepository.failures = 1;
+
+        assertEquals(0, rollupService.rollup());
+        assertTrue(rollupRepository.rollups.isEmpty());
+
+        write(H10.plusMinutes(2), 3);
+        assertEquals(3, rollupService.rollup());
+        assertRollup(RollupResolution.HOUR, H10, 3, "2.0000", "1", "3");
+    }
+
+    @Test
+    void selectsFinestResolutionWithinRetentionAndBudget() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(RollupResolution.RAW, selectResolution(now.minusDays(1), now, 1440));
+        assertEquals(RollupResolution.HOUR, selectResolution(now.minusDays(1), now, 1439));
+        assertEquals(RollupResolution.DAY, selectResolution(now.minusDays(90), now, 100));
+
+        // 原始读数保留7天，1分钟聚合保留30天，1小时聚合保留730天
+        assertEquals(RollupResolution.RAW, selectResolution(now.minusDays(7).plusMinutes(1), 60));
+        assertEquals(RollupResolution.MINUTE, selectResolution(now.minusDays(7).minusMinutes(1), 60));
+        assertEquals(RollupResolution.MINUTE, selectResolution(now.minusDays(30).plusMinutes(1), 60));
+        assertEquals(RollupResolution.HOUR, selectResolution(now.minusDays(30).minusMinutes(1), 60));
+        assertEquals(RollupResolution.DAY, selectResolution(now.minusDays(731), 60));
+        // 超出全部保留期时退回1天聚合
+        assertEquals(RollupResolution.DAY, selectResolution(now.minusDays(4000), 60));
+
+        FactorRollupDomainService unlimited =
+                new FactorRollupDomainService(readingRepository, rollupRepository, 0, 30, 730, 3650);
+        assertEquals(RollupResolution.RAW, unlimited.selectResolution(now.minusDays(1000),
+                now.minusDays(1000).plusHours(1), 60));
+    }
+
+    @Test
+    void selectsOversampledDownsampleSource() {
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEquals(RollupResolution.RAW, rollupService.selectDownsampleSource(now.minusDays(1), now, 0));
+        assertEquals(RollupResolution.RAW, rollupService.selectDownsampleSource(now.minusDays(1), now, 180));
+        assertEquals(RollupResolution.HOUR, rollupService.selectDownsampleSource(now.minusDays(1), now, 179));
+    }
+
+    private RollupResolution selectResolution(LocalDateTime start, int minutes) {
+        return selectResolution(start, start.plusMinutes(minutes), minutes);
+    }
+
+    private RollupResolution selectResolution(LocalDateTime start, LocalDateTime end, int maxPoints) {
+        return rollupService.selectResolution(start, end, maxPoints);
+    }
+
+    private void write(LocalDateTime readingTime, int value) {
+        FactorReading reading = FactorReading.builder()
+                .siteId(1)
+                .factorId(2)
+                .readingTime(readingTime)
+                .value(BigDecimal.valueOf(value))
+                .build();
+        readingRepository.readings.add(reading);
+        rollupService.markDirty(Collections.singletonList(reading));
+    }
+
+    private void assertRollup(RollupResolution resolution, LocalDateTime bucketTime, int sampleCount,
+                              String avg, String min, String max) {
+        FactorRollup rollup = rollupRepository.rollups.get(resolution + "@" + bucketTime);
+        assertEquals(sampleCount, rollup.getSampleCount());
+        assertEquals(new BigDecimal(avg), rollup.getAvgValue());
+        assertEquals(0, new BigDecimal(min).compareTo(rollup.getMinValue()));
+        assertEquals(0, new BigDecimal(max).compareTo(rollup.getMaxValue()));
+    }
+
+    /**
+     * 1分钟桶范围[first, last]对应的原始读数查询区间
+     */
+    private static String range(LocalDateTime firstMinute, LocalDateTime lastMinute) {
+        return firstMinute + "~" + lastMinute.plusMinutes(1).minusNanos(1);
+    }
+
+    /**
+     * 内存中的原始读数仓储，记录每次按序列查询的时间区间
+     */
+    private static final class InMemoryReadingRepository implements FactorReadingRepository {
+
+        private final List<FactorReading> readings = new ArrayList<>();
+        private final List<String> queries = new ArrayList<>();
+        private int failures;
+
+        @Override
+        public void batchSave(List<FactorReading> readings) {
+            this.readings.addAll(readings);
+        }
+
+        @Override
+        public List<FactorReading> findBySeries(Integer siteId, Integer factorId, LocalDateTime startTime,
+                                                LocalDateTime endTime) {
+            if (failures > 0) {
+                failures--;
+                throw new IllegalStateException("读数查询失败");
+            }
+            queries.add(startTime + "~" + endTime);
+            return readings.stream()
+                    .filter(reading -> reading.getSiteId().equals(siteId) && reading.getFactorId().equals(factorId))
+                    .filter(reading -> !reading.getReadingTime().isBefore(startTime)
+                            && !reading.getReadingTime().isAfter(endTime))
+                    .sorted(Comparator.comparing(FactorReading::getReadingTime))
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public void scanSeries(Integer siteId, Integer factorId, LocalDateTime startTime, LocalDateTime endTime,
+                               SeriesPointConsumer consumer) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public long getPersistedBeforeMillis() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public long deleteBefore(LocalDateTime cutoffTime) {
+            return 0;
+        }
+    }
+
+    /**
+     * 内存中的聚合仓储，按(粒度, 桶起始时间)覆盖写入；测试只使用单个序列
+     */
+    private static final class InMemoryRollupRepository implements FactorRollupRepository {
+
+        private final Map<String, FactorRollup> rollups = new TreeMap<>();
+
+        @Override
+        public void saveAll(List<FactorRollup> rollups) {
+            for (FactorRollup rollup : rollups) {
+                this.rollups.put(rollup.getResolution() + "@" + rollup.getBucketTime(), rollup);
+            }
+        }
+
+        @Override
+        public List<FactorRollup> findBySeries(Integer siteId, Integer factorId, RollupResolution resolution,
+                                               LocalDateTime startTime, LocalDateTime endTime) {
+            return find(resolution).stream()
+                    .filter(rollup -> !rollup.getBucketTime().isBefore(startTime)
+                            && !rollup.getBucketTime().isAfter(endTime))
+                    .collect(Collectors.toList());
+        }
+
+        private List<FactorRollup> find(RollupResolution resolution) {
+            return rollups.values().stream()
+                    .filter(rollup -> rollup.getResolution() == resolution)
+                    .sorted(Comparator.comparing(FactorRollup::getBucketTime))
+                    .collect(Collectors.toList());
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public long deleteBefore(RollupResolution resolution, LocalDateTime cutoffTime) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.aquainsight.domain.monitoring.types;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LttbDownsamplerTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    private final List<long[]> output = new ArrayList<>();
+
+    @Test
+    void keepsFirstAndLastPointsWithinMaxPoints() {
+        int count = 10_000;
+        Map<Long, Double> input = new HashMap<>();
+        long end = START + (count - 1) * 1000L;
+        LttbDownsampler downsampler = downsampler(START, end, 100);
+        for (int i = 0; i < count; i++) {
+            long timestamp = START + i * 1000L;
+            double value = Math.sin(i / 50.0);
+            input.put(timestamp, value);
+            downsampler.accept(timestamp, value);
+        }
+        downsampler.finish();
+
+        assertTrue(output.size() <= 100, "输出点数: " + output.size());
+        assertTrue(output.size() >= 90, "输出点数: " + output.size());
+        assertEquals(output.size(), downsampler.getEmittedCount());
+        assertEquals(START, output.get(0)[0]);
+        assertEquals(end, output.get(output.size() - 1)[0]);
+        for (int i = 0; i < output.size(); i++) {
+            long timestamp = output.get(i)[0];
+            // 输出点均为原始数据点，且时间严格递增
+            assertEquals(input.get(timestamp), Double.longBitsToDouble(output.get(i)[1]));
+            if (i > 0) {
+                assertTrue(timestamp > output.get(i - 1)[0]);
+            }
+        }
+    }
+
+    @Test
+    void keepsSpikeInFlatSeries() {
+        LttbDownsampler downsampler = downsampler(START, START + 9999, 10);
+        for (int i = 0; i < 10_000; i++) {
+            downsampler.accept(START + i, i == 4321 ? 99.0 : 7.0);
+        }
+        downsampler.finish();
+
+        assertTrue(output.stream().anyMatch(point -> point[0] == START + 4321
+                && Double.longBitsToDouble(point[1]) == 99.0));
+    }
+
+    @Test
+    void keepsAllPointsWhenSparserThanBuckets() {
+        LttbDownsampler downsampler = downsampler(START, START + 99_999, 100);
+        for (int i = 0; i < 5; i++) {
+            downsampler.accept(START + i * 20_000L, i);
+        }
+        downsampler.finish();
+
+        assertEquals(5, output.size());
+        for (int i = 0; i < 5; i++) {
+            assertEquals(START + i * 20_000L, output.get(i)[0]);
+        }
+    }
+
+    @Test
+    void handlesOneAndTwoPoints() {
+        LttbDownsampler single = downsampler(START, START + 1000, 100);
+        single.accept(START, 1.0);
+        single.finish();
+        assertEquals(1, output.size());
+
+        output.clear();
+        LttbDownsampler pair = downsampler(START, START + 1000, 100);
+        pair.accept(START, 1.0);
+        pair.accept(START + 1, 2.0);
+        pair.finish();
+        assertEquals(2, output.size());
+        assertEquals(START + 1, output.get(1)[0]);
+    }
+
+    @Test
+    void passesThroughWhenMaxPointsBelowThree() {
+        LttbDownsampler downsampler = downsampler(START, START + 999, 2);
+        for (int i = 0; i < 1000; i++) {
+            downsampler.accept(START + i, i);
+        }
+        downsampler.finish();
+
+        assertEquals(1000, output.size());
+    }
+
+    private LttbDownsampler downsampler(long startMillis, long endMillis, int maxPoints) {
+        return new LttbDownsampler(startMillis, endMillis, maxPoints,
+                (timestamp, value) -> output.add(new long[]{timestamp, Double.doubleToRawLongBits(value)}));
+    }
+}
@@ -0,0 +1,131 @@
+package com.aquainsight.domain.organization.service;
+
+import com.aquainsight.domain.organization.entity.Department;
+import com.aquainsight.domain.organization.repository.DepartmentRepository;
+import com.aquainsight.domain.user.entity.UserDepartment;
+import com.aquainsight.domain.user.repository.UserDepartmentRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrganizationIndexTest {
+
+    private final DepartmentRepository departmentRepository = mock(DepartmentRepository.class);
+    private final UserDepartmentRepository userDepartmentRepository = mock(UserDepartmentRepository.class);
+    private final OrganizationIndex organizationIndex =
+            new OrganizationIndex(departmentRepository, userDepartmentRepository);
+
+    /**
+     * 部门树: 1 -> 2 -> 3, 1 -> 4；部门n的成员为用户n*10
+     */
+    @BeforeEach
+    void setUp() {
+        when(departmentRepository.findAll()).thenReturn(Arrays.asList(
+                department(1, 0), department(2, 1), department(3, 2), department(4, 1)));
+        when(userDepartmentRepository.findAll()).thenReturn(Arrays.asList(
+                relation(10, 1), relation(20, 2), relation(30, 3), relation(40, 4)));
+    }
+
+    @Test
+    void resolvesMembersOfSubtree() {
+        assertEquals(set(10, 20, 30, 40), resolve(1));
+        assertEquals(set(20, 30), resolve(2));
+        assertEquals(set(20, 30, 40), resolve(2, 4, 3));
+        assertEquals(set(), resolve(99));
+    }
+
+    @Test
+    void movesSubtreeUnderNewParent() {
+        resolve(1);
+
+        organizationIndex.onDepartmentChanged(2, 4, false);
+
+        assertEquals(set(20, 30, 40), resolve(4));
+        assertEquals(set(10, 20, 30, 40), resolve(1));
+
+        organizationIndex.onDepartmentChanged(2, 0, false);
+
+        assertEquals(set(10, 40), resolve(1));
+        assertEquals(set(40), resolve(4));
+        assertEquals(set(20, 30), resolve(2));
+        verify(departmentRepository, times(1)).findAll();
+    }
+
+    @Test
+    void deletesSubtree() {
+        resolve(1);
+
+        organizationIndex.onDepartmentChanged(2, 1, true);
+
+        assertEquals(set(10, 40), resolve(1));
+        assertEquals(set(), resolve(2));
+        assertEquals(set(), resolve(3));
+    }
+
+    @Test
+    void addsNewDepartmentAndMembers() {
+        resolve(1);
+        when(userDepartmentRepository.findByDepartmentId(5))
+                .thenReturn(Collections.singletonList(relation(50, 5)));
+
+        organizationIndex.onDepartmentChanged(5, 3, false);
+        organizationIndex.onMembersChanged(Collections.singletonList(5), Collections.emptyList());
+
+        assertEquals(set(20, 30, 50), resolve(2));
+        assertEquals(set(10, 20, 30, 40, 50), resolve(1));
+    }
+
+    @Test
+    void movesUserBetweenDepartments() {
+        resolve(1);
+        when(userDepartmentRepository.findByUserId(30)).thenReturn(Collections.singletonList(relation(30, 4)));
+
+        organizationIndex.onMembersChanged(Collections.emptyList(), Collections.singletonList(30));
+
+        assertEquals(set(), resolve(3));
+        assertEquals(set(30, 40), resolve(4));
+        assertEquals(Collections.singletonList(20), organizationIndex.getMemberIds(2));
+    }
+
+    @Test
+    void moveUnderOwnDescendantTriggersRebuild() {
+        resolve(1);
+
+        // 部门2移到其下级部门3下面会成环，放弃增量更新，下次访问时全量重建
+        organizationIndex.onDepartmentChanged(2, 3, false);
+        resolve(1);
+
+        verify(departmentRepository, times(2)).findAll();
+        assertEquals(set(20, 30), resolve(2));
+    }
+
+    private Set<Integer> resolve(Integer... departmentIds) {
+        List<Integer> userIds = organizationIndex.resolveUserIds(Arrays.asList(departmentIds));
+        Set<Integer> distinct = new HashSet<>(userIds);
+        assertEquals(userIds.size(), distinct.size(), "成员重复: " + userIds);
+        return distinct;
+    }
+
+    private static Set<Integer> set(Integer... values) {
+        return new HashSet<>(Arrays.asList(values));
+    }
+
+    private static Department department(int id, int parentId) {
+        return Department.builder().id(id).name("部门" + id).parentId(parentId).build();
+    }
+
+    private static UserDepartment relation(int userId, int departmentId) {
+        return UserDepartment.builder().userId(userId).departmentId(departmentId).build();
+    }
+}
@@ -0,0 +1,54 @@
+package com.aquainsight.infrastructure.cache;
+
+import com.aquainsight.domain.alert.service.AlertQuietPeriodIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于Redis的告警静默期去重索引
+ * 多实例共享同一份索引，键的过期时间等于规则静默期
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "aquainsight.alert.dedup", name = "store", havingValue = "redis")
+public class RedisAlertQuietPeriodIndex implements AlertQuietPeriodIndex {
+
+    private static final String KEY_PREFIX = "aquainsight:alert:quiet:";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    @Override
+    public boolean tryAcquire(Integer ruleId, String targetType, Integer targetId,
+                              long alertTimeMillis, int quietPeriodMinutes) {
+        // SET NX EX：键不存在时写入，存在说明仍处于静默期
+        Boolean acquired = redisTemplate.opsForValue().setIfAbsent(
+                redisKey(ruleId, targetType, targetId), alertTimeMillis,
+                quietPeriodMinutes, TimeUnit.MINUTES);
+        return Boolean.TRUE.equals(acquired);
+    }
+
+    @Override
+    public void record(Integer ruleId, String targetType, Integer targetId,
+                       long alertTimeMillis, int quietPeriodMinutes) {
+        long remainingMillis = alertTimeMillis + TimeUnit.MINUTES.toMillis(quietPeriodMinutes)
+                - System.currentTimeMillis();
+        if (remainingMillis <= 0) {
+            return;
+        }
+        redisTemplate.opsForValue().setIfAbsent(redisKey(ruleId, targetType, targetId), alertTimeMillis,
+                remainingMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void release(Integer ruleId, String targetType, Integer targetId) {
+        redisTemplate.delete(redisKey(ruleId, targetType, targetId));
+    }
+
+    private String redisKey(Integer ruleId, String targetType, Integer targetId) {
+        return KEY_PREFIX + AlertQuietPeriodIndex.key(ruleId, targetType, targetId);
+    }
+}
@@ -0,0 +1,114 @@
+package com.aquainsight.infrastructure.cache;
+
+import com.aquainsight.domain.cluster.service.ClusterCoordinator;
+import com.aquainsight.domain.cluster.types.Lease;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * 基于Redis的集群协调服务
+ * 租约值为"防护令牌#持有者"，防护令牌由独立计数器递增发放；
+ * 存活实例记录在有序集合中，分值为过期时间
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "aquainsight.cluster", name = "store", havingValue = "redis")
+public class RedisClusterCoordinator implements ClusterCoordinator {
+
+    private static final String LEASE_KEY_PREFIX = "aquainsight:cluster:lease:";
+    private static final String FENCING_KEY_PREFIX = "aquainsight:cluster:fencing:";
+    private static final String MEMBERS_KEY = "aquainsight:cluster:members";
+
+    /**
+     * 获取租约：空闲时发放新令牌，已由自己持有时续期并沿用原令牌，被他人持有时返回-1
+     */
+    private static final DefaultRedisScript<Long> ACQUIRE_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('GET', KEYS[1]) "
+                    + "if current then "
+                    + "  local sep = string.find(current, '#', 1, true) "
+                    + "  if string.sub(current, sep + 1) ~= ARGV[1] then return -1 end "
+                    + "  redis.call('PEXPIRE', KEYS[1], ARGV[2]) "
+                    + "  return tonumber(string.sub(current, 1, sep - 1)) "
+                    + "end "
+                    + "local token = redis.call('INCR', KEYS[2]) "
+                    + "redis.call('SET', KEYS[1], token .. '#' .. ARGV[1], 'PX', ARGV[2]) "
+                    + "return token",
+            Long.class);
+
+    private static final DefaultRedisScript<Long> RENEW_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then "
+                    + "  return redis.call('PEXPIRE', KEYS[1], ARGV[2]) "
+                    + "end "
+                    + "return 0",
+            Long.class);
+
+    private static final DefaultRedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then "
+                    + "  return redis.call('DEL', KEYS[1]) "
+                    + "end "
+                    + "return 0",
+            Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    @Override
+    public Optional<Lease> tryAcquire(String leaseName, String holderId, long ttlMillis) {
+        Long token = stringRedisTemplate.execute(ACQUIRE_SCRIPT,
+                Arrays.asList(LEASE_KEY_PREFIX + leaseName, FENCING_KEY_PREFIX + leaseName),
+                holderId, String.valueOf(ttlMillis));
+        if (token == null || token < 0) {
+            return Optional.empty();
+        }
+        return Optional.of(new Lease(leaseName, holderId, token));
+    }
+
+    @Override
+    public boolean renew(Lease lease, long ttlMillis) {
+        Long renewed = stringRedisTemplate.execute(RENEW_SCRIPT,
+                Collections.singletonList(LEASE_KEY_PREFIX + lease.getLeaseName()),
+                leaseValue(lease), String.valueOf(ttlMillis));
+        return renewed != null && renewed > 0;
+    }
+
+    @Override
+    public boolean isValid(Lease lease) {
+        String current = stringRedisTemplate.opsForValue().get(LEASE_KEY_PREFIX + lease.getLeaseName());
+        return leaseValue(lease).equals(current);
+    }
+
+    @Override
+    public void release(Lease lease) {
+        stringRedisTemplate.execute(RELEASE_SCRIPT,
+                Collections.singletonList(LEASE_KEY_PREFIX + lease.getLeaseName()),
+                leaseValue(lease));
+    }
+
+    @Override
+    public void heartbeat(String memberId, long ttlMillis) {
+        stringRedisTemplate.opsForZSet().add(MEMBERS_KEY, memberId, System.currentTimeMillis() + ttlMillis);
+    }
+
+    @Override
+    public List<String> getLiveMembers() {
+        long now = System.currentTimeMillis();
+        stringRedisTemplate.opsForZSet().removeRangeByScore(MEMBERS_KEY, Double.NEGATIVE_INFINITY, now);
+        Set<String> members = stringRedisTemplate.opsForZSet().rangeByScore(MEMBERS_KEY, now, Double.POSITIVE_INFINITY);
+        List<String> liveMembers = members != null ? new ArrayList<>(members) : new ArrayList<>();
+        Collections.sort(liveMembers);
+        return liveMembers;
+    }
+
+    private String leaseValue(Lease lease) {
+        return lease.getFencingToken() + "#" + lease.getHolderId();
+    }
+}
@@ -23,24 +23,14 @@ public interface AlertNotifyLogConverter {
      * PO转Entity
      */
     @Mapping(source = "notifyType", target = "notifyType", qualifiedByName = "stringToNotifyType")
-    @Mapping(source = "status", target = "notifyStatus", qualifiedByName = "stringToNotifyStatus")
-    @Mapping(source = "receiver", target = "notifyTarget")
-    @Mapping(source = "content", target = "notifyContent")
-    @Mapping(source = "notifyTime", target = "sendTime")
-    @Mapping(source = "failureReason", target = "errorMessage")
-    @Mapping(target = "notifyUserId", ignore = true)
-    @Mapping(target = "notifyUserName", ignore = true)
+    @Mapping(source = "notifyStatus", target = "notifyStatus", qualifiedByName = "integerToNotifyStatus")
     AlertNotifyLog toEntity(AlertNotifyLogPO alertNotifyLogPO);
 
     /**
      * Entity转PO
      */
     @Mapping(source = "notifyType", target = "notifyType", qualifiedByName = "notifyTypeToString")
-    @Mapping(source = "notifyStatus", target = "status", qualifiedByName = "notifyStatusToString")
-    @Mapping(source = "notifyTarget", target = "receiver")
-    @Mapping(source = "notifyContent", target = "content")
-    @Mapping(source = "sendTime", target = "notifyTime")
-    @Mapping(source = "errorMessage", target = "failureReason")
+    @Mapping(source = "notifyStatus", target = "notifyStatus", qualifiedByName = "notifyStatusToInteger")
     AlertNotifyLogPO toPO(AlertNotifyLog alertNotifyLog);
 
     /**
@@ -73,21 +63,18 @@ public interface AlertNotifyLogConverter {
     }
 
     /**
-     * 字符串转通知状态
+     * 整数转通知状态
      */
-    @Named("stringToNotifyStatus")
-    default NotifyStatus stringToNotifyStatus(String notifyStatus) {
-        if (notifyStatus == null || notifyStatus.trim().isEmpty()) {
-            return null;
-        }
-        return NotifyStatus.valueOf(notifyStatus);
+    @Named("integerToNotifyStatus")
+    default NotifyStatus integerToNotifyStatus(Integer notifyStatus) {
+        return notifyStatus == null ? null : NotifyStatus.fromCode(notifyStatus);
     }
 
     /**
-     * 通知状态转字符串
+     * 通知状态转整数
      */
-    @Named("notifyStatusToString")
-    default String notifyStatusToString(NotifyStatus notifyStatus) {
-        return notifyStatus == null ? null : notifyStatus.name();
+    @Named("notifyStatusToInteger")
+    default Integer notifyStatusToInteger(NotifyStatus notifyStatus) {
+        return notifyStatus == null ? null : notifyStatus.getCode();
     }
 }
@@ -0,0 +1,74 @@
+package com.aquainsight.infrastructure.converter;
+
+import com.aquainsight.domain.monitoring.entity.DataCompleteness;
+import com.aquainsight.infrastructure.db.model.DataCompletenessPO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+import org.mapstruct.factory.Mappers;
+
+import java.util.List;
+
+/**
+ * 数据完整率转换器
+ */
+@Mapper
+public interface DataCompletenessConverter {
+
+    DataCompletenessConverter INSTANCE = Mappers.getMapper(DataCompletenessConverter.class);
+
+    /**
+     * PO转Entity
+     */
+    @Mapping(source = "slotBitmap", target = "slotBitmap", qualifiedByName = "bytesToWords")
+    DataCompleteness toEntity(DataCompletenessPO dataCompletenessPO);
+
+    /**
+     * Entity转PO
+     */
+    @Mapping(source = "slotBitmap", target = "slotBitmap", qualifiedByName = "wordsToBytes")
+    @Mapping(target = "receivedCount", expression = "java(dataCompleteness.countReceived(dataCompleteness.getSlotCount()))")
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "updateTime", ignore = true)
+    DataCompletenessPO toPO(DataCompleteness dataCompleteness);
+
+    /**
+     * PO列表转Entity列表
+     */
+    List<DataCompleteness> toEntityList(List<DataCompletenessPO> dataCompletenessPOList);
+
+    /**
+     * Entity列表转PO列表
+     */
+    List<DataCompletenessPO> toPOList(List<DataCompleteness> dataCompletenessList);
+
+    /**
+     * 字节位图转长整型位图，第i个字节对应第i*8到第i*8+7个时段
+     */
+    @Named("bytesToWords")
+    default long[] bytesToWords(byte[] bytes) {
+        if (bytes == null) {
+            return null;
+        }
+        long[] words = new long[(bytes.length + 7) >>> 3];
+        for (int i = 0; i < bytes.length; i++) {
+            words[i >>> 3] |= (bytes[i] & 0xFFL) << ((i & 7) << 3);
+        }
+        return words;
+    }
+
+    /**
+     * 长整型位图转字节位图
+     */
+    @Named("wordsToBytes")
+    default byte[] wordsToBytes(long[] words) {
+        if (words == null) {
+            return null;
+        }
+        byte[] bytes = new byte[words.length << 3];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = (byte) (words[i >>> 3] >>> ((i & 7) << 3));
+        }
+        return bytes;
+    }
+}
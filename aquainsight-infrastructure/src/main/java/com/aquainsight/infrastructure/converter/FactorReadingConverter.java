@@ -0,0 +1,37 @@
+package com.aquainsight.infrastructure.converter;
+
+import com.aquainsight.domain.monitoring.entity.FactorReading;
+import com.aquainsight.infrastructure.db.model.FactorReadingPO;
+import org.mapstruct.Mapper;
+import org.mapstruct.factory.Mappers;
+
+import java.util.List;
+
+/**
+ * 因子监测读数转换器
+ */
+@Mapper
+public interface FactorReadingConverter {
+
+    FactorReadingConverter INSTANCE = Mappers.getMapper(FactorReadingConverter.class);
+
+    /**
+     * PO转Entity
+     */
+    FactorReading toEntity(FactorReadingPO factorReadingPO);
+
+    /**
+     * Entity转PO
+     */
+    FactorReadingPO toPO(FactorReading factorReading);
+
+    /**
+     * PO列表转Entity列表
+     */
+    List<FactorReading> toEntityList(List<FactorReadingPO> factorReadingPOList);
+
+    /**
+     * Entity列表转PO列表
+     */
+    List<FactorReadingPO> toPOList(List<FactorReading> factorReadingList);
+}
@@ -0,0 +1,60 @@
+package com.aquainsight.infrastructure.converter;
+
+import com.aquainsight.domain.monitoring.entity.FactorRollup;
+import com.aquainsight.domain.monitoring.types.RollupResolution;
+import com.aquainsight.infrastructure.db.model.FactorRollupPO;
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.Named;
+import org.mapstruct.factory.Mappers;
+
+import java.util.List;
+
+/**
+ * 因子监测数据聚合转换器
+ */
+@Mapper
+public interface FactorRollupConverter {
+
+    FactorRollupConverter INSTANCE = Mappers.getMapper(FactorRollupConverter.class);
+
+    /**
+     * PO转Entity
+     */
+    @Mapping(source = "resolution", target = "resolution", qualifiedByName = "stringToResolution")
+    FactorRollup toEntity(FactorRollupPO factorRollupPO);
+
+    /**
+     * Entity转PO
+     */
+    @Mapping(source = "resolution", target = "resolution", qualifiedByName = "resolutionToString")
+    @Mapping(target = "id", ignore = true)
+    @Mapping(target = "updateTime", ignore = true)
+    FactorRollupPO toPO(FactorRollup factorRollup);
+
+    /**
+     * PO列表转Entity列表
+     */
+    List<FactorRollup> toEntityList(List<FactorRollupPO> factorRollupPOList);
+
+    /**
+     * Entity列表转PO列表
+     */
+    List<FactorRollupPO> toPOList(List<FactorRollup> factorRollupList);
+
+    /**
+     * 字符串转聚合粒度
+     */
+    @Named("stringToResolution")
+    default RollupResolution stringToResolution(String resolution) {
+        return resolution != null ? RollupResolution.fromCode(resolution) : null;
+    }
+
+    /**
+     * 聚合粒度转字符串
+     */
+    @Named("resolutionToString")
+    default String resolutionToString(RollupResolution resolution) {
+        return resolution != null ? resolution.getCode() : null;
+    }
+}
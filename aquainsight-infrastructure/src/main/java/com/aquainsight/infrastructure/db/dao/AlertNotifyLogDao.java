@@ -2,11 +2,32 @@ package com.aquainsight.infrastructure.db.dao;
 
 import com.aquainsight.infrastructure.db.model.AlertNotifyLogPO;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Options;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * 告警通知日志DAO
  */
 @Mapper
 public interface AlertNotifyLogDao extends BaseMapper<AlertNotifyLogPO> {
+
+    /**
+     * 多行插入通知日志，自增ID回填到各行
+     */
+    @Insert("<script>" +
+            "INSERT INTO alert_notify_log (alert_record_id, notify_type, notify_target, notify_user_id, " +
+            "notify_user_name, notify_content, notify_status, send_time, error_message, retry_count, next_retry_time, " +
+            "create_time) VALUES " +
+            "<foreach collection='list' item='item' separator=','>" +
+            "(#{item.alertRecordId}, #{item.notifyType}, #{item.notifyTarget}, #{item.notifyUserId}, " +
+            "#{item.notifyUserName}, #{item.notifyContent}, #{item.notifyStatus}, #{item.sendTime}, " +
+            "#{item.errorMessage}, #{item.retryCount}, #{item.nextRetryTime}, #{item.createTime})" +
+            "</foreach>" +
+            "</script>")
+    @Options(useGeneratedKeys = true, keyProperty = "list.id", keyColumn = "id")
+    int insertBatch(@Param("list") List<AlertNotifyLogPO> list);
 }
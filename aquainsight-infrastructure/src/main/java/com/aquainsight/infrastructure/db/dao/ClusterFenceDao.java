@@ -0,0 +1,34 @@
+package com.aquainsight.infrastructure.db.dao;
+
+import com.aquainsight.infrastructure.db.model.ClusterFencePO;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+/**
+ * 集群防护行DAO
+ */
+@Mapper
+public interface ClusterFenceDao extends BaseMapper<ClusterFencePO> {
+
+    /**
+     * 递增写入纪元并登记持有者，防护行不存在时以纪元1创建
+     */
+    @Insert("INSERT INTO cluster_fence (lease_name, epoch, holder_id) VALUES (#{leaseName}, 1, #{holderId}) " +
+            "ON DUPLICATE KEY UPDATE epoch = epoch + 1, holder_id = VALUES(holder_id)")
+    int advance(@Param("leaseName") String leaseName, @Param("holderId") String holderId);
+
+    /**
+     * 读取持有者当前的写入纪元
+     */
+    @Select("SELECT epoch FROM cluster_fence WHERE lease_name = #{leaseName} AND holder_id = #{holderId}")
+    Long selectEpoch(@Param("leaseName") String leaseName, @Param("holderId") String holderId);
+
+    /**
+     * 以共享锁读取写入纪元，锁持有到当前事务结束
+     */
+    @Select("SELECT epoch FROM cluster_fence WHERE lease_name = #{leaseName} LOCK IN SHARE MODE")
+    Long selectEpochForShare(@Param("leaseName") String leaseName);
+}
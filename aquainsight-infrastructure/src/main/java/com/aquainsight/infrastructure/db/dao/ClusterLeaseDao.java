@@ -0,0 +1,62 @@
+package com.aquainsight.infrastructure.db.dao;
+
+import com.aquainsight.infrastructure.db.model.ClusterLeasePO;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+/**
+ * 集群租约DAO
+ * 过期时间均按数据库时间计算，不受各实例时钟偏差影响
+ */
+@Mapper
+public interface ClusterLeaseDao extends BaseMapper<ClusterLeasePO> {
+
+    /**
+     * 租约行不存在时以防护令牌1创建
+     */
+    @Insert("INSERT IGNORE INTO cluster_lease (lease_name, holder_id, fencing_token, expire_time) " +
+            "VALUES (#{leaseName}, #{holderId}, 1, DATE_ADD(NOW(3), INTERVAL #{ttlMillis} * 1000 MICROSECOND))")
+    int insertIfAbsent(@Param("leaseName") String leaseName, @Param("holderId") String holderId,
+                       @Param("ttlMillis") long ttlMillis);
+
+    /**
+     * 租约已过期或由自己持有时获取并续期；持有者变更或过期后重新获取时递增防护令牌。
+     * 单表UPDATE按书写顺序赋值，防护令牌的判断使用更新前的持有者和过期时间
+     */
+    @Update("UPDATE cluster_lease SET " +
+            "fencing_token = IF(holder_id = #{holderId} AND expire_time > NOW(3), fencing_token, fencing_token + 1), " +
+            "holder_id = #{holderId}, " +
+            "expire_time = DATE_ADD(NOW(3), INTERVAL #{ttlMillis} * 1000 MICROSECOND) " +
+            "WHERE lease_name = #{leaseName} AND (holder_id = #{holderId} OR expire_time <= NOW(3))")
+    int acquire(@Param("leaseName") String leaseName, @Param("holderId") String holderId,
+                @Param("ttlMillis") long ttlMillis);
+
+    /**
+     * 读取持有者当前的防护令牌
+     */
+    @Select("SELECT fencing_token FROM cluster_lease " +
+            "WHERE lease_name = #{leaseName} AND holder_id = #{holderId} AND expire_time > NOW(3)")
+    Long selectFencingToken(@Param("leaseName") String leaseName, @Param("holderId") String holderId);
+
+    /**
+     * 续期，租约已过期或已被接管时不更新
+     */
+    @Update("UPDATE cluster_lease SET expire_time = DATE_ADD(NOW(3), INTERVAL #{ttlMillis} * 1000 MICROSECOND) " +
+            "WHERE lease_name = #{leaseName} AND holder_id = #{holderId} AND fencing_token = #{fencingToken} " +
+            "AND expire_time > NOW(3)")
+    int renew(@Param("leaseName") String leaseName, @Param("holderId") String holderId,
+              @Param("fencingToken") long fencingToken, @Param("ttlMillis") long ttlMillis);
+
+    /**
+     * 释放租约，保留租约行以使防护令牌持续递增
+     */
+    @Update("UPDATE cluster_lease SET expire_time = NOW(3) " +
+            "WHERE lease_name = #{leaseName} AND holder_id = #{holderId} AND fencing_token = #{fencingToken} " +
+            "AND expire_time > NOW(3)")
+    int release(@Param("leaseName") String leaseName, @Param("holderId") String holderId,
+                @Param("fencingToken") long fencingToken);
+}
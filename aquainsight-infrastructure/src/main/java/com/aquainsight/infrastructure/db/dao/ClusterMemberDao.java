@@ -0,0 +1,38 @@
+package com.aquainsight.infrastructure.db.dao;
+
+import com.aquainsight.infrastructure.db.model.ClusterMemberPO;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Delete;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.List;
+
+/**
+ * 集群存活实例DAO
+ */
+@Mapper
+public interface ClusterMemberDao extends BaseMapper<ClusterMemberPO> {
+
+    /**
+     * 登记实例存活，过期时间按数据库时间计算
+     */
+    @Insert("INSERT INTO cluster_member (member_id, expire_time) " +
+            "VALUES (#{memberId}, DATE_ADD(NOW(3), INTERVAL #{ttlMillis} * 1000 MICROSECOND)) " +
+            "ON DUPLICATE KEY UPDATE expire_time = VALUES(expire_time)")
+    int heartbeat(@Param("memberId") String memberId, @Param("ttlMillis") long ttlMillis);
+
+    /**
+     * 删除已过期的实例
+     */
+    @Delete("DELETE FROM cluster_member WHERE expire_time <= NOW(3)")
+    int deleteExpired();
+
+    /**
+     * 查询存活实例ID，按实例ID排序
+     */
+    @Select("SELECT member_id FROM cluster_member WHERE expire_time > NOW(3) ORDER BY member_id")
+    List<String> selectLiveMemberIds();
+}
@@ -0,0 +1,30 @@
+package com.aquainsight.infrastructure.db.dao;
+
+import com.aquainsight.infrastructure.db.model.DataCompletenessPO;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 数据完整率DAO
+ */
+@Mapper
+public interface DataCompletenessDao extends BaseMapper<DataCompletenessPO> {
+
+    /**
+     * 多行写入时段位图，同一(站点, 因子, 日期)已存在时覆盖
+     */
+    @Insert("<script>" +
+            "INSERT INTO data_completeness (site_id, factor_id, stat_date, interval_minutes, received_count, slot_bitmap) VALUES " +
+            "<foreach collection='list' item='item' separator=','>" +
+            "(#{item.siteId}, #{item.factorId}, #{item.statDate}, #{item.intervalMinutes}, #{item.receivedCount}, " +
+            "#{item.slotBitmap})" +
+            "</foreach>" +
+            " ON DUPLICATE KEY UPDATE interval_minutes = VALUES(interval_minutes), " +
+            "received_count = VALUES(received_count), slot_bitmap = VALUES(slot_bitmap)" +
+            "</script>")
+    int upsertBatch(@Param("list") List<DataCompletenessPO> list);
+}
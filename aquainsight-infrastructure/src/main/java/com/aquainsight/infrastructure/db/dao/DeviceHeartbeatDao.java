@@ -0,0 +1,29 @@
+package com.aquainsight.infrastructure.db.dao;
+
+import com.aquainsight.infrastructure.db.model.DeviceHeartbeatPO;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 设备心跳时间DAO
+ */
+@Mapper
+public interface DeviceHeartbeatDao extends BaseMapper<DeviceHeartbeatPO> {
+
+    /**
+     * 批量写入设备心跳时间，只向后推进
+     */
+    @Insert("<script>" +
+            "INSERT INTO device_heartbeat (device_id, last_heartbeat_time) VALUES " +
+            "<foreach collection='deviceIds' item='deviceId' separator=','>" +
+            "(#{deviceId}, #{heartbeatTime})" +
+            "</foreach>" +
+            " ON DUPLICATE KEY UPDATE last_heartbeat_time = GREATEST(last_heartbeat_time, VALUES(last_heartbeat_time))" +
+            "</script>")
+    int upsertBatch(@Param("deviceIds") List<Integer> deviceIds, @Param("heartbeatTime") LocalDateTime heartbeatTime);
+}
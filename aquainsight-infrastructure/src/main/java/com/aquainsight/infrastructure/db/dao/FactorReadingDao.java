@@ -0,0 +1,29 @@
+package com.aquainsight.infrastructure.db.dao;
+
+import com.aquainsight.infrastructure.db.model.FactorReadingPO;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 因子监测读数DAO
+ */
+@Mapper
+public interface FactorReadingDao extends BaseMapper<FactorReadingPO> {
+
+    /**
+     * 多行写入监测读数，入库时间使用数据库默认值
+     * 同一站点、因子、监测时间的读数已存在时覆盖，预写日志重放同一批读数不会产生重复行
+     */
+    @Insert("<script>" +
+            "INSERT INTO factor_reading (site_id, device_id, factor_id, reading_time, `value`) VALUES " +
+            "<foreach collection='list' item='item' separator=','>" +
+            "(#{item.siteId}, #{item.deviceId}, #{item.factorId}, #{item.readingTime}, #{item.value})" +
+            "</foreach>" +
+            " ON DUPLICATE KEY UPDATE device_id = VALUES(device_id), `value` = VALUES(`value`)" +
+            "</script>")
+    int insertBatch(@Param("list") List<FactorReadingPO> list);
+}
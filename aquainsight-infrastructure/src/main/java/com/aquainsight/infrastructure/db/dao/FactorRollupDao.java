@@ -0,0 +1,31 @@
+package com.aquainsight.infrastructure.db.dao;
+
+import com.aquainsight.infrastructure.db.model.FactorRollupPO;
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
+
+/**
+ * 因子监测数据聚合DAO
+ */
+@Mapper
+public interface FactorRollupDao extends BaseMapper<FactorRollupPO> {
+
+    /**
+     * 多行写入聚合，同一(站点, 因子, 粒度, 时间桶)已存在时覆盖
+     */
+    @Insert("<script>" +
+            "INSERT INTO factor_reading_rollup (site_id, factor_id, resolution, bucket_time, " +
+            "min_value, max_value, avg_value, sample_count, last_value) VALUES " +
+            "<foreach collection='list' item='item' separator=','>" +
+            "(#{item.siteId}, #{item.factorId}, #{item.resolution}, #{item.bucketTime}, " +
+            "#{item.minValue}, #{item.maxValue}, #{item.avgValue}, #{item.sampleCount}, #{item.lastValue})" +
+            "</foreach>" +
+            " ON DUPLICATE KEY UPDATE min_value = VALUES(min_value), max_value = VALUES(max_value), " +
+            "avg_value = VALUES(avg_value), sample_count = VALUES(sample_count), last_value = VALUES(last_value)" +
+            "</script>")
+    int upsertBatch(@Param("list") List<FactorRollupPO> list);
+}
@@ -29,6 +29,7 @@ public interface SiteDao extends BaseMapper<SitePO> {
             @Result(property = "address", column = "address"),
             @Result(property = "enterpriseId", column = "enterprise_id"),
             @Result(property = "isAutoUpload", column = "is_auto_upload"),
+            @Result(property = "sampleIntervalMinutes", column = "sample_interval_minutes"),
             @Result(property = "createTime", column = "create_time"),
             @Result(property = "updateTime", column = "update_time"),
             @Result(property = "deleted", column = "deleted"),
@@ -52,6 +53,7 @@ public interface SiteDao extends BaseMapper<SitePO> {
             @Result(property = "address", column = "address"),
             @Result(property = "enterpriseId", column = "enterprise_id"),
             @Result(property = "isAutoUpload", column = "is_auto_upload"),
+            @Result(property = "sampleIntervalMinutes", column = "sample_interval_minutes"),
             @Result(property = "createTime", column = "create_time"),
             @Result(property = "updateTime", column = "update_time"),
             @Result(property = "deleted", column = "deleted"),
@@ -75,6 +77,7 @@ public interface SiteDao extends BaseMapper<SitePO> {
             @Result(property = "address", column = "address"),
             @Result(property = "enterpriseId", column = "enterprise_id"),
             @Result(property = "isAutoUpload", column = "is_auto_upload"),
+            @Result(property = "sampleIntervalMinutes", column = "sample_interval_minutes"),
             @Result(property = "createTime", column = "create_time"),
             @Result(property = "updateTime", column = "update_time"),
             @Result(property = "deleted", column = "deleted"),
@@ -98,6 +101,7 @@ public interface SiteDao extends BaseMapper<SitePO> {
             @Result(property = "address", column = "address"),
             @Result(property = "enterpriseId", column = "enterprise_id"),
             @Result(property = "isAutoUpload", column = "is_auto_upload"),
+            @Result(property = "sampleIntervalMinutes", column = "sample_interval_minutes"),
             @Result(property = "createTime", column = "create_time"),
             @Result(property = "updateTime", column = "update_time"),
             @Result(property = "deleted", column = "deleted"),
@@ -121,6 +125,7 @@ public interface SiteDao extends BaseMapper<SitePO> {
             @Result(property = "address", column = "address"),
             @Result(property = "enterpriseId", column = "enterprise_id"),
             @Result(property = "isAutoUpload", column = "is_auto_upload"),
+            @Result(property = "sampleIntervalMinutes", column = "sample_interval_minutes"),
             @Result(property = "createTime", column = "create_time"),
             @Result(property = "updateTime", column = "update_time"),
             @Result(property = "deleted", column = "deleted"),
@@ -144,6 +149,7 @@ public interface SiteDao extends BaseMapper<SitePO> {
             @Result(property = "address", column = "address"),
             @Result(property = "enterpriseId", column = "enterprise_id"),
             @Result(property = "isAutoUpload", column = "is_auto_upload"),
+            @Result(property = "sampleIntervalMinutes", column = "sample_interval_minutes"),
             @Result(property = "createTime", column = "create_time"),
             @Result(property = "updateTime", column = "update_time"),
             @Result(property = "deleted", column = "deleted"),
@@ -167,6 +173,7 @@ public interface SiteDao extends BaseMapper<SitePO> {
             @Result(property = "address", column = "address"),
             @Result(property = "enterpriseId", column = "enterprise_id"),
             @Result(property = "isAutoUpload", column = "is_auto_upload"),
+            @Result(property = "sampleIntervalMinutes", column = "sample_interval_minutes"),
             @Result(property = "createTime", column = "create_time"),
             @Result(property = "updateTime", column = "update_time"),
             @Result(property = "deleted", column = "deleted"),
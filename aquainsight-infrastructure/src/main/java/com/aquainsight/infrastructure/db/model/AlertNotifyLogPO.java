@@ -30,29 +30,44 @@ public class AlertNotifyLogPO {
     private Integer alertRecordId;
 
     /**
-     * 通知方式(SMS,EMAIL,WECHAT等)
+     * 通知方式(sms-短信,email-邮件,push-推送,wechat-微信)
      */
     private String notifyType;
 
     /**
-     * 接收人
+     * 通知目标(手机号/邮箱/用户ID等)
      */
-    private String receiver;
+    private String notifyTarget;
+
+    /**
+     * 通知用户ID
+     */
+    private Integer notifyUserId;
+
+    /**
+     * 通知用户姓名
+     */
+    private String notifyUserName;
 
     /**
      * 通知内容
      */
-    private String content;
+    private String notifyContent;
+
+    /**
+     * 通知状态(0-待发送,1-发送成功,2-发送失败)
+     */
+    private Integer notifyStatus;
 
     /**
-     * 通知状态(SUCCESS-成功,FAILED-失败)
+     * 发送时间
      */
-    private String status;
+    private LocalDateTime sendTime;
 
     /**
      * 失败原因
      */
-    private String failureReason;
+    private String errorMessage;
 
     /**
      * 重试次数
@@ -60,9 +75,10 @@ public class AlertNotifyLogPO {
     private Integer retryCount;
 
     /**
-     * 通知时间
+     * 下次重试时间，更新时写入空值以清除
      */
-    private LocalDateTime notifyTime;
+    @TableField(updateStrategy = FieldStrategy.IGNORED)
+    private LocalDateTime nextRetryTime;
 
     /**
      * 创建时间
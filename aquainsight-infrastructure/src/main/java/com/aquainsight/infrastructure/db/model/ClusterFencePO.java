@@ -0,0 +1,41 @@
+package com.aquainsight.infrastructure.db.model;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 集群防护行持久化对象
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("cluster_fence")
+public class ClusterFencePO {
+
+    /**
+     * 租约名称
+     */
+    @TableId(type = IdType.INPUT)
+    private String leaseName;
+
+    /**
+     * 写入纪元
+     */
+    private Long epoch;
+
+    /**
+     * 持有者实例ID
+     */
+    private String holderId;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,41 @@
+package com.aquainsight.infrastructure.db.model;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 集群租约持久化对象
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("cluster_lease")
+public class ClusterLeasePO {
+
+    /**
+     * 租约名称
+     */
+    @TableId(type = IdType.INPUT)
+    private String leaseName;
+
+    /**
+     * 持有者实例ID
+     */
+    private String holderId;
+
+    /**
+     * 防护令牌
+     */
+    private Long fencingToken;
+
+    /**
+     * 过期时间
+     */
+    private LocalDateTime expireTime;
+}
@@ -0,0 +1,31 @@
+package com.aquainsight.infrastructure.db.model;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 集群存活实例持久化对象
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("cluster_member")
+public class ClusterMemberPO {
+
+    /**
+     * 实例ID
+     */
+    @TableId(type = IdType.INPUT)
+    private String memberId;
+
+    /**
+     * 过期时间
+     */
+    private LocalDateTime expireTime;
+}
@@ -0,0 +1,62 @@
+package com.aquainsight.infrastructure.db.model;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 数据完整率持久化对象
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("data_completeness")
+public class DataCompletenessPO {
+
+    /**
+     * 主键ID
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 站点ID
+     */
+    private Integer siteId;
+
+    /**
+     * 监测因子ID
+     */
+    private Integer factorId;
+
+    /**
+     * 统计日期
+     */
+    private LocalDate statDate;
+
+    /**
+     * 采集间隔(分钟)
+     */
+    private Integer intervalMinutes;
+
+    /**
+     * 收到读数的时段数
+     */
+    private Integer receivedCount;
+
+    /**
+     * 时段位图，按时段顺序每8个时段一个字节，低位在前
+     */
+    private byte[] slotBitmap;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updateTime;
+}
@@ -0,0 +1,31 @@
+package com.aquainsight.infrastructure.db.model;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 设备心跳时间持久化对象
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("device_heartbeat")
+public class DeviceHeartbeatPO {
+
+    /**
+     * 设备ID
+     */
+    @TableId(type = IdType.INPUT)
+    private Integer deviceId;
+
+    /**
+     * 最后心跳时间
+     */
+    private LocalDateTime lastHeartbeatTime;
+}
@@ -41,6 +41,11 @@ public class DeviceModelPO {
      */
     private Integer factorId;
 
+    /**
+     * 心跳超时时长(秒)
+     */
+    private Integer heartbeatTimeoutSeconds;
+
     /**
      * 关联的因子对象 (不存储在数据库，用于查询时关联)
      */
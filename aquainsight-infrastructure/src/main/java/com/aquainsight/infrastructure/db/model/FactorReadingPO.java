@@ -0,0 +1,59 @@
+package com.aquainsight.infrastructure.db.model;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 因子监测读数持久化对象
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("factor_reading")
+public class FactorReadingPO {
+
+    /**
+     * 读数ID
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 站点ID
+     */
+    private Integer siteId;
+
+    /**
+     * 设备ID
+     */
+    private Integer deviceId;
+
+    /**
+     * 监测因子ID
+     */
+    private Integer factorId;
+
+    /**
+     * 监测时间
+     */
+    private LocalDateTime readingTime;
+
+    /**
+     * 监测值
+     */
+    @TableField("`value`")
+    private BigDecimal value;
+
+    /**
+     * 入库时间
+     */
+    @TableField(fill = FieldFill.INSERT)
+    private LocalDateTime createTime;
+}
@@ -0,0 +1,77 @@
+package com.aquainsight.infrastructure.db.model;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * 因子监测数据聚合持久化对象
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("factor_reading_rollup")
+public class FactorRollupPO {
+
+    /**
+     * 聚合ID
+     */
+    @TableId(type = IdType.AUTO)
+    private Long id;
+
+    /**
+     * 站点ID
+     */
+    private Integer siteId;
+
+    /**
+     * 监测因子ID
+     */
+    private Integer factorId;
+
+    /**
+     * 聚合粒度(1m,1h,1d)
+     */
+    private String resolution;
+
+    /**
+     * 时间桶起始时间
+     */
+    private LocalDateTime bucketTime;
+
+    /**
+     * 最小值
+     */
+    private BigDecimal minValue;
+
+    /**
+     * 最大值
+     */
+    private BigDecimal maxValue;
+
+    /**
+     * 平均值
+     */
+    private BigDecimal avgValue;
+
+    /**
+     * 读数数量
+     */
+    private Integer sampleCount;
+
+    /**
+     * 最后值
+     */
+    private BigDecimal lastValue;
+
+    /**
+     * 更新时间
+     */
+    private LocalDateTime updateTime;
+}
@@ -46,6 +46,8 @@ public class SitePO {
 
     private Integer isAutoUpload;
 
+    private Integer sampleIntervalMinutes;
+
     @TableField(fill = FieldFill.INSERT)
     private LocalDateTime createTime;
 
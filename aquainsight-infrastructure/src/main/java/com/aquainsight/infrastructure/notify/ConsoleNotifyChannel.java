@@ -0,0 +1,41 @@
+package com.aquainsight.infrastructure.notify;
+
+import com.aquainsight.domain.alert.service.NotifyChannel;
+import com.aquainsight.domain.alert.types.NotifyType;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 控制台通知渠道
+ * 未接入服务商时的替代渠道，支持所有通知方式，只把通知写入应用日志；
+ * 优先级最低，接入的服务商渠道优先使用
+ */
+@Slf4j
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "aquainsight.notify", name = "stand-in", havingValue = "console", matchIfMissing = true)
+public class ConsoleNotifyChannel implements NotifyChannel {
+
+    @Override
+    public boolean supports(NotifyType notifyType) {
+        return true;
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return 1000;
+    }
+
+    @Override
+    public Map<String, String> send(NotifyType notifyType, List<String> targets, String content) {
+        log.info("【模拟】发送{}通知到: {}, 内容: {}", notifyType.getDescription(), targets, content);
+        return Collections.emptyMap();
+    }
+}
@@ -0,0 +1,70 @@
+package com.aquainsight.infrastructure.notify;
+
+import com.aquainsight.domain.alert.service.NotifyChannel;
+import com.aquainsight.domain.alert.types.NotifyType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 文件通知渠道
+ * 未接入服务商时的替代渠道，支持所有通知方式，每个接收人一行追加到文件，便于测试时核对发送结果；
+ * 优先级最低，接入的服务商渠道优先使用
+ */
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+@ConditionalOnProperty(prefix = "aquainsight.notify", name = "stand-in", havingValue = "file")
+public class FileNotifyChannel implements NotifyChannel {
+
+    private final Path file;
+
+    public FileNotifyChannel(@Value("${aquainsight.notify.file:data/notifications.log}") String file) {
+        this.file = Paths.get(file);
+    }
+
+    @Override
+    public boolean supports(NotifyType notifyType) {
+        return true;
+    }
+
+    @Override
+    public int getMaxBatchSize() {
+        return 1000;
+    }
+
+    @Override
+    public synchronized Map<String, String> send(NotifyType notifyType, List<String> targets, String content) {
+        String time = LocalDateTime.now().toString();
+        String line = content != null ? content.replace('\n', ' ') : "";
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (String target : targets) {
+                    writer.write(time + '\t' + notifyType.getCode() + '\t' + target + '\t' + line + '\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入通知文件失败: " + file, e);
+        }
+        return Collections.emptyMap();
+    }
+}
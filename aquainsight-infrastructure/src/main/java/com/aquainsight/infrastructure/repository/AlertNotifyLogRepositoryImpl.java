@@ -10,11 +10,13 @@ import com.aquainsight.infrastructure.db.model.AlertNotifyLogPO;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.baomidou.mybatisplus.extension.toolkit.Db;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -26,6 +28,11 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class AlertNotifyLogRepositoryImpl implements AlertNotifyLogRepository {
 
+    /**
+     * 单条多行插入语句的最大行数
+     */
+    private static final int ROWS_PER_STATEMENT = 500;
+
     private final AlertNotifyLogDao alertNotifyLogDao;
     private final AlertNotifyLogConverter converter = AlertNotifyLogConverter.INSTANCE;
 
@@ -54,7 +61,7 @@ public class AlertNotifyLogRepositoryImpl implements AlertNotifyLogRepository {
     @Override
     public List<AlertNotifyLog> findByNotifyStatus(NotifyStatus notifyStatus) {
         LambdaQueryWrapper<AlertNotifyLogPO> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(AlertNotifyLogPO::getStatus, notifyStatus.name());
+        queryWrapper.eq(AlertNotifyLogPO::getNotifyStatus, notifyStatus.getCode());
         queryWrapper.orderByDesc(AlertNotifyLogPO::getCreateTime);
         List<AlertNotifyLogPO> poList = alertNotifyLogDao.selectList(queryWrapper);
         return converter.toEntityList(poList);
@@ -71,16 +78,17 @@ public class AlertNotifyLogRepositoryImpl implements AlertNotifyLogRepository {
 
     @Override
     public List<AlertNotifyLog> findByNotifyUserId(Integer userId) {
-        // Note: AlertNotifyLogPO doesn't have notifyUserId field
-        // This would require extending the PO or using a different approach
-        // For now, returning empty list as the PO structure doesn't support this
-        return new ArrayList();
+        LambdaQueryWrapper<AlertNotifyLogPO> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(AlertNotifyLogPO::getNotifyUserId, userId);
+        queryWrapper.orderByDesc(AlertNotifyLogPO::getCreateTime);
+        List<AlertNotifyLogPO> poList = alertNotifyLogDao.selectList(queryWrapper);
+        return converter.toEntityList(poList);
     }
 
     @Override
     public List<AlertNotifyLog> findPendingNotifyLogs() {
         LambdaQueryWrapper<AlertNotifyLogPO> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(AlertNotifyLogPO::getStatus, NotifyStatus.PENDING.name());
+        queryWrapper.eq(AlertNotifyLogPO::getNotifyStatus, NotifyStatus.PENDING.getCode());
         queryWrapper.orderByAsc(AlertNotifyLogPO::getCreateTime);
         List<AlertNotifyLogPO> poList = alertNotifyLogDao.selectList(queryWrapper);
         return converter.toEntityList(poList);
@@ -89,14 +97,31 @@ public class AlertNotifyLogRepositoryImpl implements AlertNotifyLogRepository {
     @Override
     public List<AlertNotifyLog> findFailedAndRetryableNotifyLogs() {
         LambdaQueryWrapper<AlertNotifyLogPO> queryWrapper = new LambdaQueryWrapper<>();
-        queryWrapper.eq(AlertNotifyLogPO::getStatus, NotifyStatus.FAILED.name());
-        // 重试次数小于3次的可以重试
-        queryWrapper.lt(AlertNotifyLogPO::getRetryCount, 3);
+        queryWrapper.eq(AlertNotifyLogPO::getNotifyStatus, NotifyStatus.FAILED.getCode());
+        queryWrapper.lt(AlertNotifyLogPO::getRetryCount, AlertNotifyLog.MAX_RETRY_COUNT);
         queryWrapper.orderByAsc(AlertNotifyLogPO::getCreateTime);
         List<AlertNotifyLogPO> poList = alertNotifyLogDao.selectList(queryWrapper);
         return converter.toEntityList(poList);
     }
 
+    @Override
+    public List<AlertNotifyLog> findRetryDueNotifyLogs(LocalDateTime now, Collection<NotifyType> notifyTypes,
+                                                        int limit) {
+        if (notifyTypes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        LambdaQueryWrapper<AlertNotifyLogPO> queryWrapper = new LambdaQueryWrapper<>();
+        queryWrapper.eq(AlertNotifyLogPO::getNotifyStatus, NotifyStatus.FAILED.getCode());
+        queryWrapper.le(AlertNotifyLogPO::getNextRetryTime, now);
+        queryWrapper.lt(AlertNotifyLogPO::getRetryCount, AlertNotifyLog.MAX_RETRY_COUNT);
+        queryWrapper.in(AlertNotifyLogPO::getNotifyType,
+                notifyTypes.stream().map(NotifyType::getCode).collect(Collectors.toList()));
+        queryWrapper.orderByAsc(AlertNotifyLogPO::getNextRetryTime);
+        queryWrapper.last("LIMIT " + limit);
+        List<AlertNotifyLogPO> poList = alertNotifyLogDao.selectList(queryWrapper);
+        return converter.toEntityList(poList);
+    }
+
     @Override
     public AlertNotifyLog update(AlertNotifyLog notifyLog) {
         AlertNotifyLogPO po = converter.toPO(notifyLog);
@@ -104,6 +129,17 @@ public class AlertNotifyLogRepositoryImpl implements AlertNotifyLogRepository {
         return converter.toEntity(po);
     }
 
+    @Override
+    public List<AlertNotifyLog> batchUpdate(List<AlertNotifyLog> notifyLogs) {
+        if (notifyLogs.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<AlertNotifyLogPO> poList = converter.toPOList(notifyLogs);
+        // 使用JDBC批处理一次提交所有更新
+        Db.updateBatchById(poList);
+        return converter.toEntityList(poList);
+    }
+
     @Override
     public boolean deleteById(Integer id) {
         return alertNotifyLogDao.deleteById(id) > 0;
@@ -121,7 +157,7 @@ public class AlertNotifyLogRepositoryImpl implements AlertNotifyLogRepository {
         }
 
         if (notifyStatus != null) {
-            queryWrapper.eq(AlertNotifyLogPO::getStatus, notifyStatus.name());
+            queryWrapper.eq(AlertNotifyLogPO::getNotifyStatus, notifyStatus.getCode());
         }
 
         if (notifyType != null) {
@@ -154,7 +190,7 @@ public class AlertNotifyLogRepositoryImpl implements AlertNotifyLogRepository {
     public long countSuccessByAlertRecordId(Integer alertRecordId) {
         LambdaQueryWrapper<AlertNotifyLogPO> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(AlertNotifyLogPO::getAlertRecordId, alertRecordId);
-        queryWrapper.eq(AlertNotifyLogPO::getStatus, NotifyStatus.SUCCESS.name());
+        queryWrapper.eq(AlertNotifyLogPO::getNotifyStatus, NotifyStatus.SUCCESS.getCode());
         return alertNotifyLogDao.selectCount(queryWrapper);
     }
 
@@ -162,16 +198,19 @@ public class AlertNotifyLogRepositoryImpl implements AlertNotifyLogRepository {
     public long countFailedByAlertRecordId(Integer alertRecordId) {
         LambdaQueryWrapper<AlertNotifyLogPO> queryWrapper = new LambdaQueryWrapper<>();
         queryWrapper.eq(AlertNotifyLogPO::getAlertRecordId, alertRecordId);
-        queryWrapper.eq(AlertNotifyLogPO::getStatus, NotifyStatus.FAILED.name());
+        queryWrapper.eq(AlertNotifyLogPO::getNotifyStatus, NotifyStatus.FAILED.getCode());
         return alertNotifyLogDao.selectCount(queryWrapper);
     }
 
     @Override
     public List<AlertNotifyLog> batchSave(List<AlertNotifyLog> notifyLogs) {
+        if (notifyLogs.isEmpty()) {
+            return new ArrayList<>();
+        }
         List<AlertNotifyLogPO> poList = converter.toPOList(notifyLogs);
-        // 批量插入
-        for (AlertNotifyLogPO po : poList) {
-            alertNotifyLogDao.insert(po);
+        // 多行插入，每条语句不超过固定行数
+        for (int from = 0; from < poList.size(); from += ROWS_PER_STATEMENT) {
+            alertNotifyLogDao.insertBatch(poList.subList(from, Math.min(poList.size(), from + ROWS_PER_STATEMENT)));
         }
         return converter.toEntityList(poList);
     }
@@ -11,10 +11,12 @@ import com.aquainsight.infrastructure.db.model.AlertRecordPO;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
+import com.baomidou.mybatisplus.extension.toolkit.Db;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -104,6 +106,17 @@ public class AlertRecordRepositoryImpl implements AlertRecordRepository {
         return converter.toEntity(po);
     }
 
+    @Override
+    public List<AlertRecord> batchUpdate(List<AlertRecord> alertRecords) {
+        if (alertRecords == null || alertRecords.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<AlertRecordPO> poList = converter.toPOList(alertRecords);
+        // 使用JDBC批处理一次提交所有更新
+        Db.updateBatchById(poList);
+        return converter.toEntityList(poList);
+    }
+
     @Override
     public boolean deleteById(Integer id) {
         return alertRecordDao.deleteById(id) > 0;
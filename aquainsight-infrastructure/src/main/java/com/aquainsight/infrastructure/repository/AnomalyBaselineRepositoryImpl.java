@@ -0,0 +1,104 @@
+package com.aquainsight.infrastructure.repository;
+
+import com.aquainsight.domain.alert.repository.AnomalyBaselineRepository;
+import com.aquainsight.domain.alert.types.AnomalyBaseline;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 异常检测基线仓储实现
+ * 检查点以二进制文件保存在本地磁盘，先写临时文件再原子替换，写入中途宕机不会损坏上一个检查点
+ */
+@Repository
+public class AnomalyBaselineRepositoryImpl implements AnomalyBaselineRepository {
+
+    private static final int MAGIC = 0x41514231;
+    private static final int VERSION = 1;
+
+    private final Path checkpointFile;
+
+    public AnomalyBaselineRepositoryImpl(
+            @Value("${aquainsight.alert.anomaly.checkpoint-file:data/anomaly-baselines.bin}") String checkpointFile) {
+        this.checkpointFile = Paths.get(checkpointFile);
+    }
+
+    @Override
+    public Map<String, Map<Integer, AnomalyBaseline>> load() {
+        Map<String, Map<Integer, AnomalyBaseline>> baselines = new HashMap<>();
+        if (!Files.exists(checkpointFile)) {
+            return baselines;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(checkpointFile)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IllegalStateException("异常检测基线检查点格式错误: " + checkpointFile);
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IllegalStateException("不支持的异常检测基线检查点版本: " + version);
+            }
+            int metricCount = in.readInt();
+            for (int i = 0; i < metricCount; i++) {
+                String metricName = in.readUTF();
+                int seriesCount = in.readInt();
+                Map<Integer, AnomalyBaseline> series = new HashMap<>(seriesCount * 2);
+                for (int j = 0; j < seriesCount; j++) {
+                    int targetId = in.readInt();
+                    double mean = in.readDouble();
+                    double variance = in.readDouble();
+                    long count = in.readLong();
+                    long lastTimestampMillis = in.readLong();
+                    series.put(targetId, new AnomalyBaseline(mean, variance, count, lastTimestampMillis));
+                }
+                baselines.put(metricName, series);
+            }
+            return baselines;
+        } catch (IOException e) {
+            throw new UncheckedIOException("读取异常检测基线检查点失败: " + checkpointFile, e);
+        }
+    }
+
+    @Override
+    public void save(Map<String, Map<Integer, AnomalyBaseline>> baselines) {
+        Path absoluteFile = checkpointFile.toAbsolutePath();
+        Path tempFile = absoluteFile.resolveSibling(absoluteFile.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(absoluteFile.getParent());
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                // 先复制出序列列表，保证数量与内容一致
+                Map<String, Map<Integer, AnomalyBaseline>> copy = new HashMap<>();
+                baselines.forEach((metricName, series) -> copy.put(metricName, new HashMap<>(series)));
+                out.writeInt(copy.size());
+                for (Map.Entry<String, Map<Integer, AnomalyBaseline>> metric : copy.entrySet()) {
+                    out.writeUTF(metric.getKey());
+                    out.writeInt(metric.getValue().size());
+                    for (Map.Entry<Integer, AnomalyBaseline> entry : metric.getValue().entrySet()) {
+                        AnomalyBaseline baseline = entry.getValue();
+                        out.writeInt(entry.getKey());
+                        out.writeDouble(baseline.getMean());
+                        out.writeDouble(baseline.getVariance());
+                        out.writeLong(baseline.getCount());
+                        out.writeLong(baseline.getLastTimestampMillis());
+                    }
+                }
+            }
+            Files.move(tempFile, absoluteFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入异常检测基线检查点失败: " + absoluteFile, e);
+        }
+    }
+}
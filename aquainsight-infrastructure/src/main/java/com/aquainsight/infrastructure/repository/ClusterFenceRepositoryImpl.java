@@ -0,0 +1,29 @@
+package com.aquainsight.infrastructure.repository;
+
+import com.aquainsight.domain.cluster.repository.ClusterFenceRepository;
+import com.aquainsight.infrastructure.db.dao.ClusterFenceDao;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+/**
+ * 集群防护行仓储实现
+ */
+@Repository
+@RequiredArgsConstructor
+public class ClusterFenceRepositoryImpl implements ClusterFenceRepository {
+
+    private final ClusterFenceDao clusterFenceDao;
+
+    @Override
+    public Long advance(String leaseName, String holderId) {
+        clusterFenceDao.advance(leaseName, holderId);
+        // 只有租约持有者会递增纪元，读到其他持有者说明租约已在两次语句之间被接管
+        return clusterFenceDao.selectEpoch(leaseName, holderId);
+    }
+
+    @Override
+    public boolean isCurrent(String leaseName, long epoch) {
+        Long current = clusterFenceDao.selectEpochForShare(leaseName);
+        return current != null && current == epoch;
+    }
+}
@@ -0,0 +1,76 @@
+package com.aquainsight.infrastructure.repository;
+
+import com.aquainsight.domain.monitoring.entity.DataCompleteness;
+import com.aquainsight.domain.monitoring.repository.DataCompletenessRepository;
+import com.aquainsight.infrastructure.converter.DataCompletenessConverter;
+import com.aquainsight.infrastructure.db.dao.DataCompletenessDao;
+import com.aquainsight.infrastructure.db.model.DataCompletenessPO;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 数据完整率仓储实现
+ */
+@Repository
+@RequiredArgsConstructor
+public class DataCompletenessRepositoryImpl implements DataCompletenessRepository {
+
+    /**
+     * 单条INSERT语句的最大行数
+     */
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    private final DataCompletenessDao dataCompletenessDao;
+    private final DataCompletenessConverter converter = DataCompletenessConverter.INSTANCE;
+
+    @Override
+    public void saveAll(List<DataCompleteness> completenessList) {
+        if (completenessList == null || completenessList.isEmpty()) {
+            return;
+        }
+        List<DataCompletenessPO> poList = converter.toPOList(completenessList);
+        for (int from = 0; from < poList.size(); from += ROWS_PER_STATEMENT) {
+            dataCompletenessDao.upsertBatch(poList.subList(from, Math.min(poList.size(), from + ROWS_PER_STATEMENT)));
+        }
+    }
+
+    @Override
+    public Optional<DataCompleteness> find(Integer siteId, Integer factorId, LocalDate statDate) {
+        LambdaQueryWrapper<DataCompletenessPO> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(DataCompletenessPO::getSiteId, siteId)
+                .eq(DataCompletenessPO::getFactorId, factorId)
+                .eq(DataCompletenessPO::getStatDate, statDate);
+        DataCompletenessPO po = dataCompletenessDao.selectOne(wrapper);
+        return Optional.ofNullable(po).map(converter::toEntity);
+    }
+
+    @Override
+    public List<DataCompleteness> findByDateRange(LocalDate startDate, LocalDate endDate) {
+        LambdaQueryWrapper<DataCompletenessPO> wrapper = new LambdaQueryWrapper<>();
+        wrapper.ge(DataCompletenessPO::getStatDate, startDate)
+                .le(DataCompletenessPO::getStatDate, endDate);
+        return converter.toEntityList(dataCompletenessDao.selectList(wrapper));
+    }
+
+    @Override
+    public List<DataCompleteness> findBySite(Integer siteId, LocalDate startDate, LocalDate endDate) {
+        LambdaQueryWrapper<DataCompletenessPO> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(DataCompletenessPO::getSiteId, siteId)
+                .ge(DataCompletenessPO::getStatDate, startDate)
+                .le(DataCompletenessPO::getStatDate, endDate)
+                .orderByAsc(DataCompletenessPO::getStatDate);
+        return converter.toEntityList(dataCompletenessDao.selectList(wrapper));
+    }
+
+    @Override
+    public long deleteBefore(LocalDate statDate) {
+        LambdaQueryWrapper<DataCompletenessPO> wrapper = new LambdaQueryWrapper<>();
+        wrapper.lt(DataCompletenessPO::getStatDate, statDate);
+        return dataCompletenessDao.delete(wrapper);
+    }
+}
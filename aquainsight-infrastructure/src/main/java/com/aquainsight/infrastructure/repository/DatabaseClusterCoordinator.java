@@ -0,0 +1,68 @@
+package com.aquainsight.infrastructure.repository;
+
+import com.aquainsight.domain.cluster.service.ClusterCoordinator;
+import com.aquainsight.domain.cluster.types.Lease;
+import com.aquainsight.infrastructure.db.dao.ClusterLeaseDao;
+import com.aquainsight.infrastructure.db.dao.ClusterMemberDao;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 基于数据库的集群协调服务
+ * 多实例部署时使用，租约和存活实例分别保存在cluster_lease和cluster_member表中，
+ * 不需要额外部署Redis；租约行释放后保留，防护令牌持续递增
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "aquainsight.cluster", name = "store", havingValue = "db")
+public class DatabaseClusterCoordinator implements ClusterCoordinator {
+
+    private final ClusterLeaseDao clusterLeaseDao;
+    private final ClusterMemberDao clusterMemberDao;
+
+    @Override
+    public Optional<Lease> tryAcquire(String leaseName, String holderId, long ttlMillis) {
+        if (clusterLeaseDao.insertIfAbsent(leaseName, holderId, ttlMillis) == 0
+                && clusterLeaseDao.acquire(leaseName, holderId, ttlMillis) == 0) {
+            return Optional.empty();
+        }
+        // 获取后立即读取防护令牌，读不到说明租约已在两次语句之间过期并被接管
+        Long fencingToken = clusterLeaseDao.selectFencingToken(leaseName, holderId);
+        if (fencingToken == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new Lease(leaseName, holderId, fencingToken));
+    }
+
+    @Override
+    public boolean renew(Lease lease, long ttlMillis) {
+        return clusterLeaseDao.renew(lease.getLeaseName(), lease.getHolderId(),
+                lease.getFencingToken(), ttlMillis) > 0;
+    }
+
+    @Override
+    public boolean isValid(Lease lease) {
+        Long fencingToken = clusterLeaseDao.selectFencingToken(lease.getLeaseName(), lease.getHolderId());
+        return fencingToken != null && fencingToken == lease.getFencingToken();
+    }
+
+    @Override
+    public void release(Lease lease) {
+        clusterLeaseDao.release(lease.getLeaseName(), lease.getHolderId(), lease.getFencingToken());
+    }
+
+    @Override
+    public void heartbeat(String memberId, long ttlMillis) {
+        clusterMemberDao.heartbeat(memberId, ttlMillis);
+    }
+
+    @Override
+    public List<String> getLiveMembers() {
+        clusterMemberDao.deleteExpired();
+        return clusterMemberDao.selectLiveMemberIds();
+    }
+}
@@ -0,0 +1,46 @@
+package com.aquainsight.infrastructure.repository;
+
+import com.aquainsight.domain.monitoring.repository.DeviceHeartbeatRepository;
+import com.aquainsight.infrastructure.db.dao.DeviceHeartbeatDao;
+import com.aquainsight.infrastructure.db.model.DeviceHeartbeatPO;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 设备心跳时间仓储实现
+ */
+@Repository
+@RequiredArgsConstructor
+public class DeviceHeartbeatRepositoryImpl implements DeviceHeartbeatRepository {
+
+    /**
+     * 单条INSERT语句的最大行数
+     */
+    private static final int ROWS_PER_STATEMENT = 1000;
+
+    private final DeviceHeartbeatDao deviceHeartbeatDao;
+
+    @Override
+    public void saveBatch(Collection<Integer> deviceIds, LocalDateTime heartbeatTime) {
+        if (deviceIds == null || deviceIds.isEmpty()) {
+            return;
+        }
+        List<Integer> ids = new ArrayList<>(deviceIds);
+        for (int from = 0; from < ids.size(); from += ROWS_PER_STATEMENT) {
+            deviceHeartbeatDao.upsertBatch(ids.subList(from, Math.min(ids.size(), from + ROWS_PER_STATEMENT)),
+                    heartbeatTime);
+        }
+    }
+
+    @Override
+    public Optional<LocalDateTime> findLastHeartbeatTime(Integer deviceId) {
+        DeviceHeartbeatPO po = deviceHeartbeatDao.selectById(deviceId);
+        return Optional.ofNullable(po != null ? po.getLastHeartbeatTime() : null);
+    }
+}
@@ -6,12 +6,18 @@ import com.aquainsight.infrastructure.converter.DeviceConverter;
 import com.aquainsight.infrastructure.db.dao.DeviceDao;
 import com.aquainsight.infrastructure.db.model.DevicePO;
 import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import com.baomidou.mybatisplus.core.conditions.update.LambdaUpdateWrapper;
 import com.baomidou.mybatisplus.core.metadata.IPage;
 import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -87,6 +93,46 @@ public class DeviceRepositoryImpl implements DeviceRepository {
         return findById(device.getId()).orElse(device);
     }
 
+    @Override
+    public int updateStatusBatch(List<Integer> deviceIds, Integer status) {
+        if (deviceIds == null || deviceIds.isEmpty()) {
+            return 0;
+        }
+        LambdaUpdateWrapper<DevicePO> wrapper = new LambdaUpdateWrapper<>();
+        wrapper.in(DevicePO::getId, deviceIds)
+                .set(DevicePO::getStatus, status)
+                .set(DevicePO::getUpdateTime, LocalDateTime.now());
+        return deviceDao.update(null, wrapper);
+    }
+
+    @Override
+    public int updateStatusBatch(List<Integer> deviceIds, Integer expectedStatus, Integer status) {
+        if (deviceIds == null || deviceIds.isEmpty()) {
+            return 0;
+        }
+        LambdaUpdateWrapper<DevicePO> wrapper = new LambdaUpdateWrapper<>();
+        wrapper.in(DevicePO::getId, deviceIds)
+                .eq(DevicePO::getStatus, expectedStatus)
+                .set(DevicePO::getStatus, status)
+                .set(DevicePO::getUpdateTime, LocalDateTime.now());
+        return deviceDao.update(null, wrapper);
+    }
+
+    @Override
+    public Map<Integer, Integer> findStatusByIds(Collection<Integer> deviceIds) {
+        if (deviceIds == null || deviceIds.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        LambdaQueryWrapper<DevicePO> wrapper = new LambdaQueryWrapper<>();
+        wrapper.select(DevicePO::getId, DevicePO::getStatus)
+                .in(DevicePO::getId, deviceIds);
+        Map<Integer, Integer> statusById = new HashMap<>();
+        for (DevicePO po : deviceDao.selectList(wrapper)) {
+            statusById.put(po.getId(), po.getStatus());
+        }
+        return statusById;
+    }
+
     @Override
     public boolean deleteById(Integer id) {
         return deviceDao.deleteById(id) > 0;
@@ -0,0 +1,112 @@
+package com.aquainsight.infrastructure.repository;
+
+import com.aquainsight.domain.monitoring.entity.FactorReading;
+import com.aquainsight.domain.monitoring.repository.FactorReadingRepository;
+import com.aquainsight.domain.monitoring.types.SeriesPointConsumer;
+import com.aquainsight.infrastructure.tsdb.TimeSeriesStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 因子监测读数仓储实现(嵌入式时序存储)
+ * 每个(站点, 因子)为一条时间序列，不保存设备ID；
+ * 头块中的读数在封存前只保存在内存中，由定时任务按迟到容忍期封存
+ */
+@Slf4j
+@Repository
+@ConditionalOnProperty(prefix = "aquainsight.telemetry", name = "store", havingValue = "embedded", matchIfMissing = true)
+public class EmbeddedFactorReadingRepositoryImpl implements FactorReadingRepository {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final TimeSeriesStore store;
+    private final long sealGraceMillis;
+
+    public EmbeddedFactorReadingRepositoryImpl(
+            @Value("${aquainsight.telemetry.embedded.data-dir:data/tsdb}") String dataDir,
+            @Value("${aquainsight.telemetry.embedded.block-hours:2}") long blockHours,
+            @Value("${aquainsight.telemetry.embedded.max-head-points:5000000}") long maxHeadPoints,
+            @Value("${aquainsight.telemetry.embedded.seal-grace-minutes:10}") long sealGraceMinutes) {
+        this.store = new TimeSeriesStore(Paths.get(dataDir),
+                TimeUnit.HOURS.toMillis(Math.max(1, blockHours)), Math.max(1, maxHeadPoints));
+        this.sealGraceMillis = TimeUnit.MINUTES.toMillis(Math.max(0, sealGraceMinutes));
+    }
+
+    @PostConstruct
+    public void open() {
+        store.open();
+    }
+
+    @PreDestroy
+    public void close() {
+        long sealedPoints = store.sealAll();
+        log.info("时序存储已关闭，封存头块数据点: {}", sealedPoints);
+    }
+
+    @Override
+    public void batchSave(List<FactorReading> readings) {
+        for (FactorReading reading : readings) {
+            store.append(seriesKey(reading.getSiteId(), reading.getFactorId()),
+                    toMillis(reading.getReadingTime()), reading.getValue().doubleValue());
+        }
+    }
+
+    @Override
+    public List<FactorReading> findBySeries(Integer siteId, Integer factorId,
+                                            LocalDateTime startTime, LocalDateTime endTime) {
+        List<FactorReading> readings = new ArrayList<>();
+        store.query(seriesKey(siteId, factorId), toMillis(startTime), toMillis(endTime),
+                (timestampMillis, value) -> readings.add(FactorReading.builder()
+                        .siteId(siteId)
+                        .factorId(factorId)
+                        .readingTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(timestampMillis), ZONE))
+                        .value(BigDecimal.valueOf(value))
+                        .build()));
+        return readings;
+    }
+
+    @Override
+    public void scanSeries(Integer siteId, Integer factorId, LocalDateTime startTime, LocalDateTime endTime,
+                           SeriesPointConsumer consumer) {
+        store.query(seriesKey(siteId, factorId), toMillis(startTime), toMillis(endTime), consumer::accept);
+    }
+
+    @Override
+    public void flush() {
+        long sealedPoints = store.sealHeadBlocks(System.currentTimeMillis() - sealGraceMillis);
+        if (sealedPoints > 0) {
+            log.info("时序存储封存头块数据点: {}, 剩余头块数据点: {}", sealedPoints, store.getHeadPoints());
+        }
+    }
+
+    @Override
+    public long getPersistedBeforeMillis() {
+        return Math.min(System.currentTimeMillis(), store.getOldestHeadCreatedMillis());
+    }
+
+    @Override
+    public long deleteBefore(LocalDateTime cutoffTime) {
+        return store.deleteBlocksBefore(toMillis(cutoffTime));
+    }
+
+    private static long seriesKey(Integer siteId, Integer factorId) {
+        return ((long) siteId << 32) | (factorId & 0xFFFFFFFFL);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZONE).toInstant().toEpochMilli();
+    }
+}
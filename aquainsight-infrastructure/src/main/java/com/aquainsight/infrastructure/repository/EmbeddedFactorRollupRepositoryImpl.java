@@ -0,0 +1,162 @@
+package com.aquainsight.infrastructure.repository;
+
+import com.aquainsight.domain.monitoring.entity.FactorRollup;
+import com.aquainsight.domain.monitoring.repository.FactorRollupRepository;
+import com.aquainsight.domain.monitoring.types.RollupResolution;
+import com.aquainsight.infrastructure.tsdb.TimeSeriesStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 因子监测数据聚合仓储实现(嵌入式时序存储)
+ * 每种粒度一个独立的时序存储，与原始读数存储放在同一数据目录下；
+ * 聚合的每个字段保存为一条时间序列，重算的桶追加写入后按时间戳覆盖旧值
+ */
+@Slf4j
+@Repository
+@ConditionalOnProperty(prefix = "aquainsight.telemetry", name = "store", havingValue = "embedded", matchIfMissing = true)
+public class EmbeddedFactorRollupRepositoryImpl implements FactorRollupRepository {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private static final int FIELD_MIN = 0;
+    private static final int FIELD_MAX = 1;
+    private static final int FIELD_AVG = 2;
+    private static final int FIELD_COUNT = 3;
+    private static final int FIELD_LAST = 4;
+    private static final int FIELD_COUNT_TOTAL = 5;
+
+    /**
+     * 字段编号写在序列键的最高3位，站点ID需小于2^29
+     */
+    private static final int FIELD_SHIFT = 61;
+
+    private final Map<RollupResolution, TimeSeriesStore> stores = new EnumMap<>(RollupResolution.class);
+    private final long sealGraceMillis;
+
+    public EmbeddedFactorRollupRepositoryImpl(
+            @Value("${aquainsight.telemetry.embedded.data-dir:data/tsdb}") String dataDir,
+            @Value("${aquainsight.telemetry.embedded.max-head-points:5000000}") long maxHeadPoints,
+            @Value("${aquainsight.telemetry.embedded.seal-grace-minutes:10}") long sealGraceMinutes) {
+        Path root = Paths.get(dataDir);
+        stores.put(RollupResolution.MINUTE, new TimeSeriesStore(root.resolve("rollup-1m"),
+                TimeUnit.HOURS.toMillis(6), maxHeadPoints));
+        stores.put(RollupResolution.HOUR, new TimeSeriesStore(root.resolve("rollup-1h"),
+                TimeUnit.DAYS.toMillis(7), maxHeadPoints));
+        stores.put(RollupResolution.DAY, new TimeSeriesStore(root.resolve("rollup-1d"),
+                TimeUnit.DAYS.toMillis(90), maxHeadPoints));
+        this.sealGraceMillis = TimeUnit.MINUTES.toMillis(Math.max(0, sealGraceMinutes));
+    }
+
+    @PostConstruct
+    public void open() {
+        stores.values().forEach(TimeSeriesStore::open);
+    }
+
+    @PreDestroy
+    public void close() {
+        stores.values().forEach(TimeSeriesStore::sealAll);
+    }
+
+    @Override
+    public void saveAll(List<FactorRollup> rollups) {
+        for (FactorRollup rollup : rollups) {
+            TimeSeriesStore store = storeOf(rollup.getResolution());
+            long seriesKey = seriesKey(rollup.getSiteId(), rollup.getFactorId());
+            long millis = toMillis(rollup.getBucketTime());
+            store.append(fieldKey(seriesKey, FIELD_MIN), millis, rollup.getMinValue().doubleValue());
+            store.append(fieldKey(seriesKey, FIELD_MAX), millis, rollup.getMaxValue().doubleValue());
+            store.append(fieldKey(seriesKey, FIELD_AVG), millis, rollup.getAvgValue().doubleValue());
+            store.append(fieldKey(seriesKey, FIELD_COUNT), millis, rollup.getSampleCount());
+            store.append(fieldKey(seriesKey, FIELD_LAST), millis, rollup.getLastValue().doubleValue());
+        }
+    }
+
+    @Override
+    public List<FactorRollup> findBySeries(Integer siteId, Integer factorId, RollupResolution resolution,
+                                           LocalDateTime startTime, LocalDateTime endTime) {
+        TimeSeriesStore store = storeOf(resolution);
+        long seriesKey = seriesKey(siteId, factorId);
+        long from = toMillis(startTime);
+        long to = toMillis(endTime);
+        TreeMap<Long, double[]> buckets = new TreeMap<>();
+        for (int field = 0; field < FIELD_COUNT_TOTAL; field++) {
+            int currentField = field;
+            store.query(fieldKey(seriesKey, field), from, to, (timestampMillis, value) ->
+                    buckets.computeIfAbsent(timestampMillis, key -> new double[FIELD_COUNT_TOTAL])[currentField] = value);
+        }
+        List<FactorRollup> rollups = new ArrayList<>(buckets.size());
+        for (Map.Entry<Long, double[]> bucket : buckets.entrySet()) {
+            double[] fields = bucket.getValue();
+            rollups.add(FactorRollup.builder()
+                    .siteId(siteId)
+                    .factorId(factorId)
+                    .resolution(resolution)
+                    .bucketTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(bucket.getKey()), ZONE))
+                    .minValue(BigDecimal.valueOf(fields[FIELD_MIN]))
+                    .maxValue(BigDecimal.valueOf(fields[FIELD_MAX]))
+                    .avgValue(BigDecimal.valueOf(fields[FIELD_AVG]))
+                    .sampleCount((int) fields[FIELD_COUNT])
+                    .lastValue(BigDecimal.valueOf(fields[FIELD_LAST]))
+                    .build());
+        }
+        return rollups;
+    }
+
+    @Override
+    public void flush() {
+        long sealBefore = System.currentTimeMillis() - sealGraceMillis;
+        for (Map.Entry<RollupResolution, TimeSeriesStore> entry : stores.entrySet()) {
+            long sealedPoints = entry.getValue().sealHeadBlocks(sealBefore);
+            if (sealedPoints > 0) {
+                log.info("聚合存储封存头块数据点: {}, 粒度: {}", sealedPoints, entry.getKey().getCode());
+            }
+        }
+    }
+
+    @Override
+    public long deleteBefore(RollupResolution resolution, LocalDateTime cutoffTime) {
+        // 每个聚合占用5个字段数据点
+        return storeOf(resolution).deleteBlocksBefore(toMillis(cutoffTime)) / FIELD_COUNT_TOTAL;
+    }
+
+    private TimeSeriesStore storeOf(RollupResolution resolution) {
+        TimeSeriesStore store = stores.get(resolution);
+        if (store == null) {
+            throw new IllegalArgumentException("不支持的聚合粒度: " + resolution);
+        }
+        return store;
+    }
+
+    private static long seriesKey(Integer siteId, Integer factorId) {
+        if (siteId >>> (FIELD_SHIFT - 32) != 0) {
+            throw new IllegalArgumentException("站点ID超出聚合存储支持的范围: " + siteId);
+        }
+        return ((long) siteId << 32) | (factorId & 0xFFFFFFFFL);
+    }
+
+    private static long fieldKey(long seriesKey, int field) {
+        return seriesKey | ((long) field << FIELD_SHIFT);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZONE).toInstant().toEpochMilli();
+    }
+}
@@ -0,0 +1,141 @@
+package com.aquainsight.infrastructure.repository;
+
+import com.aquainsight.domain.monitoring.entity.FactorReading;
+import com.aquainsight.domain.monitoring.repository.FactorReadingJournal;
+import com.aquainsight.infrastructure.wal.WriteAheadLog;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 监测读数预写日志实现
+ * 一批读数编码为一条日志记录: 读数数量，随后每条读数依次为站点ID、设备ID(-1表示空)、因子ID、监测时间(毫秒)、
+ * 监测值的小数位数和非标度值字节
+ */
+@Repository
+public class FactorReadingJournalImpl implements FactorReadingJournal {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final int NO_DEVICE = -1;
+
+    private final WriteAheadLog wal;
+
+    public FactorReadingJournalImpl(
+            @Value("${aquainsight.ingest.wal.dir:data/wal}") String dir,
+            @Value("${aquainsight.ingest.wal.segment-size-mb:64}") long segmentSizeMb) {
+        this.wal = new WriteAheadLog(Paths.get(dir), Math.max(1, segmentSizeMb) * 1024 * 1024);
+    }
+
+    @PostConstruct
+    public void open() {
+        wal.open();
+    }
+
+    @PreDestroy
+    public void close() {
+        wal.close();
+    }
+
+    @Override
+    public long append(List<FactorReading> readings) {
+        return wal.append(encode(readings));
+    }
+
+    @Override
+    public void sync(long sequence) {
+        wal.sync(sequence);
+    }
+
+    @Override
+    public long replay(ReplayConsumer consumer) {
+        return wal.replay((sequence, payload) -> consumer.accept(sequence, decode(payload)));
+    }
+
+    @Override
+    public void checkpoint(long sequence) {
+        wal.checkpoint(sequence);
+    }
+
+    @Override
+    public long getLastSequence() {
+        return wal.getLastSequence();
+    }
+
+    @Override
+    public long getCheckpointSequence() {
+        return wal.getCheckpointSequence();
+    }
+
+    @Override
+    public int getSegmentCount() {
+        return wal.getSegmentCount();
+    }
+
+    @Override
+    public long getSyncCount() {
+        return wal.getSyncCount();
+    }
+
+    @Override
+    public long getSyncedRecordCount() {
+        return wal.getSyncedRecordCount();
+    }
+
+    private static byte[] encode(List<FactorReading> readings) {
+        List<byte[]> unscaledValues = new ArrayList<>(readings.size());
+        int size = 4;
+        for (FactorReading reading : readings) {
+            byte[] unscaled = reading.getValue().unscaledValue().toByteArray();
+            unscaledValues.add(unscaled);
+            size += 4 + 4 + 4 + 8 + 4 + 1 + unscaled.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(readings.size());
+        for (int i = 0; i < readings.size(); i++) {
+            FactorReading reading = readings.get(i);
+            byte[] unscaled = unscaledValues.get(i);
+            buffer.putInt(reading.getSiteId())
+                    .putInt(reading.getDeviceId() != null ? reading.getDeviceId() : NO_DEVICE)
+                    .putInt(reading.getFactorId())
+                    .putLong(reading.getReadingTime().atZone(ZONE).toInstant().toEpochMilli())
+                    .putInt(reading.getValue().scale())
+                    .put((byte) unscaled.length)
+                    .put(unscaled);
+        }
+        return buffer.array();
+    }
+
+    private static List<FactorReading> decode(byte[] payload) {
+        ByteBuffer buffer = ByteBuffer.wrap(payload);
+        int count = buffer.getInt();
+        List<FactorReading> readings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int siteId = buffer.getInt();
+            int deviceId = buffer.getInt();
+            int factorId = buffer.getInt();
+            long readingMillis = buffer.getLong();
+            int scale = buffer.getInt();
+            byte[] unscaled = new byte[buffer.get() & 0xFF];
+            buffer.get(unscaled);
+            readings.add(FactorReading.builder()
+                    .siteId(siteId)
+                    .deviceId(deviceId != NO_DEVICE ? deviceId : null)
+                    .factorId(factorId)
+                    .readingTime(LocalDateTime.ofInstant(Instant.ofEpochMilli(readingMillis), ZONE))
+                    .value(new BigDecimal(new BigInteger(unscaled), scale))
+                    .build());
+        }
+        return readings;
+    }
+}
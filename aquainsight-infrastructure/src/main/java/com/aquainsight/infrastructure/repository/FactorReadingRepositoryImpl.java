@@ -0,0 +1,121 @@
+package com.aquainsight.infrastructure.repository;
+
+import com.aquainsight.domain.monitoring.entity.FactorReading;
+import com.aquainsight.domain.monitoring.repository.FactorReadingRepository;
+import com.aquainsight.domain.monitoring.types.SeriesPointConsumer;
+import com.aquainsight.infrastructure.converter.FactorReadingConverter;
+import com.aquainsight.infrastructure.db.dao.FactorReadingDao;
+import com.aquainsight.infrastructure.db.model.FactorReadingPO;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * 因子监测读数仓储实现(MySQL)
+ * 每条读数一行，适合数据量较小的部署；同一站点、因子、监测时间只保留一行
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "aquainsight.telemetry", name = "store", havingValue = "mysql")
+public class FactorReadingRepositoryImpl implements FactorReadingRepository {
+
+    /**
+     * 单条INSERT语句的最大行数，避免超出max_allowed_packet
+     */
+    private static final int ROWS_PER_STATEMENT = 1000;
+
+    /**
+     * 逐点扫描时每页查询的行数
+     */
+    private static final int SCAN_PAGE_SIZE = 5000;
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private final FactorReadingDao factorReadingDao;
+    private final FactorReadingConverter converter = FactorReadingConverter.INSTANCE;
+
+    @Override
+    public void batchSave(List<FactorReading> readings) {
+        if (readings == null || readings.isEmpty()) {
+            return;
+        }
+        List<FactorReadingPO> poList = converter.toPOList(readings);
+        for (int from = 0; from < poList.size(); from += ROWS_PER_STATEMENT) {
+            factorReadingDao.insertBatch(poList.subList(from, Math.min(poList.size(), from + ROWS_PER_STATEMENT)));
+        }
+    }
+
+    @Override
+    public List<FactorReading> findBySeries(Integer siteId, Integer factorId,
+                                            LocalDateTime startTime, LocalDateTime endTime) {
+        LambdaQueryWrapper<FactorReadingPO> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(FactorReadingPO::getSiteId, siteId)
+                .eq(FactorReadingPO::getFactorId, factorId)
+                .ge(FactorReadingPO::getReadingTime, startTime)
+                .le(FactorReadingPO::getReadingTime, endTime)
+                .orderByAsc(FactorReadingPO::getReadingTime);
+        return converter.toEntityList(factorReadingDao.selectList(wrapper));
+    }
+
+    /**
+     * 按(监测时间, ID)键集分页查询，每次只持有一页数据
+     */
+    @Override
+    public void scanSeries(Integer siteId, Integer factorId, LocalDateTime startTime, LocalDateTime endTime,
+                           SeriesPointConsumer consumer) {
+        LocalDateTime lastTime = null;
+        Long lastId = null;
+        while (true) {
+            LambdaQueryWrapper<FactorReadingPO> wrapper = new LambdaQueryWrapper<>();
+            wrapper.eq(FactorReadingPO::getSiteId, siteId)
+                    .eq(FactorReadingPO::getFactorId, factorId)
+                    .le(FactorReadingPO::getReadingTime, endTime);
+            if (lastTime == null) {
+                wrapper.ge(FactorReadingPO::getReadingTime, startTime);
+            } else {
+                LocalDateTime pageTime = lastTime;
+                Long pageId = lastId;
+                wrapper.and(w -> w.gt(FactorReadingPO::getReadingTime, pageTime)
+                        .or(o -> o.eq(FactorReadingPO::getReadingTime, pageTime).gt(FactorReadingPO::getId, pageId)));
+            }
+            wrapper.orderByAsc(FactorReadingPO::getReadingTime)
+                    .orderByAsc(FactorReadingPO::getId)
+                    .last("LIMIT " + SCAN_PAGE_SIZE);
+            List<FactorReadingPO> page = factorReadingDao.selectList(wrapper);
+            for (FactorReadingPO po : page) {
+                consumer.accept(po.getReadingTime().atZone(ZONE).toInstant().toEpochMilli(), po.getValue().doubleValue());
+            }
+            if (page.size() < SCAN_PAGE_SIZE) {
+                return;
+            }
+            FactorReadingPO last = page.get(page.size() - 1);
+            lastTime = last.getReadingTime();
+            lastId = last.getId();
+        }
+    }
+
+    @Override
+    public void flush() {
+        // 读数写入时已直接落库
+    }
+
+    /**
+     * 读数写入时已直接落库，写入按(站点, 因子, 监测时间)覆盖，检查点之后的日志重放不会产生重复行
+     */
+    @Override
+    public long getPersistedBeforeMillis() {
+        return System.currentTimeMillis();
+    }
+
+    @Override
+    public long deleteBefore(LocalDateTime cutoffTime) {
+        LambdaQueryWrapper<FactorReadingPO> wrapper = new LambdaQueryWrapper<>();
+        wrapper.lt(FactorReadingPO::getReadingTime, cutoffTime);
+        return factorReadingDao.delete(wrapper);
+    }
+}
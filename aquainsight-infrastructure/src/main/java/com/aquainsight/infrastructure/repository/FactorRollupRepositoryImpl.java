@@ -0,0 +1,69 @@
+package com.aquainsight.infrastructure.repository;
+
+import com.aquainsight.domain.monitoring.entity.FactorRollup;
+import com.aquainsight.domain.monitoring.repository.FactorRollupRepository;
+import com.aquainsight.domain.monitoring.types.RollupResolution;
+import com.aquainsight.infrastructure.converter.FactorRollupConverter;
+import com.aquainsight.infrastructure.db.dao.FactorRollupDao;
+import com.aquainsight.infrastructure.db.model.FactorRollupPO;
+import com.baomidou.mybatisplus.core.conditions.query.LambdaQueryWrapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 因子监测数据聚合仓储实现(MySQL)
+ */
+@Repository
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "aquainsight.telemetry", name = "store", havingValue = "mysql")
+public class FactorRollupRepositoryImpl implements FactorRollupRepository {
+
+    /**
+     * 单条INSERT语句的最大行数
+     */
+    private static final int ROWS_PER_STATEMENT = 500;
+
+    private final FactorRollupDao factorRollupDao;
+    private final FactorRollupConverter converter = FactorRollupConverter.INSTANCE;
+
+    @Override
+    public void saveAll(List<FactorRollup> rollups) {
+        if (rollups == null || rollups.isEmpty()) {
+            return;
+        }
+        List<FactorRollupPO> poList = converter.toPOList(rollups);
+        for (int from = 0; from < poList.size(); from += ROWS_PER_STATEMENT) {
+            factorRollupDao.upsertBatch(poList.subList(from, Math.min(poList.size(), from + ROWS_PER_STATEMENT)));
+        }
+    }
+
+    @Override
+    public List<FactorRollup> findBySeries(Integer siteId, Integer factorId, RollupResolution resolution,
+                                           LocalDateTime startTime, LocalDateTime endTime) {
+        LambdaQueryWrapper<FactorRollupPO> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(FactorRollupPO::getSiteId, siteId)
+                .eq(FactorRollupPO::getFactorId, factorId)
+                .eq(FactorRollupPO::getResolution, resolution.getCode())
+                .ge(FactorRollupPO::getBucketTime, startTime)
+                .le(FactorRollupPO::getBucketTime, endTime)
+                .orderByAsc(FactorRollupPO::getBucketTime);
+        return converter.toEntityList(factorRollupDao.selectList(wrapper));
+    }
+
+    @Override
+    public void flush() {
+        // 聚合写入时已直接落库
+    }
+
+    @Override
+    public long deleteBefore(RollupResolution resolution, LocalDateTime cutoffTime) {
+        LambdaQueryWrapper<FactorRollupPO> wrapper = new LambdaQueryWrapper<>();
+        wrapper.eq(FactorRollupPO::getResolution, resolution.getCode())
+                .lt(FactorRollupPO::getBucketTime, cutoffTime);
+        return factorRollupDao.delete(wrapper);
+    }
+}
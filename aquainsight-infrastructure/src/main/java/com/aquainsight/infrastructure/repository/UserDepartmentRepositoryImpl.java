@@ -37,6 +37,12 @@ public class UserDepartmentRepositoryImpl implements UserDepartmentRepository {
                 .map(UserDepartmentConverter.INSTANCE::toEntity);
     }
 
+    @Override
+    public List<UserDepartment> findAll() {
+        List<UserDepartmentPO> poList = userDepartmentDao.selectList(null);
+        return UserDepartmentConverter.INSTANCE.toEntityList(poList);
+    }
+
     @Override
     public List<UserDepartment> findByUserId(Integer userId) {
         LambdaQueryWrapper<UserDepartmentPO> wrapper = new LambdaQueryWrapper<>();
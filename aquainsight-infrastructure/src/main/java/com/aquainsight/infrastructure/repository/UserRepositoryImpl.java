@@ -11,6 +11,8 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Repository;
 
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -39,6 +41,15 @@ public class UserRepositoryImpl implements UserRepository {
                 .map(UserConverter.INSTANCE::toEntity);
     }
 
+    @Override
+    public List<User> findByIds(Collection<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<UserPO> userPOList = userDao.selectBatchIds(ids);
+        return UserConverter.INSTANCE.toEntityList(userPOList);
+    }
+
     @Override
     public Optional<User> findByPhone(String phone) {
         LambdaQueryWrapper<UserPO> wrapper = new LambdaQueryWrapper<>();
@@ -0,0 +1,36 @@
+package com.aquainsight.infrastructure.tsdb;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 按位读取的字节缓冲区视图，高位在前，不修改底层缓冲区的position
+ */
+final class BitInput {
+
+    private final ByteBuffer buffer;
+    private final int offset;
+    private long bitPosition;
+
+    BitInput(ByteBuffer buffer, int offset) {
+        this.buffer = buffer;
+        this.offset = offset;
+    }
+
+    boolean readBit() {
+        int b = buffer.get(offset + (int) (bitPosition >>> 3));
+        boolean bit = (b & (0x80 >>> (bitPosition & 7))) != 0;
+        bitPosition++;
+        return bit;
+    }
+
+    /**
+     * 读取count位(count取值0~64)并作为无符号数返回
+     */
+    long readBits(int count) {
+        long value = 0;
+        for (int i = 0; i < count; i++) {
+            value = (value << 1) | (readBit() ? 1L : 0L);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,59 @@
+package com.aquainsight.infrastructure.tsdb;
+
+import java.util.Arrays;
+
+/**
+ * 按位写入的字节缓冲区，高位在前
+ */
+final class BitOutput {
+
+    private byte[] buffer;
+
+    /**
+     * 已写入的位数
+     */
+    private long bitLength;
+
+    BitOutput(int initialBytes) {
+        this.buffer = new byte[Math.max(16, initialBytes)];
+    }
+
+    void writeBit(boolean bit) {
+        ensureCapacity(1);
+        if (bit) {
+            buffer[(int) (bitLength >>> 3)] |= (byte) (0x80 >>> (bitLength & 7));
+        }
+        bitLength++;
+    }
+
+    /**
+     * 写入value的低count位(count取值0~64)
+     */
+    void writeBits(long value, int count) {
+        ensureCapacity(count);
+        for (int i = count - 1; i >= 0; i--) {
+            if (((value >>> i) & 1L) != 0) {
+                buffer[(int) (bitLength >>> 3)] |= (byte) (0x80 >>> (bitLength & 7));
+            }
+            bitLength++;
+        }
+    }
+
+    /**
+     * 已写入的字节数(末字节不足8位时补0)
+     */
+    int byteLength() {
+        return (int) ((bitLength + 7) >>> 3);
+    }
+
+    byte[] toByteArray() {
+        return Arrays.copyOf(buffer, byteLength());
+    }
+
+    private void ensureCapacity(int bits) {
+        long required = (bitLength + bits + 7) >>> 3;
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, (int) Math.max(required, buffer.length * 2L));
+        }
+    }
+}
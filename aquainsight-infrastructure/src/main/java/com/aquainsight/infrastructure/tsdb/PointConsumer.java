@@ -0,0 +1,10 @@
+package com.aquainsight.infrastructure.tsdb;
+
+/**
+ * 接收时序数据点的回调
+ */
+@FunctionalInterface
+public interface PointConsumer {
+
+    void accept(long timestampMillis, double value);
+}
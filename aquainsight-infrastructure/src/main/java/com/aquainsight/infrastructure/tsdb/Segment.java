@@ -0,0 +1,158 @@
+package com.aquainsight.infrastructure.tsdb;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 只追加的段文件
+ * 一个段保存一个时间块内若干序列的压缩数据，写入后不再修改，读取时整体内存映射；
+ * 文件结构: 魔数、版本、序列数、序列索引(序列键、点数、最小/最大时间、数据偏移、数据长度)、各序列压缩数据
+ */
+final class Segment {
+
+    private static final int MAGIC = 0x41515453;
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 12;
+    private static final int INDEX_ENTRY_BYTES = 40;
+
+    private final Path file;
+    private final MappedByteBuffer buffer;
+    private final Map<Long, IndexEntry> index;
+    private final long pointCount;
+
+    private Segment(Path file, MappedByteBuffer buffer, Map<Long, IndexEntry> index, long pointCount) {
+        this.file = file;
+        this.buffer = buffer;
+        this.index = index;
+        this.pointCount = pointCount;
+    }
+
+    /**
+     * 将序列写入新的段文件，先写临时文件再原子改名，中途宕机不会留下不完整的段
+     * 序列缓冲须已按时间排序去重
+     */
+    static Segment write(Path file, Map<Long, SeriesBuffer> series) throws IOException {
+        Map<Long, byte[]> encoded = new HashMap<>(series.size() * 2);
+        int dataBytes = 0;
+        for (Map.Entry<Long, SeriesBuffer> entry : series.entrySet()) {
+            if (entry.getValue().size() == 0) {
+                continue;
+            }
+            byte[] data = entry.getValue().encode();
+            encoded.put(entry.getKey(), data);
+            dataBytes += data.length;
+        }
+        int dataOffset = HEADER_BYTES + encoded.size() * INDEX_ENTRY_BYTES;
+        ByteBuffer out = ByteBuffer.allocate(dataOffset + dataBytes);
+        out.putInt(MAGIC).putInt(VERSION).putInt(encoded.size());
+        int offset = dataOffset;
+        for (Map.Entry<Long, byte[]> entry : encoded.entrySet()) {
+            SeriesBuffer buffer = series.get(entry.getKey());
+            out.putLong(entry.getKey())
+                    .putInt(buffer.size())
+                    .putLong(buffer.minTimestamp())
+                    .putLong(buffer.maxTimestamp())
+                    .putLong(offset)
+                    .putInt(entry.getValue().length);
+            offset += entry.getValue().length;
+        }
+        for (byte[] data : encoded.values()) {
+            out.put(data);
+        }
+        out.flip();
+
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+        Files.move(tempFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return open(file);
+    }
+
+    /**
+     * 内存映射打开段文件并解析序列索引
+     */
+    static Segment open(Path file) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("段文件格式错误: " + file);
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IOException("不支持的段文件版本: " + version + ", 文件: " + file);
+        }
+        int seriesCount = buffer.getInt(8);
+        if (HEADER_BYTES + (long) seriesCount * INDEX_ENTRY_BYTES > buffer.capacity()) {
+            throw new IOException("段文件索引不完整: " + file);
+        }
+        Map<Long, IndexEntry> index = new HashMap<>(seriesCount * 2);
+        long pointCount = 0;
+        int position = HEADER_BYTES;
+        for (int i = 0; i < seriesCount; i++) {
+            IndexEntry entry = new IndexEntry(buffer.getInt(position + 8), buffer.getLong(position + 12),
+                    buffer.getLong(position + 20), (int) buffer.getLong(position + 28), buffer.getInt(position + 36));
+            if ((long) entry.dataOffset + entry.dataLength > buffer.capacity()) {
+                throw new IOException("段文件数据不完整: " + file);
+            }
+            index.put(buffer.getLong(position), entry);
+            pointCount += entry.count;
+            position += INDEX_ENTRY_BYTES;
+        }
+        return new Segment(file, buffer, index, pointCount);
+    }
+
+    /**
+     * 读取指定序列在时间范围内的数据点
+     */
+    void read(long seriesKey, long fromMillis, long toMillis, PointConsumer consumer) {
+        IndexEntry entry = index.get(seriesKey);
+        if (entry == null || entry.maxTimestamp < fromMillis || entry.minTimestamp > toMillis) {
+            return;
+        }
+        SeriesCodec.decode(buffer, entry.dataOffset, entry.count, fromMillis, toMillis, consumer);
+    }
+
+    Path getFile() {
+        return file;
+    }
+
+    long getPointCount() {
+        return pointCount;
+    }
+
+    long getMappedBytes() {
+        return buffer.capacity();
+    }
+
+    private static final class IndexEntry {
+
+        private final int count;
+        private final long minTimestamp;
+        private final long maxTimestamp;
+        private final int dataOffset;
+        private final int dataLength;
+
+        private IndexEntry(int count, long minTimestamp, long maxTimestamp, int dataOffset, int dataLength) {
+            this.count = count;
+            this.minTimestamp = minTimestamp;
+            this.maxTimestamp = maxTimestamp;
+            this.dataOffset = dataOffset;
+            this.dataLength = dataLength;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.aquainsight.infrastructure.tsdb;
+
+import java.util.Arrays;
+
+/**
+ * 单条时间序列的可增长数据点缓冲，用于头块和查询结果合并
+ * 非线程安全，由调用方同步
+ */
+final class SeriesBuffer {
+
+    private long[] timestamps;
+    private double[] values;
+    private int size;
+    private boolean sorted = true;
+
+    SeriesBuffer(int initialCapacity) {
+        int capacity = Math.max(4, initialCapacity);
+        this.timestamps = new long[capacity];
+        this.values = new double[capacity];
+    }
+
+    void append(long timestampMillis, double value) {
+        if (size == timestamps.length) {
+            timestamps = Arrays.copyOf(timestamps, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        if (size > 0 && timestampMillis < timestamps[size - 1]) {
+            sorted = false;
+        }
+        timestamps[size] = timestampMillis;
+        values[size] = value;
+        size++;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * 清空数据点，保留已分配的数组以便复用
+     */
+    void clear() {
+        size = 0;
+        sorted = true;
+    }
+
+    long timestampAt(int index) {
+        return timestamps[index];
+    }
+
+    double valueAt(int index) {
+        return values[index];
+    }
+
+    long minTimestamp() {
+        return timestamps[0];
+    }
+
+    long maxTimestamp() {
+        return timestamps[size - 1];
+    }
+
+    /**
+     * 按时间升序排列并去除时间戳重复的数据点，重复时保留最后写入的值
+     */
+    void normalize() {
+        if (!sorted) {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            // 稳定排序，时间戳相同的数据点保持写入顺序
+            Arrays.sort(order, (a, b) -> Long.compare(timestamps[a], timestamps[b]));
+            long[] sortedTimestamps = new long[timestamps.length];
+            double[] sortedValues = new double[values.length];
+            for (int i = 0; i < size; i++) {
+                sortedTimestamps[i] = timestamps[order[i]];
+                sortedValues[i] = values[order[i]];
+            }
+            timestamps = sortedTimestamps;
+            values = sortedValues;
+            sorted = true;
+        }
+        int write = 0;
+        for (int read = 0; read < size; read++) {
+            if (write > 0 && timestamps[write - 1] == timestamps[read]) {
+                values[write - 1] = values[read];
+            } else {
+                timestamps[write] = timestamps[read];
+                values[write] = values[read];
+                write++;
+            }
+        }
+        size = write;
+    }
+
+    byte[] encode() {
+        return SeriesCodec.encode(timestamps, values, size);
+    }
+
+    long estimateBytes() {
+        return 32L + timestamps.length * 16L;
+    }
+}
@@ -0,0 +1,148 @@
+package com.aquainsight.infrastructure.tsdb;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 单条时间序列的压缩编码
+ * 时间戳使用二阶差分(delta-of-delta)变长编码，数值使用与前值异或后仅保存有效位的编码；
+ * 等间隔采样的时间戳和变化缓慢的数值大多只占1位
+ */
+final class SeriesCodec {
+
+    private SeriesCodec() {
+    }
+
+    /**
+     * 编码按时间升序排列的数据点
+     */
+    static byte[] encode(long[] timestamps, double[] values, int count) {
+        BitOutput out = new BitOutput(count * 2 + 16);
+        if (count == 0) {
+            return out.toByteArray();
+        }
+        long prevTimestamp = timestamps[0];
+        long prevDelta = 0;
+        long prevBits = Double.doubleToRawLongBits(values[0]);
+        int prevLeading = -1;
+        int prevTrailing = 0;
+        out.writeBits(prevTimestamp, 64);
+        out.writeBits(prevBits, 64);
+
+        for (int i = 1; i < count; i++) {
+            long delta = timestamps[i] - prevTimestamp;
+            writeDeltaOfDelta(out, delta - prevDelta);
+            prevTimestamp = timestamps[i];
+            prevDelta = delta;
+
+            long bits = Double.doubleToRawLongBits(values[i]);
+            long xor = bits ^ prevBits;
+            prevBits = bits;
+            if (xor == 0) {
+                out.writeBit(false);
+                continue;
+            }
+            out.writeBit(true);
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (prevLeading >= 0 && leading >= prevLeading && trailing >= prevTrailing) {
+                // 有效位落在上一个窗口内，复用窗口
+                out.writeBit(false);
+                out.writeBits(xor >>> prevTrailing, 64 - prevLeading - prevTrailing);
+            } else {
+                int meaningful = 64 - leading - trailing;
+                out.writeBit(true);
+                out.writeBits(leading, 5);
+                out.writeBits(meaningful - 1, 6);
+                out.writeBits(xor >>> trailing, meaningful);
+                prevLeading = leading;
+                prevTrailing = trailing;
+            }
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * 解码数据点，只回调时间落在[fromMillis, toMillis]内的数据点
+     */
+    static void decode(ByteBuffer buffer, int offset, int count, long fromMillis, long toMillis,
+                       PointConsumer consumer) {
+        if (count == 0) {
+            return;
+        }
+        BitInput in = new BitInput(buffer, offset);
+        long timestamp = in.readBits(64);
+        long bits = in.readBits(64);
+        long delta = 0;
+        int leading = 0;
+        int trailing = 0;
+        emit(timestamp, bits, fromMillis, toMillis, consumer);
+
+        for (int i = 1; i < count; i++) {
+            delta += readDeltaOfDelta(in);
+            timestamp += delta;
+            if (in.readBit()) {
+                if (in.readBit()) {
+                    leading = (int) in.readBits(5);
+                    int meaningful = (int) in.readBits(6) + 1;
+                    trailing = 64 - leading - meaningful;
+                }
+                bits ^= in.readBits(64 - leading - trailing) << trailing;
+            }
+            if (timestamp > toMillis) {
+                // 数据点按时间升序，之后不会再有命中
+                return;
+            }
+            emit(timestamp, bits, fromMillis, toMillis, consumer);
+        }
+    }
+
+    private static void emit(long timestamp, long bits, long fromMillis, long toMillis, PointConsumer consumer) {
+        if (timestamp >= fromMillis && timestamp <= toMillis) {
+            consumer.accept(timestamp, Double.longBitsToDouble(bits));
+        }
+    }
+
+    private static void writeDeltaOfDelta(BitOutput out, long dod) {
+        if (dod == 0) {
+            out.writeBit(false);
+        } else if (fits(dod, 7)) {
+            out.writeBits(0b10, 2);
+            out.writeBits(dod, 7);
+        } else if (fits(dod, 9)) {
+            out.writeBits(0b110, 3);
+            out.writeBits(dod, 9);
+        } else if (fits(dod, 12)) {
+            out.writeBits(0b1110, 4);
+            out.writeBits(dod, 12);
+        } else {
+            out.writeBits(0b1111, 4);
+            out.writeBits(dod, 64);
+        }
+    }
+
+    private static long readDeltaOfDelta(BitInput in) {
+        if (!in.readBit()) {
+            return 0;
+        }
+        if (!in.readBit()) {
+            return signExtend(in.readBits(7), 7);
+        }
+        if (!in.readBit()) {
+            return signExtend(in.readBits(9), 9);
+        }
+        if (!in.readBit()) {
+            return signExtend(in.readBits(12), 12);
+        }
+        return in.readBits(64);
+    }
+
+    private static boolean fits(long value, int bits) {
+        long bound = 1L << (bits - 1);
+        return value >= -bound && value < bound;
+    }
+
+    private static long signExtend(long value, int bits) {
+        int shift = 64 - bits;
+        return (value << shift) >> shift;
+    }
+}
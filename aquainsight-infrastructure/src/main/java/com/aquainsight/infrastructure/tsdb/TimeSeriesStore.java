@@ -0,0 +1,343 @@
+package com.aquainsight.infrastructure.tsdb;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 嵌入式时序存储引擎
+ * 数据按固定时长划分时间块，新数据先写入内存头块，时间块结束并超过迟到容忍期后封存为只追加的段文件；
+ * 迟到数据写入新的头块并封存为同一时间块下的新段，查询时合并同一时间块的所有段和头块；
+ * 保留期按整块删除。头块数据在封存前只存在于内存中
+ */
+@Slf4j
+public class TimeSeriesStore {
+
+    private static final String BLOCK_DIR_PREFIX = "block-";
+    private static final String SEGMENT_FILE_PREFIX = "seg-";
+    private static final String SEGMENT_FILE_SUFFIX = ".dat";
+
+    private final Path dataDir;
+    private final long blockDurationMillis;
+    private final long maxHeadPoints;
+
+    /**
+     * 时间块起始时间 -> 头块(序列键 -> 数据点缓冲)
+     */
+    private final ConcurrentMap<Long, ConcurrentMap<Long, SeriesBuffer>> headBlocks = new ConcurrentHashMap<>();
+
+    /**
+     * 时间块起始时间 -> 头块创建时间，头块中的数据点都在创建之后写入
+     */
+    private final ConcurrentMap<Long, Long> headCreatedMillis = new ConcurrentHashMap<>();
+
+    /**
+     * 时间块起始时间 -> 已封存的段，按写入顺序排列
+     */
+    private final NavigableMap<Long, List<Segment>> sealedBlocks = new TreeMap<>();
+
+    /**
+     * 写入和查询共享读锁，封存和删除持有写锁
+     */
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final AtomicLong headPoints = new AtomicLong();
+
+    public TimeSeriesStore(Path dataDir, long blockDurationMillis, long maxHeadPoints) {
+        this.dataDir = dataDir;
+        this.blockDurationMillis = blockDurationMillis;
+        this.maxHeadPoints = maxHeadPoints;
+    }
+
+    /**
+     * 打开存储目录，加载已封存的段
+     */
+    public void open() {
+        try {
+            Files.createDirectories(dataDir);
+            int segmentCount = 0;
+            try (DirectoryStream<Path> blockDirs = Files.newDirectoryStream(dataDir, BLOCK_DIR_PREFIX + "*")) {
+                for (Path blockDir : blockDirs) {
+                    long blockStart = Long.parseLong(blockDir.getFileName().toString().substring(BLOCK_DIR_PREFIX.length()));
+                    List<Segment> segments = new ArrayList<>();
+                    for (Path file : listSegmentFiles(blockDir)) {
+                        try {
+                            segments.add(Segment.open(file));
+                        } catch (IOException e) {
+                            log.warn("跳过无法读取的段文件: {}, 原因: {}", file, e.getMessage());
+                        }
+                    }
+                    if (!segments.isEmpty()) {
+                        sealedBlocks.put(blockStart, segments);
+                        segmentCount += segments.size();
+                    }
+                }
+            }
+            log.info("时序存储已打开，目录: {}, 时间块: {}, 段文件: {}", dataDir.toAbsolutePath(), sealedBlocks.size(), segmentCount);
+        } catch (IOException e) {
+            throw new UncheckedIOException("打开时序存储失败: " + dataDir, e);
+        }
+    }
+
+    /**
+     * 写入一个数据点
+     */
+    public void append(long seriesKey, long timestampMillis, double value) {
+        lock.readLock().lock();
+        try {
+            SeriesBuffer buffer = headBlocks
+                    .computeIfAbsent(blockStartOf(timestampMillis), start -> {
+                        headCreatedMillis.put(start, System.currentTimeMillis());
+                        return new ConcurrentHashMap<>();
+                    })
+                    .computeIfAbsent(seriesKey, key -> new SeriesBuffer(16));
+            synchronized (buffer) {
+                buffer.append(timestampMillis, value);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (headPoints.incrementAndGet() > maxHeadPoints) {
+            sealIfOverLimit();
+        }
+    }
+
+    /**
+     * 查询序列在时间范围内的数据点，按时间升序，同一时间戳只保留最后写入的值
+     * 逐个时间块读取并回调，内存占用只与单个时间块内的数据量有关；回调时不持有锁
+     */
+    public void query(long seriesKey, long fromMillis, long toMillis, PointConsumer consumer) {
+        long fromBlock = blockStartOf(fromMillis);
+        NavigableSet<Long> blockStarts = new TreeSet<>();
+        lock.readLock().lock();
+        try {
+            blockStarts.addAll(sealedBlocks.subMap(fromBlock, true, toMillis, true).keySet());
+            for (Long blockStart : headBlocks.keySet()) {
+                if (blockStart >= fromBlock && blockStart <= toMillis) {
+                    blockStarts.add(blockStart);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        SeriesBuffer result = new SeriesBuffer(64);
+        for (Long blockStart : blockStarts) {
+            result.clear();
+            lock.readLock().lock();
+            try {
+                List<Segment> segments = sealedBlocks.get(blockStart);
+                if (segments != null) {
+                    for (Segment segment : segments) {
+                        segment.read(seriesKey, fromMillis, toMillis, result::append);
+                    }
+                }
+                appendHead(blockStart, seriesKey, fromMillis, toMillis, result);
+            } finally {
+                lock.readLock().unlock();
+            }
+            result.normalize();
+            for (int i = 0; i < result.size(); i++) {
+                consumer.accept(result.timestampAt(i), result.valueAt(i));
+            }
+        }
+    }
+
+    /**
+     * 封存结束时间早于sealBeforeMillis的头块
+     *
+     * @return 封存的数据点数量
+     */
+    public long sealHeadBlocks(long sealBeforeMillis) {
+        lock.writeLock().lock();
+        try {
+            long sealedPoints = 0;
+            Iterator<Map.Entry<Long, ConcurrentMap<Long, SeriesBuffer>>> iterator = headBlocks.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Long, ConcurrentMap<Long, SeriesBuffer>> block = iterator.next();
+                if (block.getKey() + blockDurationMillis > sealBeforeMillis) {
+                    continue;
+                }
+                Map<Long, SeriesBuffer> series = new HashMap<>(block.getValue());
+                long points = 0;
+                for (SeriesBuffer buffer : series.values()) {
+                    points += buffer.size();
+                    buffer.normalize();
+                }
+                Segment segment = writeSegment(block.getKey(), series);
+                sealedBlocks.computeIfAbsent(block.getKey(), start -> new ArrayList<>()).add(segment);
+                iterator.remove();
+                headCreatedMillis.remove(block.getKey());
+                headPoints.addAndGet(-points);
+                sealedPoints += points;
+            }
+            return sealedPoints;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 封存全部头块，停止前调用
+     */
+    public long sealAll() {
+        return sealHeadBlocks(Long.MAX_VALUE);
+    }
+
+    /**
+     * 头块超出内存上限时提前封存全部头块，多个写入线程同时触发时只封存一次
+     */
+    private void sealIfOverLimit() {
+        lock.writeLock().lock();
+        try {
+            if (headPoints.get() > maxHeadPoints) {
+                long sealedPoints = sealHeadBlocks(Long.MAX_VALUE);
+                log.info("时序存储头块超出上限，提前封存数据点: {}", sealedPoints);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 删除结束时间不晚于cutoffMillis的时间块
+     *
+     * @return 删除的数据点数量
+     */
+    public long deleteBlocksBefore(long cutoffMillis) {
+        lock.writeLock().lock();
+        try {
+            long deletedPoints = 0;
+            Iterator<Map.Entry<Long, List<Segment>>> iterator = sealedBlocks.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Long, List<Segment>> block = iterator.next();
+                if (block.getKey() + blockDurationMillis > cutoffMillis) {
+                    break;
+                }
+                Path blockDir = blockDirOf(block.getKey());
+                for (Segment segment : block.getValue()) {
+                    deletedPoints += segment.getPointCount();
+                    Files.deleteIfExists(segment.getFile());
+                }
+                Files.deleteIfExists(blockDir);
+                iterator.remove();
+            }
+            Iterator<Map.Entry<Long, ConcurrentMap<Long, SeriesBuffer>>> headIterator = headBlocks.entrySet().iterator();
+            while (headIterator.hasNext()) {
+                Map.Entry<Long, ConcurrentMap<Long, SeriesBuffer>> block = headIterator.next();
+                if (block.getKey() + blockDurationMillis <= cutoffMillis) {
+                    long points = block.getValue().values().stream().mapToLong(SeriesBuffer::size).sum();
+                    headPoints.addAndGet(-points);
+                    deletedPoints += points;
+                    headIterator.remove();
+                    headCreatedMillis.remove(block.getKey());
+                }
+            }
+            return deletedPoints;
+        } catch (IOException e) {
+            throw new UncheckedIOException("删除过期时间块失败", e);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 头块中的数据点数量
+     */
+    public long getHeadPoints() {
+        return headPoints.get();
+    }
+
+    /**
+     * 最早的头块创建时间，没有头块时返回Long.MAX_VALUE
+     * 在此之前写入的数据点都已封存到段文件
+     */
+    public long getOldestHeadCreatedMillis() {
+        long oldest = Long.MAX_VALUE;
+        for (Long createdMillis : headCreatedMillis.values()) {
+            oldest = Math.min(oldest, createdMillis);
+        }
+        return oldest;
+    }
+
+    /**
+     * 已封存的时间块数量
+     */
+    public int getSealedBlockCount() {
+        lock.readLock().lock();
+        try {
+            return sealedBlocks.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void appendHead(long blockStart, long seriesKey, long fromMillis, long toMillis, SeriesBuffer result) {
+        Map<Long, SeriesBuffer> head = headBlocks.get(blockStart);
+        SeriesBuffer buffer = head != null ? head.get(seriesKey) : null;
+        if (buffer == null) {
+            return;
+        }
+        synchronized (buffer) {
+            for (int i = 0; i < buffer.size(); i++) {
+                long timestamp = buffer.timestampAt(i);
+                if (timestamp >= fromMillis && timestamp <= toMillis) {
+                    result.append(timestamp, buffer.valueAt(i));
+                }
+            }
+        }
+    }
+
+    private Segment writeSegment(long blockStart, Map<Long, SeriesBuffer> series) {
+        Path blockDir = blockDirOf(blockStart);
+        try {
+            Files.createDirectories(blockDir);
+            int sequence = 1;
+            for (Path file : listSegmentFiles(blockDir)) {
+                String name = file.getFileName().toString();
+                int fileSequence = Integer.parseInt(
+                        name.substring(SEGMENT_FILE_PREFIX.length(), name.length() - SEGMENT_FILE_SUFFIX.length()));
+                sequence = Math.max(sequence, fileSequence + 1);
+            }
+            Path file = blockDir.resolve(String.format("%s%06d%s", SEGMENT_FILE_PREFIX, sequence, SEGMENT_FILE_SUFFIX));
+            return Segment.write(file, series);
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入段文件失败: " + blockDir, e);
+        }
+    }
+
+    private List<Path> listSegmentFiles(Path blockDir) throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(blockDir,
+                SEGMENT_FILE_PREFIX + "*" + SEGMENT_FILE_SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        // 段文件名按序号补零，按文件名排序即写入顺序
+        files.sort(null);
+        return files;
+    }
+
+    private Path blockDirOf(long blockStart) {
+        return dataDir.resolve(BLOCK_DIR_PREFIX + blockStart);
+    }
+
+    private long blockStartOf(long timestampMillis) {
+        return Math.floorDiv(timestampMillis, blockDurationMillis) * blockDurationMillis;
+    }
+}
@@ -0,0 +1,512 @@
+package com.aquainsight.infrastructure.wal;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * 分段预写日志
+ * 记录按序号顺序追加到当前段文件，段超过大小上限后滚动到新段；
+ * 追加只写入操作系统缓存，由同步线程合并调用fsync(组提交)，等待方在所需序号落盘后返回。
+ * 记录格式: 长度(4字节)、CRC32(4字节，覆盖序号和内容)、序号(8字节)、内容；
+ * 段文件名为段内首条记录的序号。检查点之前的记录全部已持久化到下游存储，只包含这些记录的段可以删除
+ */
+@Slf4j
+public class WriteAheadLog {
+
+    private static final String SEGMENT_FILE_PREFIX = "wal-";
+    private static final String SEGMENT_FILE_SUFFIX = ".log";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int RECORD_HEADER_BYTES = 16;
+
+    /**
+     * 单条记录内容的最大长度，用于识别损坏的长度字段
+     */
+    private static final int MAX_RECORD_BYTES = 64 * 1024 * 1024;
+
+    private final Path dir;
+    private final long segmentBytes;
+
+    /**
+     * 段首条记录序号 -> 段文件
+     */
+    private final NavigableMap<Long, Path> segments = new ConcurrentSkipListMap<>();
+
+    /**
+     * 追加和滚动段时持有
+     */
+    private final ReentrantLock appendLock = new ReentrantLock();
+
+    /**
+     * 同步线程与等待落盘的调用方之间的监视器
+     */
+    private final Object syncMonitor = new Object();
+
+    private FileChannel channel;
+
+    /**
+     * 只在持有追加锁时修改
+     */
+    private volatile long lastSequence;
+    private volatile long syncedSequence;
+    private volatile long failedSequence;
+    private volatile long checkpointSequence;
+    private volatile long syncCount;
+    private volatile long syncedRecordCount;
+    private volatile boolean running;
+    private Thread syncThread;
+
+    public WriteAheadLog(Path dir, long segmentBytes) {
+        this.dir = dir;
+        this.segmentBytes = segmentBytes;
+    }
+
+    /**
+     * 打开日志目录，截断最后一段末尾写了一半的记录，并在新段上继续追加
+     */
+    public void open() {
+        try {
+            Files.createDirectories(dir);
+            checkpointSequence = readCheckpoint();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(dir,
+                    SEGMENT_FILE_PREFIX + "*" + SEGMENT_FILE_SUFFIX)) {
+                for (Path file : files) {
+                    String name = file.getFileName().toString();
+                    segments.put(Long.parseLong(name.substring(SEGMENT_FILE_PREFIX.length(),
+                            name.length() - SEGMENT_FILE_SUFFIX.length())), file);
+                }
+            }
+            lastSequence = checkpointSequence;
+            if (!segments.isEmpty()) {
+                Map.Entry<Long, Path> last = segments.lastEntry();
+                long lastInSegment = scan(last.getValue(), last.getKey() - 1, Long.MAX_VALUE, null, true);
+                lastSequence = Math.max(lastSequence, lastInSegment);
+            }
+            syncedSequence = lastSequence;
+            failedSequence = 0;
+            openSegment(lastSequence + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException("打开预写日志失败: " + dir, e);
+        }
+        running = true;
+        syncThread = new Thread(this::syncLoop, "wal-sync");
+        syncThread.setDaemon(true);
+        syncThread.start();
+        log.info("预写日志已打开，目录: {}, 段文件: {}, 最新序号: {}, 检查点: {}",
+                dir.toAbsolutePath(), segments.size(), lastSequence, checkpointSequence);
+    }
+
+    /**
+     * 关闭日志，关闭前将已追加的记录落盘
+     */
+    public void close() {
+        running = false;
+        synchronized (syncMonitor) {
+            syncMonitor.notifyAll();
+        }
+        if (syncThread != null) {
+            try {
+                syncThread.join(5000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        appendLock.lock();
+        try {
+            if (channel != null) {
+                channel.force(false);
+                channel.close();
+                markSynced(lastSequence, 0);
+            }
+        } catch (IOException e) {
+            log.error("关闭预写日志失败", e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * 追加一条记录，只写入操作系统缓存，需要持久化时调用 {@link #sync(long)}
+     * 写入失败时截断写了一半的记录，截断失败则滚动到新段，段内有效记录之后不会再有新记录
+     *
+     * @return 记录序号
+     */
+    public long append(byte[] payload) {
+        appendLock.lock();
+        long start = -1;
+        try {
+            long sequence = lastSequence + 1;
+            CRC32 crc = new CRC32();
+            ByteBuffer sequenceBytes = ByteBuffer.allocate(8).putLong(0, sequence);
+            crc.update(sequenceBytes.array());
+            crc.update(payload);
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+            header.putInt(payload.length).putInt((int) crc.getValue()).putLong(sequence).flip();
+            ByteBuffer body = ByteBuffer.wrap(payload);
+            ByteBuffer[] buffers = {header, body};
+            start = channel.position();
+            while (header.hasRemaining() || body.hasRemaining()) {
+                channel.write(buffers);
+            }
+            lastSequence = sequence;
+            rollSegmentIfFull();
+            return sequence;
+        } catch (IOException e) {
+            discardPartialRecord(start);
+            throw new UncheckedIOException("写入预写日志失败", e);
+        } finally {
+            appendLock.unlock();
+            synchronized (syncMonitor) {
+                syncMonitor.notifyAll();
+            }
+        }
+    }
+
+    /**
+     * 等待直到指定序号及之前的记录全部落盘
+     * 多个调用方同时等待时由同步线程一次fsync合并提交
+     */
+    public void sync(long sequence) {
+        synchronized (syncMonitor) {
+            while (syncedSequence < sequence) {
+                if (failedSequence >= sequence) {
+                    throw new IllegalStateException("预写日志落盘失败，序号: " + sequence);
+                }
+                if (!running) {
+                    throw new IllegalStateException("预写日志已关闭");
+                }
+                try {
+                    syncMonitor.wait(100);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("等待预写日志落盘被中断", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 按序号顺序重放检查点之后的记录
+     *
+     * @return 重放的记录数量
+     */
+    public long replay(RecordConsumer consumer) {
+        long replayed = 0;
+        long afterSequence = checkpointSequence;
+        for (Map.Entry<Long, Path> entry : segments.entrySet()) {
+            Long nextFirst = segments.higherKey(entry.getKey());
+            if (nextFirst != null && nextFirst - 1 <= afterSequence) {
+                continue;
+            }
+            long[] count = {0};
+            try {
+                scan(entry.getValue(), afterSequence, syncedSequence, (sequence, payload) -> {
+                    consumer.accept(sequence, payload);
+                    count[0]++;
+                }, false);
+            } catch (IOException e) {
+                throw new UncheckedIOException("重放预写日志失败: " + entry.getValue(), e);
+            }
+            replayed += count[0];
+        }
+        return replayed;
+    }
+
+    /**
+     * 记录检查点，删除只包含检查点之前记录的段
+     *
+     * @param sequence 该序号及之前的记录已全部持久化到下游存储
+     */
+    public void checkpoint(long sequence) {
+        if (sequence <= checkpointSequence) {
+            return;
+        }
+        try {
+            Path tempFile = dir.resolve(CHECKPOINT_FILE + ".tmp");
+            try (FileChannel out = FileChannel.open(tempFile, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.allocate(8).putLong(0, sequence);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                out.force(true);
+            }
+            Files.move(tempFile, dir.resolve(CHECKPOINT_FILE), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            checkpointSequence = sequence;
+
+            int deleted = 0;
+            Iterator<Map.Entry<Long, Path>> iterator = segments.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Long, Path> entry = iterator.next();
+                Long nextFirst = segments.higherKey(entry.getKey());
+                if (nextFirst == null || nextFirst - 1 > sequence) {
+                    break;
+                }
+                Files.deleteIfExists(entry.getValue());
+                iterator.remove();
+                deleted++;
+            }
+            if (deleted > 0) {
+                log.info("预写日志检查点: {}, 删除段文件: {}, 剩余段文件: {}", sequence, deleted, segments.size());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("写入预写日志检查点失败", e);
+        }
+    }
+
+    public long getLastSequence() {
+        return lastSequence;
+    }
+
+    public long getSyncedSequence() {
+        return syncedSequence;
+    }
+
+    public long getCheckpointSequence() {
+        return checkpointSequence;
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * fsync次数
+     */
+    public long getSyncCount() {
+        return syncCount;
+    }
+
+    /**
+     * 通过fsync落盘的记录数，与fsync次数之比即组提交的平均合并记录数
+     */
+    public long getSyncedRecordCount() {
+        return syncedRecordCount;
+    }
+
+    private void syncLoop() {
+        while (running) {
+            FileChannel target;
+            long targetSequence;
+            synchronized (syncMonitor) {
+                if (lastSequence <= syncedSequence) {
+                    try {
+                        syncMonitor.wait(100);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+            appendLock.lock();
+            try {
+                target = channel;
+                targetSequence = lastSequence;
+            } finally {
+                appendLock.unlock();
+            }
+            try {
+                target.force(false);
+                markSynced(targetSequence, 1);
+            } catch (ClosedChannelException e) {
+                // 段已滚动，滚动时已落盘
+            } catch (IOException e) {
+                log.error("预写日志落盘失败，序号: {}", targetSequence, e);
+                markFailed(targetSequence);
+            }
+        }
+    }
+
+    private void markFailed(long sequence) {
+        synchronized (syncMonitor) {
+            failedSequence = Math.max(failedSequence, sequence);
+            syncMonitor.notifyAll();
+        }
+    }
+
+    private void markSynced(long sequence, int syncs) {
+        synchronized (syncMonitor) {
+            if (sequence > syncedSequence) {
+                syncedRecordCount += sequence - syncedSequence;
+                syncedSequence = sequence;
+            }
+            syncCount += syncs;
+            syncMonitor.notifyAll();
+        }
+    }
+
+    /**
+     * 当前段达到大小上限时滚动，记录已写入，滚动失败只记录日志，下次追加时重试，调用方须持有追加锁
+     */
+    private void rollSegmentIfFull() {
+        try {
+            if (channel.position() >= segmentBytes) {
+                rollSegment();
+            }
+        } catch (IOException e) {
+            log.error("预写日志滚动段失败，序号: {}", lastSequence, e);
+        }
+    }
+
+    /**
+     * 落盘并关闭当前段，后续记录写入新段，调用方须持有追加锁
+     */
+    private void rollSegment() throws IOException {
+        channel.force(false);
+        markSynced(lastSequence, 1);
+        channel.close();
+        openSegment(lastSequence + 1);
+    }
+
+    /**
+     * 截断追加失败时写了一半的记录；无法截断时放弃当前段，后续记录写入新段，调用方须持有追加锁
+     *
+     * @param start 记录在段内的起始位置，未取得时为-1
+     */
+    private void discardPartialRecord(long start) {
+        if (start >= 0) {
+            try {
+                channel.truncate(start);
+                channel.position(start);
+                return;
+            } catch (IOException e) {
+                log.error("截断预写日志段失败，改为滚动到新段，位置: {}", start, e);
+            }
+        }
+        if (channel.isOpen()) {
+            try {
+                channel.force(false);
+                markSynced(lastSequence, 1);
+            } catch (IOException e) {
+                log.error("预写日志落盘失败，序号: {}", lastSequence, e);
+                markFailed(lastSequence);
+            }
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.warn("关闭预写日志段失败", e);
+            }
+        }
+        try {
+            openSegment(lastSequence + 1);
+        } catch (IOException e) {
+            log.error("预写日志打开新段失败，序号: {}", lastSequence + 1, e);
+        }
+    }
+
+    private void openSegment(long firstSequence) throws IOException {
+        Path file = dir.resolve(String.format("%s%020d%s", SEGMENT_FILE_PREFIX, firstSequence, SEGMENT_FILE_SUFFIX));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        channel.truncate(0);
+        segments.put(firstSequence, file);
+    }
+
+    /**
+     * 顺序读取段文件中序号在(afterSequence, maxSequence]内的记录
+     *
+     * @param truncateTail 遇到不完整或校验失败的记录时是否截断文件，只用于最后一段
+     * @return 段内最后一条有效记录的序号，无有效记录时返回afterSequence
+     */
+    private long scan(Path file, long afterSequence, long maxSequence, RecordConsumer consumer,
+                      boolean truncateTail) throws IOException {
+        long lastValid = afterSequence;
+        try (FileChannel in = truncateTail
+                ? FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)
+                : FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = in.size();
+            long position = 0;
+            ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER_BYTES);
+            while (position < size) {
+                header.clear();
+                if (!readFully(in, header, position)) {
+                    break;
+                }
+                header.flip();
+                int length = header.getInt();
+                int crc = header.getInt();
+                long sequence = header.getLong();
+                if (length < 0 || length > MAX_RECORD_BYTES || position + RECORD_HEADER_BYTES + length > size) {
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                if (!readFully(in, payload, position + RECORD_HEADER_BYTES)) {
+                    break;
+                }
+                CRC32 checksum = new CRC32();
+                checksum.update(ByteBuffer.allocate(8).putLong(0, sequence).array());
+                checksum.update(payload.array());
+                if ((int) checksum.getValue() != crc) {
+                    break;
+                }
+                position += RECORD_HEADER_BYTES + length;
+                if (sequence > maxSequence) {
+                    break;
+                }
+                lastValid = Math.max(lastValid, sequence);
+                if (consumer != null && sequence > afterSequence) {
+                    consumer.accept(sequence, payload.array());
+                }
+            }
+            if (position < size) {
+                if (truncateTail) {
+                    log.warn("预写日志段末尾存在不完整的记录，截断: {}, 有效长度: {}, 文件长度: {}", file, position, size);
+                    in.truncate(position);
+                    in.force(true);
+                } else if (consumer != null) {
+                    log.warn("预写日志段存在损坏的记录，跳过其后内容: {}, 位置: {}", file, position);
+                }
+            }
+        }
+        return lastValid;
+    }
+
+    private static boolean readFully(FileChannel in, ByteBuffer buffer, long position) throws IOException {
+        long offset = position;
+        while (buffer.hasRemaining()) {
+            int read = in.read(buffer, offset);
+            if (read < 0) {
+                return false;
+            }
+            offset += read;
+        }
+        return true;
+    }
+
+    private long readCheckpoint() throws IOException {
+        Path file = dir.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(file);
+        if (bytes.length != 8) {
+            throw new IOException("预写日志检查点文件损坏: " + file);
+        }
+        return ByteBuffer.wrap(bytes).getLong();
+    }
+
+    /**
+     * 日志记录消费者
+     */
+    @FunctionalInterface
+    public interface RecordConsumer {
+
+        void accept(long sequence, byte[] payload);
+    }
+}
@@ -0,0 +1,94 @@
+package com.aquainsight.infrastructure.repository;
+
+import com.aquainsight.domain.alert.types.AnomalyBaseline;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AnomalyBaselineRepositoryImplTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void roundTripsCheckpoint() {
+        Path file = dir.resolve("checkpoint/anomaly-baselines.bin");
+        AnomalyBaselineRepositoryImpl repository = new AnomalyBaselineRepositoryImpl(file.toString());
+
+        repository.save(sample());
+        Map<String, Map<Integer, AnomalyBaseline>> loaded = repository.load();
+
+        assertEquals(2, loaded.size());
+        assertEquals(2, loaded.get("site_ph").size());
+        AnomalyBaseline baseline = loaded.get("site_ph").get(2);
+        assertEquals(7.25, baseline.getMean());
+        assertEquals(0.04, baseline.getVariance());
+        assertEquals(300, baseline.getCount());
+        assertEquals(1_700_000_000_000L, baseline.getLastTimestampMillis());
+        assertEquals(-3.5, loaded.get("site_温度").get(1).getMean());
+        // 临时文件已原子替换为检查点
+        assertFalse(Files.exists(dir.resolve("checkpoint/anomaly-baselines.bin.tmp")));
+    }
+
+    @Test
+    void overwritesPreviousCheckpoint() {
+        AnomalyBaselineRepositoryImpl repository =
+                new AnomalyBaselineRepositoryImpl(dir.resolve("anomaly-baselines.bin").toString());
+        repository.save(sample());
+
+        Map<String, Map<Integer, AnomalyBaseline>> next = new HashMap<>();
+        next.put("site_cod", new HashMap<>());
+        next.get("site_cod").put(9, new AnomalyBaseline(20, 4, 50, 1L));
+        repository.save(next);
+
+        Map<String, Map<Integer, AnomalyBaseline>> loaded = repository.load();
+        assertEquals(1, loaded.size());
+        assertEquals(20.0, loaded.get("site_cod").get(9).getMean());
+    }
+
+    @Test
+    void loadsEmptyWhenCheckpointMissing() {
+        AnomalyBaselineRepositoryImpl repository =
+                new AnomalyBaselineRepositoryImpl(dir.resolve("missing.bin").toString());
+
+        assertTrue(repository.load().isEmpty());
+    }
+
+    @Test
+    void rejectsTruncatedOrForeignCheckpoint() throws IOException {
+        Path file = dir.resolve("anomaly-baselines.bin");
+        AnomalyBaselineRepositoryImpl repository = new AnomalyBaselineRepositoryImpl(file.toString());
+        repository.save(sample());
+        byte[] bytes = Files.readAllBytes(file);
+
+        Files.write(file, Arrays.copyOf(bytes, bytes.length - 5));
+        assertThrows(UncheckedIOException.class, repository::load);
+
+        Files.write(file, new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(IllegalStateException.class, repository::load);
+    }
+
+    private static Map<String, Map<Integer, AnomalyBaseline>> sample() {
+        Map<String, Map<Integer, AnomalyBaseline>> baselines = new HashMap<>();
+        Map<Integer, AnomalyBaseline> ph = new HashMap<>();
+        ph.put(1, new AnomalyBaseline(7.0, 0.01, 20, 1_699_999_999_000L));
+        ph.put(2, new AnomalyBaseline(7.25, 0.04, 300, 1_700_000_000_000L));
+        baselines.put("site_ph", ph);
+        Map<Integer, AnomalyBaseline> temperature = new HashMap<>();
+        temperature.put(1, new AnomalyBaseline(-3.5, 2.0, 21, 1L));
+        baselines.put("site_温度", temperature);
+        return baselines;
+    }
+}
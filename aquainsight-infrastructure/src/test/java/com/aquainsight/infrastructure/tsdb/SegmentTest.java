@@ -0,0 +1,65 @@
+package com.aquainsight.infrastructure.tsdb;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void writesAndReadsSeries() throws IOException {
+        Path file = dir.resolve("seg-000001.dat");
+
+        Segment segment = Segment.write(file, sample());
+
+        assertEquals(5, segment.getPointCount());
+        assertFalse(Files.exists(dir.resolve("seg-000001.dat.tmp")));
+        List<Long> timestamps = new ArrayList<>();
+        Segment.open(file).read(1, 2000, 3000, (timestamp, value) -> timestamps.add(timestamp));
+        assertEquals(Arrays.asList(2000L, 3000L), timestamps);
+    }
+
+    @Test
+    void rejectsTruncatedFile() throws IOException {
+        Path file = dir.resolve("seg-000001.dat");
+        Segment.write(file, sample());
+        byte[] bytes = Files.readAllBytes(file);
+
+        // 截断在数据区、索引区和文件头中
+        for (int length : new int[]{bytes.length - 1, 20, 8, 0}) {
+            Files.write(file, Arrays.copyOf(bytes, length));
+            IOException e = assertThrows(IOException.class, () -> Segment.open(file));
+            assertTrue(e.getMessage().contains(file.toString()), e.getMessage());
+        }
+    }
+
+    private static Map<Long, SeriesBuffer> sample() {
+        Map<Long, SeriesBuffer> series = new HashMap<>();
+        SeriesBuffer first = new SeriesBuffer(4);
+        first.append(1000, 7.0);
+        first.append(2000, 7.1);
+        first.append(3000, 7.2);
+        series.put(1L, first);
+        SeriesBuffer second = new SeriesBuffer(4);
+        second.append(1000, 20.5);
+        second.append(4000, 21.0);
+        series.put(2L, second);
+        return series;
+    }
+}
@@ -0,0 +1,113 @@
+package com.aquainsight.infrastructure.tsdb;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SeriesCodecTest {
+
+    @Test
+    void roundTripsRegularSeries() {
+        int count = 1440;
+        long[] timestamps = new long[count];
+        double[] values = new double[count];
+        for (int i = 0; i < count; i++) {
+            timestamps[i] = 1_700_000_000_000L + i * 60_000L;
+            values[i] = 7.2 + (i % 10) * 0.01;
+        }
+
+        byte[] encoded = SeriesCodec.encode(timestamps, values, count);
+
+        assertRoundTrip(timestamps, values, count, encoded);
+        // 时间戳等间隔时每点只占1位，整体应小于原始16字节/点的一半
+        assertTrue(encoded.length < count * 8, "编码长度: " + encoded.length);
+    }
+
+    @Test
+    void roundTripsIrregularTimestampsAndSpecialValues() {
+        Random random = new Random(42);
+        int count = 5000;
+        long[] timestamps = new long[count];
+        double[] values = new double[count];
+        long timestamp = 1_700_000_000_000L;
+        double[] specials = {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY,
+                -0.0, 0.0, Double.MIN_VALUE, Double.MAX_VALUE, -1.5};
+        for (int i = 0; i < count; i++) {
+            // 覆盖二阶差分的各档编码：不变、7/9/12位以及完整64位
+            switch (random.nextInt(5)) {
+                case 0:
+                    timestamp += 60_000L;
+                    break;
+                case 1:
+                    timestamp += 60_000L + random.nextInt(100);
+                    break;
+                case 2:
+                    timestamp += 1 + random.nextInt(3000);
+                    break;
+                case 3:
+                    timestamp += 1 + random.nextInt(86_400_000);
+                    break;
+                default:
+                    timestamp += 1;
+                    break;
+            }
+            timestamps[i] = timestamp;
+            values[i] = random.nextInt(4) == 0
+                    ? specials[random.nextInt(specials.length)]
+                    : random.nextGaussian() * Math.pow(10, random.nextInt(12) - 6);
+        }
+
+        assertRoundTrip(timestamps, values, count, SeriesCodec.encode(timestamps, values, count));
+    }
+
+    @Test
+    void roundTripsSinglePointAndEmptySeries() {
+        long[] timestamps = {1_700_000_000_000L};
+        double[] values = {6.8};
+
+        assertRoundTrip(timestamps, values, 1, SeriesCodec.encode(timestamps, values, 1));
+        assertRoundTrip(new long[0], new double[0], 0, SeriesCodec.encode(new long[0], new double[0], 0));
+    }
+
+    @Test
+    void decodesOnlyPointsWithinRange() {
+        long[] timestamps = new long[100];
+        double[] values = new double[100];
+        for (int i = 0; i < 100; i++) {
+            timestamps[i] = i * 1000L;
+            values[i] = i;
+        }
+        byte[] encoded = SeriesCodec.encode(timestamps, values, 100);
+        List<Double> decoded = new ArrayList<>();
+
+        SeriesCodec.decode(ByteBuffer.wrap(encoded), 0, 100, 10_000L, 19_000L, (t, v) -> decoded.add(v));
+
+        assertEquals(10, decoded.size());
+        assertEquals(10.0, decoded.get(0));
+        assertEquals(19.0, decoded.get(9));
+    }
+
+    /**
+     * 在编码数据前放置无关字节，校验按偏移量解码，并逐位比较数值
+     */
+    private static void assertRoundTrip(long[] timestamps, double[] values, int count, byte[] encoded) {
+        ByteBuffer buffer = ByteBuffer.allocate(encoded.length + 3);
+        buffer.put(new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF}).put(encoded);
+        List<long[]> decoded = new ArrayList<>();
+
+        SeriesCodec.decode(buffer, 3, count, Long.MIN_VALUE, Long.MAX_VALUE,
+                (t, v) -> decoded.add(new long[]{t, Double.doubleToRawLongBits(v)}));
+
+        assertEquals(count, decoded.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(timestamps[i], decoded.get(i)[0], "第" + i + "个点的时间");
+            assertEquals(Double.doubleToRawLongBits(values[i]), decoded.get(i)[1], "第" + i + "个点的数值");
+        }
+    }
+}
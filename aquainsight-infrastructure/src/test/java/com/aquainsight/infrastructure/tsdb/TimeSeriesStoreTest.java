@@ -0,0 +1,167 @@
+package com.aquainsight.infrastructure.tsdb;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeSeriesStoreTest {
+
+    private static final long HOUR = 3_600_000L;
+    private static final long MINUTE = 60_000L;
+    private static final long T0 = 1_700_002_800_000L;
+
+    @TempDir
+    Path dir;
+
+    private TimeSeriesStore store;
+
+    @BeforeEach
+    void setUp() {
+        store = new TimeSeriesStore(dir, HOUR, 1000);
+        store.open();
+    }
+
+    @AfterEach
+    void tearDown() {
+        store.sealAll();
+    }
+
+    @Test
+    void queriesAcrossHeadAndSealedBlocks() {
+        store.append(1, T0, 1.0);
+        store.append(1, T0 + 30 * MINUTE, 2.0);
+        store.append(2, T0 + 30 * MINUTE, 99.0);
+        store.append(1, T0 + HOUR + MINUTE, 3.0);
+
+        assertEquals(3, store.sealHeadBlocks(T0 + HOUR));
+        assertEquals(1, store.getSealedBlockCount());
+        assertEquals(1, store.getHeadPoints());
+
+        assertEquals(Arrays.asList(point(T0, 1.0), point(T0 + 30 * MINUTE, 2.0), point(T0 + HOUR + MINUTE, 3.0)),
+                query(1, T0, T0 + 2 * HOUR));
+        // 查询范围裁剪到块内部
+        assertEquals(Arrays.asList(point(T0 + 30 * MINUTE, 2.0), point(T0 + HOUR + MINUTE, 3.0)),
+                query(1, T0 + MINUTE, T0 + HOUR + MINUTE));
+        assertTrue(query(3, T0, T0 + 2 * HOUR).isEmpty());
+    }
+
+    @Test
+    void mergesLateSegmentsWithLastWriteWins() throws IOException {
+        store.append(1, T0, 1.0);
+        store.append(1, T0 + 2 * MINUTE, 2.0);
+        store.sealAll();
+
+        // 迟到数据：补一个更早的点并覆盖已封存的值
+        store.append(1, T0 + 2 * MINUTE, 20.0);
+        store.append(1, T0 + MINUTE, 1.5);
+        assertEquals(Arrays.asList(point(T0, 1.0), point(T0 + MINUTE, 1.5), point(T0 + 2 * MINUTE, 20.0)),
+                query(1, T0, T0 + HOUR));
+
+        store.sealAll();
+
+        assertEquals(1, store.getSealedBlockCount());
+        assertEquals(Arrays.asList("seg-000001.dat", "seg-000002.dat"), segmentFiles(T0));
+        assertEquals(Arrays.asList(point(T0, 1.0), point(T0 + MINUTE, 1.5), point(T0 + 2 * MINUTE, 20.0)),
+                query(1, T0, T0 + HOUR));
+    }
+
+    @Test
+    void sealsHeadBlocksWhenOverLimit() {
+        TimeSeriesStore small = new TimeSeriesStore(dir.resolve("small"), HOUR, 3);
+        small.open();
+        small.append(1, T0, 1.0);
+        small.append(1, T0 + HOUR, 2.0);
+        small.append(1, T0 + 2 * HOUR, 3.0);
+        assertEquals(3, small.getHeadPoints());
+        assertEquals(0, small.getSealedBlockCount());
+
+        small.append(1, T0 + 3 * HOUR, 4.0);
+
+        // 超出上限时连同未结束的时间块一起封存
+        assertEquals(0, small.getHeadPoints());
+        assertEquals(4, small.getSealedBlockCount());
+        assertEquals(Long.MAX_VALUE, small.getOldestHeadCreatedMillis());
+        assertEquals(4, query(small, 1, T0, T0 + 4 * HOUR).size());
+    }
+
+    @Test
+    void deletesWholeBlocksBeforeCutoff() {
+        for (int hour = 0; hour < 3; hour++) {
+            store.append(1, T0 + hour * HOUR, hour);
+            store.append(1, T0 + hour * HOUR + MINUTE, hour);
+        }
+        store.sealHeadBlocks(T0 + 2 * HOUR);
+
+        // 结束时间晚于截止时间的时间块整块保留，不删除其中的部分数据点
+        assertEquals(2, store.deleteBlocksBefore(T0 + 2 * HOUR - 1));
+        assertEquals(1, store.getSealedBlockCount());
+        assertFalse(Files.exists(dir.resolve("block-" + T0)));
+        assertTrue(Files.exists(dir.resolve("block-" + (T0 + HOUR))));
+        assertEquals(Arrays.asList(point(T0 + HOUR, 1), point(T0 + HOUR + MINUTE, 1),
+                point(T0 + 2 * HOUR, 2), point(T0 + 2 * HOUR + MINUTE, 2)), query(1, T0, T0 + 3 * HOUR));
+
+        // 头块同样按整块删除
+        assertEquals(4, store.deleteBlocksBefore(T0 + 3 * HOUR));
+        assertEquals(0, store.getSealedBlockCount());
+        assertEquals(0, store.getHeadPoints());
+        assertTrue(query(1, T0, T0 + 3 * HOUR).isEmpty());
+    }
+
+    @Test
+    void reloadsSegmentsAfterRestart() throws IOException {
+        store.append(1, T0, 1.0);
+        store.sealAll();
+        store.append(1, T0, 10.0);
+        store.append(2, T0 + HOUR, 2.0);
+        store.sealAll();
+        // 不完整的段文件在打开时跳过
+        Files.write(dir.resolve("block-" + (T0 + HOUR)).resolve("seg-000002.dat"), new byte[]{1, 2, 3});
+
+        TimeSeriesStore reopened = new TimeSeriesStore(dir, HOUR, 1000);
+        reopened.open();
+
+        assertEquals(2, reopened.getSealedBlockCount());
+        assertEquals(0, reopened.getHeadPoints());
+        assertEquals(Arrays.asList(point(T0, 10.0)), query(reopened, 1, T0, T0 + 2 * HOUR));
+        assertEquals(Arrays.asList(point(T0 + HOUR, 2.0)), query(reopened, 2, T0, T0 + 2 * HOUR));
+
+        // 新段序号接在已有文件之后
+        reopened.append(1, T0 + MINUTE, 3.0);
+        reopened.sealAll();
+        assertEquals(Arrays.asList("seg-000001.dat", "seg-000002.dat", "seg-000003.dat"), segmentFiles(T0));
+    }
+
+    private List<String> segmentFiles(long blockStart) throws IOException {
+        try (Stream<Path> files = Files.list(dir.resolve("block-" + blockStart))) {
+            return files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private List<String> query(long seriesKey, long fromMillis, long toMillis) {
+        return query(store, seriesKey, fromMillis, toMillis);
+    }
+
+    private static List<String> query(TimeSeriesStore store, long seriesKey, long fromMillis, long toMillis) {
+        List<String> points = new ArrayList<>();
+        store.query(seriesKey, fromMillis, toMillis, (timestamp, value) -> points.add(point(timestamp, value)));
+        return points;
+    }
+
+    private static String point(long timestampMillis, double value) {
+        return (timestampMillis - T0) / MINUTE + "=" + value;
+    }
+}
@@ -0,0 +1,280 @@
+package com.aquainsight.infrastructure.wal;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WriteAheadLogTest {
+
+    @TempDir
+    Path dir;
+
+    private WriteAheadLog wal;
+
+    @AfterEach
+    void tearDown() {
+        if (wal != null) {
+            wal.close();
+        }
+    }
+
+    @Test
+    void replaysRecordsAcrossSegmentsAfterReopen() {
+        wal = open(100);
+        for (int i = 1; i <= 10; i++) {
+            wal.sync(wal.append(payload(i)));
+        }
+        assertTrue(wal.getSegmentCount() > 1);
+
+        reopen(100);
+
+        assertEquals(10, wal.getLastSequence());
+        assertEquals(sequence(1, 10), replay());
+    }
+
+    @Test
+    void truncatesTornTailAndContinuesAppending() throws IOException {
+        wal = open(1024 * 1024);
+        for (int i = 1; i <= 3; i++) {
+            wal.sync(wal.append(payload(i)));
+        }
+        wal.close();
+        // 模拟进程在写入记录中途退出
+        Files.write(lastSegment(), new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND);
+
+        wal = open(1024 * 1024);
+        assertEquals(3, wal.getLastSequence());
+        wal.sync(wal.append(payload(4)));
+
+        reopen(1024 * 1024);
+        assertEquals(sequence(1, 4), replay());
+    }
+
+    @Test
+    void checkpointDeletesCoveredSegmentsAndLimitsReplay() {
+        wal = open(100);
+        for (int i = 1; i <= 10; i++) {
+            wal.sync(wal.append(payload(i)));
+        }
+        int segments = wal.getSegmentCount();
+
+        wal.checkpoint(6);
+
+        assertTrue(wal.getSegmentCount() < segments);
+        reopen(100);
+        assertEquals(6, wal.getCheckpointSequence());
+        assertEquals(sequence(7, 10), replay());
+    }
+
+    @Test
+    void failedAppendDoesNotLeavePartialRecordInSegment() throws Exception {
+        wal = open(1024 * 1024);
+        wal.sync(wal.append(payload(1)));
+        FailingChannel failing = replaceChannel(false);
+
+        assertThrows(UncheckedIOException.class, () -> wal.append(payload(99)));
+        assertEquals(1, failing.failures);
+
+        wal.sync(wal.append(payload(2)));
+        wal.sync(wal.append(payload(3)));
+        reopen(1024 * 1024);
+
+        assertEquals(sequence(1, 3), replay());
+    }
+
+    @Test
+    void failedAppendRollsSegmentWhenTruncateFails() throws Exception {
+        wal = open(1024 * 1024);
+        wal.sync(wal.append(payload(1)));
+        replaceChannel(true);
+
+        assertThrows(UncheckedIOException.class, () -> wal.append(payload(99)));
+        assertEquals(2, wal.getSegmentCount());
+
+        wal.sync(wal.append(payload(2)));
+        wal.sync(wal.append(payload(3)));
+        reopen(1024 * 1024);
+
+        assertEquals(sequence(1, 3), replay());
+    }
+
+    private WriteAheadLog open(long segmentBytes) {
+        WriteAheadLog log = new WriteAheadLog(dir, segmentBytes);
+        log.open();
+        return log;
+    }
+
+    private void reopen(long segmentBytes) {
+        wal.close();
+        wal = open(segmentBytes);
+    }
+
+    private List<String> replay() {
+        List<String> payloads = new ArrayList<>();
+        wal.replay((sequence, payload) -> payloads.add(new String(payload, StandardCharsets.UTF_8)));
+        return payloads;
+    }
+
+    private Path lastSegment() throws IOException {
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("wal-"))
+                    .max(Path::compareTo)
+                    .orElseThrow(IllegalStateException::new);
+        }
+    }
+
+    private FailingChannel replaceChannel(boolean failTruncate) throws Exception {
+        Field field = WriteAheadLog.class.getDeclaredField("channel");
+        field.setAccessible(true);
+        FailingChannel failing = new FailingChannel((FileChannel) field.get(wal), failTruncate);
+        field.set(wal, failing);
+        return failing;
+    }
+
+    private static byte[] payload(int index) {
+        return ("record-" + index + "-" + String.join("", Collections.nCopies(index, "x")))
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> sequence(int from, int to) {
+        List<String> payloads = new ArrayList<>();
+        for (int i = from; i <= to; i++) {
+            payloads.add(new String(payload(i), StandardCharsets.UTF_8));
+        }
+        return payloads;
+    }
+
+    /**
+     * 第一次写入只写出部分记录后失败的段文件通道
+     */
+    private static final class FailingChannel extends FileChannel {
+
+        private final FileChannel delegate;
+        private final boolean failTruncate;
+        private int failures;
+
+        private FailingChannel(FileChannel delegate, boolean failTruncate) {
+            this.delegate = delegate;
+            this.failTruncate = failTruncate;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) throws IOException {
+            if (failures == 0) {
+                failures++;
+                ByteBuffer partial = srcs[offset].duplicate();
+                partial.limit(partial.position() + 10);
+                delegate.write(partial);
+                throw new IOException("模拟磁盘写入失败");
+            }
+            return delegate.write(srcs, offset, length);
+        }
+
+        @Override
+        public FileChannel truncate(long size) throws IOException {
+            if (failTruncate) {
+                throw new IOException("模拟截断失败");
+            }
+            delegate.truncate(size);
+            return this;
+        }
+
+        @Override
+        public int read(ByteBuffer dst) throws IOException {
+            return delegate.read(dst);
+        }
+
+        @Override
+        public long read(ByteBuffer[] dsts, int offset, int length) throws IOException {
+            return delegate.read(dsts, offset, length);
+        }
+
+        @Override
+        public int write(ByteBuffer src) throws IOException {
+            return delegate.write(src);
+        }
+
+        @Override
+        public long position() throws IOException {
+            return delegate.position();
+        }
+
+        @Override
+        public FileChannel position(long newPosition) throws IOException {
+            delegate.position(newPosition);
+            return this;
+        }
+
+        @Override
+        public long size() throws IOException {
+            return delegate.size();
+        }
+
+        @Override
+        public void force(boolean metaData) throws IOException {
+            delegate.force(metaData);
+        }
+
+        @Override
+        public long transferTo(long position, long count, WritableByteChannel target) throws IOException {
+            return delegate.transferTo(position, count, target);
+        }
+
+        @Override
+        public long transferFrom(ReadableByteChannel src, long position, long count) throws IOException {
+            return delegate.transferFrom(src, position, count);
+        }
+
+        @Override
+        public int read(ByteBuffer dst, long position) throws IOException {
+            return delegate.read(dst, position);
+        }
+
+        @Override
+        public int write(ByteBuffer src, long position) throws IOException {
+            return delegate.write(src, position);
+        }
+
+        @Override
+        public MappedByteBuffer map(MapMode mode, long position, long size) throws IOException {
+            return delegate.map(mode, position, size);
+        }
+
+        @Override
+        public FileLock lock(long position, long size, boolean shared) throws IOException {
+            return delegate.lock(position, size, shared);
+        }
+
+        @Override
+        public FileLock tryLock(long position, long size, boolean shared) throws IOException {
+            return delegate.tryLock(position, size, shared);
+        }
+
+        @Override
+        protected void implCloseChannel() throws IOException {
+            delegate.close();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.aquainsight.interfaces.hj212;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * HJ 212 报文编码
+ * 报文 = "##" + 数据段长度(4位十进制) + 数据段 + CRC16(4位十六进制) + "\r\n"
+ */
+public final class Hj212Codec {
+
+    /**
+     * 包头、长度、CRC和包尾占用的字节数
+     */
+    public static final int FRAME_OVERHEAD = 12;
+
+    /**
+     * 数据段最大长度，HJ 212-2017 规定数据段不超过1024字节
+     */
+    public static final int MAX_DATA_LENGTH = 1024;
+
+    private Hj212Codec() {
+    }
+
+    /**
+     * 按HJ 212规定的CRC16算法计算校验码
+     */
+    public static int crc16(byte[] data, int offset, int length) {
+        int crc = 0xFFFF;
+        for (int i = offset; i < offset + length; i++) {
+            crc = (crc >> 8) ^ (data[i] & 0xFF);
+            for (int bit = 0; bit < 8; bit++) {
+                boolean lsb = (crc & 0x0001) != 0;
+                crc >>= 1;
+                if (lsb) {
+                    crc ^= 0xA001;
+                }
+            }
+        }
+        return crc & 0xFFFF;
+    }
+
+    /**
+     * 将数据段封装为完整报文
+     */
+    public static byte[] encode(String dataSegment) {
+        byte[] data = dataSegment.getBytes(StandardCharsets.US_ASCII);
+        if (data.length > MAX_DATA_LENGTH) {
+            throw new IllegalArgumentException("数据段超长: " + data.length);
+        }
+        String frame = String.format("##%04d%s%04X\r\n", data.length, dataSegment, crc16(data, 0, data.length));
+        return frame.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * 构造数据应答(CN=9014)数据段
+     */
+    public static String dataAck(Hj212Packet request) {
+        return "QN=" + nullToEmpty(request.getQn()) + ";ST=91;CN=9014;PW=" + nullToEmpty(request.getPw())
+                + ";MN=" + request.getMn() + ";Flag=4;CP=&&&&";
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
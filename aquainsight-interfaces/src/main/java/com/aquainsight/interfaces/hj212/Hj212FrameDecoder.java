@@ -0,0 +1,132 @@
+package com.aquainsight.interfaces.hj212;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * HJ 212 报文帧解码器
+ * 每个连接一个实例，缓存不完整的报文直到后续数据到达；
+ * 包头、长度、包尾或CRC校验错误时跳过当前包头重新同步到下一个"##"，数据段长度超过1024字节视为长度错误
+ */
+final class Hj212FrameDecoder {
+
+    private byte[] buffer = new byte[1024];
+    private int length;
+
+    private long crcErrors;
+    private long discardedBytes;
+
+    /**
+     * 读入新到达的数据并返回其中完整且校验通过的数据段
+     */
+    List<String> decode(ByteBuffer input) {
+        append(input);
+        List<String> segments = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int start = indexOfHeader(position);
+            if (start < 0) {
+                // 保留末尾可能是包头前半部分的'#'
+                int keep = length > 0 && buffer[length - 1] == '#' ? 1 : 0;
+                discardedBytes += length - position - keep;
+                position = length - keep;
+                break;
+            }
+            discardedBytes += start - position;
+            position = start;
+            if (length - position < 6) {
+                break;
+            }
+            // 长度非数字或超过标准上限时立即重新同步，不等待按该长度凑齐报文
+            int dataLength = parseLength(position + 2);
+            if (dataLength < 0 || dataLength > Hj212Codec.MAX_DATA_LENGTH) {
+                discardedBytes += 2;
+                position += 2;
+                continue;
+            }
+            int frameLength = dataLength + Hj212Codec.FRAME_OVERHEAD;
+            if (length - position < frameLength) {
+                break;
+            }
+            int dataStart = position + 6;
+            int crcStart = dataStart + dataLength;
+            if (buffer[crcStart + 4] != '\r' || buffer[crcStart + 5] != '\n'
+                    || parseHex(crcStart) != Hj212Codec.crc16(buffer, dataStart, dataLength)) {
+                crcErrors++;
+                discardedBytes += 2;
+                position += 2;
+                continue;
+            }
+            segments.add(new String(buffer, dataStart, dataLength, StandardCharsets.US_ASCII));
+            position += frameLength;
+        }
+        compact(position);
+        return segments;
+    }
+
+    long getCrcErrors() {
+        return crcErrors;
+    }
+
+    long getDiscardedBytes() {
+        return discardedBytes;
+    }
+
+    private void append(ByteBuffer input) {
+        int required = length + input.remaining();
+        if (required > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(required, buffer.length * 2));
+        }
+        int count = input.remaining();
+        input.get(buffer, length, count);
+        length += count;
+    }
+
+    private void compact(int position) {
+        if (position > 0) {
+            System.arraycopy(buffer, position, buffer, 0, length - position);
+            length -= position;
+        }
+        // 缓冲区长期保持最大报文长度以内
+        int maxFrame = Hj212Codec.MAX_DATA_LENGTH + Hj212Codec.FRAME_OVERHEAD;
+        if (buffer.length > maxFrame * 2 && length <= maxFrame) {
+            buffer = Arrays.copyOf(buffer, maxFrame);
+        }
+    }
+
+    private int indexOfHeader(int from) {
+        for (int i = from; i + 1 < length; i++) {
+            if (buffer[i] == '#' && buffer[i + 1] == '#') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int parseLength(int offset) {
+        int value = 0;
+        for (int i = offset; i < offset + 4; i++) {
+            int digit = buffer[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private int parseHex(int offset) {
+        int value = 0;
+        for (int i = offset; i < offset + 4; i++) {
+            int digit = Character.digit(buffer[i], 16);
+            if (digit < 0) {
+                return -1;
+            }
+            value = (value << 4) | digit;
+        }
+        return value;
+    }
+}
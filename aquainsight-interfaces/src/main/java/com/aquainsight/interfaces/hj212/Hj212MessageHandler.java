@@ -0,0 +1,140 @@
+package com.aquainsight.interfaces.hj212;
+
+import com.aquainsight.application.manager.TelemetryIngestManager;
+import com.aquainsight.application.manager.dto.IngestReadingDTO;
+import com.aquainsight.application.manager.dto.IngestResultDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HJ 212 报文处理
+ * 将数据上传报文转换为监测读数送入接入管道：MN作为站点编码，污染物编码按因子国标编码匹配
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class Hj212MessageHandler {
+
+    /**
+     * 实时数据
+     */
+    private static final String CN_REALTIME = "2011";
+
+    /**
+     * 分钟、小时、日数据
+     */
+    private static final String CN_MINUTE = "2051";
+    private static final String CN_HOUR = "2061";
+    private static final String CN_DAY = "2031";
+
+    /**
+     * 数据正常标记
+     */
+    private static final String DATA_FLAG_NORMAL = "N";
+
+    private static final DateTimeFormatter DATA_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final TelemetryIngestManager telemetryIngestManager;
+
+    private final AtomicLong packetCount = new AtomicLong();
+    private final AtomicLong readingCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong abnormalFlagCount = new AtomicLong();
+
+    /**
+     * 处理一个完整的(已合并拆分包的)报文
+     *
+     * @return 是否可以应答；读数在预写日志落盘后才返回true，接入队列已满或日志写入失败时返回false，不应答使现场端重发
+     */
+    public boolean handle(Hj212Packet packet) {
+        packetCount.incrementAndGet();
+        String valueSuffix;
+        switch (packet.getCn()) {
+            case CN_REALTIME:
+                valueSuffix = "-Rtd";
+                break;
+            case CN_MINUTE:
+            case CN_HOUR:
+            case CN_DAY:
+                valueSuffix = "-Avg";
+                break;
+            default:
+                // 其他命令不产生读数，照常应答
+                return true;
+        }
+
+        Map<String, String> fields = packet.parseCpFields();
+        LocalDateTime dataTime;
+        try {
+            dataTime = LocalDateTime.parse(fields.get("DataTime"), DATA_TIME_FORMATTER);
+        } catch (DateTimeParseException | NullPointerException e) {
+            log.warn("HJ 212报文数据时间格式错误，MN: {}, QN: {}", packet.getMn(), packet.getQn());
+            return true;
+        }
+
+        List<IngestReadingDTO> readings = new ArrayList<>();
+        for (Map.Entry<String, String> field : fields.entrySet()) {
+            String key = field.getKey();
+            if (!key.endsWith(valueSuffix)) {
+                continue;
+            }
+            String pollutantCode = key.substring(0, key.length() - valueSuffix.length());
+            String dataFlag = fields.get(pollutantCode + "-Flag");
+            if (dataFlag != null && !DATA_FLAG_NORMAL.equals(dataFlag)) {
+                // 停运、故障、校准、维护等状态下的数据不作为监测读数
+                abnormalFlagCount.incrementAndGet();
+                continue;
+            }
+            BigDecimal value;
+            try {
+                value = new BigDecimal(field.getValue());
+            } catch (NumberFormatException e) {
+                rejectedCount.incrementAndGet();
+                continue;
+            }
+            readings.add(IngestReadingDTO.builder()
+                    .siteCode(packet.getMn())
+                    .nationalCode(pollutantCode)
+                    .readingTime(dataTime)
+                    .value(value)
+                    .build());
+        }
+        if (readings.isEmpty()) {
+            return true;
+        }
+
+        IngestResultDTO result = telemetryIngestManager.ingest(readings);
+        readingCount.addAndGet(result.getAcceptedCount());
+        rejectedCount.addAndGet(result.getRejectedCount());
+        if (!Boolean.TRUE.equals(result.getThrottled()) && result.getRejectedCount() > 0 && log.isDebugEnabled()) {
+            log.debug("HJ 212报文部分读数被拒绝，MN: {}, 拒绝明细: {}", packet.getMn(), result.getRejections());
+        }
+        return !Boolean.TRUE.equals(result.getThrottled());
+    }
+
+    public long getPacketCount() {
+        return packetCount.get();
+    }
+
+    public long getReadingCount() {
+        return readingCount.get();
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    public long getAbnormalFlagCount() {
+        return abnormalFlagCount.get();
+    }
+}
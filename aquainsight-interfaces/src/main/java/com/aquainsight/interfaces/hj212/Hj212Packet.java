@@ -0,0 +1,151 @@
+package com.aquainsight.interfaces.hj212;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * HJ 212 报文数据段
+ * 形如 QN=...;ST=..;CN=....;PW=..;MN=..;Flag=..;[PNUM=..;PNO=..;]CP=&&...&&
+ */
+@Data
+public class Hj212Packet {
+
+    /**
+     * 应答标志位，置位时上位机需应答
+     */
+    public static final int FLAG_ACK = 0x01;
+
+    /**
+     * 拆分包标志位，置位时数据段包含PNUM和PNO
+     */
+    public static final int FLAG_SPLIT = 0x02;
+
+    /**
+     * 请求编码，yyyyMMddHHmmssSSS
+     */
+    private String qn;
+
+    /**
+     * 系统编码
+     */
+    private String st;
+
+    /**
+     * 命令编码
+     */
+    private String cn;
+
+    /**
+     * 访问密码
+     */
+    private String pw;
+
+    /**
+     * 设备唯一标识
+     */
+    private String mn;
+
+    /**
+     * 标志位
+     */
+    private int flag;
+
+    /**
+     * 总包数，未拆分时为1
+     */
+    private int pnum = 1;
+
+    /**
+     * 包号，从1开始
+     */
+    private int pno = 1;
+
+    /**
+     * 指令参数CP，不含首尾的&&
+     */
+    private String cp;
+
+    public boolean isAckRequired() {
+        return (flag & FLAG_ACK) != 0;
+    }
+
+    public boolean isSplit() {
+        return (flag & FLAG_SPLIT) != 0 && pnum > 1;
+    }
+
+    /**
+     * 解析数据段
+     *
+     * @throws IllegalArgumentException 数据段格式错误时抛出
+     */
+    public static Hj212Packet parse(String dataSegment) {
+        int cpStart = dataSegment.indexOf("CP=&&");
+        int cpEnd = dataSegment.lastIndexOf("&&");
+        if (cpStart < 0 || cpEnd < cpStart + 5) {
+            throw new IllegalArgumentException("数据段缺少CP: " + dataSegment);
+        }
+        Hj212Packet packet = new Hj212Packet();
+        packet.setCp(dataSegment.substring(cpStart + 5, cpEnd));
+        for (String field : dataSegment.substring(0, cpStart).split(";")) {
+            int eq = field.indexOf('=');
+            if (eq <= 0) {
+                continue;
+            }
+            String name = field.substring(0, eq);
+            String value = field.substring(eq + 1);
+            switch (name) {
+                case "QN":
+                    packet.setQn(value);
+                    break;
+                case "ST":
+                    packet.setSt(value);
+                    break;
+                case "CN":
+                    packet.setCn(value);
+                    break;
+                case "PW":
+                    packet.setPw(value);
+                    break;
+                case "MN":
+                    packet.setMn(value);
+                    break;
+                case "Flag":
+                    packet.setFlag(Integer.parseInt(value));
+                    break;
+                case "PNUM":
+                    packet.setPnum(Integer.parseInt(value));
+                    break;
+                case "PNO":
+                    packet.setPno(Integer.parseInt(value));
+                    break;
+                default:
+                    break;
+            }
+        }
+        if (packet.getCn() == null || packet.getMn() == null) {
+            throw new IllegalArgumentException("数据段缺少CN或MN: " + dataSegment);
+        }
+        return packet;
+    }
+
+    /**
+     * 解析CP中的数据项，返回 字段名 -> 值，如 DataTime、w01018-Rtd、w01018-Flag
+     */
+    public Map<String, String> parseCpFields() {
+        Map<String, String> fields = new LinkedHashMap<>();
+        if (cp == null || cp.isEmpty()) {
+            return fields;
+        }
+        for (String group : cp.split(";")) {
+            for (String item : group.split(",")) {
+                int eq = item.indexOf('=');
+                if (eq > 0) {
+                    fields.put(item.substring(0, eq), item.substring(eq + 1));
+                }
+            }
+        }
+        return fields;
+    }
+}
@@ -0,0 +1,423 @@
+package com.aquainsight.interfaces.hj212;
+
+import com.aquainsight.interfaces.rest.vo.Hj212StatsVO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HJ 212 数据传输协议TCP服务端
+ * 一个接收线程接受连接并轮流分配给若干IO线程，每个IO线程用一个Selector非阻塞读写其上的全部连接；
+ * 完整报文交给处理线程池送入接入管道，处理完成后由IO线程发送应答。
+ * 处理线程池队列已满时由IO线程直接处理，读取随之放缓，形成对现场端的反压
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "aquainsight.hj212", name = "enabled", havingValue = "true")
+public class Hj212Server {
+
+    /**
+     * 单个连接上等待合并的拆分包上限
+     */
+    private static final int MAX_PENDING_SPLITS = 64;
+
+    private final Hj212MessageHandler messageHandler;
+    private final int port;
+    private final int ioThreads;
+    private final long idleTimeoutMillis;
+    private final int maxConnections;
+    private final ThreadPoolExecutor handlerExecutor;
+
+    private final AtomicInteger connectionCount = new AtomicInteger();
+    private final AtomicLong acceptedCount = new AtomicLong();
+    private final AtomicLong frameCount = new AtomicLong();
+    private final AtomicLong crcErrorCount = new AtomicLong();
+    private final AtomicLong malformedCount = new AtomicLong();
+    private final AtomicLong ackCount = new AtomicLong();
+
+    private ServerSocketChannel serverChannel;
+    private Selector acceptSelector;
+    private Thread acceptThread;
+    private List<IoWorker> workers;
+    private volatile boolean running;
+
+    public Hj212Server(Hj212MessageHandler messageHandler,
+                       @Value("${aquainsight.hj212.port:9212}") int port,
+                       @Value("${aquainsight.hj212.io-threads:0}") int ioThreads,
+                       @Value("${aquainsight.hj212.handler-threads:4}") int handlerThreads,
+                       @Value("${aquainsight.hj212.handler-queue-capacity:10000}") int handlerQueueCapacity,
+                       @Value("${aquainsight.hj212.idle-timeout-seconds:600}") long idleTimeoutSeconds,
+                       @Value("${aquainsight.hj212.max-connections:10000}") int maxConnections) {
+        this.messageHandler = messageHandler;
+        this.port = port;
+        this.ioThreads = ioThreads > 0 ? ioThreads : Math.max(1, Runtime.getRuntime().availableProcessors());
+        this.idleTimeoutMillis = TimeUnit.SECONDS.toMillis(idleTimeoutSeconds);
+        this.maxConnections = maxConnections;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.handlerExecutor = new ThreadPoolExecutor(handlerThreads, handlerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, handlerQueueCapacity)),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "hj212-handler-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PostConstruct
+    public void start() {
+        try {
+            serverChannel = ServerSocketChannel.open();
+            serverChannel.configureBlocking(false);
+            serverChannel.bind(new InetSocketAddress(port), 1024);
+            acceptSelector = Selector.open();
+            serverChannel.register(acceptSelector, SelectionKey.OP_ACCEPT);
+            running = true;
+            workers = new ArrayList<>(ioThreads);
+            for (int i = 0; i < ioThreads; i++) {
+                IoWorker worker = new IoWorker(Selector.open());
+                Thread thread = new Thread(worker, "hj212-io-" + (i + 1));
+                thread.setDaemon(true);
+                workers.add(worker);
+                thread.start();
+            }
+            acceptThread = new Thread(this::acceptLoop, "hj212-acceptor");
+            acceptThread.setDaemon(true);
+            acceptThread.start();
+            log.info("HJ 212服务端已启动，端口: {}, IO线程数: {}", port, ioThreads);
+        } catch (IOException e) {
+            throw new UncheckedIOException("HJ 212服务端启动失败，端口: " + port, e);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        try {
+            if (acceptSelector != null) {
+                acceptSelector.wakeup();
+            }
+            if (serverChannel != null) {
+                serverChannel.close();
+            }
+        } catch (IOException e) {
+            log.warn("关闭HJ 212监听端口失败", e);
+        }
+        if (workers != null) {
+            workers.forEach(IoWorker::shutdown);
+        }
+        handlerExecutor.shutdown();
+    }
+
+    /**
+     * 获取服务端统计
+     */
+    public Hj212StatsVO getStats() {
+        return Hj212StatsVO.builder()
+                .port(port)
+                .connectionCount(connectionCount.get())
+                .acceptedCount(acceptedCount.get())
+                .frameCount(frameCount.get())
+                .crcErrorCount(crcErrorCount.get())
+                .malformedCount(malformedCount.get())
+                .ackCount(ackCount.get())
+                .handlerQueueSize(handlerExecutor.getQueue().size())
+                .readingCount(messageHandler.getReadingCount())
+                .rejectedReadingCount(messageHandler.getRejectedCount())
+                .abnormalFlagCount(messageHandler.getAbnormalFlagCount())
+                .build();
+    }
+
+    private void acceptLoop() {
+        int next = 0;
+        while (running) {
+            try {
+                acceptSelector.select(1000);
+                Iterator<SelectionKey> keys = acceptSelector.selectedKeys().iterator();
+                while (keys.hasNext()) {
+                    keys.next();
+                    keys.remove();
+                    SocketChannel channel;
+                    while ((channel = serverChannel.accept()) != null) {
+                        if (connectionCount.get() >= maxConnections) {
+                            log.warn("HJ 212连接数已达上限，拒绝连接: {}", channel.getRemoteAddress());
+                            channel.close();
+                            continue;
+                        }
+                        channel.configureBlocking(false);
+                        channel.socket().setTcpNoDelay(true);
+                        acceptedCount.incrementAndGet();
+                        connectionCount.incrementAndGet();
+                        workers.get(next++ % workers.size()).register(channel);
+                    }
+                }
+            } catch (IOException e) {
+                if (running) {
+                    log.error("HJ 212接受连接失败", e);
+                }
+            }
+        }
+    }
+
+    /**
+     * IO线程，负责一组连接的读写
+     */
+    private final class IoWorker implements Runnable {
+
+        private final Selector selector;
+        private final Queue<SocketChannel> pendingChannels = new ConcurrentLinkedQueue<>();
+        private final Queue<Connection> pendingWrites = new ConcurrentLinkedQueue<>();
+        private final ByteBuffer readBuffer = ByteBuffer.allocateDirect(16 * 1024);
+        private long lastIdleCheckMillis = System.currentTimeMillis();
+
+        private IoWorker(Selector selector) {
+            this.selector = selector;
+        }
+
+        private void register(SocketChannel channel) {
+            pendingChannels.add(channel);
+            selector.wakeup();
+        }
+
+        private void requestWrite(Connection connection) {
+            pendingWrites.add(connection);
+            selector.wakeup();
+        }
+
+        private void shutdown() {
+            selector.wakeup();
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    selector.select(1000);
+                    registerPending();
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while (keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        Connection connection = (Connection) key.attachment();
+                        try {
+                            if (key.isValid() && key.isReadable()) {
+                                read(connection);
+                            }
+                            if (key.isValid() && key.isWritable()) {
+                                flush(connection);
+                            }
+                        } catch (IOException e) {
+                            close(connection);
+                        }
+                    }
+                    closeIdleConnections();
+                } catch (Exception e) {
+                    log.error("HJ 212 IO线程处理失败", e);
+                }
+            }
+            for (SelectionKey key : selector.keys()) {
+                if (key.attachment() instanceof Connection) {
+                    close((Connection) key.attachment());
+                }
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                log.warn("关闭HJ 212 Selector失败", e);
+            }
+        }
+
+        private void registerPending() {
+            SocketChannel channel;
+            while ((channel = pendingChannels.poll()) != null) {
+                try {
+                    Connection connection = new Connection(this, channel);
+                    connection.key = channel.register(selector, SelectionKey.OP_READ, connection);
+                } catch (IOException e) {
+                    connectionCount.decrementAndGet();
+                    log.warn("HJ 212连接注册失败", e);
+                }
+            }
+            Connection connection;
+            while ((connection = pendingWrites.poll()) != null) {
+                if (connection.key != null && connection.key.isValid()) {
+                    connection.key.interestOps(connection.key.interestOps() | SelectionKey.OP_WRITE);
+                }
+            }
+        }
+
+        private void read(Connection connection) throws IOException {
+            readBuffer.clear();
+            int read = connection.channel.read(readBuffer);
+            if (read < 0) {
+                close(connection);
+                return;
+            }
+            if (read == 0) {
+                return;
+            }
+            connection.lastActiveMillis = System.currentTimeMillis();
+            readBuffer.flip();
+            long crcErrorsBefore = connection.decoder.getCrcErrors();
+            List<String> segments = connection.decoder.decode(readBuffer);
+            crcErrorCount.addAndGet(connection.decoder.getCrcErrors() - crcErrorsBefore);
+            for (String segment : segments) {
+                frameCount.incrementAndGet();
+                Hj212Packet packet;
+                try {
+                    packet = Hj212Packet.parse(segment);
+                } catch (IllegalArgumentException e) {
+                    malformedCount.incrementAndGet();
+                    log.debug("HJ 212报文格式错误: {}", e.getMessage());
+                    continue;
+                }
+                Hj212Packet complete = connection.reassemble(packet);
+                if (complete != null) {
+                    handlerExecutor.execute(() -> handle(connection, complete));
+                }
+            }
+        }
+
+        private void flush(Connection connection) throws IOException {
+            ByteBuffer buffer;
+            while ((buffer = connection.outbound.peek()) != null) {
+                connection.channel.write(buffer);
+                if (buffer.hasRemaining()) {
+                    return;
+                }
+                connection.outbound.poll();
+            }
+            connection.key.interestOps(connection.key.interestOps() & ~SelectionKey.OP_WRITE);
+        }
+
+        private void closeIdleConnections() {
+            long now = System.currentTimeMillis();
+            if (now - lastIdleCheckMillis < 1000) {
+                return;
+            }
+            lastIdleCheckMillis = now;
+            for (SelectionKey key : selector.keys()) {
+                Connection connection = (Connection) key.attachment();
+                if (connection != null && now - connection.lastActiveMillis > idleTimeoutMillis) {
+                    log.debug("关闭空闲的HJ 212连接，MN: {}", connection.mn);
+                    close(connection);
+                }
+            }
+        }
+
+        private void close(Connection connection) {
+            if (connection.closed) {
+                return;
+            }
+            connection.closed = true;
+            connectionCount.decrementAndGet();
+            if (connection.key != null) {
+                connection.key.cancel();
+            }
+            try {
+                connection.channel.close();
+            } catch (IOException e) {
+                log.debug("关闭HJ 212连接失败", e);
+            }
+        }
+    }
+
+    private void handle(Connection connection, Hj212Packet packet) {
+        boolean ackable;
+        try {
+            ackable = messageHandler.handle(packet);
+        } catch (Exception e) {
+            log.error("HJ 212报文处理失败，MN: {}, QN: {}", packet.getMn(), packet.getQn(), e);
+            return;
+        }
+        if (ackable && packet.isAckRequired() && !connection.closed) {
+            connection.outbound.add(ByteBuffer.wrap(Hj212Codec.encode(Hj212Codec.dataAck(packet))));
+            ackCount.incrementAndGet();
+            connection.worker.requestWrite(connection);
+        }
+    }
+
+    /**
+     * 单个现场端连接的状态，除发送队列外只在所属IO线程上访问
+     */
+    private static final class Connection {
+
+        private final IoWorker worker;
+        private final SocketChannel channel;
+        private final Hj212FrameDecoder decoder = new Hj212FrameDecoder();
+        private final Queue<ByteBuffer> outbound = new ConcurrentLinkedQueue<>();
+
+        /**
+         * QN -> 已收到的拆分包CP，按包号存放
+         */
+        private final Map<String, String[]> pendingSplits = new LinkedHashMap<>();
+        private SelectionKey key;
+        private String mn;
+        private volatile boolean closed;
+        private long lastActiveMillis = System.currentTimeMillis();
+
+        private Connection(IoWorker worker, SocketChannel channel) {
+            this.worker = worker;
+            this.channel = channel;
+        }
+
+        /**
+         * 合并拆分包，收齐全部包号后返回合并后的报文，未收齐时返回null
+         */
+        private Hj212Packet reassemble(Hj212Packet packet) {
+            mn = packet.getMn();
+            if (!packet.isSplit()) {
+                return packet;
+            }
+            if (packet.getPno() < 1 || packet.getPno() > packet.getPnum()) {
+                return null;
+            }
+            String key = packet.getQn() + "/" + packet.getCn();
+            String[] parts = pendingSplits.computeIfAbsent(key, k -> new String[packet.getPnum()]);
+            if (parts.length != packet.getPnum()) {
+                pendingSplits.remove(key);
+                return null;
+            }
+            parts[packet.getPno() - 1] = packet.getCp();
+            for (String part : parts) {
+                if (part == null) {
+                    if (pendingSplits.size() > MAX_PENDING_SPLITS) {
+                        Iterator<String> oldest = pendingSplits.keySet().iterator();
+                        oldest.next();
+                        oldest.remove();
+                    }
+                    return null;
+                }
+            }
+            pendingSplits.remove(key);
+            packet.setCp(String.join(";", parts));
+            packet.setPnum(1);
+            packet.setPno(1);
+            return packet;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.aquainsight.interfaces.hj212;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * HJ 212 现场端模拟器，用于本地联调和压测服务端
+ * 建立多个站点连接，每轮每个站点发送一包实时数据(CN=2011)并等待数据应答。
+ * 用法: Hj212Simulator [host] [port] [站点数] [轮数] [MN前缀] [线程数]
+ * 站点MN为前缀加序号(从1开始)，需与系统中的站点编码一致，因子编码取自国标 w01001(pH)、w01018(COD)、w21003(氨氮)
+ */
+public final class Hj212Simulator {
+
+    private static final String[] POLLUTANTS = {"w01001", "w01018", "w21003"};
+    private static final DateTimeFormatter QN_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmssSSS");
+    private static final DateTimeFormatter DATA_TIME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private Hj212Simulator() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        String host = args.length > 0 ? args[0] : "127.0.0.1";
+        int port = args.length > 1 ? Integer.parseInt(args[1]) : 9212;
+        int stations = args.length > 2 ? Integer.parseInt(args[2]) : 100;
+        int rounds = args.length > 3 ? Integer.parseInt(args[3]) : 10;
+        String mnPrefix = args.length > 4 ? args[4] : "SIM";
+        int threads = args.length > 5 ? Integer.parseInt(args[5]) : Math.min(stations, 64);
+
+        AtomicLong sent = new AtomicLong();
+        AtomicLong acked = new AtomicLong();
+        AtomicLong failed = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        long startNanos = System.nanoTime();
+        for (int t = 0; t < threads; t++) {
+            List<String> mns = new ArrayList<>();
+            for (int i = t; i < stations; i += threads) {
+                mns.add(mnPrefix + (i + 1));
+            }
+            executor.execute(() -> runStations(host, port, mns, rounds, sent, acked, failed));
+        }
+        executor.shutdown();
+        executor.awaitTermination(1, TimeUnit.HOURS);
+        long costMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+        System.out.printf("站点数: %d, 轮数: %d, 发送: %d, 应答: %d, 失败: %d, 耗时: %dms, 吞吐: %.1f包/秒%n",
+                stations, rounds, sent.get(), acked.get(), failed.get(), costMillis,
+                sent.get() * 1000.0 / Math.max(1, costMillis));
+    }
+
+    /**
+     * 一个线程负责的一组站点，连接保持到所有轮次结束
+     */
+    private static void runStations(String host, int port, List<String> mns, int rounds,
+                                    AtomicLong sent, AtomicLong acked, AtomicLong failed) {
+        List<Station> connected = new ArrayList<>(mns.size());
+        try {
+            for (String mn : mns) {
+                Socket socket = new Socket();
+                socket.connect(new InetSocketAddress(host, port), 5000);
+                socket.setSoTimeout(10_000);
+                socket.setTcpNoDelay(true);
+                connected.add(new Station(mn, socket));
+            }
+            for (int round = 0; round < rounds; round++) {
+                for (Station station : connected) {
+                    try {
+                        station.send(realtimePacket(station.mn));
+                        sent.incrementAndGet();
+                        if (station.awaitAck()) {
+                            acked.incrementAndGet();
+                        } else {
+                            failed.incrementAndGet();
+                        }
+                    } catch (IOException e) {
+                        failed.incrementAndGet();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("连接失败: " + e.getMessage());
+            failed.addAndGet((long) (mns.size() - connected.size()) * rounds);
+        } finally {
+            for (Station station : connected) {
+                station.close();
+            }
+        }
+    }
+
+    private static String realtimePacket(String mn) {
+        LocalDateTime now = LocalDateTime.now();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        StringBuilder cp = new StringBuilder("DataTime=").append(now.format(DATA_TIME_FORMAT));
+        for (String pollutant : POLLUTANTS) {
+            BigDecimal value = BigDecimal.valueOf(random.nextDouble(0, 50)).setScale(3, RoundingMode.HALF_UP);
+            cp.append(';').append(pollutant).append("-Rtd=").append(value.toPlainString())
+                    .append(',').append(pollutant).append("-Flag=N");
+        }
+        return "QN=" + now.format(QN_FORMAT) + ";ST=32;CN=2011;PW=123456;MN=" + mn
+                + ";Flag=5;CP=&&" + cp + "&&";
+    }
+
+    private static final class Station {
+
+        private final String mn;
+        private final Socket socket;
+        private final OutputStream output;
+        private final InputStream input;
+        private final Hj212FrameDecoder decoder = new Hj212FrameDecoder();
+        private final byte[] readBuffer = new byte[1024];
+
+        private Station(String mn, Socket socket) throws IOException {
+            this.mn = mn;
+            this.socket = socket;
+            this.output = socket.getOutputStream();
+            this.input = socket.getInputStream();
+        }
+
+        private void send(String dataSegment) throws IOException {
+            output.write(Hj212Codec.encode(dataSegment));
+            output.flush();
+        }
+
+        /**
+         * 读取直到收到一包数据应答，连接关闭或超时返回false
+         */
+        private boolean awaitAck() throws IOException {
+            while (true) {
+                int read = input.read(readBuffer);
+                if (read < 0) {
+                    return false;
+                }
+                for (String segment : decoder.decode(ByteBuffer.wrap(readBuffer, 0, read))) {
+                    if ("9014".equals(Hj212Packet.parse(segment).getCn())) {
+                        return true;
+                    }
+                }
+            }
+        }
+
+        private void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+                // 模拟器退出时忽略关闭异常
+            }
+        }
+    }
+}
@@ -0,0 +1,5 @@
+/**
+ * HJ 212 数据传输协议接入包
+ * 存放污染物在线监控系统数据传输协议的TCP服务端、报文编解码和本地模拟客户端
+ */
+package com.aquainsight.interfaces.hj212;
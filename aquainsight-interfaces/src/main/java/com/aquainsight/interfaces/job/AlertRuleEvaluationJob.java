@@ -1,7 +1,9 @@
 package com.aquainsight.interfaces.job;
 
+import com.aquainsight.application.manager.ClusterJobManager;
 import com.aquainsight.application.service.AlertApplicationService;
 import com.aquainsight.domain.alert.entity.AlertRecord;
+import com.aquainsight.domain.cluster.types.ShardAssignment;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
@@ -13,13 +15,19 @@ import java.util.List;
 /**
  * 告警规则评估定时任务
  * 定期扫描所有启用的告警规则，对目标对象进行评估并生成告警记录
+ * 多实例部署时通过集群租约保证同一周期只执行一次，规则评估可按实例分片
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class AlertRuleEvaluationJob {
 
+    private static final String LEASE_EVALUATE = "alert-rule-evaluation";
+    private static final String LEASE_RECOVERY = "alert-recovery";
+    private static final String LEASE_AUTO_CANCEL = "alert-auto-cancel";
+
     private final AlertApplicationService alertApplicationService;
+    private final ClusterJobManager clusterJobManager;
 
     /**
      * 每5分钟执行一次告警规则扫描和评估
@@ -30,32 +38,44 @@ public class AlertRuleEvaluationJob {
         log.info("开始执行告警规则评估定时任务，时间: {}", LocalDateTime.now());
 
         try {
-            // 扫描并评估所有告警规则
-            List<AlertRecord> generatedAlerts = alertApplicationService.scanAndEvaluateAllRules();
-
-            log.info("告警规则评估定时任务执行完成。共生成 {} 条告警记录", generatedAlerts.size());
-
-            // 记录生成的告警详情（仅记录前10条，避免日志过多）
-            int recordCount = Math.min(10, generatedAlerts.size());
-            for (int i = 0; i < recordCount; i++) {
-                AlertRecord alert = generatedAlerts.get(i);
-                log.info("生成告警记录: ID={}, 规则={}, 目标={}:{}, 级别={}",
-                        alert.getId(),
-                        alert.getRuleName(),
-                        alert.getTargetType().getCode(),
-                        alert.getTargetId(),
-                        alert.getAlertLevel());
-            }
-
-            if (generatedAlerts.size() > 10) {
-                log.info("...还有 {} 条告警记录未显示", generatedAlerts.size() - 10);
+            if (clusterJobManager.isAlertEvaluationSharded()) {
+                // 分片模式：每个存活实例只评估分配给自己的规则，每条规则在自己的分片租约下写入
+                ShardAssignment shard = clusterJobManager.currentShard();
+                log.info("按实例分片评估告警规则，存活实例数: {}, 本实例: {}",
+                        shard.getMembers().size(), shard.getSelfId());
+                logGeneratedAlerts(alertApplicationService.scanAndEvaluateShard(shard));
+            } else {
+                // 选主模式：只有持有租约的实例评估全部规则
+                clusterJobManager.runExclusively(LEASE_EVALUATE, lease -> logGeneratedAlerts(
+                        alertApplicationService.scanAndEvaluateRules(rule -> true, lease)));
             }
-
         } catch (Exception e) {
             log.error("告警规则评估定时任务执行失败", e);
         }
     }
 
+    /**
+     * 记录生成的告警详情（仅记录前10条，避免日志过多）
+     */
+    private void logGeneratedAlerts(List<AlertRecord> generatedAlerts) {
+        log.info("告警规则评估定时任务执行完成。共生成 {} 条告警记录", generatedAlerts.size());
+
+        int recordCount = Math.min(10, generatedAlerts.size());
+        for (int i = 0; i < recordCount; i++) {
+            AlertRecord alert = generatedAlerts.get(i);
+            log.info("生成告警记录: ID={}, 规则={}, 目标={}:{}, 级别={}",
+                    alert.getId(),
+                    alert.getRuleName(),
+                    alert.getTargetType().getCode(),
+                    alert.getTargetId(),
+                    alert.getAlertLevel());
+        }
+
+        if (generatedAlerts.size() > 10) {
+            log.info("...还有 {} 条告警记录未显示", generatedAlerts.size() - 10);
+        }
+    }
+
     /**
      * 每10分钟执行一次告警恢复检查
      * 检查待处理和处理中的告警，如果条件不再满足则标记为已恢复
@@ -65,8 +85,9 @@ public class AlertRuleEvaluationJob {
         log.info("开始执行告警恢复检查定时任务，时间: {}", LocalDateTime.now());
 
         try {
-            alertApplicationService.checkAndRecoverAlerts();
-            log.info("告警恢复检查定时任务执行完成");
+            if (clusterJobManager.runExclusively(LEASE_RECOVERY, alertApplicationService::checkAndRecoverAlerts)) {
+                log.info("告警恢复检查定时任务执行完成");
+            }
         } catch (Exception e) {
             log.error("告警恢复检查定时任务执行失败", e);
         }
@@ -84,8 +105,9 @@ public class AlertRuleEvaluationJob {
         log.info("开始执行告警自动取消定时任务，时间: {}", LocalDateTime.now());
 
         try {
-            alertApplicationService.autoCancelAlerts();
-            log.info("告警自动取消定时任务执行完成");
+            if (clusterJobManager.runExclusively(LEASE_AUTO_CANCEL, alertApplicationService::autoCancelAlerts)) {
+                log.info("告警自动取消定时任务执行完成");
+            }
         } catch (Exception e) {
             log.error("告警自动取消定时任务执行失败", e);
         }
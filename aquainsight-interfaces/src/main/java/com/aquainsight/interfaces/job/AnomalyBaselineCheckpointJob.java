@@ -0,0 +1,31 @@
+package com.aquainsight.interfaces.job;
+
+import com.aquainsight.application.service.AlertApplicationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 异常检测基线检查点定时任务
+ * 定期将异常检测基线写入磁盘，重启后恢复
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AnomalyBaselineCheckpointJob {
+
+    private final AlertApplicationService alertApplicationService;
+
+    /**
+     * 每分钟写入一次检查点
+     */
+    @Scheduled(fixedDelayString = "${aquainsight.alert.anomaly.checkpoint-interval-millis:60000}")
+    public void checkpoint() {
+        try {
+            alertApplicationService.checkpointAnomalyBaselines();
+        } catch (Exception e) {
+            log.error("异常检测基线检查点定时任务执行失败", e);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.aquainsight.interfaces.job;
+
+import com.aquainsight.application.manager.ClusterJobManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 集群实例心跳定时任务
+ * 定期登记本实例存活，用于告警规则分片评估时计算存活实例列表
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ClusterHeartbeatJob {
+
+    private final ClusterJobManager clusterJobManager;
+
+    /**
+     * 每10秒登记一次存活
+     */
+    @Scheduled(fixedDelayString = "${aquainsight.cluster.heartbeat-interval-millis:10000}")
+    public void heartbeat() {
+        try {
+            clusterJobManager.heartbeat();
+        } catch (Exception e) {
+            log.warn("集群实例心跳登记失败", e);
+        }
+    }
+}
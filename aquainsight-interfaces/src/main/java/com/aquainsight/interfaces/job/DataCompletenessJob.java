@@ -0,0 +1,32 @@
+package com.aquainsight.interfaces.job;
+
+import com.aquainsight.application.service.TelemetryApplicationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 数据完整率写回定时任务
+ * 将有变化的时段位图写回数据库并清理超出保留期的位图；
+ * 位图在每个实例本地统计，不需要集群租约
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DataCompletenessJob {
+
+    private final TelemetryApplicationService telemetryApplicationService;
+
+    /**
+     * 每分钟执行一次
+     */
+    @Scheduled(fixedDelayString = "${aquainsight.telemetry.completeness.flush-interval-millis:60000}")
+    public void flush() {
+        try {
+            telemetryApplicationService.flushCompleteness();
+        } catch (Exception e) {
+            log.error("数据完整率写回定时任务执行失败", e);
+        }
+    }
+}
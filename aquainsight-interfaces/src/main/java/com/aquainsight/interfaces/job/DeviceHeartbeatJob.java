@@ -0,0 +1,32 @@
+package com.aquainsight.interfaces.job;
+
+import com.aquainsight.application.service.MonitoringApplicationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 设备状态写入定时任务
+ * 将设备心跳跟踪收到的最后心跳时间写入共享存储，将登记的在线/离线状态变更批量写入设备表；
+ * 各实例只写入本实例的判定，状态按变更前状态条件写入，不需要集群租约
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class DeviceHeartbeatJob {
+
+    private final MonitoringApplicationService monitoringApplicationService;
+
+    /**
+     * 每5秒执行一次
+     */
+    @Scheduled(fixedDelayString = "${aquainsight.device.heartbeat.flush-interval-millis:5000}")
+    public void flushStatus() {
+        try {
+            monitoringApplicationService.flushDeviceStatus();
+        } catch (Exception e) {
+            log.error("设备状态写入定时任务执行失败", e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.aquainsight.interfaces.job;
+
+import com.aquainsight.application.manager.ClusterJobManager;
+import com.aquainsight.application.manager.NotifyRetryManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 失败通知重试定时任务
+ * 多实例部署时通过集群租约保证同一时刻只有一个实例重发，避免重复通知
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotifyRetryJob {
+
+    private static final String LEASE_NOTIFY_RETRY = "alert-notify-retry";
+
+    private final NotifyRetryManager notifyRetryManager;
+    private final ClusterJobManager clusterJobManager;
+
+    /**
+     * 默认每15秒执行一次
+     */
+    @Scheduled(fixedDelayString = "${aquainsight.notify.retry.interval-millis:15000}")
+    public void retryFailedNotifications() {
+        try {
+            clusterJobManager.runExclusively(LEASE_NOTIFY_RETRY, notifyRetryManager::retryDue);
+        } catch (Exception e) {
+            log.error("失败通知重试定时任务执行失败", e);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.aquainsight.interfaces.job;
 
+import com.aquainsight.application.manager.ClusterJobManager;
 import com.aquainsight.application.service.MaintenanceApplicationService;
 import com.aquainsight.domain.maintenance.entity.Task;
 import lombok.RequiredArgsConstructor;
@@ -13,13 +14,19 @@ import java.util.List;
 /**
  * 站点任务生成定时任务
  * 根据站点任务调度的周期配置，自动生成任务
+ * 多实例部署时通过集群租约保证同一周期只有一个实例执行，写事务内按租约校验防护令牌
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class TaskGeneratorJob {
 
+    private static final String LEASE_GENERATE = "task-generate";
+    private static final String LEASE_OVERDUE = "task-overdue-check";
+    private static final String LEASE_EXPIRATION = "task-expiration-update";
+
     private final MaintenanceApplicationService maintenanceApplicationService;
+    private final ClusterJobManager clusterJobManager;
 
     /**
      * 每天凌晨1点执行任务生成
@@ -30,19 +37,21 @@ public class TaskGeneratorJob {
         log.info("开始执行站点任务生成定时任务，时间: {}", LocalDateTime.now());
 
         try {
-            // 调用应用服务生成所有任务
-            List<Task> generatedInstances =
-                    maintenanceApplicationService.generateNextInstancesForAllActivePlans("SYSTEM");
+            clusterJobManager.runExclusively(LEASE_GENERATE, lease -> {
+                // 调用应用服务生成所有任务
+                List<Task> generatedInstances =
+                        maintenanceApplicationService.generateNextInstancesForAllActivePlans("SYSTEM", lease);
 
-            log.info("站点任务生成定时任务执行完成。成功生成 {} 个任务",
-                    generatedInstances.size());
+                log.info("站点任务生成定时任务执行完成。成功生成 {} 个任务",
+                        generatedInstances.size());
 
-            // 记录生成的任务详情
-            for (Task instance : generatedInstances) {
-                log.info("成功为站点 {} 生成任务，派发时间: {}",
-                        instance.getSite() != null ? instance.getSite().getSiteName() : "未知站点",
-                        instance.getTriggerTime());
-            }
+                // 记录生成的任务详情
+                for (Task instance : generatedInstances) {
+                    log.info("成功为站点 {} 生成任务，派发时间: {}",
+                            instance.getSite() != null ? instance.getSite().getSiteName() : "未知站点",
+                            instance.getTriggerTime());
+                }
+            });
 
         } catch (Exception e) {
             log.error("站点任务生成定时任务执行失败", e);
@@ -57,8 +66,10 @@ public class TaskGeneratorJob {
         log.info("开始执行逾期任务检查定时任务，时间: {}", LocalDateTime.now());
 
         try {
-            maintenanceApplicationService.checkAndMarkAllOverdueInstances();
-            log.info("逾期任务检查定时任务执行完成");
+            if (clusterJobManager.runExclusively(LEASE_OVERDUE,
+                    lease -> maintenanceApplicationService.checkAndMarkAllOverdueInstances(lease))) {
+                log.info("逾期任务检查定时任务执行完成");
+            }
         } catch (Exception e) {
             log.error("逾期任务检查定时任务执行失败", e);
         }
@@ -75,8 +86,10 @@ public class TaskGeneratorJob {
         try {
             // 即将过期阈值设置为24小时
             int expiringThresholdHours = 24;
-            maintenanceApplicationService.checkAndUpdateExpirationStatus(expiringThresholdHours);
-            log.info("任务过期状态更新定时任务执行完成");
+            if (clusterJobManager.runExclusively(LEASE_EXPIRATION,
+                    lease -> maintenanceApplicationService.checkAndUpdateExpirationStatus(expiringThresholdHours, lease))) {
+                log.info("任务过期状态更新定时任务执行完成");
+            }
         } catch (Exception e) {
             log.error("任务过期状态更新定时任务执行失败", e);
         }
@@ -0,0 +1,31 @@
+package com.aquainsight.interfaces.job;
+
+import com.aquainsight.application.service.TelemetryApplicationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 监测数据聚合定时任务
+ * 重算本实例新写入读数影响的1分钟/1小时/1天聚合桶
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TelemetryRollupJob {
+
+    private final TelemetryApplicationService telemetryApplicationService;
+
+    /**
+     * 默认每分钟执行一次
+     */
+    @Scheduled(fixedDelayString = "${aquainsight.telemetry.rollup.interval-millis:60000}")
+    public void rollup() {
+        try {
+            telemetryApplicationService.rollup();
+        } catch (Exception e) {
+            log.error("监测数据聚合定时任务执行失败", e);
+        }
+    }
+}
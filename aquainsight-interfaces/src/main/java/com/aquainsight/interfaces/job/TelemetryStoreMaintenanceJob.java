@@ -0,0 +1,35 @@
+package com.aquainsight.interfaces.job;
+
+import com.aquainsight.application.manager.TelemetryIngestManager;
+import com.aquainsight.application.service.TelemetryApplicationService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 监测数据存储维护定时任务
+ * 封存已结束的时间块并清理超出保留期的数据，随后推进接入预写日志的检查点；
+ * 存储和日志都在每个实例本地，不需要集群租约
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TelemetryStoreMaintenanceJob {
+
+    private final TelemetryApplicationService telemetryApplicationService;
+    private final TelemetryIngestManager telemetryIngestManager;
+
+    /**
+     * 每分钟执行一次
+     */
+    @Scheduled(fixedDelayString = "${aquainsight.telemetry.maintenance-interval-millis:60000}")
+    public void maintain() {
+        try {
+            telemetryApplicationService.maintainStore();
+            telemetryIngestManager.checkpoint();
+        } catch (Exception e) {
+            log.error("监测数据存储维护定时任务执行失败", e);
+        }
+    }
+}
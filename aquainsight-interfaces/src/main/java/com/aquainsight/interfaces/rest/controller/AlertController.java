@@ -1,5 +1,10 @@
 package com.aquainsight.interfaces.rest.controller;
 
+import com.aquainsight.application.manager.AlertStreamingManager;
+import com.aquainsight.application.manager.dto.EventExecutorStatsDTO;
+import com.aquainsight.application.manager.dto.RuleEvaluationStatsDTO;
+import com.aquainsight.application.manager.dto.SeriesBufferStatsDTO;
+import com.aquainsight.application.manager.dto.StreamingEvaluationStatsDTO;
 import com.aquainsight.application.service.AlertApplicationService;
 import com.aquainsight.common.util.PageResult;
 import com.aquainsight.common.util.Response;
@@ -12,15 +17,18 @@ import com.aquainsight.domain.alert.service.AlertRuleDomainService;
 import com.aquainsight.domain.alert.types.AlertLevel;
 import com.aquainsight.domain.alert.types.AlertStatus;
 import com.aquainsight.domain.alert.types.AlertTargetType;
+import com.aquainsight.domain.alert.types.BacktestResult;
 import com.aquainsight.domain.alert.types.NotifyStatus;
 import com.aquainsight.domain.alert.types.NotifyType;
 import com.aquainsight.domain.alert.repository.AlertRecordRepository;
 import com.aquainsight.domain.alert.repository.AlertNotifyLogRepository;
 import com.aquainsight.domain.user.entity.User;
+import com.aquainsight.interfaces.rest.dto.BacktestAlertRuleRequest;
 import com.aquainsight.interfaces.rest.dto.CreateAlertRuleRequest;
 import com.aquainsight.interfaces.rest.dto.HandleAlertRequest;
 import com.aquainsight.interfaces.rest.dto.RuleConditionDTO;
 import com.aquainsight.interfaces.rest.dto.UpdateAlertRuleRequest;
+import com.aquainsight.interfaces.rest.vo.AlertBacktestVO;
 import com.aquainsight.interfaces.rest.vo.AlertNotifyLogVO;
 import com.aquainsight.interfaces.rest.vo.AlertRecordVO;
 import com.aquainsight.interfaces.rest.vo.AlertRuleVO;
@@ -57,6 +65,7 @@ public class AlertController {
     private final AlertRecordRepository alertRecordRepository;
     private final AlertNotifyLogRepository alertNotifyLogRepository;
     private final AlertApplicationService alertApplicationService;
+    private final AlertStreamingManager alertStreamingManager;
 
     // ==================== Alert Rule Endpoints ====================
 
@@ -227,6 +236,49 @@ public class AlertController {
         }
     }
 
+    /**
+     * 回测告警规则
+     * 将历史读数回放给规则，统计各站点本应产生的告警数和触发时段，不写入告警记录；规则未启用时同样可回测
+     */
+    @PostMapping("/rules/{id}/backtest")
+    public Response<AlertBacktestVO> backtestAlertRule(@PathVariable Integer id,
+                                                       @Valid @RequestBody BacktestAlertRuleRequest request) {
+        try {
+            BacktestResult result = alertApplicationService.backtestRule(
+                    id, request.getStartTime(), request.getEndTime(), request.getSiteIds());
+            List<AlertBacktestVO.TargetInfo> targets = result.getTargets().stream()
+                    .map(target -> AlertBacktestVO.TargetInfo.builder()
+                            .targetType(target.getTargetType())
+                            .targetId(target.getTargetId())
+                            .firingCount(target.getFiringCount())
+                            .triggerCount(target.getTriggerCount())
+                            .timeline(target.getTimeline().stream()
+                                    .map(episode -> AlertBacktestVO.EpisodeInfo.builder()
+                                            .startTime(episode.getStartTime())
+                                            .endTime(episode.getEndTime())
+                                            .alerted(episode.isAlerted())
+                                            .build())
+                                    .collect(Collectors.toList()))
+                            .truncated(target.isTruncated())
+                            .build())
+                    .collect(Collectors.toList());
+            return Response.success(AlertBacktestVO.builder()
+                    .ruleId(result.getRuleId())
+                    .ruleName(result.getRuleName())
+                    .startTime(result.getStartTime())
+                    .endTime(result.getEndTime())
+                    .targetCount(result.getTargetCount())
+                    .observationCount(result.getObservationCount())
+                    .firingCount(result.getFiringCount())
+                    .triggerCount(result.getTriggerCount())
+                    .costMillis(result.getCostMillis())
+                    .targets(targets)
+                    .build());
+        } catch (Exception e) {
+            return Response.error(e.getMessage());
+        }
+    }
+
     /**
      * 获取指标列表
      * 根据目标类型返回支持的指标名称列表
@@ -408,6 +460,54 @@ public class AlertController {
         }
     }
 
+    /**
+     * 获取最近一个规则评估周期的统计（各规则耗时、超时数等）
+     */
+    @GetMapping("/evaluation/stats")
+    public Response<RuleEvaluationStatsDTO> getEvaluationStats() {
+        try {
+            return Response.success(alertApplicationService.getLastEvaluationStats());
+        } catch (Exception e) {
+            return Response.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 获取流式规则评估统计
+     */
+    @GetMapping("/streaming/stats")
+    public Response<StreamingEvaluationStatsDTO> getStreamingStats() {
+        try {
+            return Response.success(alertStreamingManager.getStats());
+        } catch (Exception e) {
+            return Response.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 获取持续条件采样序列的内存统计
+     */
+    @GetMapping("/series/stats")
+    public Response<SeriesBufferStatsDTO> getSeriesBufferStats() {
+        try {
+            return Response.success(alertApplicationService.getSeriesBufferStats());
+        } catch (Exception e) {
+            return Response.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 获取告警事件处理线程池统计
+     */
+    @GetMapping("/events/stats")
+    public Response<List<EventExecutorStatsDTO>> getEventExecutorStats() {
+        try {
+            return Response.success(alertApplicationService.getEventExecutorStats());
+        } catch (Exception e) {
+            return Response.error(e.getMessage());
+        }
+    }
+
     // ==================== Alert Notify Log Endpoints ====================
 
     /**
@@ -540,6 +640,9 @@ public class AlertController {
                 .threshold(condition.getThreshold())
                 .minThreshold(condition.getMinThreshold())
                 .maxThreshold(condition.getMaxThreshold())
+                .durationMinutes(condition.getDurationMinutes())
+                .windowSamples(condition.getWindowSamples())
+                .minMatchedSamples(condition.getMinMatchedSamples())
                 .build();
     }
 
@@ -550,6 +653,9 @@ public class AlertController {
                 .threshold(dto.getThreshold())
                 .minThreshold(dto.getMinThreshold())
                 .maxThreshold(dto.getMaxThreshold())
+                .durationMinutes(dto.getDurationMinutes())
+                .windowSamples(dto.getWindowSamples())
+                .minMatchedSamples(dto.getMinMatchedSamples())
                 .build();
     }
 }
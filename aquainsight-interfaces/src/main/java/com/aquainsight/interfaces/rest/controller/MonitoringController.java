@@ -77,7 +77,8 @@ public class MonitoringController {
                     request.getLatitude() != null ? new BigDecimal(request.getLatitude()) : null,
                     request.getAddress(),
                     request.getEnterpriseId(),
-                    request.getIsAutoUpload() != null ? (request.getIsAutoUpload() ? 1 : 0) : 0
+                    request.getIsAutoUpload() != null ? (request.getIsAutoUpload() ? 1 : 0) : 0,
+                    request.getSampleIntervalMinutes()
             );
             return Response.success(convertToSiteVO(createdSite));
         } catch (Exception e) {
@@ -110,7 +111,8 @@ public class MonitoringController {
                     request.getLatitude() != null ? new BigDecimal(request.getLatitude()) : site.getLatitude(),
                     request.getAddress(),
                     request.getEnterpriseId() != null ? request.getEnterpriseId() : (site.getEnterprise() != null ? site.getEnterprise().getId() : null),
-                    request.getIsAutoUpload() != null ? (request.getIsAutoUpload() ? 1 : 0) : site.getIsAutoUpload()
+                    request.getIsAutoUpload() != null ? (request.getIsAutoUpload() ? 1 : 0) : site.getIsAutoUpload(),
+                    request.getSampleIntervalMinutes()
             );
             return Response.success(convertToSiteVO(updatedSite));
         } catch (Exception e) {
@@ -243,7 +245,8 @@ public class MonitoringController {
                     request.getManufacturer(),
                     request.getDescription(),
                     request.getSpecifications(),
-                    request.getFactorId()
+                    request.getFactorId(),
+                    request.getHeartbeatTimeoutSeconds()
             );
             return Response.success(convertToDeviceModelVO(createdDeviceModel));
         } catch (Exception e) {
@@ -273,7 +276,8 @@ public class MonitoringController {
                     request.getManufacturer(),
                     request.getDescription(),
                     request.getSpecifications(),
-                    request.getFactorId()
+                    request.getFactorId(),
+                    request.getHeartbeatTimeoutSeconds()
             );
             return Response.success(convertToDeviceModelVO(updatedDeviceModel));
         } catch (Exception e) {
@@ -689,6 +693,7 @@ public class MonitoringController {
                 .enterpriseId(site.getEnterprise() != null ? site.getEnterprise().getId() : null)
                 .enterpriseName(site.getEnterprise() != null ? site.getEnterprise().getEnterpriseName() : null)
                 .isAutoUpload(site.getIsAutoUpload() != null && site.getIsAutoUpload() == 1)
+                .sampleIntervalMinutes(site.getSampleIntervalMinutes())
                 .createTime(site.getCreateTime() != null ? site.getCreateTime().format(DATE_FORMATTER) : null)
                 .updateTime(site.getUpdateTime() != null ? site.getUpdateTime().format(DATE_FORMATTER) : null)
                 .build();
@@ -708,6 +713,7 @@ public class MonitoringController {
                 .specifications(deviceModel.getSpecifications())
                 .factorId(deviceModel.getFactor() != null ? deviceModel.getFactor().getId() : null)
                 .factor(deviceModel.getFactor() != null ? convertToFactorVO(deviceModel.getFactor()) : null)
+                .heartbeatTimeoutSeconds(deviceModel.getHeartbeatTimeoutSeconds())
                 .createTime(deviceModel.getCreateTime() != null ? deviceModel.getCreateTime().format(DATE_FORMATTER) : null)
                 .updateTime(deviceModel.getUpdateTime() != null ? deviceModel.getUpdateTime().format(DATE_FORMATTER) : null)
                 .build();
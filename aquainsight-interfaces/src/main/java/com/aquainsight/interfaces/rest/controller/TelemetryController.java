@@ -0,0 +1,295 @@
+package com.aquainsight.interfaces.rest.controller;
+
+import com.aquainsight.application.manager.TelemetryIngestManager;
+import com.aquainsight.application.manager.dto.IngestReadingDTO;
+import com.aquainsight.application.manager.dto.IngestResultDTO;
+import com.aquainsight.application.manager.dto.IngestStatsDTO;
+import com.aquainsight.application.service.TelemetryApplicationService;
+import com.aquainsight.common.util.Response;
+import com.aquainsight.domain.monitoring.entity.DataCompleteness;
+import com.aquainsight.domain.monitoring.entity.FactorReading;
+import com.aquainsight.domain.monitoring.entity.FactorRollup;
+import com.aquainsight.domain.monitoring.types.RollupResolution;
+import com.aquainsight.interfaces.hj212.Hj212Server;
+import com.aquainsight.interfaces.rest.dto.IngestReadingsRequest;
+import com.aquainsight.interfaces.rest.vo.DataCompletenessVO;
+import com.aquainsight.interfaces.rest.vo.FactorHistoryVO;
+import com.aquainsight.interfaces.rest.vo.FactorReadingVO;
+import com.aquainsight.interfaces.rest.vo.Hj212StatsVO;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import javax.validation.Valid;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 监测数据接入控制器
+ */
+@RestController
+@RequestMapping("/api/telemetry")
+@RequiredArgsConstructor
+public class TelemetryController {
+
+    private static final String FORMAT_JSON = "json";
+    private static final String FORMAT_CSV = "csv";
+    private static final DateTimeFormatter CSV_TIME_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private final TelemetryIngestManager telemetryIngestManager;
+    private final TelemetryApplicationService telemetryApplicationService;
+    private final ObjectProvider<Hj212Server> hj212Server;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * 批量上报监测读数
+     * 返回接收和拒绝数量，throttled为true时表示接入队列已满，调用方应稍后重试被拒绝的读数
+     */
+    @PostMapping("/readings")
+    public Response<IngestResultDTO> ingestReadings(@Valid @RequestBody IngestReadingsRequest request) {
+        try {
+            List<IngestReadingDTO> readings = new ArrayList<>(request.getReadings().size());
+            for (IngestReadingsRequest.Reading reading : request.getReadings()) {
+                readings.add(IngestReadingDTO.builder()
+                        .siteCode(reading.getSiteCode())
+                        .deviceCode(reading.getDeviceCode())
+                        .factorCode(reading.getFactorCode())
+                        .readingTime(reading.getTimestamp())
+                        .value(reading.getValue())
+                        .build());
+            }
+            return Response.success(telemetryIngestManager.ingest(readings));
+        } catch (Exception e) {
+            return Response.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 获取监测数据接入统计
+     */
+    @GetMapping("/ingest/stats")
+    public Response<IngestStatsDTO> getIngestStats() {
+        try {
+            return Response.success(telemetryIngestManager.getStats());
+        } catch (Exception e) {
+            return Response.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 获取HJ 212服务端统计，服务端未启用时返回错误
+     */
+    @GetMapping("/hj212/stats")
+    public Response<Hj212StatsVO> getHj212Stats() {
+        Hj212Server server = hj212Server.getIfAvailable();
+        if (server == null) {
+            return Response.error("HJ 212服务端未启用");
+        }
+        return Response.success(server.getStats());
+    }
+
+    /**
+     * 查询站点某个因子在时间范围内的读数
+     */
+    @GetMapping("/readings")
+    public Response<List<FactorReadingVO>> getReadings(
+            @RequestParam Integer siteId,
+            @RequestParam Integer factorId,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime) {
+        try {
+            List<FactorReading> readings = telemetryApplicationService.getReadings(siteId, factorId, startTime, endTime);
+            return Response.success(readings.stream()
+                    .map(reading -> FactorReadingVO.builder()
+                            .readingTime(reading.getReadingTime())
+                            .value(reading.getValue())
+                            .build())
+                    .collect(Collectors.toList()));
+        } catch (Exception e) {
+            return Response.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 查询站点某个因子的历史数据
+     * 按时间范围和点数预算自动选择原始、1分钟、1小时或1天粒度
+     */
+    @GetMapping("/history")
+    public Response<FactorHistoryVO> getHistory(
+            @RequestParam Integer siteId,
+            @RequestParam Integer factorId,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime,
+            @RequestParam(defaultValue = "1000") Integer maxPoints) {
+        try {
+            List<FactorRollup> rollups = telemetryApplicationService.getHistory(
+                    siteId, factorId, startTime, endTime, maxPoints);
+            String resolution = rollups.isEmpty() ? null : rollups.get(0).getResolution().getCode();
+            return Response.success(FactorHistoryVO.builder()
+                    .resolution(resolution)
+                    .points(rollups.stream()
+                            .map(rollup -> FactorHistoryVO.Point.builder()
+                                    .time(rollup.getBucketTime())
+                                    .min(rollup.getMinValue())
+                                    .max(rollup.getMaxValue())
+                                    .avg(rollup.getAvgValue())
+                                    .count(rollup.getSampleCount())
+                                    .last(rollup.getLastValue())
+                                    .build())
+                            .collect(Collectors.toList()))
+                    .build());
+        } catch (Exception e) {
+            return Response.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 查询站点在日期范围内每个因子每天的数据完整率
+     * 按站点采集间隔把一天划分为时段，完整率为收到读数的时段占应收时段的百分比，当天只计已结束的时段
+     */
+    @GetMapping("/completeness")
+    public Response<List<DataCompletenessVO>> getCompleteness(
+            @RequestParam Integer siteId,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate startDate,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd") LocalDate endDate) {
+        try {
+            List<DataCompleteness> completenessList = telemetryApplicationService.getCompleteness(
+                    siteId, startDate, endDate);
+            LocalDateTime now = LocalDateTime.now();
+            return Response.success(completenessList.stream()
+                    .map(completeness -> {
+                        int expected = completeness.expectedSlotCount(now);
+                        return DataCompletenessVO.builder()
+                                .siteId(completeness.getSiteId())
+                                .factorId(completeness.getFactorId())
+                                .statDate(completeness.getStatDate())
+                                .intervalMinutes(completeness.getIntervalMinutes())
+                                .expectedCount(expected)
+                                .receivedCount(completeness.countReceived(expected))
+                                .completeness(completeness.completenessAt(now))
+                                .build();
+                    })
+                    .collect(Collectors.toList()));
+        } catch (Exception e) {
+            return Response.error(e.getMessage());
+        }
+    }
+
+    /**
+     * 流式查询站点多个因子的历史数据，按LTTB降采样到每个因子不超过maxPoints个点，maxPoints为0时输出原始读数
+     * 结果边查询边以分块传输输出，不在内存中构建完整结果；format为json或csv。
+     * json: {"siteId":..,"resolution":"1h","series":[{"factorId":..,"points":[[毫秒时间戳,值],..],"count":..}]}
+     * csv: factor_id,time,value
+     */
+    @GetMapping("/history/stream")
+    public ResponseEntity<?> streamHistory(
+            @RequestParam Integer siteId,
+            @RequestParam List<Integer> factorIds,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime,
+            @RequestParam(defaultValue = "2000") Integer maxPoints,
+            @RequestParam(defaultValue = "json") String format) {
+        RollupResolution source;
+        try {
+            if (!FORMAT_JSON.equals(format) && !FORMAT_CSV.equals(format)) {
+                throw new IllegalArgumentException("不支持的输出格式: " + format);
+            }
+            source = telemetryApplicationService.prepareHistoryStream(siteId, factorIds, startTime, endTime, maxPoints);
+        } catch (Exception e) {
+            return ResponseEntity.ok(Response.error(e.getMessage()));
+        }
+        StreamingResponseBody body = FORMAT_CSV.equals(format)
+                ? out -> writeHistoryCsv(out, siteId, factorIds, source, startTime, endTime, maxPoints)
+                : out -> writeHistoryJson(out, siteId, factorIds, source, startTime, endTime, maxPoints);
+        MediaType contentType = FORMAT_CSV.equals(format)
+                ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.APPLICATION_JSON;
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
+    private void writeHistoryJson(OutputStream out, Integer siteId, List<Integer> factorIds, RollupResolution source,
+                                  LocalDateTime startTime, LocalDateTime endTime, int maxPoints) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeNumberField("siteId", siteId);
+            generator.writeStringField("resolution", source.getCode());
+            generator.writeArrayFieldStart("series");
+            for (Integer factorId : factorIds) {
+                generator.writeStartObject();
+                generator.writeNumberField("factorId", factorId);
+                generator.writeArrayFieldStart("points");
+                long count = telemetryApplicationService.streamHistory(siteId, factorId, source, startTime, endTime,
+                        maxPoints, (timestampMillis, value) -> {
+                            try {
+                                generator.writeStartArray();
+                                generator.writeNumber(timestampMillis);
+                                generator.writeNumber(value);
+                                generator.writeEndArray();
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+                generator.writeEndArray();
+                generator.writeNumberField("count", count);
+                generator.writeEndObject();
+                generator.flush();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private void writeHistoryCsv(OutputStream out, Integer siteId, List<Integer> factorIds, RollupResolution source,
+                                 LocalDateTime startTime, LocalDateTime endTime, int maxPoints) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write("factor_id,time,value\n");
+        try {
+            for (Integer factorId : factorIds) {
+                String prefix = factorId + ",";
+                telemetryApplicationService.streamHistory(siteId, factorId, source, startTime, endTime, maxPoints,
+                        (timestampMillis, value) -> {
+                            try {
+                                writer.write(prefix);
+                                writer.write(CSV_TIME_FORMATTER.format(Instant.ofEpochMilli(timestampMillis)));
+                                writer.write(',');
+                                writer.write(Double.toString(value));
+                                writer.write('\n');
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+                writer.flush();
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+}
@@ -29,4 +29,6 @@ public class CreateSiteRequest {
     private Integer enterpriseId;
 
     private Boolean isAutoUpload;
+
+    private Integer sampleIntervalMinutes;
 }
@@ -0,0 +1,54 @@
+package com.aquainsight.interfaces.rest.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.Data;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 监测读数批量上报请求
+ */
+@Data
+public class IngestReadingsRequest {
+
+    @NotEmpty(message = "读数列表不能为空")
+    @Size(max = 10000, message = "单批读数不能超过10000条")
+    private List<Reading> readings;
+
+    /**
+     * 单条监测读数
+     */
+    @Data
+    public static class Reading {
+
+        /**
+         * 站点编码，与设备编码至少提供一个
+         */
+        private String siteCode;
+
+        /**
+         * 设备编码
+         */
+        private String deviceCode;
+
+        /**
+         * 因子代码
+         */
+        private String factorCode;
+
+        /**
+         * 监测时间
+         */
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        private LocalDateTime timestamp;
+
+        /**
+         * 监测值
+         */
+        private BigDecimal value;
+    }
+}
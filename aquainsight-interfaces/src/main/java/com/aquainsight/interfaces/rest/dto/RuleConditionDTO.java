@@ -25,13 +25,13 @@ public class RuleConditionDTO {
     private String metric;
 
     /**
-     * 比较操作符: GT, GTE, LT, LTE, EQ, NEQ, BETWEEN, NOT_BETWEEN
+     * 比较操作符: GT, GTE, LT, LTE, EQ, NEQ, BETWEEN, NOT_BETWEEN, ANOMALY
      */
     @NotNull(message = "比较操作符不能为空")
     private String operator;
 
     /**
-     * 阈值（单个阈值时使用）
+     * 阈值（单个阈值时使用；ANOMALY时为偏离基线的z分数阈值）
      */
     private BigDecimal threshold;
 
@@ -44,4 +44,19 @@ public class RuleConditionDTO {
      * 最大阈值（范围判断时使用）
      */
     private BigDecimal maxThreshold;
+
+    /**
+     * 持续时长(分钟)，条件需连续满足该时长才触发
+     */
+    private Integer durationMinutes;
+
+    /**
+     * 采样窗口大小，如"最近5个采样中有3个满足"中的5
+     */
+    private Integer windowSamples;
+
+    /**
+     * 采样窗口内至少满足条件的采样数，如"最近5个采样中有3个满足"中的3
+     */
+    private Integer minMatchedSamples;
 }
@@ -21,6 +21,11 @@ public class UpdateDeviceModelRequest {
      */
     private String specifications;
 
+    /**
+     * 心跳超时时长(秒)，超过该时长未收到数据的设备置为离线，为空时使用系统默认值
+     */
+    private Integer heartbeatTimeoutSeconds;
+
     /**
      * 关联的因子ID (多对一关系)
      */
@@ -23,4 +23,6 @@ public class UpdateSiteRequest {
     private Integer enterpriseId;
 
     private Boolean isAutoUpload;
+
+    private Integer sampleIntervalMinutes;
 }
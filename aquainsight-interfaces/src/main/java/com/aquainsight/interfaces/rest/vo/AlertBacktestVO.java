@@ -0,0 +1,137 @@
+package com.aquainsight.interfaces.rest.vo;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 告警规则回测结果视图对象
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AlertBacktestVO {
+
+    /**
+     * 告警规则ID
+     */
+    private Integer ruleId;
+
+    /**
+     * 告警规则名称
+     */
+    private String ruleName;
+
+    /**
+     * 回测开始时间
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime startTime;
+
+    /**
+     * 回测结束时间
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime endTime;
+
+    /**
+     * 回放的目标对象数
+     */
+    private Integer targetCount;
+
+    /**
+     * 回放的读数数量
+     */
+    private Long observationCount;
+
+    /**
+     * 规则从未触发变为触发的次数
+     */
+    private Long firingCount;
+
+    /**
+     * 扣除静默期后本应产生的告警数
+     */
+    private Long triggerCount;
+
+    /**
+     * 回测耗时(毫秒)
+     */
+    private Long costMillis;
+
+    /**
+     * 有触发的目标对象，按告警数降序
+     */
+    private List<TargetInfo> targets;
+
+    /**
+     * 目标对象回测结果
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TargetInfo {
+        /**
+         * 目标对象类型
+         */
+        private String targetType;
+
+        /**
+         * 目标对象ID
+         */
+        private Integer targetId;
+
+        /**
+         * 规则从未触发变为触发的次数
+         */
+        private Integer firingCount;
+
+        /**
+         * 扣除静默期后本应产生的告警数
+         */
+        private Integer triggerCount;
+
+        /**
+         * 触发时段
+         */
+        private List<EpisodeInfo> timeline;
+
+        /**
+         * 触发时段是否因超过上限被截断
+         */
+        private Boolean truncated;
+    }
+
+    /**
+     * 触发时段
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EpisodeInfo {
+        /**
+         * 开始触发时间
+         */
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        private LocalDateTime startTime;
+
+        /**
+         * 恢复时间，回测结束时仍在触发则为空
+         */
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        private LocalDateTime endTime;
+
+        /**
+         * 是否产生告警
+         */
+        private Boolean alerted;
+    }
+}
@@ -0,0 +1,56 @@
+package com.aquainsight.interfaces.rest.vo;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * 数据完整率视图对象
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DataCompletenessVO {
+
+    /**
+     * 站点ID
+     */
+    private Integer siteId;
+
+    /**
+     * 监测因子ID
+     */
+    private Integer factorId;
+
+    /**
+     * 统计日期
+     */
+    @JsonFormat(pattern = "yyyy-MM-dd")
+    private LocalDate statDate;
+
+    /**
+     * 采集间隔(分钟)
+     */
+    private Integer intervalMinutes;
+
+    /**
+     * 应收时段数，当天只计已结束的时段
+     */
+    private Integer expectedCount;
+
+    /**
+     * 实收时段数
+     */
+    private Integer receivedCount;
+
+    /**
+     * 完整率(百分比)，没有应收时段时为空
+     */
+    private BigDecimal completeness;
+}
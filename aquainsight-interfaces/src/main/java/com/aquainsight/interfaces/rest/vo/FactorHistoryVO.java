@@ -0,0 +1,57 @@
+package com.aquainsight.interfaces.rest.vo;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 监测因子历史数据视图对象
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FactorHistoryVO {
+
+    /**
+     * 实际使用的聚合粒度(raw,1m,1h,1d)，无数据时为空
+     */
+    private String resolution;
+
+    /**
+     * 历史数据点
+     */
+    private List<Point> points;
+
+    /**
+     * 历史数据点，原始粒度下最小值、最大值、平均值和最后值相同
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Point {
+
+        /**
+         * 时间(聚合粒度下为时间桶起始时间)
+         */
+        @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+        private LocalDateTime time;
+
+        private BigDecimal min;
+
+        private BigDecimal max;
+
+        private BigDecimal avg;
+
+        private Integer count;
+
+        private BigDecimal last;
+    }
+}
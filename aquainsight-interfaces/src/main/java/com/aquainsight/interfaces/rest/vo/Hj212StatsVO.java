@@ -0,0 +1,71 @@
+package com.aquainsight.interfaces.rest.vo;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * HJ 212服务端统计视图对象
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Hj212StatsVO {
+
+    /**
+     * 监听端口
+     */
+    private Integer port;
+
+    /**
+     * 当前连接数
+     */
+    private Integer connectionCount;
+
+    /**
+     * 累计接受的连接数
+     */
+    private Long acceptedCount;
+
+    /**
+     * 累计收到的完整帧数
+     */
+    private Long frameCount;
+
+    /**
+     * CRC校验失败的帧数
+     */
+    private Long crcErrorCount;
+
+    /**
+     * 数据段格式错误的帧数
+     */
+    private Long malformedCount;
+
+    /**
+     * 已发送的数据应答数
+     */
+    private Long ackCount;
+
+    /**
+     * 处理线程池排队的报文数
+     */
+    private Integer handlerQueueSize;
+
+    /**
+     * 送入接入管道的读数数
+     */
+    private Long readingCount;
+
+    /**
+     * 被接入管道拒绝的读数数
+     */
+    private Long rejectedReadingCount;
+
+    /**
+     * 因数据标记非正常而跳过的读数数
+     */
+    private Long abnormalFlagCount;
+}
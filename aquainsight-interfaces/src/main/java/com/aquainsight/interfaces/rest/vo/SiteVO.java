@@ -32,6 +32,8 @@ public class SiteVO {
 
     private Boolean isAutoUpload;
 
+    private Integer sampleIntervalMinutes;
+
     private String createTime;
 
     private String updateTime;
@@ -0,0 +1,79 @@
+package com.aquainsight.interfaces.hj212;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Hj212FrameDecoderTest {
+
+    private static final String DATA = "QN=20240101120000000;ST=32;CN=2011;PW=123456;MN=MN001;Flag=5;"
+            + "CP=&&DataTime=20240101120000;w01001-Rtd=7.20,w01001-Flag=N&&";
+
+    private final Hj212FrameDecoder decoder = new Hj212FrameDecoder();
+
+    @Test
+    void decodesFrameSplitAcrossReads() {
+        byte[] frame = Hj212Codec.encode(DATA);
+
+        assertTrue(decode(Arrays.copyOfRange(frame, 0, 1)).isEmpty());
+        assertTrue(decode(Arrays.copyOfRange(frame, 1, 20)).isEmpty());
+        assertEquals(Collections.singletonList(DATA), decode(Arrays.copyOfRange(frame, 20, frame.length)));
+    }
+
+    @Test
+    void decodesConsecutiveFramesInOneRead() {
+        assertEquals(Arrays.asList(DATA, "CN=9014"), decode(concat(Hj212Codec.encode(DATA), Hj212Codec.encode("CN=9014"))));
+    }
+
+    @Test
+    void skipsGarbageBeforeHeader() {
+        byte[] garbage = "noise#\r\n#x".getBytes(StandardCharsets.US_ASCII);
+
+        assertEquals(Collections.singletonList(DATA), decode(concat(garbage, Hj212Codec.encode(DATA))));
+        assertEquals(garbage.length, decoder.getDiscardedBytes());
+    }
+
+    @Test
+    void dropsFrameWithCrcErrorAndResyncs() {
+        byte[] corrupted = Hj212Codec.encode(DATA);
+        corrupted[10] = (byte) (corrupted[10] == 'A' ? 'B' : 'A');
+
+        assertEquals(Collections.singletonList("CN=9014"), decode(concat(corrupted, Hj212Codec.encode("CN=9014"))));
+        assertEquals(1, decoder.getCrcErrors());
+    }
+
+    @Test
+    void resyncsImmediatelyWhenLengthExceedsLimit() {
+        // 长度1025超过标准上限，不应等待1025字节到达后才处理后续报文
+        byte[] oversized = "##1025QN=1".getBytes(StandardCharsets.US_ASCII);
+
+        assertEquals(Collections.singletonList(DATA), decode(concat(oversized, Hj212Codec.encode(DATA))));
+        assertEquals(oversized.length, decoder.getDiscardedBytes());
+    }
+
+    @Test
+    void rejectsEncodingOversizedData() {
+        char[] data = new char[Hj212Codec.MAX_DATA_LENGTH + 1];
+        Arrays.fill(data, 'a');
+
+        assertThrows(IllegalArgumentException.class, () -> Hj212Codec.encode(new String(data)));
+    }
+
+    private List<String> decode(byte[] bytes) {
+        return decoder.decode(ByteBuffer.wrap(bytes));
+    }
+
+    private static byte[] concat(byte[] first, byte[] second) {
+        byte[] result = Arrays.copyOf(first, first.length + second.length);
+        System.arraycopy(second, 0, result, first.length, second.length);
+        return result;
+    }
+}
@@ -77,6 +77,7 @@ const COMPARISON_OPERATORS = [
   { label: '不等于', value: 'NEQ' },
   { label: '在范围内', value: 'BETWEEN' },
   { label: '不在范围内', value: 'NOT_BETWEEN' },
+  { label: '偏离历史基线(z分数)', value: 'ANOMALY' },
 ]
 
 const AlertRules: React.FC = () => {
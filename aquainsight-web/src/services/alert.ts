@@ -18,10 +18,13 @@ export interface AlertRule {
 
 export interface RuleCondition {
   metric: string
-  operator: 'GT' | 'GTE' | 'LT' | 'LTE' | 'EQ' | 'NEQ' | 'BETWEEN' | 'NOT_BETWEEN'
+  operator: 'GT' | 'GTE' | 'LT' | 'LTE' | 'EQ' | 'NEQ' | 'BETWEEN' | 'NOT_BETWEEN' | 'ANOMALY'
   threshold?: number
   minThreshold?: number
   maxThreshold?: number
+  durationMinutes?: number
+  windowSamples?: number
+  minMatchedSamples?: number
 }
 
 export interface CreateAlertRuleRequest {
@@ -52,6 +52,7 @@ CREATE TABLE `device_model` (
   `deleted` tinyint(1) NOT NULL DEFAULT '0' COMMENT '是否删除(0-未删除,1-已删除)',
   `factor_id` int(11) DEFAULT NULL COMMENT '因子id',
   `specifications` varchar(100) DEFAULT NULL COMMENT '规格参数',
+  `heartbeat_timeout_seconds` int(11) DEFAULT NULL COMMENT '心跳超时时长(秒)，为空时使用系统默认值',
   PRIMARY KEY (`id`),
   UNIQUE KEY `uk_model_code` (`model_code`),
   KEY `idx_device_type` (`device_type`),
@@ -160,6 +161,7 @@ CREATE TABLE `site` (
   `address` varchar(255) DEFAULT NULL COMMENT '地址',
   `enterprise_name` varchar(100) DEFAULT NULL COMMENT '企业名称',
   `is_auto_upload` tinyint(1) DEFAULT '0' COMMENT '是否需要自动填报(0-否,1-是)',
+  `sample_interval_minutes` int(11) DEFAULT NULL COMMENT '数据采集间隔(分钟)，为空时使用系统默认值',
   `create_time` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
   `update_time` datetime DEFAULT NULL COMMENT '更新时间',
   `deleted` tinyint(1) NOT NULL DEFAULT '0' COMMENT '是否删除(0-未删除,1-已删除)',
@@ -311,8 +313,97 @@ CREATE TABLE `alert_notify_log` (
   `send_time` datetime DEFAULT NULL COMMENT '发送时间',
   `error_message` varchar(500) DEFAULT NULL COMMENT '失败原因',
   `retry_count` int(11) DEFAULT '0' COMMENT '重试次数',
+  `next_retry_time` datetime DEFAULT NULL COMMENT '下次重试时间，为空表示不再重试',
   `create_time` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '创建时间',
-  PRIMARY KEY (`id`)
+  PRIMARY KEY (`id`),
+  KEY `idx_status_next_retry` (`notify_status`,`next_retry_time`)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='告警通知日志表';
 
 
+-- aquainsight.factor_reading definition
+
+CREATE TABLE `factor_reading` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '读数ID',
+  `site_id` int(11) NOT NULL COMMENT '站点ID',
+  `device_id` int(11) DEFAULT NULL COMMENT '设备ID',
+  `factor_id` int(11) NOT NULL COMMENT '监测因子ID',
+  `reading_time` datetime NOT NULL COMMENT '监测时间',
+  `value` decimal(16,4) NOT NULL COMMENT '监测值',
+  `create_time` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP COMMENT '入库时间',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_site_factor_time` (`site_id`,`factor_id`,`reading_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='因子监测读数表';
+-- aquainsight.factor_reading_rollup definition
+
+CREATE TABLE `factor_reading_rollup` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '聚合ID',
+  `site_id` int(11) NOT NULL COMMENT '站点ID',
+  `factor_id` int(11) NOT NULL COMMENT '监测因子ID',
+  `resolution` varchar(8) NOT NULL COMMENT '聚合粒度(1m-1分钟,1h-1小时,1d-1天)',
+  `bucket_time` datetime NOT NULL COMMENT '时间桶起始时间',
+  `min_value` decimal(16,4) NOT NULL COMMENT '最小值',
+  `max_value` decimal(16,4) NOT NULL COMMENT '最大值',
+  `avg_value` decimal(16,4) NOT NULL COMMENT '平均值',
+  `sample_count` int(11) NOT NULL COMMENT '读数数量',
+  `last_value` decimal(16,4) NOT NULL COMMENT '最后值',
+  `update_time` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_series_bucket` (`site_id`,`factor_id`,`resolution`,`bucket_time`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='因子监测数据聚合表';
+
+
+-- aquainsight.data_completeness definition
+
+CREATE TABLE `data_completeness` (
+  `id` bigint(20) NOT NULL AUTO_INCREMENT COMMENT '主键ID',
+  `site_id` int(11) NOT NULL COMMENT '站点ID',
+  `factor_id` int(11) NOT NULL COMMENT '监测因子ID',
+  `stat_date` date NOT NULL COMMENT '统计日期',
+  `interval_minutes` int(11) NOT NULL COMMENT '采集间隔(分钟)',
+  `received_count` int(11) NOT NULL COMMENT '收到读数的时段数',
+  `slot_bitmap` varbinary(184) NOT NULL COMMENT '时段位图，每8个时段一个字节，低位在前',
+  `update_time` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`id`),
+  UNIQUE KEY `uk_series_date` (`site_id`,`factor_id`,`stat_date`),
+  KEY `idx_stat_date` (`stat_date`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='数据完整率表';
+
+
+-- aquainsight.cluster_fence definition
+
+CREATE TABLE `cluster_fence` (
+  `lease_name` varchar(128) NOT NULL COMMENT '租约名称',
+  `epoch` bigint(20) NOT NULL COMMENT '写入纪元，持有者每次获取租约后递增',
+  `holder_id` varchar(128) NOT NULL COMMENT '持有者实例ID',
+  `update_time` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP COMMENT '更新时间',
+  PRIMARY KEY (`lease_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='集群租约防护表';
+
+
+-- aquainsight.cluster_lease definition
+
+CREATE TABLE `cluster_lease` (
+  `lease_name` varchar(128) NOT NULL COMMENT '租约名称',
+  `holder_id` varchar(128) NOT NULL COMMENT '持有者实例ID',
+  `fencing_token` bigint(20) NOT NULL COMMENT '防护令牌，持有者变更时递增',
+  `expire_time` datetime(3) NOT NULL COMMENT '过期时间，按数据库时间计算',
+  PRIMARY KEY (`lease_name`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='集群租约表';
+
+
+-- aquainsight.cluster_member definition
+
+CREATE TABLE `cluster_member` (
+  `member_id` varchar(128) NOT NULL COMMENT '实例ID',
+  `expire_time` datetime(3) NOT NULL COMMENT '过期时间，超过后视为下线',
+  PRIMARY KEY (`member_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='集群存活实例表';
+
+
+-- aquainsight.device_heartbeat definition
+
+CREATE TABLE `device_heartbeat` (
+  `device_id` int(11) NOT NULL COMMENT '设备实例ID',
+  `last_heartbeat_time` datetime NOT NULL COMMENT '最后心跳时间，各实例定期写入本地收到的最后上报时间',
+  PRIMARY KEY (`device_id`)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COMMENT='设备心跳时间表';